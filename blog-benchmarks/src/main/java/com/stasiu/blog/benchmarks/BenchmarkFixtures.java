@@ -0,0 +1,94 @@
+package com.stasiu.blog.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.TocEntry;
+import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.Tag;
+import com.stasiu.blog.domain.entities.User;
+
+/**
+ * Builds detached entity graphs shaped like production data: every post has an author, a category
+ * and a handful of tags, and categories and tags keep their back references to the posts.
+ */
+final class BenchmarkFixtures {
+
+    private static final String[] WORDS = {
+        "spring", "boot", "java", "latency", "throughput", "cache", "index", "query", "thread",
+        "memory", "request", "response", "database", "transaction", "benchmark", "the", "a", "of", "and"
+    };
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<Post> posts(int count, int categoryCount, int tagCount, int tagsPerPost, int wordsPerPost) {
+        Random random = new Random(42);
+        User author = User.builder()
+            .id(UUID.randomUUID())
+            .name("Benchmark Author")
+            .email("author@example.com")
+            .password("{noop}password")
+            .posts(new ArrayList<>())
+            .createdAt(LocalDateTime.now())
+            .build();
+
+        List<Category> categories = new ArrayList<>(categoryCount);
+        for(int i = 0; i < categoryCount; i++) {
+            categories.add(Category.builder().id(UUID.randomUUID()).name("Category " + i).posts(new ArrayList<>()).build());
+        }
+        List<Tag> tags = new ArrayList<>(tagCount);
+        for(int i = 0; i < tagCount; i++) {
+            tags.add(Tag.builder().id(UUID.randomUUID()).name("tag-" + i).posts(new HashSet<>()).build());
+        }
+
+        List<Post> posts = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            Category category = categories.get(random.nextInt(categoryCount));
+            Set<Tag> postTags = new HashSet<>();
+            while(postTags.size() < Math.min(tagsPerPost, tagCount)) {
+                postTags.add(tags.get(random.nextInt(tagCount)));
+            }
+            LocalDateTime createdAt = LocalDateTime.now().minusHours(i);
+            String content = words(random, wordsPerPost);
+            Post post = Post.builder()
+                .id(UUID.randomUUID())
+                .title("Benchmark post " + i)
+                .content(content)
+                .contentHtml("<p>" + content + "</p>")
+                .tableOfContents(List.of(new TocEntry(2, "Introduction", "introduction"), new TocEntry(2, "Summary", "summary")))
+                .status(i % 10 == 0 ? PostStatus.DRAFT : PostStatus.PUBLISHED)
+                .readingTime(wordsPerPost / 200 + 1)
+                .viewCount(random.nextInt(10_000))
+                .author(author)
+                .category(category)
+                .tags(postTags)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+            author.getPosts().add(post);
+            category.getPosts().add(post);
+            postTags.forEach(tag -> tag.getPosts().add(post));
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    static String words(Random random, int count) {
+        StringBuilder builder = new StringBuilder(count * 7);
+        for(int i = 0; i < count; i++) {
+            if(i > 0) {
+                builder.append(i % 15 == 0 ? "\n\n" : " ");
+            }
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,48 @@
+package com.stasiu.blog.benchmarks;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs JMH with the regular command line options, but writes JSON results to
+ * {@code jmh-results/<version>-<timestamp>.json} unless {@code -rf}/{@code -rff} are given, so
+ * every run leaves a file that can be compared against earlier releases.
+ */
+public final class BenchmarkRunner {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if(commandLineOptions.shouldHelp() || commandLineOptions.shouldList() || commandLineOptions.shouldListProfilers()
+                || commandLineOptions.shouldListResultFormats() || commandLineOptions.shouldListWithParams()
+                || commandLineOptions.getResult().hasValue() || commandLineOptions.getResultFormat().hasValue()) {
+            Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions);
+
+        String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+        File results = new File("jmh-results",
+            (version != null ? version : "dev") + "-" + LocalDateTime.now().format(TIMESTAMP) + ".json");
+        if(!results.getParentFile().isDirectory() && !results.getParentFile().mkdirs()) {
+            throw new IllegalStateException("Cannot create results directory " + results.getParentFile());
+        }
+        new Runner(options
+            .resultFormat(ResultFormatType.JSON)
+            .result(results.getPath())
+            .build()).run();
+    }
+}
@@ -0,0 +1,65 @@
+package com.stasiu.blog.benchmarks;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.ReflectionUtils;
+
+import com.stasiu.blog.domain.entities.User;
+import com.stasiu.blog.security.BlogUserDetails;
+import com.stasiu.blog.services.implementation.AuthenticationServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// The user lookup is served from memory so the numbers cover token parsing and signing only.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private AuthenticationServiceImpl authenticationService;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        userDetails = new BlogUserDetails(User.builder()
+            .email("author@example.com")
+            .password("{noop}password")
+            .name("Benchmark Author")
+            .build());
+        authenticationService = new AuthenticationServiceImpl(
+            authentication -> authentication,
+            username -> userDetails,
+            new SimpleMeterRegistry()
+        );
+        Field secretKey = ReflectionUtils.findField(AuthenticationServiceImpl.class, "secretKey");
+        ReflectionUtils.makeAccessible(secretKey);
+        ReflectionUtils.setField(secretKey, authenticationService, "benchmark-secret-key-that-is-long-enough-for-hs256");
+        token = authenticationService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return authenticationService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public UserDetails validateToken() {
+        return authenticationService.validateToken(token);
+    }
+}
@@ -0,0 +1,84 @@
+package com.stasiu.blog.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.stasiu.blog.domain.ContentFormat;
+import com.stasiu.blog.domain.dtos.CategoryDto;
+import com.stasiu.blog.domain.dtos.PostDto;
+import com.stasiu.blog.domain.dtos.TagResponse;
+import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.Tag;
+import com.stasiu.blog.mappers.CategoryMapper;
+import com.stasiu.blog.mappers.CategoryMapperImpl;
+import com.stasiu.blog.mappers.PostMapper;
+import com.stasiu.blog.mappers.PostMapperImpl;
+import com.stasiu.blog.mappers.TagMapper;
+import com.stasiu.blog.mappers.TagMapperImpl;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"20", "200"})
+    private int posts;
+
+    private final PostMapper postMapper = new PostMapperImpl();
+    private final CategoryMapper categoryMapper = new CategoryMapperImpl();
+    private final TagMapper tagMapper = new TagMapperImpl();
+
+    private List<Post> postList;
+    private Post post;
+    private List<Category> categories;
+    private List<Tag> tags;
+
+    @Setup
+    public void setUp() {
+        postList = BenchmarkFixtures.posts(posts, 8, 40, 5, 800);
+        post = postList.get(1);
+        categories = postList.stream().map(Post::getCategory).distinct().toList();
+        tags = postList.stream().flatMap(p -> p.getTags().stream()).distinct().toList();
+    }
+
+    @Benchmark
+    public PostDto postToDto() {
+        return postMapper.toDto(post);
+    }
+
+    @Benchmark
+    public List<PostDto> postListToDto() {
+        return postList.stream().map(p -> postMapper.toDto(p, ContentFormat.MARKDOWN)).toList();
+    }
+
+    @Benchmark
+    public List<PostDto> postListToHtmlDto() {
+        return postList.stream().map(p -> postMapper.toDto(p, ContentFormat.HTML)).toList();
+    }
+
+    @Benchmark
+    public List<CategoryDto> categoriesToDto() {
+        return categories.stream().map(categoryMapper::toDto).toList();
+    }
+
+    @Benchmark
+    public List<TagResponse> tagsToResponse() {
+        return tags.stream().map(tagMapper::toTagResponse).toList();
+    }
+}
@@ -0,0 +1,52 @@
+package com.stasiu.blog.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.stasiu.blog.domain.RenderedContent;
+import com.stasiu.blog.services.implementation.MarkdownPostContentRenderer;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MarkdownPostContentRendererBenchmark {
+
+    @Param({"10", "100"})
+    private int sections;
+
+    private MarkdownPostContentRenderer renderer;
+    private String markdown;
+
+    @Setup
+    public void setUp() {
+        renderer = new MarkdownPostContentRenderer();
+        StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < sections; i++) {
+            builder.append("## Section ").append(i).append("\n\n")
+                .append("Some **bold** text, a [link](https://example.com/").append(i).append(") and `inline code`.\n\n")
+                .append("- first item\n- second item\n\n")
+                .append("| a | b |\n|---|---|\n| 1 | 2 |\n\n")
+                .append("```java\nSystem.out.println(").append(i).append(");\n```\n\n");
+        }
+        markdown = builder.toString();
+    }
+
+    @Benchmark
+    public RenderedContent render() {
+        return renderer.render(markdown);
+    }
+}
@@ -0,0 +1,58 @@
+package com.stasiu.blog.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stasiu.blog.domain.ContentFormat;
+import com.stasiu.blog.domain.dtos.PostDto;
+import com.stasiu.blog.mappers.PostMapper;
+import com.stasiu.blog.mappers.PostMapperImpl;
+
+// Jackson2ObjectMapperBuilder applies the same defaults Spring Boot uses for the HTTP converters.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostDtoSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int posts;
+
+    @Param({"markdown", "html"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private List<PostDto> postDtos;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        PostMapper postMapper = new PostMapperImpl();
+        ContentFormat contentFormat = ContentFormat.fromValue(format);
+        postDtos = BenchmarkFixtures.posts(posts, 8, 40, 5, 800).stream()
+            .map(post -> postMapper.toDto(post, contentFormat))
+            .toList();
+    }
+
+    @Benchmark
+    public byte[] serializePostList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(postDtos);
+    }
+}
@@ -0,0 +1,48 @@
+package com.stasiu.blog.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.stasiu.blog.domain.ReadingTime;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadingTimeBenchmark {
+
+    @Param({"200", "2000", "10000"})
+    private int words;
+
+    private String content;
+
+    @Setup
+    public void setUp() {
+        String[] vocabulary = {"spring", "boot", "java", "latency", "cache", "the", "a", "of", "and"};
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < words; i++) {
+            builder.append(vocabulary[random.nextInt(vocabulary.length)]).append(i % 12 == 11 ? "\n" : " ");
+        }
+        content = builder.toString();
+    }
+
+    @Benchmark
+    public Integer calculateReadingTime() {
+        return ReadingTime.of(content);
+    }
+}
@@ -0,0 +1,136 @@
+package com.stasiu.blog.loadtest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.Tag;
+import com.stasiu.blog.domain.entities.User;
+import com.stasiu.blog.repositories.CategoryRepository;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.repositories.TagRepository;
+import com.stasiu.blog.repositories.UserRepository;
+
+/**
+ * Inserts users, categories, tags and published posts through the application's own repositories.
+ * Names carry a per-run prefix so repeated runs against a persistent database do not collide.
+ */
+class DataSeeder {
+
+    static final String PASSWORD = "loadtest-password";
+
+    private static final int BATCH_SIZE = 500;
+    private static final int TAGS_PER_POST = 4;
+    private static final String[] WORDS = {
+        "spring", "latency", "cache", "index", "query", "thread", "request", "response", "token",
+        "blog", "post", "category", "tag", "author", "render", "markdown", "heap", "pool", "socket"
+    };
+
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+    private final PostRepository postRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final Random random = new Random(42);
+
+    DataSeeder(UserRepository userRepository, CategoryRepository categoryRepository, TagRepository tagRepository,
+            PostRepository postRepository, PasswordEncoder passwordEncoder, TransactionTemplate transactionTemplate) {
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.tagRepository = tagRepository;
+        this.postRepository = postRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    SeedData seed(LoadTestOptions options) {
+        String prefix = "lt" + Long.toString(System.currentTimeMillis(), 36);
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+
+        List<User> users = transactionTemplate.execute(status -> {
+            List<User> created = new ArrayList<>();
+            for(int i = 0; i < options.users(); i++) {
+                created.add(User.builder()
+                    .email(prefix + "-user-" + i + "@loadtest.local")
+                    .password(encodedPassword)
+                    .name("Load Test User " + i)
+                    .posts(new ArrayList<>())
+                    .build());
+            }
+            return userRepository.saveAll(created);
+        });
+        List<Category> categories = transactionTemplate.execute(status -> {
+            List<Category> created = new ArrayList<>();
+            for(int i = 0; i < options.categories(); i++) {
+                created.add(Category.builder().name(prefix + "-category-" + i).posts(new ArrayList<>()).build());
+            }
+            return categoryRepository.saveAll(created);
+        });
+        List<Tag> tags = transactionTemplate.execute(status -> {
+            List<Tag> created = new ArrayList<>();
+            for(int i = 0; i < options.tags(); i++) {
+                created.add(Tag.builder().name(prefix + "-tag-" + i).posts(new HashSet<>()).build());
+            }
+            return tagRepository.saveAll(created);
+        });
+
+        List<UUID> postIds = new ArrayList<>(options.posts());
+        for(int offset = 0; offset < options.posts(); offset += BATCH_SIZE) {
+            int batchSize = Math.min(BATCH_SIZE, options.posts() - offset);
+            postIds.addAll(transactionTemplate.execute(status -> {
+                List<Post> batch = new ArrayList<>(batchSize);
+                for(int i = 0; i < batchSize; i++) {
+                    batch.add(post(users, categories, tags));
+                }
+                return postRepository.saveAll(batch).stream().map(Post::getId).toList();
+            }));
+        }
+
+        return new SeedData(
+            users.stream().map(User::getEmail).toList(),
+            categories.stream().map(Category::getId).toList(),
+            tags.stream().map(Tag::getId).toList(),
+            postIds
+        );
+    }
+
+    private Post post(List<User> users, List<Category> categories, List<Tag> tags) {
+        Set<Tag> postTags = new HashSet<>();
+        int tagCount = Math.min(TAGS_PER_POST, tags.size());
+        while(postTags.size() < tagCount) {
+            postTags.add(tags.get(random.nextInt(tags.size())));
+        }
+        String content = content(300 + random.nextInt(1200));
+        return Post.builder()
+            .title("Load test post " + random.nextInt(1_000_000))
+            .content(content)
+            .status(PostStatus.PUBLISHED)
+            .readingTime(Math.max(1, content.split(" ").length / 200))
+            .tableOfContents(new ArrayList<>())
+            .author(users.get(random.nextInt(users.size())))
+            .category(categories.get(random.nextInt(categories.size())))
+            .tags(postTags)
+            .build();
+    }
+
+    private String content(int words) {
+        StringBuilder content = new StringBuilder("# Heading\n\n");
+        for(int i = 0; i < words; i++) {
+            content.append(WORDS[random.nextInt(WORDS.length)]).append(i % 40 == 39 ? "\n\n" : " ");
+        }
+        return content.toString();
+    }
+
+    record SeedData(List<String> userEmails, List<UUID> categoryIds, List<UUID> tagIds, List<UUID> postIds) {
+    }
+}
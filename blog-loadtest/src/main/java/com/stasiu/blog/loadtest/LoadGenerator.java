@@ -0,0 +1,239 @@
+package com.stasiu.blog.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stasiu.blog.loadtest.DataSeeder.SeedData;
+import com.stasiu.blog.loadtest.ResourceSampler.ResourceUsage;
+
+/**
+ * Closed-loop load: every worker sends its next request as soon as the previous one returns, so
+ * the offered load is set by {@code concurrency}. Latencies are recorded in microseconds; the
+ * warmup interval is recorded and then thrown away.
+ */
+class LoadGenerator {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUri;
+    private final URI readBaseUri;
+    private final LoadTestOptions options;
+    private final SeedData seedData;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final Map<Scenario, Recorder> recorders = new EnumMap<>(Scenario.class);
+    private final Map<Scenario, LongAdder> errors = new EnumMap<>(Scenario.class);
+    private final Scenario[] weightedScenarios;
+
+    private volatile boolean running = true;
+
+    LoadGenerator(URI baseUri, URI readBaseUri, LoadTestOptions options, SeedData seedData, ObjectMapper objectMapper) {
+        this.baseUri = baseUri;
+        this.readBaseUri = readBaseUri;
+        this.options = options;
+        this.seedData = seedData;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+        List<Scenario> weighted = new ArrayList<>();
+        options.mix().forEach((scenario, weight) -> {
+            for(int i = 0; i < weight; i++) {
+                weighted.add(scenario);
+            }
+        });
+        this.weightedScenarios = weighted.toArray(Scenario[]::new);
+
+        for(Scenario scenario : Scenario.values()) {
+            recorders.put(scenario, new Recorder(MAX_LATENCY_MICROS, 3));
+            errors.put(scenario, new LongAdder());
+        }
+    }
+
+    RunResult run(ResourceSampler resourceSampler) throws InterruptedException {
+        // Only workers that create posts need a token; thousands of read-only workers would wait on logins.
+        boolean creates = options.mix().getOrDefault(Scenario.CREATE, 0) > 0;
+        try(ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                for(int i = 0; i < options.concurrency(); i++) {
+                    String token = creates ? login(seedData.userEmails().get(i % seedData.userEmails().size())) : null;
+                    workers.submit(() -> work(token));
+                }
+
+                Thread.sleep(options.warmup().toMillis());
+                for(Scenario scenario : Scenario.values()) {
+                    recorders.get(scenario).reset();
+                    errors.get(scenario).reset();
+                }
+                resourceSampler.reset();
+
+                Thread.sleep(options.duration().toMillis());
+                Map<Scenario, ScenarioResult> results = new EnumMap<>(Scenario.class);
+                for(Scenario scenario : Scenario.values()) {
+                    results.put(scenario, new ScenarioResult(
+                        recorders.get(scenario).getIntervalHistogram(),
+                        errors.get(scenario).sum()
+                    ));
+                }
+                return new RunResult(results, resourceSampler.usage());
+            } finally {
+                running = false;
+            }
+        }
+    }
+
+    // Empty listings are cheap, so a filter that matches nothing would flatter the CATEGORY and TAG numbers.
+    void verifyFilteredListings() {
+        if(options.mix().getOrDefault(Scenario.CATEGORY, 0) > 0) {
+            requireListedPosts("/api/v1/posts?categoryId=", seedData.categoryIds());
+        }
+        if(options.mix().getOrDefault(Scenario.TAG, 0) > 0) {
+            requireListedPosts("/api/v1/posts?tagId=", seedData.tagIds());
+        }
+    }
+
+    private void requireListedPosts(String path, List<UUID> ids) {
+        for(UUID id : ids) {
+            try {
+                HttpResponse<String> response = httpClient.send(get(path + id), HttpResponse.BodyHandlers.ofString());
+                if(response.statusCode() != 200) {
+                    throw new IllegalStateException(path + id + " failed with status " + response.statusCode());
+                }
+                if(objectMapper.readTree(response.body()).size() > 0) {
+                    return;
+                }
+            } catch(IOException e) {
+                throw new IllegalStateException(path + id + " failed", e);
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while checking " + path, e);
+            }
+        }
+        throw new IllegalStateException("No " + path + " listing returned any of the seeded posts");
+    }
+
+    private void work(String token) {
+        while(running) {
+            Scenario scenario = weightedScenarios[ThreadLocalRandom.current().nextInt(weightedScenarios.length)];
+            HttpRequest request = request(scenario, token);
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if(response.statusCode() >= 400) {
+                    errors.get(scenario).increment();
+                }
+            } catch(IOException e) {
+                errors.get(scenario).increment();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            recorders.get(scenario).recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+        }
+    }
+
+    private HttpRequest request(Scenario scenario, String token) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch(scenario) {
+            case LIST -> get("/api/v1/posts");
+            case DETAIL -> get("/api/v1/posts/" + pick(seedData.postIds(), random));
+            case CATEGORY -> get("/api/v1/posts?categoryId=" + pick(seedData.categoryIds(), random));
+            case TAG -> get("/api/v1/posts?tagId=" + pick(seedData.tagIds(), random));
+            case LOGIN -> post("/api/v1/auth/login", loginBody(pick(seedData.userEmails(), random)), null);
+            case CREATE -> post("/api/v1/posts", createPostBody(random), token);
+        };
+    }
+
+    private String login(String email) {
+        try {
+            HttpResponse<String> response = httpClient.send(
+                post("/api/v1/auth/login", loginBody(email), null), HttpResponse.BodyHandlers.ofString());
+            if(response.statusCode() != 200) {
+                throw new IllegalStateException("Login for " + email + " failed with status " + response.statusCode());
+            }
+            JsonNode body = objectMapper.readTree(response.body());
+            return body.get("token").asText();
+        } catch(IOException e) {
+            throw new IllegalStateException("Login for " + email + " failed", e);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while logging in", e);
+        }
+    }
+
+    private String loginBody(String email) {
+        return json(Map.of("email", email, "password", DataSeeder.PASSWORD));
+    }
+
+    private String createPostBody(ThreadLocalRandom random) {
+        List<UUID> tagIds = List.of(pick(seedData.tagIds(), random), pick(seedData.tagIds(), random)).stream()
+            .distinct()
+            .toList();
+        return json(Map.of(
+            "title", "Load test post " + random.nextInt(1_000_000),
+            "content", "# Load test\n\nCreated while measuring request latency under load.",
+            "categoryId", pick(seedData.categoryIds(), random),
+            "tagIds", tagIds,
+            "status", "PUBLISHED"
+        ));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(readBaseUri.resolve(path))
+            .timeout(REQUEST_TIMEOUT)
+            .GET()
+            .build();
+    }
+
+    private HttpRequest post(String path, String body, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body));
+        if(token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch(IOException e) {
+            throw new IllegalStateException("Cannot serialize request body", e);
+        }
+    }
+
+    private static <T> T pick(List<T> values, ThreadLocalRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    record ScenarioResult(Histogram histogram, long errors) {
+    }
+
+    record RunResult(Map<Scenario, ScenarioResult> scenarios, ResourceUsage resources) {
+    }
+}
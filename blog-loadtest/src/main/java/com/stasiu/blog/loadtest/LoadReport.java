@@ -0,0 +1,118 @@
+package com.stasiu.blog.loadtest;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+import com.stasiu.blog.loadtest.LoadGenerator.RunResult;
+import com.stasiu.blog.loadtest.LoadGenerator.ScenarioResult;
+import com.stasiu.blog.loadtest.ResourceSampler.ResourceUsage;
+
+/**
+ * JSON shape of a run. Latencies are in milliseconds, throughput in requests per second over the
+ * measured interval only; resources are peaks sampled over the same interval.
+ */
+record LoadReport(
+        Instant startedAt,
+        String version,
+        Configuration configuration,
+        long totalRequests,
+        long totalErrors,
+        double throughput,
+        ResourceUsage resources,
+        Map<String, EndpointReport> endpoints) {
+
+    static LoadReport of(Instant startedAt, LoadTestOptions options, RunResult run) {
+        Map<Scenario, ScenarioResult> results = run.scenarios();
+        double seconds = options.duration().toMillis() / 1000.0;
+        Map<String, EndpointReport> endpoints = new LinkedHashMap<>();
+        long totalRequests = 0;
+        long totalErrors = 0;
+        for(Map.Entry<Scenario, ScenarioResult> entry : results.entrySet()) {
+            if(options.mix().getOrDefault(entry.getKey(), 0) == 0) {
+                continue;
+            }
+            EndpointReport endpoint = EndpointReport.of(entry.getValue(), seconds);
+            endpoints.put(entry.getKey().getName(), endpoint);
+            totalRequests += endpoint.requests();
+            totalErrors += endpoint.errors();
+        }
+        String version = LoadReport.class.getPackage().getImplementationVersion();
+        return new LoadReport(
+            startedAt,
+            version != null ? version : "dev",
+            Configuration.of(options),
+            totalRequests,
+            totalErrors,
+            totalRequests / seconds,
+            run.resources(),
+            endpoints
+        );
+    }
+
+    record Configuration(
+            String database,
+            String stack,
+            int users,
+            int categories,
+            int tags,
+            int posts,
+            int concurrency,
+            long warmupSeconds,
+            long durationSeconds,
+            Map<String, Integer> mix) {
+
+        static Configuration of(LoadTestOptions options) {
+            Map<String, Integer> mix = new LinkedHashMap<>();
+            options.mix().forEach((scenario, weight) -> mix.put(scenario.getName(), weight));
+            return new Configuration(
+                options.embeddedDatabase() ? "h2" : options.jdbcUrl(),
+                options.stack().name().toLowerCase(Locale.ROOT),
+                options.users(),
+                options.categories(),
+                options.tags(),
+                options.posts(),
+                options.concurrency(),
+                options.warmup().toSeconds(),
+                options.duration().toSeconds(),
+                mix
+            );
+        }
+    }
+
+    record EndpointReport(
+            long requests,
+            long errors,
+            double throughput,
+            double mean,
+            double p50,
+            double p90,
+            double p95,
+            double p99,
+            double p999,
+            double max) {
+
+        static EndpointReport of(ScenarioResult result, double seconds) {
+            Histogram histogram = result.histogram();
+            return new EndpointReport(
+                histogram.getTotalCount(),
+                result.errors(),
+                histogram.getTotalCount() / seconds,
+                millis(histogram.getMean()),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(95)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue())
+            );
+        }
+
+        private static double millis(double micros) {
+            return Math.round(micros) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.stasiu.blog.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.stasiu.blog.BlogApplication;
+import com.stasiu.blog.loadtest.DataSeeder.SeedData;
+import com.stasiu.blog.loadtest.LoadGenerator.RunResult;
+import com.stasiu.blog.loadtest.LoadTestOptions.Stack;
+import com.stasiu.blog.reactive.ReactiveReadServer;
+import com.stasiu.blog.repositories.CategoryRepository;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.repositories.TagRepository;
+import com.stasiu.blog.repositories.UserRepository;
+import com.stasiu.blog.services.InvalidationListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Boots the blog on a random port, seeds it, drives the configured traffic mix against it over
+ * real HTTP and writes a latency report. The application runs in the same JVM as the load
+ * generator, so pin both to the same box for comparable numbers.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Instant startedAt = Instant.now();
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BlogApplication.class)
+            .run(applicationArguments(options));
+        try {
+            System.err.printf("Seeding %d posts, %d users, %d categories, %d tags%n",
+                options.posts(), options.users(), options.categories(), options.tags());
+            SeedData seedData = new DataSeeder(
+                context.getBean(UserRepository.class),
+                context.getBean(CategoryRepository.class),
+                context.getBean(TagRepository.class),
+                context.getBean(PostRepository.class),
+                context.getBean(PasswordEncoder.class),
+                new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+            ).seed(options);
+            // The seed went around the services, so every index and cache starts over from the database.
+            context.getBeansOfType(InvalidationListener.class).values().forEach(InvalidationListener::onFullFlush);
+
+            URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            URI readBaseUri = options.stack() == Stack.REACTIVE
+                ? URI.create("http://localhost:" + context.getBean(ReactiveReadServer.class).getPort())
+                : baseUri;
+            System.err.printf("Running %d workers against %s (reads on %s): %ds warmup, %ds measured%n",
+                options.concurrency(), baseUri, readBaseUri, options.warmup().toSeconds(), options.duration().toSeconds());
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            LoadGenerator loadGenerator = new LoadGenerator(baseUri, readBaseUri, options, seedData, objectMapper);
+            loadGenerator.verifyFilteredListings();
+            RunResult result;
+            try(ResourceSampler resourceSampler = new ResourceSampler(context.getBean(MeterRegistry.class))) {
+                result = loadGenerator.run(resourceSampler);
+            }
+
+            writeReport(LoadReport.of(startedAt, options, result), options.output(),
+                objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT));
+        } finally {
+            SpringApplication.exit(context);
+        }
+    }
+
+    // Passed as command line arguments because those take precedence over the application's own properties.
+    private static String[] applicationArguments(LoadTestOptions options) {
+        List<String> arguments = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.datasource.url=" + options.jdbcUrl(),
+            "--spring.datasource.username=" + options.jdbcUsername(),
+            "--spring.datasource.password=" + options.jdbcPassword(),
+            "--spring.cloud.vault.enabled=false",
+            "--spring.config.on-not-found=ignore",
+            "--jwt.secret=load-test-secret-key-that-is-long-enough-for-hs256",
+            "--blog.rate-limit.auth.capacity=1000000000",
+            "--blog.rate-limit.read.capacity=1000000000",
+            "--blog.rate-limit.write.capacity=1000000000",
+            "--logging.level.root=WARN",
+            "--logging.level.org.springframework.cloud.vault=WARN",
+            "--logging.level.org.springframework.vault=WARN",
+            "--logging.level.org.springframework.cloud.config=WARN"
+        ));
+        if(options.stack() == Stack.REACTIVE) {
+            arguments.add("--blog.reactive.enabled=true");
+            arguments.add("--blog.reactive.port=0");
+            arguments.add("--blog.reactive.r2dbc.url=" + options.r2dbcUrl());
+        } else {
+            arguments.add("--blog.reactive.enabled=false");
+        }
+        if(options.embeddedDatabase()) {
+            arguments.add("--blog.invalidation.transport=in-memory");
+            arguments.add("--spring.jpa.hibernate.ddl-auto=create-drop");
+            arguments.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        }
+        return arguments.toArray(String[]::new);
+    }
+
+    private static void writeReport(LoadReport report, Path output, ObjectMapper objectMapper) throws IOException {
+        String json = objectMapper.writeValueAsString(report);
+        System.out.println(json);
+        Path parent = output.toAbsolutePath().getParent();
+        if(parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(output, json);
+        System.err.println("Report written to " + output.toAbsolutePath());
+    }
+}
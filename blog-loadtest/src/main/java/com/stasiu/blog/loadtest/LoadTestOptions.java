@@ -0,0 +1,122 @@
+package com.stasiu.blog.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line options in {@code --name=value} form. Everything has a default so a bare run
+ * boots on in-memory H2 and drives the default traffic mix.
+ */
+record LoadTestOptions(
+        String jdbcUrl,
+        String jdbcUsername,
+        String jdbcPassword,
+        String r2dbcUrl,
+        Stack stack,
+        int users,
+        int categories,
+        int tags,
+        int posts,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        Map<Scenario, Integer> mix,
+        Path output) {
+
+    private static final String H2_URL = "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1";
+    private static final String H2_R2DBC_URL = "r2dbc:h2:mem:///loadtest?options=DB_CLOSE_DELAY=-1";
+
+    /**
+     * Which server answers the read scenarios: the servlet controllers or the reactive routes.
+     * Logins and post creation always go to the servlet controllers.
+     */
+    enum Stack {
+        MVC, REACTIVE
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for(String arg : args) {
+            if(!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        String jdbcUrl = values.getOrDefault("jdbc-url", H2_URL);
+        LoadTestOptions options = new LoadTestOptions(
+            jdbcUrl,
+            values.getOrDefault("jdbc-username", "sa"),
+            values.getOrDefault("jdbc-password", ""),
+            values.getOrDefault("r2dbc-url", r2dbcUrl(jdbcUrl)),
+            Stack.valueOf(values.getOrDefault("stack", "mvc").toUpperCase(Locale.ROOT)),
+            intValue(values, "users", 50),
+            intValue(values, "categories", 20),
+            intValue(values, "tags", 100),
+            intValue(values, "posts", 5000),
+            intValue(values, "concurrency", 32),
+            Duration.ofSeconds(intValue(values, "warmup-seconds", 15)),
+            Duration.ofSeconds(intValue(values, "duration-seconds", 60)),
+            mix(values.get("mix")),
+            Path.of(values.getOrDefault("output", "loadtest-report.json"))
+        );
+        if(options.users() < 1 || options.categories() < 1 || options.tags() < 1 || options.posts() < 1 || options.concurrency() < 1) {
+            throw new IllegalArgumentException("Seed sizes and concurrency must be positive");
+        }
+        if(options.stack() == Stack.REACTIVE && options.r2dbcUrl() == null) {
+            throw new IllegalArgumentException("Cannot derive an R2DBC URL from " + jdbcUrl + ", pass --r2dbc-url");
+        }
+        return options;
+    }
+
+    boolean embeddedDatabase() {
+        return jdbcUrl.startsWith("jdbc:h2:");
+    }
+
+    // jdbc:postgresql://host/db becomes r2dbc:postgresql://host/db; H2 is shared through its in-memory name.
+    private static String r2dbcUrl(String jdbcUrl) {
+        if(jdbcUrl.equals(H2_URL)) {
+            return H2_R2DBC_URL;
+        }
+        if(jdbcUrl.startsWith("jdbc:postgresql:")) {
+            return "r2dbc:" + jdbcUrl.substring("jdbc:".length());
+        }
+        return null;
+    }
+
+    // --mix=list:30,detail:40,category:10,tag:10,login:5,create:5
+    private static Map<Scenario, Integer> mix(String value) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        if(value == null) {
+            for(Scenario scenario : Scenario.values()) {
+                mix.put(scenario, scenario.getDefaultWeight());
+            }
+            return mix;
+        }
+        for(String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            if(parts.length != 2) {
+                throw new IllegalArgumentException("Expected scenario:weight but got " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if(weight < 0) {
+                throw new IllegalArgumentException("Weights must not be negative: " + entry);
+            }
+            mix.put(Scenario.fromName(parts[0].trim()), weight);
+        }
+        if(mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("At least one scenario needs a positive weight");
+        }
+        return mix;
+    }
+
+    private static int intValue(Map<String, String> values, String name, int defaultValue) {
+        String value = values.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+}
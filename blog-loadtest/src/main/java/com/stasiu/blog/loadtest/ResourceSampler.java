@@ -0,0 +1,107 @@
+package com.stasiu.blog.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+
+/**
+ * Samples what the server holds on to while the load runs: platform threads, split into Tomcat
+ * request threads and reactive event loop threads by name, and open JDBC and R2DBC connections.
+ * Only peaks are kept; the load generator's own workers are virtual threads and do not show up.
+ */
+class ResourceSampler implements AutoCloseable {
+
+    private static final Duration INTERVAL = Duration.ofMillis(100);
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "loadtest-resource-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private int peakLiveThreads;
+    private int peakTomcatThreads;
+    private int peakEventLoopThreads;
+    private double peakJdbcConnections;
+    private double peakR2dbcConnections;
+    private double peakPendingR2dbcAcquires;
+
+    ResourceSampler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        scheduler.scheduleAtFixedRate(this::sample, 0, INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void reset() {
+        threads.resetPeakThreadCount();
+        peakLiveThreads = 0;
+        peakTomcatThreads = 0;
+        peakEventLoopThreads = 0;
+        peakJdbcConnections = 0;
+        peakR2dbcConnections = 0;
+        peakPendingR2dbcAcquires = 0;
+    }
+
+    synchronized ResourceUsage usage() {
+        return new ResourceUsage(
+            Math.max(peakLiveThreads, threads.getPeakThreadCount()),
+            peakTomcatThreads,
+            peakEventLoopThreads,
+            (int) peakJdbcConnections,
+            (int) peakR2dbcConnections,
+            (int) peakPendingR2dbcAcquires);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private synchronized void sample() {
+        int tomcat = 0;
+        int eventLoop = 0;
+        for(ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if(info == null) {
+                continue;
+            }
+            if(info.getThreadName().startsWith("http-nio-")) {
+                tomcat++;
+            } else if(info.getThreadName().startsWith("blog-reactive-")) {
+                eventLoop++;
+            }
+        }
+        peakLiveThreads = Math.max(peakLiveThreads, threads.getThreadCount());
+        peakTomcatThreads = Math.max(peakTomcatThreads, tomcat);
+        peakEventLoopThreads = Math.max(peakEventLoopThreads, eventLoop);
+        peakJdbcConnections = Math.max(peakJdbcConnections, gauge("hikaricp.connections.active", null));
+        peakR2dbcConnections = Math.max(peakR2dbcConnections, gauge("blog.reactive.connections", "acquired"));
+        peakPendingR2dbcAcquires = Math.max(peakPendingR2dbcAcquires, gauge("blog.reactive.connections.pending", null));
+    }
+
+    private double gauge(String name, String state) {
+        Search search = meterRegistry.find(name);
+        if(state != null) {
+            search = search.tag("state", state);
+        }
+        Gauge gauge = search.gauge();
+        return gauge != null ? gauge.value() : 0;
+    }
+
+    record ResourceUsage(
+            int peakLiveThreads,
+            int peakTomcatThreads,
+            int peakEventLoopThreads,
+            int peakJdbcConnections,
+            int peakR2dbcConnections,
+            int peakPendingR2dbcAcquires) {
+    }
+}
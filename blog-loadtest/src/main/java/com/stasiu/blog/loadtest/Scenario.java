@@ -0,0 +1,37 @@
+package com.stasiu.blog.loadtest;
+
+import java.util.Locale;
+
+enum Scenario {
+    LIST("list", 30),
+    DETAIL("detail", 40),
+    CATEGORY("category", 10),
+    TAG("tag", 10),
+    LOGIN("login", 5),
+    CREATE("create", 5);
+
+    private final String name;
+    private final int defaultWeight;
+
+    Scenario(String name, int defaultWeight) {
+        this.name = name;
+        this.defaultWeight = defaultWeight;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    static Scenario fromName(String name) {
+        for(Scenario scenario : values()) {
+            if(scenario.name.equals(name.toLowerCase(Locale.ROOT))) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario: " + name);
+    }
+}
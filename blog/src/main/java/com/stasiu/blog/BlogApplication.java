@@ -2,8 +2,10 @@ package com.stasiu.blog;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// The reactive read routes build their own R2DBC pool; an auto-configured one would replace the JDBC DataSource.
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class BlogApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,106 @@
+package com.stasiu.blog.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.stasiu.blog.domain.FeedEntry;
+import com.stasiu.blog.domain.InvalidationMessage;
+import com.stasiu.blog.domain.OutboxBacklog;
+import com.stasiu.blog.domain.PostMetadata;
+import com.stasiu.blog.domain.PostTagRow;
+import com.stasiu.blog.domain.ScheduledPublication;
+import com.stasiu.blog.domain.SitemapEntry;
+import com.stasiu.blog.domain.TocEntry;
+import com.stasiu.blog.domain.dtos.ApiErrorResponse;
+import com.stasiu.blog.domain.dtos.ArchiveMonthDto;
+import com.stasiu.blog.domain.dtos.ArchivePostDto;
+import com.stasiu.blog.domain.dtos.CommentDto;
+import com.stasiu.blog.domain.dtos.PostRevisionSummaryDto;
+import com.stasiu.blog.domain.events.PostCreated;
+import com.stasiu.blog.domain.events.PostDeleted;
+import com.stasiu.blog.domain.events.PostEvent;
+import com.stasiu.blog.domain.events.PostUpdated;
+
+/**
+ * Hints for what Spring AOT cannot discover on its own when building a native image: types Jackson
+ * binds outside of controllers, JPQL constructor expressions, the classes jjwt-api instantiates by
+ * name, the entity table commonmark loads from the classpath, and the ImageIO plugins and colour
+ * profiles the thumbnails are rendered with.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.BlogRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class BlogRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final String[] JJWT_REFLECTIVE_TYPES = {
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+        };
+
+        // Registered with IIORegistry by name, and the only formats uploads are decoded from or variants written as.
+        private static final String[] IMAGEIO_PLUGIN_TYPES = {
+            "com.sun.imageio.plugins.jpeg.JPEGImageReaderSpi",
+            "com.sun.imageio.plugins.jpeg.JPEGImageWriterSpi",
+            "com.sun.imageio.plugins.png.PNGImageReaderSpi",
+            "com.sun.imageio.plugins.png.PNGImageWriterSpi",
+            "com.sun.imageio.plugins.gif.GIFImageReaderSpi"
+        };
+
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Serialized by the table of contents converter, the outbox, the invalidation bus and the rate limit filter.
+            bindingRegistrar.registerReflectionHints(hints.reflection(),
+                TocEntry.class,
+                PostMetadata.class,
+                PostEvent.class,
+                PostCreated.class,
+                PostUpdated.class,
+                PostDeleted.class,
+                InvalidationMessage.class,
+                ApiErrorResponse.class);
+
+            hints.reflection().registerType(PostTagRow.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(OutboxBacklog.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(FeedEntry.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(SitemapEntry.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(ArchiveMonthDto.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(ArchivePostDto.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(CommentDto.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(ScheduledPublication.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(PostRevisionSummaryDto.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+            for(String type : JJWT_REFLECTIVE_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+            hints.resources().registerPattern("org/commonmark/internal/util/entities.txt");
+
+            for(String type : IMAGEIO_PLUGIN_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            }
+            hints.reflection().registerType(TypeReference.of("sun.java2d.HeadlessGraphicsEnvironment"),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            // Read when a JPEG is converted to or from sRGB.
+            hints.resources().registerPattern("sun/java2d/cmm/profiles/*.pf");
+        }
+    }
+}
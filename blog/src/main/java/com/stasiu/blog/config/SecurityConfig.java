@@ -1,5 +1,10 @@
 package com.stasiu.blog.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -12,12 +17,28 @@ import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stasiu.blog.domain.CachedResponse;
 import com.stasiu.blog.repositories.UserRepository;
 import com.stasiu.blog.security.BlogUserDetailsService;
 import com.stasiu.blog.security.JwtAuthenticationFilter;
+import com.stasiu.blog.security.RateLimitFilter;
+import com.stasiu.blog.security.RateLimiter;
 import com.stasiu.blog.services.AuthenticationService;
+import com.stasiu.blog.services.ResponseCacheService;
+import com.stasiu.blog.services.SnapshotService;
+import com.stasiu.blog.services.TrendingService;
+import com.stasiu.blog.services.ViewCounterService;
+import com.stasiu.blog.web.ResponseCacheFilter;
+import com.stasiu.blog.web.SingleFlight;
+import com.stasiu.blog.web.SnapshotFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 public class SecurityConfig {
@@ -27,6 +48,51 @@ public class SecurityConfig {
         return new JwtAuthenticationFilter(authenticationService);
     }
 
+    // Shared with the reactive read routes, so reads on either port count against the same budget.
+    @Bean
+    public RateLimiter readRateLimiter(
+            @Value("${blog.rate-limit.read.capacity:300}") long readCapacity,
+            @Value("${blog.rate-limit.read.refill-period:1m}") Duration readRefillPeriod){
+        return new RateLimiter(readCapacity, readRefillPeriod);
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(
+            ObjectMapper objectMapper,
+            RateLimiter readRateLimiter,
+            @Value("${blog.rate-limit.auth.capacity:10}") long authCapacity,
+            @Value("${blog.rate-limit.auth.refill-period:1m}") Duration authRefillPeriod,
+            @Value("${blog.rate-limit.write.capacity:60}") long writeCapacity,
+            @Value("${blog.rate-limit.write.refill-period:1m}") Duration writeRefillPeriod){
+        return new RateLimitFilter(
+            new RateLimiter(authCapacity, authRefillPeriod),
+            readRateLimiter,
+            new RateLimiter(writeCapacity, writeRefillPeriod),
+            objectMapper
+        );
+    }
+
+    @Bean
+    public SnapshotFilter snapshotFilter(
+            SnapshotService snapshotService,
+            ViewCounterService viewCounterService,
+            TrendingService trendingService,
+            @Value("${blog.snapshot.serve:false}") boolean serve){
+        return new SnapshotFilter(snapshotService, viewCounterService, trendingService, serve);
+    }
+
+    @Bean
+    public ResponseCacheFilter responseCacheFilter(
+            ResponseCacheService responseCacheService,
+            ViewCounterService viewCounterService,
+            TrendingService trendingService,
+            MeterRegistry meterRegistry,
+            @Value("${blog.response-cache.coalesce-timeout:2s}") Duration coalesceTimeout,
+            @Value("${blog.response-cache.enabled:true}") boolean enabled){
+        SingleFlight<String, CachedResponse> singleFlight = new SingleFlight<>("responses", coalesceTimeout, meterRegistry);
+        return new ResponseCacheFilter(responseCacheService, viewCounterService, trendingService, singleFlight, enabled);
+    }
+
     @Bean
     public UserDetailsService userDetailsService(UserRepository userRepository){
         BlogUserDetailsService blogUserDetailsService = new BlogUserDetailsService(userRepository);       
@@ -34,9 +100,9 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter, CorsConfigurationSource corsConfigurationSource) throws Exception{
-        
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter, RateLimitFilter rateLimitFilter, SnapshotFilter snapshotFilter, ResponseCacheFilter responseCacheFilter, CorsConfigurationSource corsConfigurationSource, ApplicationContext applicationContext) throws Exception{
         
+        RequestMatcher onManagementPort = onManagementPort(applicationContext);
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource))
             .authorizeHttpRequests(auth -> auth
@@ -44,16 +110,28 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.POST,"/api/v1/auth/login").permitAll()
                 .requestMatchers(HttpMethod.GET,"/api/v1/categories/**").permitAll()
                 .requestMatchers(HttpMethod.GET,"/api/v1/posts/drafts").authenticated()
+                .requestMatchers(HttpMethod.GET,"/api/v1/posts/scheduled").authenticated()
+                .requestMatchers(HttpMethod.GET,"/api/v1/posts/*/revisions/**").authenticated()
                 .requestMatchers(HttpMethod.GET,"/api/v1/posts/**").permitAll()
                 .requestMatchers(HttpMethod.GET,"/api/v1/tags/**").permitAll()
+                .requestMatchers(HttpMethod.GET,"/api/v1/archive/**").permitAll()
+                .requestMatchers(HttpMethod.GET,"/api/v1/media/**").permitAll()
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/actuator/health/**").permitAll()
+                .requestMatchers(new AndRequestMatcher(onManagementPort, AntPathRequestMatcher.antMatcher(HttpMethod.GET, "/actuator/prometheus"))).permitAll()
+                .requestMatchers(new AndRequestMatcher(onManagementPort, AntPathRequestMatcher.antMatcher(HttpMethod.GET, "/actuator/slowqueries"))).authenticated()
+                .requestMatchers("/actuator/**").denyAll()
+                .requestMatchers(HttpMethod.GET, "/feed.xml", "/sitemap.xml").permitAll()
                 .anyRequest().authenticated()
                 
             )
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
-            ).addFilterBefore(jwtAuthenticationFilter,UsernamePasswordAuthenticationFilter.class);
+            ).addFilterBefore(jwtAuthenticationFilter,UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class)
+            .addFilterAfter(snapshotFilter, RateLimitFilter.class)
+            .addFilterAfter(responseCacheFilter, SnapshotFilter.class);
         return  http.build();
     }
 
@@ -67,4 +145,10 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    // True for requests to management.server.port, which serves the actuator endpoints and is not exposed publicly.
+    private static RequestMatcher onManagementPort(ApplicationContext applicationContext) {
+        return request -> applicationContext instanceof WebServerApplicationContext context
+            && context.getWebServer() != null
+            && request.getLocalPort() != context.getWebServer().getPort();
+    }
 }
@@ -0,0 +1,78 @@
+package com.stasiu.blog.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import com.stasiu.blog.monitoring.RepositoryMethodContext;
+import com.stasiu.blog.monitoring.SlowQueryEndpoint;
+import com.stasiu.blog.monitoring.SlowQueryLog;
+import com.stasiu.blog.monitoring.SqlTracingListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps the datasource in a JDBC proxy that reports slow and sampled statements, and the
+ * repositories in an interceptor that tells the proxy which repository method is running.
+ */
+@Configuration
+public class SqlTracingConfig {
+
+    @Bean
+    public SlowQueryLog slowQueryLog(@Value("${blog.sql.slow-query-log-size:100}") int size) {
+        return new SlowQueryLog(size);
+    }
+
+    @Bean
+    public SqlTracingListener sqlTracingListener(
+            SlowQueryLog slowQueryLog,
+            MeterRegistry meterRegistry,
+            @Value("${blog.sql.slow-query-threshold:200ms}") Duration slowQueryThreshold,
+            @Value("${blog.sql.sample-rate:1000}") long sampleRate) {
+        return new SqlTracingListener(slowQueryLog, meterRegistry, slowQueryThreshold, sampleRate);
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        return new SlowQueryEndpoint(slowQueryLog);
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlTracingDataSourcePostProcessor(ObjectProvider<SqlTracingListener> sqlTracingListener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if(bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(sqlTracingListener.getObject())
+                        .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryMethodContextPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if(bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                        (proxyFactory, repositoryInformation) ->
+                            proxyFactory.addAdvice(new RepositoryMethodContext(repositoryInformation.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.stasiu.blog.controllers;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.stasiu.blog.domain.dtos.ArchiveMonthDto;
+import com.stasiu.blog.domain.dtos.ArchivePageDto;
+import com.stasiu.blog.services.ArchiveService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping(path = "/api/v1/archive")
+@RequiredArgsConstructor
+public class ArchiveController {
+
+    private final ArchiveService archiveService;
+
+    private static final int MAX_PAGE_LIMIT = 100;
+
+    @GetMapping
+    public ResponseEntity<List<ArchiveMonthDto>> getMonths(@RequestParam(required = false) UUID categoryId){
+        return ResponseEntity.ok(archiveService.getMonths(categoryId));
+    }
+
+    @GetMapping(path = "/{year}/{month}")
+    public ResponseEntity<ArchivePageDto> getMonth(
+            @PathVariable int year,
+            @PathVariable int month,
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit){
+        if(limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_LIMIT);
+        }
+        return ResponseEntity.ok(archiveService.getMonth(year, month, categoryId, cursor, limit));
+    }
+}
@@ -0,0 +1,84 @@
+package com.stasiu.blog.controllers;
+
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.stasiu.blog.domain.dtos.CommentDto;
+import com.stasiu.blog.domain.dtos.CommentPageDto;
+import com.stasiu.blog.domain.dtos.CreateCommentRequestDto;
+import com.stasiu.blog.domain.entities.Comment;
+import com.stasiu.blog.domain.entities.User;
+import com.stasiu.blog.mappers.CommentMapper;
+import com.stasiu.blog.services.CommentService;
+import com.stasiu.blog.services.UserService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping(path = "/api/v1/posts/{postId}/comments")
+@RequiredArgsConstructor
+public class CommentController {
+
+    private final CommentService commentService;
+    private final CommentMapper commentMapper;
+    private final UserService userService;
+
+    private static final int MAX_PAGE_LIMIT = 100;
+
+    @GetMapping
+    public ResponseEntity<CommentPageDto> getComments(
+            @PathVariable UUID postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit){
+        checkLimit(limit);
+        return ResponseEntity.ok(commentService.getComments(postId, cursor, limit));
+    }
+
+    @GetMapping(path = "/{commentId}/replies")
+    public ResponseEntity<CommentPageDto> getReplies(
+            @PathVariable UUID postId,
+            @PathVariable UUID commentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit){
+        checkLimit(limit);
+        return ResponseEntity.ok(commentService.getReplies(postId, commentId, cursor, limit));
+    }
+
+    @PostMapping
+    public ResponseEntity<CommentDto> createComment(
+            @PathVariable UUID postId,
+            @Valid @RequestBody CreateCommentRequestDto createCommentRequestDto,
+            @RequestAttribute UUID userId) {
+        User loggedInUser = userService.getUserById(userId);
+        Comment createdComment = commentService.createComment(
+            postId, loggedInUser, createCommentRequestDto.getParentId(), createCommentRequestDto.getContent());
+        return new ResponseEntity<>(commentMapper.toDto(createdComment), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping(path = "/{commentId}")
+    public ResponseEntity<Void> deleteComment(
+            @PathVariable UUID postId,
+            @PathVariable UUID commentId,
+            @RequestAttribute UUID userId) {
+        commentService.deleteComment(postId, commentId, userId);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    private static void checkLimit(int limit) {
+        if(limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_LIMIT);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.stasiu.blog.controllers;
+
+import java.util.UUID;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.stasiu.blog.domain.FeedDocument;
+import com.stasiu.blog.services.FeedService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+public class FeedController {
+
+    private static final MediaType ATOM_XML = MediaType.parseMediaType("application/atom+xml;charset=UTF-8");
+    private static final MediaType XML = MediaType.parseMediaType("application/xml;charset=UTF-8");
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePublic();
+
+    private final FeedService feedService;
+
+    @GetMapping(path = "/feed.xml")
+    public ResponseEntity<byte[]> getFeed(
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) UUID tagId,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return respond(feedService.getFeed(categoryId, tagId), ATOM_XML, acceptEncoding);
+    }
+
+    @GetMapping(path = "/sitemap.xml")
+    public ResponseEntity<byte[]> getSitemap(
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return respond(feedService.getSitemap(), XML, acceptEncoding);
+    }
+
+    // If-None-Match and If-Modified-Since are answered with 304 by Spring MVC from the ETag and
+    // Last-Modified headers set here, without writing the body.
+    private ResponseEntity<byte[]> respond(FeedDocument document, MediaType mediaType, String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        // Each encoding is a different representation, so it gets its own entity tag.
+        String etag = gzip ? document.etag().substring(0, document.etag().length() - 1) + "-gzip\"" : document.etag();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(mediaType)
+            .cacheControl(CACHE_CONTROL)
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+            .eTag(etag)
+            .lastModified(document.lastModified());
+        if(gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(document.gzippedBody());
+        }
+        return response.body(document.body());
+    }
+}
@@ -0,0 +1,84 @@
+package com.stasiu.blog.controllers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import com.stasiu.blog.domain.MediaVariant;
+import com.stasiu.blog.domain.dtos.MediaDto;
+import com.stasiu.blog.mappers.MediaMapper;
+import com.stasiu.blog.services.MediaService;
+import com.stasiu.blog.web.FileTransfer;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping(path = "/api/v1")
+public class MediaController {
+
+    private final MediaService mediaService;
+    private final MediaMapper mediaMapper;
+    private final long uploadTimeoutMillis;
+
+    // Uploads are read on virtual threads, so a slow client holds neither a request thread nor a carrier.
+    private final AsyncTaskExecutor uploadExecutor = new VirtualThreadTaskExecutor("media-upload-");
+
+    public MediaController(
+            MediaService mediaService,
+            MediaMapper mediaMapper,
+            @Value("${blog.media.upload-timeout:5m}") Duration uploadTimeout) {
+        this.mediaService = mediaService;
+        this.mediaMapper = mediaMapper;
+        this.uploadTimeoutMillis = uploadTimeout.toMillis();
+    }
+
+    @PostMapping(path = "/posts/{postId}/media")
+    public WebAsyncTask<ResponseEntity<MediaDto>> uploadMedia(
+            @PathVariable UUID postId,
+            @RequestParam(required = false) String filename,
+            @RequestAttribute UUID userId,
+            HttpServletRequest request) {
+        return new WebAsyncTask<>(uploadTimeoutMillis, uploadExecutor, () -> {
+            MediaDto mediaDto = mediaMapper.toDto(mediaService.upload(postId, userId, filename, request.getInputStream()));
+            return new ResponseEntity<>(mediaDto, HttpStatus.CREATED);
+        });
+    }
+
+    @GetMapping(path = "/posts/{postId}/media")
+    public ResponseEntity<List<MediaDto>> getMediaForPost(@PathVariable UUID postId) {
+        List<MediaDto> mediaDtos = mediaService.getMediaForPost(postId).stream()
+            .map(mediaMapper::toDto)
+            .toList();
+        return ResponseEntity.ok(mediaDtos);
+    }
+
+    @GetMapping(path = "/media/{id}")
+    public void getMedia(@PathVariable UUID id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        FileTransfer.serve(request, response, mediaService.getFile(id));
+    }
+
+    @GetMapping(path = "/media/{id}/{variant}")
+    public void getMediaVariant(
+            @PathVariable UUID id,
+            @PathVariable String variant,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        FileTransfer.serve(request, response, mediaService.getVariant(id, MediaVariant.fromValue(variant)));
+    }
+}
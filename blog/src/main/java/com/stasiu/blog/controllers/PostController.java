@@ -1,6 +1,8 @@
 package com.stasiu.blog.controllers;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.http.HttpStatus;
@@ -16,16 +18,28 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.stasiu.blog.domain.AutosaveDraftRequest;
+import com.stasiu.blog.domain.ContentFormat;
 import com.stasiu.blog.domain.CreatePostRequest;
+import com.stasiu.blog.domain.EngagementType;
+import com.stasiu.blog.domain.PostFilter;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.dtos.AutosaveDraftRequestDto;
 import com.stasiu.blog.domain.dtos.CreatePostRequestDto;
 import com.stasiu.blog.domain.dtos.PostDto;
+import com.stasiu.blog.domain.dtos.RelatedPostDto;
+import com.stasiu.blog.domain.dtos.TrendingPostDto;
 import com.stasiu.blog.domain.dtos.UpdatePostRequestDto;
 import com.stasiu.blog.domain.UpdatePostRequest;
 import com.stasiu.blog.domain.entities.Post;
 import com.stasiu.blog.domain.entities.User;
 import com.stasiu.blog.mappers.PostMapper;
+import com.stasiu.blog.services.DraftAutosaveService;
 import com.stasiu.blog.services.PostService;
+import com.stasiu.blog.services.RelatedPostsService;
+import com.stasiu.blog.services.TrendingService;
 import com.stasiu.blog.services.UserService;
+import com.stasiu.blog.services.ViewCounterService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -38,14 +52,36 @@ public class PostController {
     private final PostService postService;
     private final PostMapper postMapper;
     private final UserService userService;
+    private final ViewCounterService viewCounterService;
+    private final TrendingService trendingService;
+    private final RelatedPostsService relatedPostsService;
+    private final DraftAutosaveService draftAutosaveService;
+
+    private static final int MAX_TRENDING_LIMIT = 100;
+    private static final int MAX_RELATED_LIMIT = 20;
 
     @GetMapping
     public ResponseEntity<List<PostDto>> getAllPosts(
             @RequestParam(required = false) UUID categoryId, 
-            @RequestParam(required = false) UUID tagId){
-        List<Post> posts =  postService.getAllPosts(categoryId, tagId);
+            @RequestParam(required = false) UUID tagId,
+            @RequestParam(required = false) Set<UUID> allTags,
+            @RequestParam(required = false) Set<UUID> anyTags,
+            @RequestParam(required = false) Set<UUID> noneTags,
+            @RequestParam(required = false) String format){
+        ContentFormat contentFormat = ContentFormat.fromValue(format);
+        Set<UUID> requiredTags = new HashSet<>(allTags != null ? allTags : Set.of());
+        if(tagId != null) {
+            requiredTags.add(tagId);
+        }
+        PostFilter filter = PostFilter.builder()
+            .categoryId(categoryId)
+            .allTags(requiredTags)
+            .anyTags(anyTags != null ? anyTags : Set.of())
+            .noneTags(noneTags != null ? noneTags : Set.of())
+            .build();
+        List<Post> posts =  postService.getAllPosts(filter);
         List<PostDto> postDtos = posts.stream()
-            .map(postMapper::toDto)
+            .map(post -> postMapper.toDto(post, contentFormat))
             .toList();
         return ResponseEntity.ok(postDtos);
     }
@@ -60,13 +96,50 @@ public class PostController {
         return ResponseEntity.ok(postDtos);
     }
 
+    @GetMapping(path = "/scheduled")
+    public ResponseEntity<List<PostDto>> getScheduledPosts(@RequestAttribute UUID userId){
+        User loggedInUser = userService.getUserById(userId);
+        List<PostDto> postDtos = postService.getScheduledPosts(loggedInUser).stream()
+            .map(postMapper::toDto)
+            .toList();
+        return ResponseEntity.ok(postDtos);
+    }
+
+    @GetMapping(path = "/trending")
+    public ResponseEntity<List<TrendingPostDto>> getTrendingPosts(
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) UUID tagId,
+            @RequestParam(defaultValue = "10") int limit){
+        if(limit < 1 || limit > MAX_TRENDING_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_TRENDING_LIMIT);
+        }
+        return ResponseEntity.ok(trendingService.getTrending(categoryId, tagId, limit));
+    }
+
     @GetMapping(path = "/{id}")
-    public ResponseEntity<PostDto> getPost(@PathVariable UUID id){           
+    public ResponseEntity<PostDto> getPost(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String format){
+        ContentFormat contentFormat = ContentFormat.fromValue(format);
         Post post = postService.getPost(id);
-        PostDto postDto = postMapper.toDto(post);
+        if(post.getStatus() == PostStatus.PUBLISHED) {
+            viewCounterService.recordView(id);
+            trendingService.recordEngagement(id, EngagementType.VIEW);
+        }
+        PostDto postDto = postMapper.toDto(post, contentFormat);
         return ResponseEntity.ok(postDto);
     }
 
+    @GetMapping(path = "/{id}/related")
+    public ResponseEntity<List<RelatedPostDto>> getRelatedPosts(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "5") int limit){
+        if(limit < 1 || limit > MAX_RELATED_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_RELATED_LIMIT);
+        }
+        return ResponseEntity.ok(relatedPostsService.getRelatedPosts(id, limit));
+    }
+
     @PostMapping
     public ResponseEntity<PostDto> createPost(
             @Valid @RequestBody CreatePostRequestDto createPostRequestDto,
@@ -85,13 +158,26 @@ public class PostController {
             @Valid @RequestBody UpdatePostRequestDto updatePostRequestDto) {
 
         UpdatePostRequest updatePostRequest = postMapper.toUpdatePostRequest(updatePostRequestDto);
+        draftAutosaveService.discard(id);
         Post updatedPost = postService.updatePost(id, updatePostRequest);
         PostDto updatedPostDto = postMapper.toDto(updatedPost);
 
         return ResponseEntity.ok(updatedPostDto);
     }
+
+    @PutMapping(path = "/{id}/autosave")
+    public ResponseEntity<Void> autosaveDraft(
+            @PathVariable UUID id,
+            @Valid @RequestBody AutosaveDraftRequestDto autosaveDraftRequestDto,
+            @RequestAttribute UUID userId) {
+        AutosaveDraftRequest autosaveDraftRequest = postMapper.toAutosaveDraftRequest(autosaveDraftRequestDto);
+        draftAutosaveService.autosave(id, userId, autosaveDraftRequest);
+        return new ResponseEntity<>(HttpStatus.ACCEPTED);
+    }
+
     @DeleteMapping(path = "/{id}")
     public ResponseEntity<Void> deletePost(@PathVariable UUID id) {
+        draftAutosaveService.discard(id);
         postService.deletePost(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT); 
     }
@@ -0,0 +1,48 @@
+package com.stasiu.blog.controllers;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.stasiu.blog.domain.dtos.PostRevisionDto;
+import com.stasiu.blog.domain.dtos.PostRevisionSummaryDto;
+import com.stasiu.blog.services.PostRevisionService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping(path = "/api/v1/posts/{postId}/revisions")
+@RequiredArgsConstructor
+public class PostRevisionController {
+
+    private final PostRevisionService postRevisionService;
+
+    private static final int MAX_PAGE_LIMIT = 100;
+
+    @GetMapping
+    public ResponseEntity<List<PostRevisionSummaryDto>> getRevisions(
+            @PathVariable UUID postId,
+            @RequestParam(required = false) Integer before,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestAttribute UUID userId){
+        if(limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_LIMIT);
+        }
+        return ResponseEntity.ok(postRevisionService.getRevisions(postId, userId, before, limit));
+    }
+
+    @GetMapping(path = "/{number}")
+    public ResponseEntity<PostRevisionDto> getRevision(
+            @PathVariable UUID postId,
+            @PathVariable int number,
+            @RequestAttribute UUID userId){
+        return ResponseEntity.ok(postRevisionService.getRevision(postId, userId, number));
+    }
+}
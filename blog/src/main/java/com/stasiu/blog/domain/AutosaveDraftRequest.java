@@ -0,0 +1,17 @@
+package com.stasiu.blog.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AutosaveDraftRequest {
+
+    private String title;
+
+    private String content;
+}
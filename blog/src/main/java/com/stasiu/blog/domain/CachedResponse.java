@@ -0,0 +1,6 @@
+package com.stasiu.blog.domain;
+
+import java.util.Set;
+
+public record CachedResponse(byte[] body, String contentType, Set<String> tags) {
+}
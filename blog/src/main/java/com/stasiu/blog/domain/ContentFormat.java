@@ -0,0 +1,18 @@
+package com.stasiu.blog.domain;
+
+public enum ContentFormat {
+
+    MARKDOWN, HTML;
+
+    public static ContentFormat fromValue(String value) {
+        if(value == null || value.isBlank()) {
+            return MARKDOWN;
+        }
+        for(ContentFormat format : values()) {
+            if(format.name().equalsIgnoreCase(value.trim())) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported content format: " + value);
+    }
+}
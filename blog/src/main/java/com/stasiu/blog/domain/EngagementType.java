@@ -0,0 +1,14 @@
+package com.stasiu.blog.domain;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum EngagementType {
+
+    VIEW(1.0),
+    COMMENT(5.0);
+
+    private final double weight;
+}
@@ -0,0 +1,9 @@
+package com.stasiu.blog.domain;
+
+import java.time.Instant;
+
+/**
+ * A generated feed or sitemap, kept encoded and gzipped so serving it is a plain byte copy.
+ */
+public record FeedDocument(byte[] body, byte[] gzippedBody, String etag, Instant lastModified) {
+}
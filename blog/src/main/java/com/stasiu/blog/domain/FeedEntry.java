@@ -0,0 +1,26 @@
+package com.stasiu.blog.domain;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FeedEntry {
+
+    private UUID postId;
+
+    private String title;
+
+    private String authorName;
+
+    private String categoryName;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
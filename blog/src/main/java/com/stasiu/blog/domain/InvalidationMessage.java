@@ -0,0 +1,12 @@
+package com.stasiu.blog.domain;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A batch of cache tags changed on one node. Every node numbers its messages from one, so a
+ * receiver that sees a number skipped knows it lost a message. A {@code flush} message asks every
+ * receiver to drop all cached state instead of the listed tags.
+ */
+public record InvalidationMessage(UUID nodeId, long sequence, boolean flush, Set<String> tags) {
+}
@@ -0,0 +1,6 @@
+package com.stasiu.blog.domain;
+
+import java.nio.file.Path;
+
+public record MediaFile(Path path, String etag, String contentType) {
+}
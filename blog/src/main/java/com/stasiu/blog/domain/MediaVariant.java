@@ -0,0 +1,27 @@
+package com.stasiu.blog.domain;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum MediaVariant {
+
+    THUMBNAIL(200),
+    MEDIUM(800);
+
+    private final int maxDimension;
+
+    public String value() {
+        return name().toLowerCase();
+    }
+
+    public static MediaVariant fromValue(String value) {
+        for(MediaVariant variant : values()) {
+            if(variant.name().equalsIgnoreCase(value.trim())) {
+                return variant;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported media variant: " + value);
+    }
+}
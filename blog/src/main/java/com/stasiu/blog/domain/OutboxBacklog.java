@@ -0,0 +1,17 @@
+package com.stasiu.blog.domain;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxBacklog {
+
+    private long pending;
+
+    private Instant oldestCreatedAt;
+}
@@ -0,0 +1,6 @@
+package com.stasiu.blog.domain;
+
+public enum OutboxStatus {
+
+    PENDING, PROCESSED, FAILED
+}
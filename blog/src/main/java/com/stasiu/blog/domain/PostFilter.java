@@ -0,0 +1,36 @@
+package com.stasiu.blog.domain;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published posts in {@code categoryId}, when given, carrying every tag of {@code allTags}, at
+ * least one tag of {@code anyTags} when it is not empty, and none of {@code noneTags}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PostFilter {
+
+    private UUID categoryId;
+
+    @Builder.Default
+    private Set<UUID> allTags = new HashSet<>();
+
+    @Builder.Default
+    private Set<UUID> anyTags = new HashSet<>();
+
+    @Builder.Default
+    private Set<UUID> noneTags = new HashSet<>();
+
+    public boolean isEmpty() {
+        return categoryId == null && allTags.isEmpty() && anyTags.isEmpty() && noneTags.isEmpty();
+    }
+}
@@ -0,0 +1,66 @@
+package com.stasiu.blog.domain;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.Tag;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PostMetadata {
+
+    private UUID id;
+
+    private String title;
+
+    private UUID categoryId;
+
+    @Builder.Default
+    private Set<UUID> tagIds = new HashSet<>();
+
+    private LocalDateTime createdAt;
+
+    public static PostMetadata from(Post post) {
+        Set<UUID> tagIds = new HashSet<>();
+        if(post.getTags() != null) {
+            post.getTags().stream().map(Tag::getId).forEach(tagIds::add);
+        }
+        return PostMetadata.builder()
+            .id(post.getId())
+            .title(post.getTitle())
+            .categoryId(post.getCategory() != null ? post.getCategory().getId() : null)
+            .tagIds(tagIds)
+            .createdAt(post.getCreatedAt())
+            .build();
+    }
+
+    public static List<PostMetadata> fromRows(List<PostTagRow> rows) {
+        Map<UUID, PostMetadata> posts = new LinkedHashMap<>();
+        for(PostTagRow row : rows) {
+            PostMetadata metadata = posts.computeIfAbsent(row.getPostId(), id -> PostMetadata.builder()
+                .id(id)
+                .title(row.getTitle())
+                .categoryId(row.getCategoryId())
+                .createdAt(row.getCreatedAt())
+                .build());
+            if(row.getTagId() != null) {
+                metadata.getTagIds().add(row.getTagId());
+            }
+        }
+        return new ArrayList<>(posts.values());
+    }
+}
@@ -2,5 +2,5 @@ package com.stasiu.blog.domain;
 
 public enum PostStatus {
 
-    DRAFT, PUBLISHED
+    DRAFT, PUBLISHED, SCHEDULED
 }
@@ -0,0 +1,24 @@
+package com.stasiu.blog.domain;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostTagRow {
+
+    private UUID postId;
+
+    private String title;
+
+    private UUID categoryId;
+
+    private UUID tagId;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,22 @@
+package com.stasiu.blog.domain;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PostViewDelta {
+
+    private UUID postId;
+
+    private LocalDate viewDate;
+
+    private long views;
+}
@@ -0,0 +1,21 @@
+package com.stasiu.blog.domain;
+
+/**
+ * The reading time of a post in whole minutes, counted from the words of its Markdown source at a
+ * fixed reading speed.
+ */
+public final class ReadingTime {
+
+    private static final int WORDS_PER_MINUTE = 200;
+
+    private ReadingTime() {
+    }
+
+    public static Integer of(String content) {
+        if(content == null || content.isEmpty()) {
+            return 0;
+        }
+        int wordCount = content.trim().split("\\s+").length;
+        return (int) Math.ceil((double) wordCount / WORDS_PER_MINUTE);
+    }
+}
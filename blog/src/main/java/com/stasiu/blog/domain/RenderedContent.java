@@ -0,0 +1,21 @@
+package com.stasiu.blog.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RenderedContent {
+
+    private String html;
+
+    @Builder.Default
+    private List<TocEntry> tableOfContents = new ArrayList<>();
+}
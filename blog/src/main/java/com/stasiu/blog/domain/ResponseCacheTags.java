@@ -0,0 +1,73 @@
+package com.stasiu.blog.domain;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Names of what a cached response depends on. A listing is tagged with every post, category and
+ * tag it shows and with the filter it was requested with, so a change evicts only the responses
+ * that could have shown it.
+ */
+public final class ResponseCacheTags {
+
+    public static final String POSTS = "posts";
+    public static final String CATEGORIES = "categories";
+    public static final String TAGS = "tags";
+
+    private static final String POST_PREFIX = "post:";
+    private static final String CATEGORY_PREFIX = "category:";
+    private static final String TAG_PREFIX = "tag:";
+
+    private ResponseCacheTags() {
+    }
+
+    public static String post(UUID postId) {
+        return POST_PREFIX + postId;
+    }
+
+    public static String category(UUID categoryId) {
+        return CATEGORY_PREFIX + categoryId;
+    }
+
+    public static String tag(UUID tagId) {
+        return TAG_PREFIX + tagId;
+    }
+
+    // The id named by a tag of the given kind, or null when the tag is of another kind.
+    public static UUID postId(String tag) {
+        return idOf(tag, POST_PREFIX);
+    }
+
+    public static UUID categoryId(String tag) {
+        return idOf(tag, CATEGORY_PREFIX);
+    }
+
+    public static UUID tagId(String tag) {
+        return idOf(tag, TAG_PREFIX);
+    }
+
+    // Mutable, so a listener can strike off the posts it found.
+    public static Set<UUID> postIds(Collection<String> tags) {
+        Set<UUID> postIds = new HashSet<>();
+        for(String tag : tags) {
+            UUID postId = postId(tag);
+            if(postId != null) {
+                postIds.add(postId);
+            }
+        }
+        return postIds;
+    }
+
+    private static UUID idOf(String tag, String prefix) {
+        if(!tag.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return UUID.fromString(tag.substring(prefix.length()));
+        } catch(IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.stasiu.blog.domain;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ScheduledPublication(UUID postId, Instant publishAt) {
+}
@@ -0,0 +1,18 @@
+package com.stasiu.blog.domain;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SitemapEntry {
+
+    private UUID postId;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,32 @@
+package com.stasiu.blog.domain;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SlowQuery {
+
+    private Instant executedAt;
+
+    private long elapsedMillis;
+
+    private String sql;
+
+    private int batchSize;
+
+    private List<String> parameterTypes;
+
+    private String repositoryMethod;
+
+    private String route;
+
+    private boolean success;
+}
@@ -0,0 +1,14 @@
+package com.stasiu.blog.domain;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Lists the files of one snapshot version, keyed by the request they answer, for example
+ * {@code /api/v1/posts?tagId=...}. Written next to the files so a restart can serve them again.
+ */
+public record SnapshotManifest(String version, Instant createdAt, Map<String, Entry> files) {
+
+    public record Entry(String file, String etag, long size) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.stasiu.blog.domain;
+
+import java.nio.file.Path;
+
+public record SnapshotResource(Path path, String etag, long size) {
+}
@@ -0,0 +1,19 @@
+package com.stasiu.blog.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TocEntry {
+
+    private int level;
+
+    private String text;
+
+    private String anchor;
+}
@@ -1,5 +1,6 @@
 package com.stasiu.blog.domain;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -25,4 +26,6 @@ public class UpdatePostRequest {
     private Set<UUID> tagIds = new HashSet<>();
 
     private PostStatus status;
+
+    private Instant publishAt;
 }
@@ -0,0 +1,43 @@
+package com.stasiu.blog.domain.converters;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stasiu.blog.domain.TocEntry;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class TableOfContentsConverter implements AttributeConverter<List<TocEntry>, String> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<List<TocEntry>> TOC_TYPE = new TypeReference<>() {};
+
+    @Override
+    public String convertToDatabaseColumn(List<TocEntry> tableOfContents) {
+        if(tableOfContents == null) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.writeValueAsString(tableOfContents);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize table of contents", ex);
+        }
+    }
+
+    @Override
+    public List<TocEntry> convertToEntityAttribute(String json) {
+        if(json == null || json.isBlank()) {
+            return new ArrayList<>();
+        }
+        try {
+            return OBJECT_MAPPER.readValue(json, TOC_TYPE);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not deserialize table of contents", ex);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.stasiu.blog.domain.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ArchiveMonthDto {
+
+    private int year;
+    private int month;
+    private long postCount;
+}
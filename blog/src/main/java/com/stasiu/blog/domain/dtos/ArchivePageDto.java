@@ -0,0 +1,20 @@
+package com.stasiu.blog.domain.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ArchivePageDto {
+
+    private int year;
+    private int month;
+    private List<ArchivePostDto> posts;
+    private String nextCursor;
+}
@@ -0,0 +1,24 @@
+package com.stasiu.blog.domain.dtos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ArchivePostDto {
+
+    private UUID id;
+    private String title;
+    private String authorName;
+    private UUID categoryId;
+    private String categoryName;
+    private Integer readingTime;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,24 @@
+package com.stasiu.blog.domain.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AutosaveDraftRequestDto {
+
+    @NotBlank(message = "Title is required")
+    @Size(max = 300, message = "Title must be at most {max} characters")
+    private String title;
+
+    @NotNull(message = "Content is required")
+    @Size(max = 60000, message = "Content must be at most {max} characters")
+    private String content;
+}
@@ -0,0 +1,29 @@
+package com.stasiu.blog.domain.dtos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CommentDto {
+
+    private UUID id;
+    private UUID parentId;
+    private int depth;
+    private String authorName;
+    private String content;
+    private long replyCount;
+    private boolean deleted;
+    private LocalDateTime createdAt;
+    @JsonIgnore
+    private String path;
+}
@@ -0,0 +1,18 @@
+package com.stasiu.blog.domain.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CommentPageDto {
+
+    private List<CommentDto> comments;
+    private String nextCursor;
+}
@@ -0,0 +1,23 @@
+package com.stasiu.blog.domain.dtos;
+
+import java.util.UUID;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CreateCommentRequestDto {
+
+    private UUID parentId;
+
+    @NotBlank(message = "Comment content is required")
+    @Size(max = 5000, message = "Comment must be at most {max} characters")
+    private String content;
+}
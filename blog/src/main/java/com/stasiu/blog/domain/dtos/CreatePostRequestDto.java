@@ -1,5 +1,6 @@
 package com.stasiu.blog.domain.dtos;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -38,4 +39,6 @@ public class CreatePostRequestDto {
     @NotNull(message = "Post status is required")
     private PostStatus status;
 
+    private Instant publishAt;
+
 }
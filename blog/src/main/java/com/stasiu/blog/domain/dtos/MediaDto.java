@@ -0,0 +1,23 @@
+package com.stasiu.blog.domain.dtos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MediaDto {
+
+    private UUID id;
+    private String filename;
+    private String contentType;
+    private long size;
+    private String contentHash;
+    private LocalDateTime createdAt;
+}
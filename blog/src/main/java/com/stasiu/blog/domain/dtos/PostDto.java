@@ -1,11 +1,15 @@
 package com.stasiu.blog.domain.dtos;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.TocEntry;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,11 +25,19 @@ public class PostDto {
     private UUID id;
     private String title;
     private String content;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String contentHtml;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<TocEntry> tableOfContents;
     private AuthorDto author;
     private CategoryDto category;
     private Set<TagResponse> tags;
     private Integer readingTime;
+    private long viewCount;
+    private long commentCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private PostStatus status;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Instant publishAt;
 }
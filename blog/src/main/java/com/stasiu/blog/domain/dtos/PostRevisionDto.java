@@ -0,0 +1,20 @@
+package com.stasiu.blog.domain.dtos;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PostRevisionDto {
+
+    private int number;
+    private String title;
+    private String content;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,22 @@
+package com.stasiu.blog.domain.dtos;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PostRevisionSummaryDto {
+
+    private int number;
+    private String title;
+    private boolean keyframe;
+    private int contentSize;
+    private int storedSize;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,20 @@
+package com.stasiu.blog.domain.dtos;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TrendingPostDto {
+
+    private UUID id;
+    private String title;
+    private UUID categoryId;
+    private double score;
+}
@@ -1,5 +1,6 @@
 package com.stasiu.blog.domain.dtos;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -40,4 +41,6 @@ public class UpdatePostRequestDto {
     
     @NotNull(message = "Post status is required")
     private PostStatus status;
+
+    private Instant publishAt;
 }
@@ -0,0 +1,30 @@
+package com.stasiu.blog.domain.entities;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class ArchiveMonthId implements Serializable {
+
+    @Column(name = "archive_year", nullable = false)
+    private int year;
+
+    @Column(name = "archive_month", nullable = false)
+    private int month;
+
+    @Column(name = "category_id", nullable = false)
+    private UUID categoryId;
+}
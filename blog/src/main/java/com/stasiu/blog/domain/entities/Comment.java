@@ -0,0 +1,78 @@
+package com.stasiu.blog.domain.entities;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.*;
+
+/**
+ * A comment in a thread under a post. {@code path} is the materialized path from the top-level
+ * comment down: one fixed-width segment per level, each the post-wide sequence number of the
+ * comment at that level, so ordering a thread by path lists it depth first and oldest first.
+ * Top-level comments have no {@code rootId}; replies carry the id of their top-level comment.
+ */
+@Entity
+@Table(name = "comments", indexes = {
+    @Index(name = "idx_comments_post_depth_path", columnList = "post_id, depth, path"),
+    @Index(name = "idx_comments_root_path", columnList = "root_id, path")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class Comment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    // No foreign key: the rows of a deleted post are removed by an outbox listener after the post.
+    @JoinColumn(name = "post_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Post post;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "author_id", nullable = false)
+    private User author;
+
+    private UUID parentId;
+
+    private UUID rootId;
+
+    @Column(nullable = false, length = 160)
+    private String path;
+
+    @Column(nullable = false)
+    private int depth;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long replyCount;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -1,13 +1,19 @@
 package com.stasiu.blog.domain.entities;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
 import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.TocEntry;
+import com.stasiu.blog.domain.converters.TableOfContentsConverter;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -15,6 +21,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
@@ -26,7 +33,10 @@ import jakarta.persistence.Table;
 import lombok.*;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+    @Index(name = "idx_posts_status_created_at", columnList = "status, created_at"),
+    @Index(name = "idx_posts_status_publish_at", columnList = "status, publish_at")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -48,8 +58,33 @@ public class Post {
     @Enumerated(EnumType.STRING)
     private PostStatus status;
 
+    private Instant publishAt;
+
     @Column(nullable = false)
     private Integer readingTime;
+
+    @Column(columnDefinition = "TEXT")
+    private String contentHtml;
+
+    @Convert(converter = TableOfContentsConverter.class)
+    @Column(columnDefinition = "TEXT")
+    @Builder.Default
+    private List<TocEntry> tableOfContents = new ArrayList<>();
+
+    private Integer renderVersion;
+
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long viewCount;
+
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long commentCount;
+
+    // Never decremented, so every comment of the post gets a distinct path segment.
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long commentSequence;
+
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "integer default 0")
+    private int revisionNumber;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
@@ -0,0 +1,23 @@
+package com.stasiu.blog.domain.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.*;
+
+@Entity
+@Table(name = "post_daily_views")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class PostDailyViews {
+
+    @EmbeddedId
+    private PostDailyViewsId id;
+
+    @Column(nullable = false)
+    private long views;
+}
@@ -0,0 +1,28 @@
+package com.stasiu.blog.domain.entities;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class PostDailyViewsId implements Serializable {
+
+    @Column(name = "post_id", nullable = false)
+    private UUID postId;
+
+    @Column(name = "view_date", nullable = false)
+    private LocalDate viewDate;
+}
@@ -0,0 +1,70 @@
+package com.stasiu.blog.domain.entities;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.*;
+
+/**
+ * One saved version of a post's content. A keyframe holds the whole content; every other revision
+ * holds a delta against the revision numbered one less. Either way {@code data} is deflated.
+ */
+@Entity
+@Table(name = "post_revisions", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_post_revisions_post_number", columnNames = {"post_id", "number"})
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class PostRevision {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    // No foreign key: the rows of a deleted post are removed by an outbox listener after the post.
+    @JoinColumn(name = "post_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Post post;
+
+    @Column(nullable = false)
+    private int number;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false)
+    private boolean keyframe;
+
+    @Column(nullable = false, length = 16 * 1024 * 1024)
+    private byte[] data;
+
+    @Column(nullable = false)
+    private int contentSize;
+
+    @Column(nullable = false)
+    private int storedSize;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
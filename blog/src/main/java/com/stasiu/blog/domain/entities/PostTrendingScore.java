@@ -0,0 +1,29 @@
+package com.stasiu.blog.domain.entities;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+@Entity
+@Table(name = "post_trending_scores")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class PostTrendingScore {
+
+    @Id
+    private UUID postId;
+
+    @Column(nullable = false)
+    private double score;
+
+    @Column(nullable = false)
+    private Instant scoredAt;
+}
@@ -0,0 +1,14 @@
+package com.stasiu.blog.domain.events;
+
+import java.util.UUID;
+
+import com.stasiu.blog.domain.PostMetadata;
+import com.stasiu.blog.domain.PostStatus;
+
+public record PostCreated(PostMetadata post, PostStatus status) implements PostEvent {
+
+    @Override
+    public UUID postId() {
+        return post.getId();
+    }
+}
@@ -0,0 +1,18 @@
+package com.stasiu.blog.domain.events;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+    @JsonSubTypes.Type(value = PostCreated.class, name = "PostCreated"),
+    @JsonSubTypes.Type(value = PostUpdated.class, name = "PostUpdated"),
+    @JsonSubTypes.Type(value = PostDeleted.class, name = "PostDeleted")
+})
+public sealed interface PostEvent permits PostCreated, PostUpdated, PostDeleted {
+
+    UUID postId();
+
+}
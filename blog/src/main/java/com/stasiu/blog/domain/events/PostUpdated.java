@@ -0,0 +1,21 @@
+package com.stasiu.blog.domain.events;
+
+import java.util.Set;
+import java.util.UUID;
+
+import com.stasiu.blog.domain.PostMetadata;
+import com.stasiu.blog.domain.PostStatus;
+
+// The previous category, tags and status let consumers invalidate what the post was listed under before the change.
+public record PostUpdated(
+        PostMetadata post,
+        PostStatus status,
+        UUID previousCategoryId,
+        Set<UUID> previousTagIds,
+        PostStatus previousStatus) implements PostEvent {
+
+    @Override
+    public UUID postId() {
+        return post.getId();
+    }
+}
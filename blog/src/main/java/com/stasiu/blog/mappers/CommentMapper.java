@@ -0,0 +1,16 @@
+package com.stasiu.blog.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import com.stasiu.blog.domain.dtos.CommentDto;
+import com.stasiu.blog.domain.entities.Comment;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface CommentMapper {
+
+    @Mapping(target = "authorName", source = "author.name")
+    CommentDto toDto(Comment comment);
+
+}
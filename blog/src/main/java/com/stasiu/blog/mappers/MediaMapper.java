@@ -0,0 +1,14 @@
+package com.stasiu.blog.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+import com.stasiu.blog.domain.dtos.MediaDto;
+import com.stasiu.blog.domain.entities.Media;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface MediaMapper {
+
+    MediaDto toDto(Media media);
+
+}
@@ -4,8 +4,11 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 
+import com.stasiu.blog.domain.AutosaveDraftRequest;
+import com.stasiu.blog.domain.ContentFormat;
 import com.stasiu.blog.domain.CreatePostRequest;
 import com.stasiu.blog.domain.UpdatePostRequest;
+import com.stasiu.blog.domain.dtos.AutosaveDraftRequestDto;
 import com.stasiu.blog.domain.dtos.CreatePostRequestDto;
 import com.stasiu.blog.domain.dtos.PostDto;
 import com.stasiu.blog.domain.dtos.UpdatePostRequestDto;
@@ -18,9 +21,24 @@ public interface PostMapper {
     @Mapping(target = "category", source = "category")
     @Mapping(target = "tags", source = "tags")
     @Mapping(target = "status", source = "status") 
+    @Mapping(target = "contentHtml", ignore = true)
+    @Mapping(target = "tableOfContents", ignore = true)
     PostDto toDto(Post post);
 
+    @Mapping(target = "author", source = "author")
+    @Mapping(target = "category", source = "category")
+    @Mapping(target = "tags", source = "tags")
+    @Mapping(target = "status", source = "status")
+    @Mapping(target = "content", ignore = true)
+    PostDto toHtmlDto(Post post);
+
+    default PostDto toDto(Post post, ContentFormat format) {
+        return format == ContentFormat.HTML ? toHtmlDto(post) : toDto(post);
+    }
+
     CreatePostRequest toCreatePostRequest(CreatePostRequestDto dto);
 
     UpdatePostRequest toUpdatePostRequest(UpdatePostRequestDto dto);
+
+    AutosaveDraftRequest toAutosaveDraftRequest(AutosaveDraftRequestDto dto);
 }
@@ -0,0 +1,25 @@
+package com.stasiu.blog.monitoring;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import com.stasiu.blog.domain.SlowQuery;
+
+import lombok.RequiredArgsConstructor;
+
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    @ReadOperation
+    public SlowQueries slowQueries() {
+        return new SlowQueries(slowQueryLog.totalRecorded(), slowQueryLog.recent());
+    }
+
+    public record SlowQueries(long totalRecorded, List<SlowQuery> queries) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.stasiu.blog.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.stasiu.blog.domain.SlowQuery;
+
+/**
+ * Fixed-size ring buffer of the most recent slow queries. Recording is a single slot write, so it
+ * never blocks the statement that was slow; a reader may miss an entry that is overwritten meanwhile.
+ */
+public class SlowQueryLog {
+
+    private final AtomicReferenceArray<SlowQuery> entries;
+    private final AtomicLong written = new AtomicLong();
+
+    public SlowQueryLog(int capacity) {
+        if(capacity <= 0) {
+            throw new IllegalArgumentException("Slow query log capacity must be positive");
+        }
+        this.entries = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void record(SlowQuery slowQuery) {
+        long index = written.getAndIncrement();
+        entries.set((int) (index % entries.length()), slowQuery);
+    }
+
+    /** Returns the retained slow queries, newest first. */
+    public List<SlowQuery> recent() {
+        long end = written.get();
+        long start = Math.max(0, end - entries.length());
+        List<SlowQuery> recent = new ArrayList<>((int) (end - start));
+        for(long index = end - 1; index >= start; index--) {
+            SlowQuery slowQuery = entries.get((int) (index % entries.length()));
+            if(slowQuery != null) {
+                recent.add(slowQuery);
+            }
+        }
+        return recent;
+    }
+
+    public long totalRecorded() {
+        return written.get();
+    }
+}
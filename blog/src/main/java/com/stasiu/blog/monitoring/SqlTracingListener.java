@@ -0,0 +1,112 @@
+package com.stasiu.blog.monitoring;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.stasiu.blog.domain.SlowQuery;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * Logs statements slower than the threshold and every {@code sampleRate}-th other statement, each
+ * with the repository method and HTTP route that issued it. Bound values are never logged, only
+ * their types, since they carry user data such as emails and password hashes.
+ */
+@Slf4j
+public class SqlTracingListener implements QueryExecutionListener {
+
+    private final SlowQueryLog slowQueryLog;
+    private final long slowQueryThresholdMillis;
+    private final long sampleRate;
+    private final Counter slowQueries;
+    private final AtomicLong executed = new AtomicLong();
+
+    public SqlTracingListener(SlowQueryLog slowQueryLog, MeterRegistry meterRegistry, Duration slowQueryThreshold, long sampleRate) {
+        this.slowQueryLog = slowQueryLog;
+        this.slowQueryThresholdMillis = slowQueryThreshold.toMillis();
+        this.sampleRate = sampleRate;
+        this.slowQueries = Counter.builder("blog.sql.slow.queries")
+            .description("Statements slower than the slow query threshold")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long count = executed.incrementAndGet();
+        boolean slow = execInfo.getElapsedTime() >= slowQueryThresholdMillis;
+        boolean sampled = sampleRate > 0 && count % sampleRate == 0;
+        if(!slow && !sampled) {
+            return;
+        }
+
+        SlowQuery query = SlowQuery.builder()
+            .executedAt(Instant.now())
+            .elapsedMillis(execInfo.getElapsedTime())
+            .sql(queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")))
+            .batchSize(execInfo.isBatch() ? execInfo.getBatchSize() : 1)
+            .parameterTypes(parameterTypes(queryInfoList))
+            .repositoryMethod(RepositoryMethodContext.current())
+            .route(currentRoute())
+            .success(execInfo.isSuccess())
+            .build();
+
+        if(slow) {
+            slowQueries.increment();
+            slowQueryLog.record(query);
+            log.warn("Slow query took {} ms (threshold {} ms) in {} for {}: {} {}",
+                query.getElapsedMillis(), slowQueryThresholdMillis, query.getRepositoryMethod(), query.getRoute(),
+                query.getSql(), query.getParameterTypes());
+        } else {
+            log.info("Sampled query took {} ms in {} for {}: {} {}",
+                query.getElapsedMillis(), query.getRepositoryMethod(), query.getRoute(),
+                query.getSql(), query.getParameterTypes());
+        }
+    }
+
+    private static List<String> parameterTypes(List<QueryInfo> queryInfoList) {
+        if(queryInfoList.isEmpty() || queryInfoList.get(0).getParametersList().isEmpty()) {
+            return List.of();
+        }
+        // Every entry of a batch binds the same types, so the first one describes all of them.
+        return queryInfoList.get(0).getParametersList().get(0).stream()
+            .map(SqlTracingListener::parameterType)
+            .toList();
+    }
+
+    private static String parameterType(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        if("setNull".equals(operation.getMethod().getName()) || args.length < 2 || args[1] == null) {
+            return "null";
+        }
+        return args[1].getClass().getSimpleName();
+    }
+
+    private static String currentRoute() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if(!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
@@ -0,0 +1,160 @@
+package com.stasiu.blog.reactive;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.stasiu.blog.domain.ContentFormat;
+import com.stasiu.blog.domain.EngagementType;
+import com.stasiu.blog.domain.PostFilter;
+import com.stasiu.blog.domain.dtos.ApiErrorResponse;
+import com.stasiu.blog.domain.dtos.CategoryDto;
+import com.stasiu.blog.domain.dtos.PostDto;
+import com.stasiu.blog.domain.dtos.TagResponse;
+import com.stasiu.blog.services.PostIndexService;
+import com.stasiu.blog.services.TrendingService;
+import com.stasiu.blog.services.ViewCounterService;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The public read routes of the MVC controllers, answered without blocking a thread on the
+ * database. Listings are JSON arrays, or one post per line when the client accepts
+ * {@code application/x-ndjson}; either way rows are written as they arrive and read from the
+ * database only as fast as the client takes them.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveReadHandler {
+
+    private final ReactiveReadRepository repository;
+    private final PostIndexService postIndexService;
+    private final ViewCounterService viewCounterService;
+    private final TrendingService trendingService;
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+            .GET("/api/v1/posts", deferred(this::getAllPosts))
+            .GET("/api/v1/posts/{id}", deferred(this::getPost))
+            .GET("/api/v1/categories", deferred(this::listCategories))
+            .GET("/api/v1/tags", deferred(this::listTags))
+            .onError(IllegalArgumentException.class, (ex, request) -> error(HttpStatus.BAD_REQUEST, ex.getMessage()))
+            .onError(EntityNotFoundException.class, (ex, request) -> error(HttpStatus.NOT_FOUND, ex.getMessage()))
+            // Raised when the pool stays exhausted for the acquire timeout; under overload a stack trace per request helps no one.
+            .onError(DataAccessResourceFailureException.class, (ex, request) -> {
+                log.warn("Could not obtain a database connection: {}", ex.getMessage());
+                return error(HttpStatus.SERVICE_UNAVAILABLE, "Service temporarily unavailable");
+            })
+            .onError(Exception.class, (ex, request) -> {
+                log.error("Caught exception: ", ex);
+                return error(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred");
+            })
+            .build();
+    }
+
+    private Mono<ServerResponse> getAllPosts(ServerRequest request) {
+        ContentFormat format = ContentFormat.fromValue(request.queryParam("format").orElse(null));
+        Set<UUID> requiredTags = uuids(request, "allTags");
+        requiredTags.addAll(uuids(request, "tagId"));
+        PostFilter filter = PostFilter.builder()
+            .categoryId(request.queryParam("categoryId").map(UUID::fromString).orElse(null))
+            .allTags(requiredTags)
+            .anyTags(uuids(request, "anyTags"))
+            .noneTags(uuids(request, "noneTags"))
+            .build();
+        if(filter.isEmpty()) {
+            return stream(request, repository.findPublishedPosts(format), PostDto.class);
+        }
+        // The index answers from memory, so it is safe to ask on the event loop.
+        return checkFilter(filter)
+            .then(Mono.fromSupplier(() -> postIndexService.findPostIds(filter)))
+            .flatMap(postIds -> stream(request, repository.findPublishedPosts(postIds, format), PostDto.class));
+    }
+
+    private Mono<ServerResponse> getPost(ServerRequest request) {
+        UUID id = UUID.fromString(request.pathVariable("id"));
+        ContentFormat format = ContentFormat.fromValue(request.queryParam("format").orElse(null));
+        return repository.findPublishedPost(id, format)
+            .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Post not found with id: " + id)))
+            .doOnNext(post -> {
+                viewCounterService.recordView(id);
+                trendingService.recordEngagement(id, EngagementType.VIEW);
+            })
+            .flatMap(post -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(post));
+    }
+
+    private Mono<ServerResponse> listCategories(ServerRequest request) {
+        return stream(request, repository.findCategories(), CategoryDto.class);
+    }
+
+    private Mono<ServerResponse> listTags(ServerRequest request) {
+        return stream(request, repository.findTags(), TagResponse.class);
+    }
+
+    // Same checks as PostServiceImpl, so an unknown category or tag is a 404 here too.
+    private Mono<Void> checkFilter(PostFilter filter) {
+        Mono<Void> category = filter.getCategoryId() == null ? Mono.empty() : repository.categoryExists(filter.getCategoryId())
+            .filter(Boolean::booleanValue)
+            .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Category not found with id: " + filter.getCategoryId())))
+            .then();
+        Set<UUID> tagIds = new HashSet<>(filter.getAllTags());
+        tagIds.addAll(filter.getAnyTags());
+        Mono<Void> tags = tagIds.isEmpty() ? Mono.empty() : repository.findTagIds(tagIds)
+            .collect(Collectors.toSet())
+            .flatMap(foundIds -> {
+                Set<UUID> missingIds = new HashSet<>(tagIds);
+                missingIds.removeAll(foundIds);
+                return missingIds.isEmpty() ? Mono.empty() : Mono.error(new EntityNotFoundException(
+                    "Tags not found with ids: " + missingIds.stream().map(UUID::toString).sorted().collect(Collectors.joining(", "))));
+            });
+        return category.then(tags);
+    }
+
+    // Parameters are parsed while the handler runs; deferring turns what that throws into errors onError can map.
+    private static HandlerFunction<ServerResponse> deferred(HandlerFunction<ServerResponse> handler) {
+        return request -> Mono.defer(() -> handler.handle(request));
+    }
+
+    private static <T> Mono<ServerResponse> stream(ServerRequest request, Flux<T> body, Class<T> type) {
+        MediaType contentType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+            ? MediaType.APPLICATION_NDJSON
+            : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok().contentType(contentType).body(body, type);
+    }
+
+    // Accepts both ?anyTags=a&anyTags=b and ?anyTags=a,b like the MVC binding does.
+    private static Set<UUID> uuids(ServerRequest request, String name) {
+        Set<UUID> ids = new HashSet<>();
+        for(String value : request.queryParams().getOrDefault(name, List.of())) {
+            for(String id : value.split(",")) {
+                if(!id.isBlank()) {
+                    ids.add(UUID.fromString(id.trim()));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String message) {
+        ApiErrorResponse errorResponse = ApiErrorResponse.builder()
+            .status(status.value())
+            .message(message)
+            .build();
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(errorResponse);
+    }
+}
@@ -0,0 +1,181 @@
+package com.stasiu.blog.reactive;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.stasiu.blog.domain.ContentFormat;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.converters.TableOfContentsConverter;
+import com.stasiu.blog.domain.dtos.AuthorDto;
+import com.stasiu.blog.domain.dtos.CategoryDto;
+import com.stasiu.blog.domain.dtos.PostDto;
+import com.stasiu.blog.domain.dtos.TagResponse;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads published posts, categories and tags straight into the DTOs the MVC controllers return.
+ * A post and its tags come from one query, one row per tag, and rows of the same post are folded
+ * together as they stream past. A listing thus holds a single connection, and only the rows of
+ * the post being folded are kept in memory however long it is and however slowly it is read.
+ */
+public class ReactiveReadRepository {
+
+    // Larger id lists are matched against the full listing instead of being bound one by one.
+    static final int MAX_BOUND_IDS = 1000;
+
+    private static final int FETCH_SIZE = 256;
+    private static final TableOfContentsConverter TOC_CONVERTER = new TableOfContentsConverter();
+
+    private static final String POST_COLUMNS = """
+        SELECT p.id, p.title, p.status, p.publish_at, p.reading_time, p.view_count, p.comment_count,
+               p.created_at, p.updated_at, u.id AS author_id, u.name AS author_name,
+               c.id AS category_id, c.name AS category_name, t.id AS tag_id, t.name AS tag_name""";
+    private static final String POST_JOINS = """
+         FROM posts p
+         JOIN users u ON u.id = p.author_id
+         JOIN categories c ON c.id = p.category_id
+         LEFT JOIN post_tags pt ON pt.post_id = p.id
+         LEFT JOIN tags t ON t.id = pt.tag_id
+        """;
+    private static final String POST_ORDER = " ORDER BY p.created_at DESC, p.id, t.name";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveReadRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<PostDto> findPublishedPosts(ContentFormat format) {
+        return fold(databaseClient.sql(postQuery(format, "WHERE p.status = 'PUBLISHED'"))
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .map(row -> toPostRow(row, format))
+            .all());
+    }
+
+    public Flux<PostDto> findPublishedPosts(List<UUID> ids, ContentFormat format) {
+        if(ids.isEmpty()) {
+            return Flux.empty();
+        }
+        if(ids.size() > MAX_BOUND_IDS) {
+            Set<UUID> wanted = new HashSet<>(ids);
+            return findPublishedPosts(format).filter(post -> wanted.contains(post.getId()));
+        }
+        return fold(databaseClient.sql(postQuery(format, "WHERE p.status = 'PUBLISHED' AND p.id IN (:ids)"))
+            .bind("ids", ids)
+            .map(row -> toPostRow(row, format))
+            .all());
+    }
+
+    public Mono<PostDto> findPublishedPost(UUID id, ContentFormat format) {
+        return fold(databaseClient.sql(postQuery(format, "WHERE p.id = :id AND p.status = 'PUBLISHED'"))
+                .bind("id", id)
+                .map(row -> toPostRow(row, format))
+                .all())
+            .next();
+    }
+
+    public Flux<CategoryDto> findCategories() {
+        return databaseClient.sql("""
+                SELECT c.id, c.name, COUNT(p.id) AS post_count
+                FROM categories c
+                LEFT JOIN posts p ON p.category_id = c.id AND p.status = 'PUBLISHED'
+                GROUP BY c.id, c.name
+                ORDER BY c.name""")
+            .map(row -> new CategoryDto(
+                row.get("id", UUID.class),
+                row.get("name", String.class),
+                row.get("post_count", Long.class)))
+            .all();
+    }
+
+    public Flux<TagResponse> findTags() {
+        return databaseClient.sql("""
+                SELECT t.id, t.name, COUNT(p.id) AS post_count
+                FROM tags t
+                LEFT JOIN post_tags pt ON pt.tag_id = t.id
+                LEFT JOIN posts p ON p.id = pt.post_id AND p.status = 'PUBLISHED'
+                GROUP BY t.id, t.name
+                ORDER BY t.name""")
+            .map(row -> new TagResponse(
+                row.get("id", UUID.class),
+                row.get("name", String.class),
+                row.get("post_count", Long.class).intValue()))
+            .all();
+    }
+
+    public Mono<Boolean> categoryExists(UUID id) {
+        return databaseClient.sql("SELECT COUNT(*) AS found FROM categories WHERE id = :id")
+            .bind("id", id)
+            .map(row -> row.get("found", Long.class) > 0)
+            .one();
+    }
+
+    public Flux<UUID> findTagIds(Collection<UUID> ids) {
+        return databaseClient.sql("SELECT id FROM tags WHERE id IN (:ids)")
+            .bind("ids", List.copyOf(ids))
+            .map(row -> row.get("id", UUID.class))
+            .all();
+    }
+
+    // Rows arrive ordered by post, so a post is complete as soon as the next one starts.
+    private static Flux<PostDto> fold(Flux<PostRow> rows) {
+        return rows.bufferUntilChanged(row -> row.post().getId())
+            .map(postRows -> {
+                PostDto post = postRows.get(0).post();
+                Set<TagResponse> tags = new LinkedHashSet<>();
+                for(PostRow row : postRows) {
+                    if(row.tag() != null) {
+                        tags.add(row.tag());
+                    }
+                }
+                post.setTags(tags);
+                return post;
+            });
+    }
+
+    private static String postQuery(ContentFormat format, String condition) {
+        String content = format == ContentFormat.HTML ? ", p.content_html, p.table_of_contents" : ", p.content";
+        return POST_COLUMNS + content + POST_JOINS + condition + POST_ORDER;
+    }
+
+    private static PostRow toPostRow(Readable row, ContentFormat format) {
+        PostDto post = PostDto.builder()
+            .id(row.get("id", UUID.class))
+            .title(row.get("title", String.class))
+            .author(new AuthorDto(row.get("author_id", UUID.class), row.get("author_name", String.class)))
+            .category(new CategoryDto(row.get("category_id", UUID.class), row.get("category_name", String.class), 0))
+            .readingTime(row.get("reading_time", Integer.class))
+            .viewCount(row.get("view_count", Long.class))
+            .commentCount(row.get("comment_count", Long.class))
+            .createdAt(row.get("created_at", LocalDateTime.class))
+            .updatedAt(row.get("updated_at", LocalDateTime.class))
+            .status(PostStatus.valueOf(row.get("status", String.class)))
+            .build();
+        OffsetDateTime publishAt = row.get("publish_at", OffsetDateTime.class);
+        if(publishAt != null) {
+            post.setPublishAt(publishAt.toInstant());
+        }
+        if(format == ContentFormat.HTML) {
+            post.setContentHtml(row.get("content_html", String.class));
+            post.setTableOfContents(TOC_CONVERTER.convertToEntityAttribute(row.get("table_of_contents", String.class)));
+        } else {
+            post.setContent(row.get("content", String.class));
+        }
+        UUID tagId = row.get("tag_id", UUID.class);
+        return new PostRow(post, tagId != null ? new TagResponse(tagId, row.get("tag_name", String.class), null) : null);
+    }
+
+    private record PostRow(PostDto post, TagResponse tag) {
+    }
+}
@@ -0,0 +1,168 @@
+package com.stasiu.blog.reactive;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stasiu.blog.security.RateLimiter;
+import com.stasiu.blog.security.ReactiveRateLimitFilter;
+import com.stasiu.blog.services.PostIndexService;
+import com.stasiu.blog.services.TrendingService;
+import com.stasiu.blog.services.ViewCounterService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Serves the public read routes from Reactor Netty on a port of its own, next to the servlet
+ * container that keeps handling everything else. A handful of event loop threads and a small
+ * R2DBC pool carry any number of open requests, where Tomcat needs a thread and, while it reads,
+ * a JDBC connection per request. Reads here count against the same rate limit as reads on the
+ * servlet port, keyed by the same client address.
+ *
+ * <p>The pool is deliberately not a bean: a {@code ConnectionFactory} in the context would make
+ * Spring Boot back off from the JDBC {@code DataSource} the rest of the application runs on.
+ */
+@Component
+@ConditionalOnProperty(name = "blog.reactive.enabled", havingValue = "true")
+@Slf4j
+public class ReactiveReadServer {
+
+    private final ConnectionPool connectionPool;
+    private final LoopResources loopResources;
+    private final HttpHandler httpHandler;
+    private final TrustedProxyForwardedHandler forwardedHandler;
+    private final String host;
+    private final int port;
+    private DisposableServer server;
+
+    public ReactiveReadServer(
+            PostIndexService postIndexService,
+            ViewCounterService viewCounterService,
+            TrendingService trendingService,
+            ObjectMapper objectMapper,
+            UrlBasedCorsConfigurationSource corsConfigurationSource,
+            RateLimiter readRateLimiter,
+            MeterRegistry meterRegistry,
+            ServerProperties serverProperties,
+            @Value("${blog.reactive.host:0.0.0.0}") String host,
+            @Value("${blog.reactive.port:8081}") int port,
+            @Value("${blog.reactive.event-loop-threads:0}") int eventLoopThreads,
+            @Value("${blog.reactive.r2dbc.url}") String url,
+            @Value("${blog.reactive.r2dbc.username:${spring.datasource.username:}}") String username,
+            @Value("${blog.reactive.r2dbc.password:${spring.datasource.password:}}") String password,
+            @Value("${blog.reactive.r2dbc.pool-size:10}") int poolSize,
+            @Value("${blog.reactive.r2dbc.acquire-timeout:5s}") Duration acquireTimeout) {
+        this.host = host;
+        this.port = port;
+        // Forwarded headers are trusted on this port exactly when Tomcat trusts them on the servlet port.
+        ServerProperties.Tomcat.Remoteip remoteIp = serverProperties.getTomcat().getRemoteip();
+        this.forwardedHandler = serverProperties.getForwardHeadersStrategy() == ServerProperties.ForwardHeadersStrategy.NATIVE
+            ? new TrustedProxyForwardedHandler(remoteIp.getInternalProxies(),
+                remoteIp.getRemoteIpHeader() != null ? remoteIp.getRemoteIpHeader() : "X-Forwarded-For")
+            : null;
+        this.loopResources = LoopResources.create("blog-reactive",
+            eventLoopThreads > 0 ? eventLoopThreads : LoopResources.DEFAULT_IO_WORKER_COUNT, true);
+
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if(!username.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if(!password.isEmpty()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+            .name("blog-reactive")
+            .initialSize(Math.min(2, poolSize))
+            .maxSize(poolSize)
+            .maxAcquireTime(acquireTimeout)
+            .build());
+        registerPoolMetrics(meterRegistry);
+
+        ReactiveReadHandler handler = new ReactiveReadHandler(
+            new ReactiveReadRepository(DatabaseClient.create(connectionPool)),
+            postIndexService, viewCounterService, trendingService);
+        org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource reactiveCors =
+            new org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource();
+        corsConfigurationSource.getCorsConfigurations().forEach(reactiveCors::registerCorsConfiguration);
+        this.httpHandler = RouterFunctions.toHttpHandler(handler.routes(), HandlerStrategies.builder()
+            .codecs(codecs -> {
+                codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+            })
+            .webFilter(new CorsWebFilter(reactiveCors))
+            .webFilter(new ReactiveRateLimitFilter(readRateLimiter, objectMapper))
+            .build());
+    }
+
+    // Started once the index and the rest of the application are ready to answer.
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        HttpServer httpServer = HttpServer.create()
+            .host(host)
+            .port(port)
+            .runOn(loopResources);
+        if(forwardedHandler != null) {
+            httpServer = httpServer.forwarded(forwardedHandler);
+        }
+        server = httpServer
+            .handle(new ReactorHttpHandlerAdapter(httpHandler))
+            .bindNow();
+        log.info("Reactive read routes listening on port {}", server.port());
+    }
+
+    public int getPort() {
+        if(server == null) {
+            throw new IllegalStateException("Reactive read server has not been started");
+        }
+        return server.port();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if(server != null) {
+            server.disposeNow(Duration.ofSeconds(10));
+        }
+        connectionPool.disposeLater().block(Duration.ofSeconds(10));
+        loopResources.disposeLater().block(Duration.ofSeconds(10));
+    }
+
+    private void registerPoolMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("blog.reactive.connections", connectionPool, pool -> pool.getMetrics().map(PoolMetrics::acquiredSize).orElse(0))
+            .description("R2DBC connections of the reactive read routes by state")
+            .tag("state", "acquired")
+            .register(meterRegistry);
+        Gauge.builder("blog.reactive.connections", connectionPool, pool -> pool.getMetrics().map(PoolMetrics::idleSize).orElse(0))
+            .description("R2DBC connections of the reactive read routes by state")
+            .tag("state", "idle")
+            .register(meterRegistry);
+        Gauge.builder("blog.reactive.connections.pending", connectionPool, pool -> pool.getMetrics().map(PoolMetrics::pendingAcquireSize).orElse(0))
+            .description("Queries of the reactive read routes waiting for a connection")
+            .register(meterRegistry);
+    }
+}
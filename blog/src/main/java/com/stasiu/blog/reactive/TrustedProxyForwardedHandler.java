@@ -0,0 +1,62 @@
+package com.stasiu.blog.reactive;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.function.BiFunction;
+import java.util.regex.Pattern;
+
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.util.NetUtil;
+import reactor.netty.http.server.ConnectionInfo;
+
+/**
+ * Takes the client address from {@code X-Forwarded-For} the way Tomcat's {@code RemoteIpValve}
+ * does on the servlet port: only when the peer is one of the internal proxies, and then the
+ * rightmost entry that is not itself an internal proxy. A client talking to the port directly
+ * cannot choose the address it is rate limited under.
+ */
+class TrustedProxyForwardedHandler implements BiFunction<ConnectionInfo, HttpRequest, ConnectionInfo> {
+
+    private final Pattern internalProxies;
+    private final String remoteIpHeader;
+
+    TrustedProxyForwardedHandler(String internalProxies, String remoteIpHeader) {
+        this.internalProxies = Pattern.compile(internalProxies);
+        this.remoteIpHeader = remoteIpHeader;
+    }
+
+    @Override
+    public ConnectionInfo apply(ConnectionInfo connectionInfo, HttpRequest request) {
+        InetSocketAddress clientAddress = clientAddress(connectionInfo.getRemoteAddress(), request.headers().get(remoteIpHeader));
+        return clientAddress != null ? connectionInfo.withRemoteAddress(clientAddress) : connectionInfo;
+    }
+
+    InetSocketAddress clientAddress(InetSocketAddress peer, String forwardedFor) {
+        if(peer == null || peer.getAddress() == null || forwardedFor == null || !isInternalProxy(peer.getAddress())) {
+            return null;
+        }
+        String[] hops = forwardedFor.split(",");
+        InetAddress client = null;
+        for(int i = hops.length - 1; i >= 0; i--) {
+            byte[] address = NetUtil.createByteArrayFromIpAddressString(hops[i].trim());
+            if(address == null) {
+                // Anything left of a hop we cannot read was written by someone we do not trust.
+                break;
+            }
+            try {
+                client = InetAddress.getByAddress(address);
+            } catch(UnknownHostException ex) {
+                break;
+            }
+            if(!isInternalProxy(client)) {
+                break;
+            }
+        }
+        return client != null ? new InetSocketAddress(client, peer.getPort()) : null;
+    }
+
+    private boolean isInternalProxy(InetAddress address) {
+        return internalProxies.matcher(address.getHostAddress()).matches();
+    }
+}
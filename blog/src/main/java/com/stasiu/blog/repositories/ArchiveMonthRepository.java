@@ -0,0 +1,27 @@
+package com.stasiu.blog.repositories;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.stasiu.blog.domain.dtos.ArchiveMonthDto;
+import com.stasiu.blog.domain.entities.ArchiveMonth;
+import com.stasiu.blog.domain.entities.ArchiveMonthId;
+
+@Repository
+public interface ArchiveMonthRepository extends JpaRepository<ArchiveMonth, ArchiveMonthId>, ArchiveMonthRepositoryCustom {
+
+    @Query("SELECT new com.stasiu.blog.domain.dtos.ArchiveMonthDto(a.id.year, a.id.month, SUM(a.postCount)) " +
+           "FROM ArchiveMonth a WHERE a.postCount > 0 " +
+           "GROUP BY a.id.year, a.id.month ORDER BY a.id.year DESC, a.id.month DESC")
+    List<ArchiveMonthDto> findMonths();
+
+    @Query("SELECT new com.stasiu.blog.domain.dtos.ArchiveMonthDto(a.id.year, a.id.month, a.postCount) " +
+           "FROM ArchiveMonth a WHERE a.postCount > 0 AND a.id.categoryId = :categoryId " +
+           "ORDER BY a.id.year DESC, a.id.month DESC")
+    List<ArchiveMonthDto> findMonthsByCategory(UUID categoryId);
+
+}
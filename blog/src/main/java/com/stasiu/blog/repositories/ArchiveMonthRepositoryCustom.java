@@ -0,0 +1,12 @@
+package com.stasiu.blog.repositories;
+
+import java.util.Map;
+
+import com.stasiu.blog.domain.entities.ArchiveMonthId;
+
+public interface ArchiveMonthRepositoryCustom {
+
+    void adjustCounts(Map<ArchiveMonthId, Long> deltas);
+    int rebuild();
+
+}
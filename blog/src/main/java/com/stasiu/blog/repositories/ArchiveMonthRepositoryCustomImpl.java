@@ -0,0 +1,72 @@
+package com.stasiu.blog.repositories;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.entities.ArchiveMonthId;
+
+public class ArchiveMonthRepositoryCustomImpl implements ArchiveMonthRepositoryCustom {
+
+    private static final String UPSERT_COUNT = """
+        INSERT INTO archive_months (archive_year, archive_month, category_id, post_count) VALUES (?, ?, ?, ?)
+        ON CONFLICT (archive_year, archive_month, category_id) DO UPDATE SET post_count = archive_months.post_count + EXCLUDED.post_count
+        """;
+
+    private static final String MERGE_COUNT = """
+        MERGE INTO archive_months AS a
+        USING (VALUES (CAST(? AS INTEGER), CAST(? AS INTEGER), CAST(? AS UUID), CAST(? AS BIGINT))) AS s (archive_year, archive_month, category_id, delta)
+        ON a.archive_year = s.archive_year AND a.archive_month = s.archive_month AND a.category_id = s.category_id
+        WHEN MATCHED THEN UPDATE SET post_count = a.post_count + s.delta
+        WHEN NOT MATCHED THEN INSERT (archive_year, archive_month, category_id, post_count) VALUES (s.archive_year, s.archive_month, s.category_id, s.delta)
+        """;
+
+    private static final String DELETE_ALL = "DELETE FROM archive_months";
+
+    private static final String COUNT_PUBLISHED = """
+        INSERT INTO archive_months (archive_year, archive_month, category_id, post_count)
+        SELECT EXTRACT(YEAR FROM created_at), EXTRACT(MONTH FROM created_at), category_id, COUNT(*)
+        FROM posts WHERE status = ?
+        GROUP BY EXTRACT(YEAR FROM created_at), EXTRACT(MONTH FROM created_at), category_id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UpsertStatement upsertCount;
+
+    public ArchiveMonthRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.upsertCount = new UpsertStatement(jdbcTemplate, UPSERT_COUNT, MERGE_COUNT);
+    }
+
+    @Override
+    @Transactional
+    public void adjustCounts(Map<ArchiveMonthId, Long> deltas) {
+        // Rows are written in a stable order so concurrent post updates cannot deadlock.
+        List<Map.Entry<ArchiveMonthId, Long>> rows = deltas.entrySet().stream()
+            .filter(delta -> delta.getValue() != 0)
+            .sorted(Map.Entry.comparingByKey(Comparator.comparingInt(ArchiveMonthId::getYear)
+                .thenComparingInt(ArchiveMonthId::getMonth)
+                .thenComparing(ArchiveMonthId::getCategoryId)))
+            .toList();
+        if(rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(upsertCount.sql(), rows, rows.size(), (ps, row) -> {
+            ps.setInt(1, row.getKey().getYear());
+            ps.setInt(2, row.getKey().getMonth());
+            ps.setObject(3, row.getKey().getCategoryId());
+            ps.setLong(4, row.getValue());
+        });
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        jdbcTemplate.update(DELETE_ALL);
+        return jdbcTemplate.update(COUNT_PUBLISHED, PostStatus.PUBLISHED.name());
+    }
+}
@@ -0,0 +1,43 @@
+package com.stasiu.blog.repositories;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.stasiu.blog.domain.dtos.CommentDto;
+import com.stasiu.blog.domain.entities.Comment;
+
+@Repository
+public interface CommentRepository extends JpaRepository<Comment, UUID> {
+
+    @Query("SELECT c FROM Comment c WHERE c.id = :id AND c.post.id = :postId")
+    Optional<Comment> findByIdAndPostId(UUID id, UUID postId);
+
+    // Keyset pages in path order: top-level comments of a post, or a subtree of one thread.
+    @Query("SELECT new com.stasiu.blog.domain.dtos.CommentDto(c.id, c.parentId, c.depth, c.author.name, c.content, c.replyCount, c.deleted, c.createdAt, c.path) " +
+           "FROM Comment c WHERE c.post.id = :postId AND c.depth = 0 AND c.path > :afterPath ORDER BY c.path")
+    List<CommentDto> findTopLevelPage(UUID postId, String afterPath, Limit limit);
+
+    @Query("SELECT new com.stasiu.blog.domain.dtos.CommentDto(c.id, c.parentId, c.depth, c.author.name, c.content, c.replyCount, c.deleted, c.createdAt, c.path) " +
+           "FROM Comment c WHERE c.rootId = :rootId AND c.path > :afterPath AND c.path < :pathBound ORDER BY c.path")
+    List<CommentDto> findThreadPage(UUID rootId, String afterPath, String pathBound, Limit limit);
+
+    @Modifying
+    @Query("UPDATE Comment c SET c.replyCount = c.replyCount + 1 WHERE c.id = :id")
+    int incrementReplyCount(UUID id);
+
+    @Modifying
+    @Query("UPDATE Comment c SET c.deleted = true, c.content = '' WHERE c.id = :id AND c.deleted = false")
+    int markDeleted(UUID id);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.post.id = :postId")
+    int deleteAllByPostId(UUID postId);
+
+}
@@ -0,0 +1,25 @@
+package com.stasiu.blog.repositories;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.stasiu.blog.domain.entities.Media;
+
+@Repository
+public interface MediaRepository extends JpaRepository<Media, UUID> {
+
+    @Query("SELECT m FROM Media m WHERE m.post.id = :postId ORDER BY m.createdAt")
+    List<Media> findAllByPostId(UUID postId);
+
+    boolean existsByContentHash(String contentHash);
+
+    @Modifying
+    @Query("DELETE FROM Media m WHERE m.post.id = :postId")
+    int deleteAllByPostId(UUID postId);
+
+}
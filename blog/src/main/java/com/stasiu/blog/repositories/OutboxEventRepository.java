@@ -0,0 +1,45 @@
+package com.stasiu.blog.repositories;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import com.stasiu.blog.domain.OutboxBacklog;
+import com.stasiu.blog.domain.OutboxStatus;
+import com.stasiu.blog.domain.entities.OutboxEvent;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Only the oldest pending event of each post is eligible, so events of one post are delivered in order
+    // even while an earlier one waits for a retry. Rows locked by another dispatcher are skipped (lock timeout -2).
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = :status AND e.availableAt <= :now " +
+           "AND NOT EXISTS (SELECT p.id FROM OutboxEvent p WHERE p.aggregateId = e.aggregateId AND p.status = :status AND p.id < e.id) " +
+           "ORDER BY e.id")
+    List<OutboxEvent> findDispatchable(OutboxStatus status, Instant now, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id = :id")
+    Optional<OutboxEvent> findByIdForUpdate(Long id);
+
+    @Query("SELECT new com.stasiu.blog.domain.OutboxBacklog(COUNT(e), MIN(e.createdAt)) FROM OutboxEvent e WHERE e.status = :status")
+    OutboxBacklog findBacklog(OutboxStatus status);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = :status AND e.processedAt < :processedBefore")
+    int deleteByStatusAndProcessedAtBefore(OutboxStatus status, Instant processedBefore);
+
+}
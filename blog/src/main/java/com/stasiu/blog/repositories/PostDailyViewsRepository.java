@@ -0,0 +1,20 @@
+package com.stasiu.blog.repositories;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.stasiu.blog.domain.entities.PostDailyViews;
+import com.stasiu.blog.domain.entities.PostDailyViewsId;
+
+@Repository
+public interface PostDailyViewsRepository extends JpaRepository<PostDailyViews, PostDailyViewsId>, PostDailyViewsRepositoryCustom {
+
+    @Modifying
+    @Query("DELETE FROM PostDailyViews d WHERE d.id.postId = :postId")
+    int deleteAllByPostId(UUID postId);
+
+}
@@ -0,0 +1,11 @@
+package com.stasiu.blog.repositories;
+
+import java.util.List;
+
+import com.stasiu.blog.domain.PostViewDelta;
+
+public interface PostDailyViewsRepositoryCustom {
+
+    void incrementViews(List<PostViewDelta> deltas);
+
+}
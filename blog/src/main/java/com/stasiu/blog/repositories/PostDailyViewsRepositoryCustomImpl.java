@@ -0,0 +1,65 @@
+package com.stasiu.blog.repositories;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.stasiu.blog.domain.PostViewDelta;
+
+public class PostDailyViewsRepositoryCustomImpl implements PostDailyViewsRepositoryCustom {
+
+    private static final String UPSERT_DAILY_VIEWS = """
+        INSERT INTO post_daily_views (post_id, view_date, views) VALUES (?, ?, ?)
+        ON CONFLICT (post_id, view_date) DO UPDATE SET views = post_daily_views.views + EXCLUDED.views
+        """;
+
+    private static final String MERGE_DAILY_VIEWS = """
+        MERGE INTO post_daily_views AS d
+        USING (VALUES (CAST(? AS UUID), CAST(? AS DATE), CAST(? AS BIGINT))) AS s (post_id, view_date, views)
+        ON d.post_id = s.post_id AND d.view_date = s.view_date
+        WHEN MATCHED THEN UPDATE SET views = d.views + s.views
+        WHEN NOT MATCHED THEN INSERT (post_id, view_date, views) VALUES (s.post_id, s.view_date, s.views)
+        """;
+
+    private static final String INCREMENT_POST_VIEWS = "UPDATE posts SET view_count = view_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UpsertStatement upsertDailyViews;
+
+    public PostDailyViewsRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.upsertDailyViews = new UpsertStatement(jdbcTemplate, UPSERT_DAILY_VIEWS, MERGE_DAILY_VIEWS);
+    }
+
+    @Override
+    @Transactional
+    public void incrementViews(List<PostViewDelta> deltas) {
+        if(deltas.isEmpty()) {
+            return;
+        }
+
+        // Rows are written in a stable order so concurrent flushes from several instances cannot deadlock.
+        List<PostViewDelta> dailyRows = deltas.stream()
+            .sorted(Comparator.comparing(PostViewDelta::getPostId).thenComparing(PostViewDelta::getViewDate))
+            .toList();
+        jdbcTemplate.batchUpdate(upsertDailyViews.sql(), dailyRows, dailyRows.size(), (ps, delta) -> {
+            ps.setObject(1, delta.getPostId());
+            ps.setObject(2, delta.getViewDate());
+            ps.setLong(3, delta.getViews());
+        });
+
+        Map<UUID, Long> totals = new TreeMap<>();
+        for(PostViewDelta delta : dailyRows) {
+            totals.merge(delta.getPostId(), delta.getViews(), Long::sum);
+        }
+        jdbcTemplate.batchUpdate(INCREMENT_POST_VIEWS, totals.entrySet(), totals.size(), (ps, total) -> {
+            ps.setLong(1, total.getValue());
+            ps.setObject(2, total.getKey());
+        });
+    }
+}
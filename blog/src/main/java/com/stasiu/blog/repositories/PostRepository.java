@@ -1,36 +1,124 @@
 package com.stasiu.blog.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.stasiu.blog.domain.FeedEntry;
 import com.stasiu.blog.domain.PostStatus;
-import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.domain.PostTagRow;
+import com.stasiu.blog.domain.ScheduledPublication;
+import com.stasiu.blog.domain.SitemapEntry;
+import com.stasiu.blog.domain.TocEntry;
+import com.stasiu.blog.domain.dtos.ArchivePostDto;
 import com.stasiu.blog.domain.entities.Post;
-import com.stasiu.blog.domain.entities.Tag;
 import com.stasiu.blog.domain.entities.User;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface PostRepository extends JpaRepository<Post, UUID> {
     
-    List<Post> findAllByStatusAndCategoryAndTagsContaining(
-        PostStatus status, 
-        Category category, 
-        Tag tags
-    );
-    List<Post> findAllByStatusAndCategory(
-        PostStatus status, 
-        Category category
-    );
-    List<Post> findAllByStatusAndTagsContaining(
-        PostStatus status, 
-        Tag tags
-    );
+    @EntityGraph(attributePaths = {"author", "category", "tags"})
     List<Post> findAllByStatus(
         PostStatus status
     );
+    @EntityGraph(attributePaths = {"author", "category", "tags"})
     List<Post> findAllByAuthorAndStatus(User author, PostStatus status);
+    @EntityGraph(attributePaths = {"author", "category", "tags"})
+    List<Post> findAllByAuthorAndStatusOrderByPublishAtAsc(User author, PostStatus status);
+    @EntityGraph(attributePaths = {"author", "category", "tags"})
+    List<Post> findAllByIdInAndStatusOrderByCreatedAtDesc(Collection<UUID> ids, PostStatus status);
+    boolean existsByIdAndStatus(UUID id, PostStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Post p WHERE p.id = :id")
+    Optional<Post> findByIdForUpdate(UUID id);
+
+    @Query("SELECT new com.stasiu.blog.domain.ScheduledPublication(p.id, p.publishAt) FROM Post p WHERE p.status = :status")
+    List<ScheduledPublication> findScheduledPublications(PostStatus status);
+
+    @Query("SELECT new com.stasiu.blog.domain.PostTagRow(p.id, p.title, p.category.id, t.id, p.createdAt) " +
+           "FROM Post p LEFT JOIN p.tags t WHERE p.status = :status")
+    List<PostTagRow> findTagRowsByStatus(PostStatus status);
+
+    @Query("SELECT new com.stasiu.blog.domain.PostTagRow(p.id, p.title, p.category.id, t.id, p.createdAt) " +
+           "FROM Post p LEFT JOIN p.tags t WHERE p.id IN :ids AND p.status = :status")
+    List<PostTagRow> findTagRowsByIdInAndStatus(Collection<UUID> ids, PostStatus status);
+
+    @Query("SELECT new com.stasiu.blog.domain.FeedEntry(p.id, p.title, p.author.name, p.category.name, p.createdAt, p.updatedAt) " +
+           "FROM Post p WHERE p.status = :status ORDER BY p.createdAt DESC")
+    List<FeedEntry> findFeedEntries(PostStatus status, Limit limit);
+
+    @Query("SELECT new com.stasiu.blog.domain.FeedEntry(p.id, p.title, p.author.name, p.category.name, p.createdAt, p.updatedAt) " +
+           "FROM Post p WHERE p.status = :status AND p.category.id = :categoryId ORDER BY p.createdAt DESC")
+    List<FeedEntry> findFeedEntriesByCategory(PostStatus status, UUID categoryId, Limit limit);
+
+    @Query("SELECT new com.stasiu.blog.domain.FeedEntry(p.id, p.title, p.author.name, p.category.name, p.createdAt, p.updatedAt) " +
+           "FROM Post p JOIN p.tags t WHERE p.status = :status AND t.id = :tagId ORDER BY p.createdAt DESC")
+    List<FeedEntry> findFeedEntriesByTag(PostStatus status, UUID tagId, Limit limit);
+
+    @Query("SELECT new com.stasiu.blog.domain.SitemapEntry(p.id, p.updatedAt) " +
+           "FROM Post p WHERE p.status = :status ORDER BY p.updatedAt DESC")
+    List<SitemapEntry> findSitemapEntries(PostStatus status, Limit limit);
+
+    // Keyset pages, newest first: the page after (beforeCreatedAt, beforeId) within [from, to).
+    @Query("SELECT new com.stasiu.blog.domain.dtos.ArchivePostDto(p.id, p.title, p.author.name, p.category.id, p.category.name, p.readingTime, p.createdAt) " +
+           "FROM Post p WHERE p.status = :status AND p.createdAt >= :from AND p.createdAt < :to " +
+           "AND (p.createdAt < :beforeCreatedAt OR (p.createdAt = :beforeCreatedAt AND p.id < :beforeId)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ArchivePostDto> findArchivePage(PostStatus status, LocalDateTime from, LocalDateTime to,
+            LocalDateTime beforeCreatedAt, UUID beforeId, Limit limit);
+
+    @Query("SELECT new com.stasiu.blog.domain.dtos.ArchivePostDto(p.id, p.title, p.author.name, p.category.id, p.category.name, p.readingTime, p.createdAt) " +
+           "FROM Post p WHERE p.status = :status AND p.category.id = :categoryId AND p.createdAt >= :from AND p.createdAt < :to " +
+           "AND (p.createdAt < :beforeCreatedAt OR (p.createdAt = :beforeCreatedAt AND p.id < :beforeId)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ArchivePostDto> findArchivePageByCategory(PostStatus status, UUID categoryId, LocalDateTime from, LocalDateTime to,
+            LocalDateTime beforeCreatedAt, UUID beforeId, Limit limit);
+
+    @Query("SELECT p.id FROM Post p WHERE p.renderVersion IS NULL OR p.renderVersion <> :renderVersion")
+    List<UUID> findIdsWithStaleRendering(int renderVersion);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.contentHtml = :contentHtml, p.tableOfContents = :tableOfContents, p.renderVersion = :renderVersion WHERE p.id = :id")
+    int updateRenderedContent(UUID id, String contentHtml, List<TocEntry> tableOfContents, int renderVersion);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.title = :title, p.content = :content, p.readingTime = :readingTime, " +
+           "p.contentHtml = :contentHtml, p.tableOfContents = :tableOfContents, p.renderVersion = :renderVersion, " +
+           "p.updatedAt = :savedAt WHERE p.id = :id AND p.status = :status AND (p.updatedAt IS NULL OR p.updatedAt <= :savedAt)")
+    int updateDraftContent(UUID id, PostStatus status, String title, String content, int readingTime,
+            String contentHtml, List<TocEntry> tableOfContents, int renderVersion, LocalDateTime savedAt);
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + 1, p.commentSequence = p.commentSequence + 1 " +
+           "WHERE p.id = :id AND p.status = :status")
+    int incrementCommentCount(UUID id, PostStatus status);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount - 1 WHERE p.id = :id AND p.commentCount > 0")
+    int decrementCommentCount(UUID id);
+
+    @Query("SELECT p.commentSequence FROM Post p WHERE p.id = :id")
+    long findCommentSequence(UUID id);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.revisionNumber = p.revisionNumber + 1 WHERE p.id = :id")
+    int incrementRevisionNumber(UUID id);
+
+    @Query("SELECT p.revisionNumber FROM Post p WHERE p.id = :id")
+    int findRevisionNumber(UUID id);
+
+    boolean existsByIdAndAuthorId(UUID id, UUID authorId);
 
 }
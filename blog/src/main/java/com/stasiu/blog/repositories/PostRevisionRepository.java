@@ -0,0 +1,38 @@
+package com.stasiu.blog.repositories;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.stasiu.blog.domain.dtos.PostRevisionSummaryDto;
+import com.stasiu.blog.domain.entities.PostRevision;
+
+@Repository
+public interface PostRevisionRepository extends JpaRepository<PostRevision, UUID> {
+
+    @Query("SELECT new com.stasiu.blog.domain.dtos.PostRevisionSummaryDto(r.number, r.title, r.keyframe, r.contentSize, r.storedSize, r.createdAt) " +
+           "FROM PostRevision r WHERE r.post.id = :postId AND r.number < :beforeNumber ORDER BY r.number DESC")
+    List<PostRevisionSummaryDto> findSummaries(UUID postId, int beforeNumber, Limit limit);
+
+    @Query("SELECT new com.stasiu.blog.domain.dtos.PostRevisionSummaryDto(r.number, r.title, r.keyframe, r.contentSize, r.storedSize, r.createdAt) " +
+           "FROM PostRevision r WHERE r.post.id = :postId AND r.number = :number")
+    Optional<PostRevisionSummaryDto> findSummary(UUID postId, int number);
+
+    @Query("SELECT MAX(r.number) FROM PostRevision r WHERE r.post.id = :postId AND r.keyframe = true AND r.number <= :number")
+    Optional<Integer> findKeyframeNumber(UUID postId, int number);
+
+    // The revisions to apply, in order, to rebuild revision "to" from the one before "from".
+    @Query("SELECT r FROM PostRevision r WHERE r.post.id = :postId AND r.number >= :from AND r.number <= :to ORDER BY r.number")
+    List<PostRevision> findChain(UUID postId, int from, int to);
+
+    @Modifying
+    @Query("DELETE FROM PostRevision r WHERE r.post.id = :postId")
+    int deleteAllByPostId(UUID postId);
+
+}
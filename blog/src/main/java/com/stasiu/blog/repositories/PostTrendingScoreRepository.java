@@ -0,0 +1,13 @@
+package com.stasiu.blog.repositories;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.stasiu.blog.domain.entities.PostTrendingScore;
+
+@Repository
+public interface PostTrendingScoreRepository extends JpaRepository<PostTrendingScore, UUID> {
+
+}
@@ -0,0 +1,34 @@
+package com.stasiu.blog.repositories;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * An upsert that adds to a counter row. On PostgreSQL it is an {@code INSERT ... ON CONFLICT},
+ * which waits for a concurrent insert of the same key and then updates that row; a PostgreSQL
+ * {@code MERGE} would fail with a unique violation instead. H2, which the tests run on, has no
+ * {@code ON CONFLICT ... DO UPDATE} and gets the equivalent {@code MERGE}.
+ */
+final class UpsertStatement {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String onConflict;
+    private final String merge;
+    private volatile String sql;
+
+    UpsertStatement(JdbcTemplate jdbcTemplate, String onConflict, String merge) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.onConflict = onConflict;
+        this.merge = merge;
+    }
+
+    String sql() {
+        String resolved = sql;
+        if(resolved == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            resolved = "PostgreSQL".equals(product) ? onConflict : merge;
+            sql = resolved;
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,141 @@
+package com.stasiu.blog.revisions;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A binary delta in the style of git's pack deltas: a list of instructions that either copy a range
+ * of the base or insert bytes that are not in it. The base is indexed in blocks of {@link #BLOCK}
+ * bytes and the target scanned with a rolling hash, so encoding is linear in the size of both and a
+ * delta only grows with the bytes that changed, wherever they are.
+ */
+public final class ContentDelta {
+
+    static final int BLOCK = 16;
+
+    private static final int INSERT = 0;
+    private static final int COPY = 1;
+    private static final int PRIME = 31;
+    private static final int PRIME_POW_BLOCK = pow(PRIME, BLOCK);
+
+    private ContentDelta() {
+    }
+
+    public static byte[] encode(byte[] base, byte[] target) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeVarint(out, target.length);
+
+        Map<Integer, Integer> blocks = new HashMap<>();
+        for(int offset = 0; offset + BLOCK <= base.length; offset += BLOCK) {
+            blocks.putIfAbsent(hash(base, offset), offset);
+        }
+
+        int literalStart = 0;
+        int position = 0;
+        int hash = target.length >= BLOCK ? hash(target, 0) : 0;
+        while(position + BLOCK <= target.length) {
+            Integer candidate = blocks.get(hash);
+            if(candidate == null || !Arrays.equals(base, candidate, candidate + BLOCK, target, position, position + BLOCK)) {
+                if(position + BLOCK < target.length) {
+                    hash = hash * PRIME + target[position + BLOCK] - PRIME_POW_BLOCK * target[position];
+                }
+                position++;
+                continue;
+            }
+            int copyStart = candidate;
+            int copyEnd = candidate + BLOCK;
+            int targetEnd = position + BLOCK;
+            while(copyStart > 0 && position > literalStart && base[copyStart - 1] == target[position - 1]) {
+                copyStart--;
+                position--;
+            }
+            while(copyEnd < base.length && targetEnd < target.length && base[copyEnd] == target[targetEnd]) {
+                copyEnd++;
+                targetEnd++;
+            }
+            writeInsert(out, target, literalStart, position);
+            out.write(COPY);
+            writeVarint(out, copyStart);
+            writeVarint(out, copyEnd - copyStart);
+
+            position = targetEnd;
+            literalStart = targetEnd;
+            if(position + BLOCK <= target.length) {
+                hash = hash(target, position);
+            }
+        }
+        writeInsert(out, target, literalStart, target.length);
+        return out.toByteArray();
+    }
+
+    public static byte[] apply(byte[] base, byte[] delta) {
+        int[] cursor = {0};
+        byte[] target = new byte[readVarint(delta, cursor)];
+        int written = 0;
+        while(cursor[0] < delta.length) {
+            int instruction = delta[cursor[0]++];
+            if(instruction == COPY) {
+                int offset = readVarint(delta, cursor);
+                int length = readVarint(delta, cursor);
+                System.arraycopy(base, offset, target, written, length);
+                written += length;
+            } else if(instruction == INSERT) {
+                int length = readVarint(delta, cursor);
+                System.arraycopy(delta, cursor[0], target, written, length);
+                cursor[0] += length;
+                written += length;
+            } else {
+                throw new IllegalArgumentException("Unknown delta instruction " + instruction);
+            }
+        }
+        if(written != target.length) {
+            throw new IllegalArgumentException("Delta produced " + written + " bytes, expected " + target.length);
+        }
+        return target;
+    }
+
+    private static void writeInsert(ByteArrayOutputStream out, byte[] target, int from, int to) {
+        if(to > from) {
+            out.write(INSERT);
+            writeVarint(out, to - from);
+            out.write(target, from, to - from);
+        }
+    }
+
+    private static int hash(byte[] bytes, int offset) {
+        int hash = 0;
+        for(int index = offset; index < offset + BLOCK; index++) {
+            hash = hash * PRIME + bytes[index];
+        }
+        return hash;
+    }
+
+    private static int pow(int base, int exponent) {
+        int result = 1;
+        for(int index = 0; index < exponent; index++) {
+            result *= base;
+        }
+        return result;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] bytes, int[] cursor) {
+        int value = 0;
+        for(int shift = 0; ; shift += 7) {
+            byte next = bytes[cursor[0]++];
+            value |= (next & 0x7F) << shift;
+            if((next & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
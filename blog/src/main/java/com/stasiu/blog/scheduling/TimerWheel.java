@@ -0,0 +1,158 @@
+package com.stasiu.blog.scheduling;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A hierarchical timing wheel. Level {@code n} has 64 buckets of 64<sup>n</sup> ticks each, so six
+ * levels cover every deadline a schedule can reasonably hold while scheduling, cancelling and
+ * advancing by a tick stay constant time however many keys are pending. A key sits on the lowest
+ * level whose range still contains its deadline and moves down a level each time the wheel above
+ * turns past it. Keys are never due before their deadline.
+ */
+public class TimerWheel<K> {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int LEVELS = 6;
+    private static final int DUE = -1;
+
+    private final long tickMillis;
+    private final List<List<Set<K>>> levels = new ArrayList<>();
+    private final Map<K, Slot> slots = new HashMap<>();
+    private final Set<K> due = new LinkedHashSet<>();
+    private long currentTick;
+
+    public TimerWheel(Duration tick, Instant now) {
+        this.tickMillis = tick.toMillis();
+        if(tickMillis < 1) {
+            throw new IllegalArgumentException("Tick must be at least one millisecond");
+        }
+        for(int level = 0; level < LEVELS; level++) {
+            List<Set<K>> buckets = new ArrayList<>(WHEEL_SIZE);
+            for(int index = 0; index < WHEEL_SIZE; index++) {
+                buckets.add(null);
+            }
+            levels.add(buckets);
+        }
+        this.currentTick = Math.floorDiv(now.toEpochMilli(), tickMillis);
+    }
+
+    /**
+     * Schedules {@code key} for {@code deadline}, replacing any deadline it had.
+     */
+    public synchronized void schedule(K key, Instant deadline) {
+        cancel(key);
+        place(key, Math.ceilDiv(deadline.toEpochMilli(), tickMillis));
+    }
+
+    public synchronized boolean cancel(K key) {
+        Slot slot = slots.remove(key);
+        if(slot == null) {
+            return false;
+        }
+        if(slot.level() == DUE) {
+            due.remove(key);
+        } else {
+            levels.get(slot.level()).get(slot.index()).remove(key);
+        }
+        return true;
+    }
+
+    /**
+     * The deadline of {@code key}, rounded up to a whole tick, or {@code null} when it is not scheduled.
+     */
+    public synchronized Instant deadline(K key) {
+        Slot slot = slots.get(key);
+        return slot != null ? Instant.ofEpochMilli(slot.deadlineTick() * tickMillis) : null;
+    }
+
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    /**
+     * Turns the wheel to {@code now} and removes and returns every key whose deadline has passed,
+     * including the deadlines of ticks that were missed since the last call.
+     */
+    public synchronized List<K> advance(Instant now) {
+        long targetTick = Math.floorDiv(now.toEpochMilli(), tickMillis);
+        while(currentTick < targetTick) {
+            if(slots.size() == due.size()) {
+                // Nothing left on the wheel, so the remaining ticks would turn empty buckets.
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            for(int level = LEVELS - 1; level > 0; level--) {
+                if((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    cascade(level, index(currentTick, level));
+                }
+            }
+            Set<K> bucket = take(0, index(currentTick, 0));
+            if(bucket != null) {
+                for(K key : bucket) {
+                    markDue(key, currentTick);
+                }
+            }
+        }
+        List<K> expired = List.copyOf(due);
+        due.clear();
+        expired.forEach(slots::remove);
+        return expired;
+    }
+
+    private void place(K key, long deadlineTick) {
+        if(deadlineTick <= currentTick) {
+            markDue(key, deadlineTick);
+            return;
+        }
+        int level = 0;
+        while(level < LEVELS - 1 && ((deadlineTick ^ currentTick) >>> (WHEEL_BITS * (level + 1))) != 0) {
+            level++;
+        }
+        int index = index(deadlineTick, level);
+        List<Set<K>> buckets = levels.get(level);
+        if(buckets.get(index) == null) {
+            buckets.set(index, new LinkedHashSet<>());
+        }
+        buckets.get(index).add(key);
+        slots.put(key, new Slot(level, index, deadlineTick));
+    }
+
+    private void cascade(int level, int index) {
+        Set<K> bucket = take(level, index);
+        if(bucket != null) {
+            for(K key : bucket) {
+                place(key, slots.get(key).deadlineTick());
+            }
+        }
+    }
+
+    private Set<K> take(int level, int index) {
+        Set<K> bucket = levels.get(level).get(index);
+        if(bucket == null || bucket.isEmpty()) {
+            return null;
+        }
+        levels.get(level).set(index, null);
+        return bucket;
+    }
+
+    private void markDue(K key, long deadlineTick) {
+        due.add(key);
+        slots.put(key, new Slot(DUE, DUE, deadlineTick));
+    }
+
+    private static int index(long tick, int level) {
+        return (int) ((tick >>> (WHEEL_BITS * level)) & (WHEEL_SIZE - 1));
+    }
+
+    private record Slot(int level, int index, long deadlineTick) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.stasiu.blog.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stasiu.blog.domain.dtos.ApiErrorResponse;
+import com.stasiu.blog.security.RateLimiter.RateLimitProbe;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/api/v1/";
+    private static final String AUTH_PREFIX = "/api/v1/auth/";
+
+    private final RateLimiter authLimiter;
+    private final RateLimiter readLimiter;
+    private final RateLimiter writeLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PREFIX)
+            || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RateLimitProbe probe;
+        if(request.getRequestURI().startsWith(AUTH_PREFIX)) {
+            probe = authLimiter.tryConsume(clientAddress(request));
+        } else if(HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())) {
+            probe = readLimiter.tryConsume(clientAddress(request));
+        } else {
+            probe = writeLimiter.tryConsume(writerKey(request));
+        }
+
+        response.setHeader("RateLimit-Limit", Long.toString(probe.limit()));
+        response.setHeader("RateLimit-Remaining", Long.toString(probe.remaining()));
+        response.setHeader("RateLimit-Reset", Long.toString(probe.resetSeconds()));
+        if(!probe.allowed()) {
+            reject(response, probe);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${blog.rate-limit.eviction-interval-ms:60000}")
+    public void evictFullBuckets() {
+        int evicted = authLimiter.evictFullBuckets() + readLimiter.evictFullBuckets() + writeLimiter.evictFullBuckets();
+        log.debug("Evicted {} idle rate limit buckets", evicted);
+    }
+
+    private void reject(HttpServletResponse response, RateLimitProbe probe) throws IOException {
+        ApiErrorResponse errorResponse = ApiErrorResponse.builder()
+            .status(HttpStatus.TOO_MANY_REQUESTS.value())
+            .message("Too many requests, retry in " + probe.retryAfterSeconds() + " seconds")
+            .build();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(probe.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    // Writes require a valid token further down the chain, so the subject is read without checking
+    // the signature here: a forged subject only buys requests that get rejected anyway. Reads are
+    // public and stay keyed by address so made-up tokens cannot be used to dodge the limit.
+    private String writerKey(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if(bearerToken != null && bearerToken.startsWith("Bearer ")) {
+            String subject = unverifiedSubject(bearerToken.substring(7));
+            if(subject != null) {
+                return "user:" + subject;
+            }
+        }
+        return clientAddress(request);
+    }
+
+    private String unverifiedSubject(String token) {
+        int payloadStart = token.indexOf('.');
+        int payloadEnd = token.indexOf('.', payloadStart + 1);
+        if(payloadStart < 0 || payloadEnd < 0) {
+            return null;
+        }
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(token.substring(payloadStart + 1, payloadEnd));
+            JsonNode subject = objectMapper.readTree(new String(payload, StandardCharsets.UTF_8)).get("sub");
+            return subject != null && subject.isTextual() ? subject.asText() : null;
+        } catch(IllegalArgumentException | IOException ex) {
+            return null;
+        }
+    }
+
+    // With the native forward headers strategy Tomcat has already resolved this from X-Forwarded-For, for trusted proxies only.
+    private String clientAddress(HttpServletRequest request) {
+        return "ip:" + request.getRemoteAddr();
+    }
+}
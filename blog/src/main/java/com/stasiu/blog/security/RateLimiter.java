@@ -0,0 +1,80 @@
+package com.stasiu.blog.security;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets stored as a single theoretical arrival time per key (GCRA): a request takes one
+ * emission interval and is allowed while the arrival time stays within {@code capacity} intervals
+ * of now. Consuming a token is one compare-and-set, and a bucket whose arrival time lies in the
+ * past is full and can be dropped.
+ */
+public class RateLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long capacity;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public RateLimiter(long capacity, Duration refillPeriod) {
+        this(capacity, refillPeriod, System::nanoTime);
+    }
+
+    RateLimiter(long capacity, Duration refillPeriod, LongSupplier nanoClock) {
+        if(capacity < 1 || refillPeriod.isNegative() || refillPeriod.isZero()) {
+            throw new IllegalArgumentException("Rate limit capacity and refill period must be positive");
+        }
+        this.capacity = capacity;
+        this.emissionIntervalNanos = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.burstToleranceNanos = emissionIntervalNanos * capacity;
+        this.nanoClock = nanoClock;
+    }
+
+    public RateLimitProbe tryConsume(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        if(bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while(true) {
+            long arrival = bucket.get();
+            long nextArrival = (arrival - now > 0 ? arrival : now) + emissionIntervalNanos;
+            long ahead = nextArrival - now;
+            if(ahead > burstToleranceNanos) {
+                long retryAfter = ceilSeconds(ahead - burstToleranceNanos);
+                return new RateLimitProbe(false, capacity, 0, ceilSeconds(arrival - now), retryAfter);
+            }
+            if(bucket.compareAndSet(arrival, nextArrival)) {
+                long remaining = (burstToleranceNanos - ahead) / emissionIntervalNanos;
+                return new RateLimitProbe(true, capacity, remaining, ceilSeconds(ahead), 0);
+            }
+        }
+    }
+
+    public int evictFullBuckets() {
+        long now = nanoClock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        return before - buckets.size();
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return Math.max(0, (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+    }
+
+    public record RateLimitProbe(boolean allowed, long limit, long remaining, long resetSeconds, long retryAfterSeconds) {
+    }
+}
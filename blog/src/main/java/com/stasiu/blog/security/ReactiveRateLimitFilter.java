@@ -0,0 +1,78 @@
+package com.stasiu.blog.security;
+
+import java.net.InetSocketAddress;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stasiu.blog.domain.dtos.ApiErrorResponse;
+import com.stasiu.blog.security.RateLimiter.RateLimitProbe;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * The read limit of {@link RateLimitFilter} in front of the reactive read routes. Both filters take
+ * from the same limiter under the same key, so a client has one read budget however it spreads its
+ * requests over the two ports.
+ */
+@RequiredArgsConstructor
+public class ReactiveRateLimitFilter implements WebFilter {
+
+    private final RateLimiter readLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if(HttpMethod.OPTIONS.equals(request.getMethod())) {
+            return chain.filter(exchange);
+        }
+        RateLimitProbe probe = readLimiter.tryConsume(clientAddress(request));
+
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.set("RateLimit-Limit", Long.toString(probe.limit()));
+        headers.set("RateLimit-Remaining", Long.toString(probe.remaining()));
+        headers.set("RateLimit-Reset", Long.toString(probe.resetSeconds()));
+        if(!probe.allowed()) {
+            return reject(response, probe);
+        }
+        return chain.filter(exchange);
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, RateLimitProbe probe) {
+        ApiErrorResponse errorResponse = ApiErrorResponse.builder()
+            .status(HttpStatus.TOO_MANY_REQUESTS.value())
+            .message("Too many requests, retry in " + probe.retryAfterSeconds() + " seconds")
+            .build();
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(errorResponse);
+        } catch(JsonProcessingException ex) {
+            return Mono.error(ex);
+        }
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set("Retry-After", Long.toString(probe.retryAfterSeconds()));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    // Same key as RateLimitFilter uses for the address the servlet container reports.
+    private static String clientAddress(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if(remoteAddress == null || remoteAddress.getAddress() == null) {
+            return "ip:unknown";
+        }
+        return "ip:" + remoteAddress.getAddress().getHostAddress();
+    }
+}
@@ -0,0 +1,15 @@
+package com.stasiu.blog.services;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.stasiu.blog.domain.dtos.ArchiveMonthDto;
+import com.stasiu.blog.domain.dtos.ArchivePageDto;
+
+public interface ArchiveService {
+
+    List<ArchiveMonthDto> getMonths(UUID categoryId);
+    ArchivePageDto getMonth(int year, int month, UUID categoryId, String cursor, int limit);
+    void rebuild();
+
+}
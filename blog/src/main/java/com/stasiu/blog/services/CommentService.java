@@ -0,0 +1,16 @@
+package com.stasiu.blog.services;
+
+import java.util.UUID;
+
+import com.stasiu.blog.domain.dtos.CommentPageDto;
+import com.stasiu.blog.domain.entities.Comment;
+import com.stasiu.blog.domain.entities.User;
+
+public interface CommentService {
+
+    Comment createComment(UUID postId, User author, UUID parentId, String content);
+    CommentPageDto getComments(UUID postId, String cursor, int limit);
+    CommentPageDto getReplies(UUID postId, UUID commentId, String cursor, int limit);
+    void deleteComment(UUID postId, UUID commentId, UUID userId);
+
+}
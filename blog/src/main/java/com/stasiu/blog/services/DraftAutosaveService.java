@@ -0,0 +1,13 @@
+package com.stasiu.blog.services;
+
+import java.util.UUID;
+
+import com.stasiu.blog.domain.AutosaveDraftRequest;
+
+public interface DraftAutosaveService {
+
+    void autosave(UUID postId, UUID userId, AutosaveDraftRequest autosaveDraftRequest);
+    void discard(UUID postId);
+    int flush();
+
+}
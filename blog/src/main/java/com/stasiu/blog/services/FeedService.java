@@ -0,0 +1,12 @@
+package com.stasiu.blog.services;
+
+import java.util.UUID;
+
+import com.stasiu.blog.domain.FeedDocument;
+
+public interface FeedService {
+
+    FeedDocument getFeed(UUID categoryId, UUID tagId);
+    FeedDocument getSitemap();
+
+}
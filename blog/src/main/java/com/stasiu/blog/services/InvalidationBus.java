@@ -0,0 +1,10 @@
+package com.stasiu.blog.services;
+
+import java.util.Collection;
+
+public interface InvalidationBus {
+
+    void publishAfterCommit(Collection<String> tags);
+    int flush();
+
+}
@@ -0,0 +1,14 @@
+package com.stasiu.blog.services;
+
+import java.util.Set;
+
+/**
+ * Holds state derived from posts, categories or tags and drops it when the invalidation bus
+ * reports a change. {@code remote} is false for changes this node committed itself.
+ */
+public interface InvalidationListener {
+
+    void onInvalidation(Set<String> tags, boolean remote);
+    void onFullFlush();
+
+}
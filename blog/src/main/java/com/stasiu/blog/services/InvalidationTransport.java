@@ -0,0 +1,21 @@
+package com.stasiu.blog.services;
+
+import com.stasiu.blog.domain.InvalidationMessage;
+
+/**
+ * Carries invalidation messages between the nodes. Messages from one sender arrive in the order
+ * they were sent, but may be lost; a transport that knows it missed messages, for example after
+ * reconnecting, reports it with {@link Receiver#onMessagesLost}.
+ */
+public interface InvalidationTransport {
+
+    void send(InvalidationMessage message);
+    void subscribe(Receiver receiver);
+
+    interface Receiver {
+
+        void onMessage(InvalidationMessage message);
+        void onMessagesLost();
+
+    }
+}
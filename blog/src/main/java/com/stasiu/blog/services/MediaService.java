@@ -0,0 +1,20 @@
+package com.stasiu.blog.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+import com.stasiu.blog.domain.MediaFile;
+import com.stasiu.blog.domain.MediaVariant;
+import com.stasiu.blog.domain.entities.Media;
+
+public interface MediaService {
+
+    Media upload(UUID postId, UUID userId, String filename, InputStream content) throws IOException;
+    List<Media> getMediaForPost(UUID postId);
+    MediaFile getFile(UUID id);
+    MediaFile getVariant(UUID id, MediaVariant variant);
+    int sweepOrphans();
+
+}
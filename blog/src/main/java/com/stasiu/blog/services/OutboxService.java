@@ -0,0 +1,11 @@
+package com.stasiu.blog.services;
+
+import com.stasiu.blog.domain.events.PostEvent;
+
+public interface OutboxService {
+
+    void append(PostEvent event);
+    int dispatch();
+    int purgeProcessed();
+
+}
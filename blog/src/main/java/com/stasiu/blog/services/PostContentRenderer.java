@@ -0,0 +1,10 @@
+package com.stasiu.blog.services;
+
+import com.stasiu.blog.domain.RenderedContent;
+
+public interface PostContentRenderer {
+
+    int getVersion();
+    RenderedContent render(String markdown);
+
+}
@@ -0,0 +1,16 @@
+package com.stasiu.blog.services;
+
+import com.stasiu.blog.domain.events.PostEvent;
+
+/**
+ * Receives post events from the outbox after the writing transaction has committed. Delivery is
+ * at least once and in order per post, so implementations must tolerate seeing an event again.
+ * Each event is delivered on one node of the cluster only, so this suits work that must happen
+ * once, such as calling an external system. State held in memory on every node is an
+ * {@link InvalidationListener} instead.
+ */
+public interface PostEventListener {
+
+    void onPostEvent(PostEvent event);
+
+}
@@ -0,0 +1,17 @@
+package com.stasiu.blog.services;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.stasiu.blog.domain.PostFilter;
+import com.stasiu.blog.domain.PostMetadata;
+import com.stasiu.blog.domain.PostStatus;
+
+public interface PostIndexService {
+
+    List<UUID> findPostIds(PostFilter filter);
+    void onPostSaved(PostMetadata post, PostStatus status);
+    void onPostDeleted(UUID postId);
+    void rebuild();
+
+}
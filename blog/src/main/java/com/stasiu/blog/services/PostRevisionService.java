@@ -0,0 +1,15 @@
+package com.stasiu.blog.services;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.stasiu.blog.domain.dtos.PostRevisionDto;
+import com.stasiu.blog.domain.dtos.PostRevisionSummaryDto;
+
+public interface PostRevisionService {
+
+    void recordRevision(UUID postId, String title, String content);
+    List<PostRevisionSummaryDto> getRevisions(UUID postId, UUID userId, Integer before, int limit);
+    PostRevisionDto getRevision(UUID postId, UUID userId, int number);
+
+}
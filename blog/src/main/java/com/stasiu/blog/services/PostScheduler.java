@@ -0,0 +1,14 @@
+package com.stasiu.blog.services;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface PostScheduler {
+
+    void schedule(UUID postId, Instant publishAt);
+    void offer(UUID postId, Instant publishAt);
+    void cancel(UUID postId);
+    List<UUID> takeDue(Instant now);
+
+}
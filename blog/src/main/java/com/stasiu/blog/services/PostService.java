@@ -1,9 +1,12 @@
 package com.stasiu.blog.services;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+import com.stasiu.blog.domain.AutosaveDraftRequest;
 import com.stasiu.blog.domain.CreatePostRequest;
+import com.stasiu.blog.domain.PostFilter;
 import com.stasiu.blog.domain.UpdatePostRequest;
 import com.stasiu.blog.domain.entities.Post;
 import com.stasiu.blog.domain.entities.User;
@@ -11,10 +14,13 @@ import com.stasiu.blog.domain.entities.User;
 public interface PostService {
 
     Post getPost(UUID id);
-    List<Post> getAllPosts(UUID categoryId, UUID tagId);
+    List<Post> getAllPosts(PostFilter filter);
     List<Post> getDraftPosts(User user); 
+    List<Post> getScheduledPosts(User user);
     Post createPost(User user, CreatePostRequest createPostRequest);
     Post updatePost(UUID id, UpdatePostRequest updatePostRequest);
     void deletePost(UUID id);
+    boolean autosaveDraft(UUID id, AutosaveDraftRequest autosaveDraftRequest, LocalDateTime savedAt);
+    boolean publishScheduled(UUID id);
 
 }
@@ -0,0 +1,17 @@
+package com.stasiu.blog.services;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.stasiu.blog.domain.PostMetadata;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.dtos.RelatedPostDto;
+
+public interface RelatedPostsService {
+
+    List<RelatedPostDto> getRelatedPosts(UUID postId, int limit);
+    void onPostSaved(PostMetadata post, PostStatus status);
+    void onPostDeleted(UUID postId);
+    void rebuild();
+
+}
@@ -0,0 +1,14 @@
+package com.stasiu.blog.services;
+
+import java.util.Optional;
+
+import com.stasiu.blog.domain.CachedResponse;
+
+public interface ResponseCacheService {
+
+    Optional<CachedResponse> get(String key);
+    Optional<CachedResponse> getStale(String key);
+    long generation();
+    void put(String key, CachedResponse response, long generation);
+
+}
@@ -0,0 +1,8 @@
+package com.stasiu.blog.services;
+
+public interface ScheduledPublishingService {
+
+    int publishDue();
+    int reload();
+
+}
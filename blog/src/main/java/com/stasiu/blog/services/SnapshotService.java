@@ -0,0 +1,13 @@
+package com.stasiu.blog.services;
+
+import java.util.Optional;
+
+import com.stasiu.blog.domain.SnapshotResource;
+
+public interface SnapshotService {
+
+    Optional<SnapshotResource> find(String requestKey);
+    void markStale();
+    boolean regenerate();
+
+}
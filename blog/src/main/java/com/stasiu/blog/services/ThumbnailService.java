@@ -0,0 +1,15 @@
+package com.stasiu.blog.services;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import com.stasiu.blog.domain.MediaFile;
+import com.stasiu.blog.domain.MediaVariant;
+
+public interface ThumbnailService {
+
+    void schedule(String contentHash, Path source, String contentType);
+    Optional<MediaFile> findVariant(String contentHash, Path source, String contentType, MediaVariant variant);
+    void deleteVariants(String contentHash);
+
+}
@@ -0,0 +1,19 @@
+package com.stasiu.blog.services;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.stasiu.blog.domain.EngagementType;
+import com.stasiu.blog.domain.PostMetadata;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.dtos.TrendingPostDto;
+
+public interface TrendingService {
+
+    void recordEngagement(UUID postId, EngagementType engagementType);
+    List<TrendingPostDto> getTrending(UUID categoryId, UUID tagId, int limit);
+    void onPostSaved(PostMetadata post, PostStatus status);
+    void onPostDeleted(UUID postId);
+    void persistScores();
+
+}
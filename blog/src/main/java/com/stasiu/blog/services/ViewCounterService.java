@@ -0,0 +1,11 @@
+package com.stasiu.blog.services;
+
+import java.util.UUID;
+
+public interface ViewCounterService {
+
+    void recordView(UUID postId);
+    int flush();
+    void deleteAllForPost(UUID postId);
+
+}
@@ -0,0 +1,165 @@
+package com.stasiu.blog.services.implementation;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.stasiu.blog.domain.PostMetadata;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.dtos.ArchiveMonthDto;
+import com.stasiu.blog.domain.dtos.ArchivePageDto;
+import com.stasiu.blog.domain.dtos.ArchivePostDto;
+import com.stasiu.blog.domain.entities.ArchiveMonthId;
+import com.stasiu.blog.domain.events.PostCreated;
+import com.stasiu.blog.domain.events.PostDeleted;
+import com.stasiu.blog.domain.events.PostEvent;
+import com.stasiu.blog.domain.events.PostUpdated;
+import com.stasiu.blog.repositories.ArchiveMonthRepository;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.services.ArchiveService;
+import com.stasiu.blog.services.PostEventListener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Month navigation over published posts. Post counts per month and category are kept in
+ * {@code archive_months} and adjusted from the outbox events of posts that are published, moved or
+ * removed; month pages are read from {@code posts} with a keyset cursor on (createdAt, id).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ArchiveServiceImpl implements ArchiveService, PostEventListener {
+
+    private static final char CURSOR_SEPARATOR = '~';
+
+    private final ArchiveMonthRepository archiveMonthRepository;
+    private final PostRepository postRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArchiveMonthDto> getMonths(UUID categoryId) {
+        return categoryId != null
+            ? archiveMonthRepository.findMonthsByCategory(categoryId)
+            : archiveMonthRepository.findMonths();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ArchivePageDto getMonth(int year, int month, UUID categoryId, String cursor, int limit) {
+        if(year < 1 || year > 9999 || month < 1 || month > 12) {
+            throw new IllegalArgumentException("No such month: " + year + "/" + month);
+        }
+        YearMonth yearMonth = YearMonth.of(year, month);
+        LocalDateTime from = yearMonth.atDay(1).atStartOfDay();
+        LocalDateTime to = yearMonth.plusMonths(1).atDay(1).atStartOfDay();
+
+        // The first page starts at the end of the month; any id is past that bound.
+        LocalDateTime beforeCreatedAt = to;
+        UUID beforeId = new UUID(0, 0);
+        if(cursor != null && !cursor.isBlank()) {
+            Cursor position = decodeCursor(cursor);
+            beforeCreatedAt = position.createdAt();
+            beforeId = position.id();
+        }
+
+        // One row more than asked for tells whether there is a next page.
+        Limit pageLimit = Limit.of(limit + 1);
+        List<ArchivePostDto> posts = categoryId != null
+            ? postRepository.findArchivePageByCategory(PostStatus.PUBLISHED, categoryId, from, to, beforeCreatedAt, beforeId, pageLimit)
+            : postRepository.findArchivePage(PostStatus.PUBLISHED, from, to, beforeCreatedAt, beforeId, pageLimit);
+
+        String nextCursor = null;
+        if(posts.size() > limit) {
+            posts = posts.subList(0, limit);
+            ArchivePostDto last = posts.get(limit - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        return ArchivePageDto.builder()
+            .year(year)
+            .month(month)
+            .posts(List.copyOf(posts))
+            .nextCursor(nextCursor)
+            .build();
+    }
+
+    // The counts change in the transaction that marks the event delivered, so a redelivery cannot count a post twice.
+    @Override
+    public void onPostEvent(PostEvent event) {
+        switch(event) {
+            case PostCreated created -> recordChange(null, null, created.post(), created.status());
+            case PostUpdated updated -> recordChange(previous(updated), updated.previousStatus(), updated.post(), updated.status());
+            case PostDeleted deleted -> recordChange(deleted.post(), deleted.status(), null, null);
+        }
+    }
+
+    private void recordChange(PostMetadata previous, PostStatus previousStatus, PostMetadata current, PostStatus currentStatus) {
+        Map<ArchiveMonthId, Long> deltas = new HashMap<>();
+        if(previous != null && previousStatus == PostStatus.PUBLISHED) {
+            deltas.merge(bucket(previous), -1L, Long::sum);
+        }
+        if(current != null && currentStatus == PostStatus.PUBLISHED) {
+            deltas.merge(bucket(current), 1L, Long::sum);
+        }
+        archiveMonthRepository.adjustCounts(deltas);
+    }
+
+    @Override
+    public void rebuild() {
+        int buckets = archiveMonthRepository.rebuild();
+        log.info("Rebuilt {} archive month buckets from published posts", buckets);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if(archiveMonthRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    // A post keeps its creation time, so only the category can have moved it to another bucket.
+    private static PostMetadata previous(PostUpdated updated) {
+        return PostMetadata.builder()
+            .id(updated.postId())
+            .categoryId(updated.previousCategoryId())
+            .createdAt(updated.post().getCreatedAt())
+            .build();
+    }
+
+    private static ArchiveMonthId bucket(PostMetadata post) {
+        return new ArchiveMonthId(post.getCreatedAt().getYear(), post.getCreatedAt().getMonthValue(), post.getCategoryId());
+    }
+
+    private static String encodeCursor(LocalDateTime createdAt, UUID id) {
+        String position = createdAt.toString() + CURSOR_SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(CURSOR_SEPARATOR);
+            return new Cursor(
+                LocalDateTime.parse(position.substring(0, separator)),
+                UUID.fromString(position.substring(separator + 1)));
+        } catch(IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid archive cursor");
+        }
+    }
+
+    private record Cursor(LocalDateTime createdAt, UUID id) {
+    }
+}
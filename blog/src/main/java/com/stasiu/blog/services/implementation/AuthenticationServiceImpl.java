@@ -18,6 +18,8 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -26,6 +28,7 @@ public class AuthenticationServiceImpl implements AuthenticationService{
 
     private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
     @Value("${jwt.secret}")
     private String secretKey;
@@ -61,8 +64,19 @@ public class AuthenticationServiceImpl implements AuthenticationService{
 
     @Override
     public UserDetails validateToken(String token) {
-       String username = extractUsername(token);
-       return userDetailsService.loadUserByUsername(username);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "invalid";
+        try {
+            String username = extractUsername(token);
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            outcome = "valid";
+            return userDetails;
+        } finally {
+            sample.stop(Timer.builder("blog.jwt.validation")
+                .description("Time spent verifying a JWT and loading its user")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        }
     }
 
     private String extractUsername(String token){
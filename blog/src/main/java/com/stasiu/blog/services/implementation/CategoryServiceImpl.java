@@ -6,10 +6,12 @@ import java.util.UUID;
 
 import org.springframework.stereotype.Service;
 
+import com.stasiu.blog.domain.ResponseCacheTags;
 import com.stasiu.blog.domain.dtos.UpdateCategoryRequest;
 import com.stasiu.blog.domain.entities.Category;
 import com.stasiu.blog.repositories.CategoryRepository;
 import com.stasiu.blog.services.CategoryService;
+import com.stasiu.blog.services.InvalidationBus;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
@@ -20,6 +22,7 @@ import lombok.RequiredArgsConstructor;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final InvalidationBus invalidationBus;
 
     @Override
     public List<Category> listCategories() {
@@ -32,7 +35,9 @@ public class CategoryServiceImpl implements CategoryService {
         if(categoryRepository.existsByNameIgnoreCase(category.getName())){
             throw new IllegalArgumentException("Category already exists" + category.getName());
         }
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        invalidationBus.publishAfterCommit(List.of(ResponseCacheTags.CATEGORIES));
+        return savedCategory;
     }
 
     @Override
@@ -43,6 +48,7 @@ public class CategoryServiceImpl implements CategoryService {
                 throw new IllegalStateException("Category has posts and cannot be deleted");
             } 
             categoryRepository.deleteById(id);
+            invalidationBus.publishAfterCommit(List.of(ResponseCacheTags.CATEGORIES, ResponseCacheTags.category(id)));
         } 
     }
 
@@ -62,7 +68,9 @@ public class CategoryServiceImpl implements CategoryService {
             category.setName(updateCategoryRequest.getName());
         }
         
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        invalidationBus.publishAfterCommit(List.of(ResponseCacheTags.CATEGORIES, ResponseCacheTags.category(id)));
+        return savedCategory;
     }
 
     
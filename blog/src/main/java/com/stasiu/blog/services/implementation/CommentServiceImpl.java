@@ -0,0 +1,186 @@
+package com.stasiu.blog.services.implementation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.stasiu.blog.domain.EngagementType;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.ResponseCacheTags;
+import com.stasiu.blog.domain.dtos.CommentDto;
+import com.stasiu.blog.domain.dtos.CommentPageDto;
+import com.stasiu.blog.domain.entities.Comment;
+import com.stasiu.blog.domain.entities.User;
+import com.stasiu.blog.domain.events.PostDeleted;
+import com.stasiu.blog.domain.events.PostEvent;
+import com.stasiu.blog.repositories.CommentRepository;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.services.CommentService;
+import com.stasiu.blog.services.InvalidationBus;
+import com.stasiu.blog.services.PostEventListener;
+import com.stasiu.blog.services.TrendingService;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Threaded comments addressed by materialized path. Every comment takes the next value of its
+ * post's comment sequence as its path segment, so a page of top-level comments or of one thread
+ * is a range scan over an index ending in {@code path}, whatever the size of the post's threads.
+ */
+@Service
+@RequiredArgsConstructor
+public class CommentServiceImpl implements CommentService, PostEventListener {
+
+    static final int SEGMENT_LENGTH = 10;
+    static final int MAX_DEPTH = 15;
+    private static final long MAX_SEQUENCE = 9_999_999_998L;
+
+    private final CommentRepository commentRepository;
+    private final PostRepository postRepository;
+    private final TrendingService trendingService;
+    private final InvalidationBus invalidationBus;
+
+    @Override
+    @Transactional
+    public Comment createComment(UUID postId, User author, UUID parentId, String content) {
+        Comment parent = null;
+        if(parentId != null) {
+            parent = getComment(postId, parentId);
+            if(parent.getDepth() >= MAX_DEPTH) {
+                throw new IllegalArgumentException("Replies cannot be nested more than " + MAX_DEPTH + " levels deep");
+            }
+        }
+        // Locks the post row until commit, which keeps the sequence gap-free and the count exact.
+        if(postRepository.incrementCommentCount(postId, PostStatus.PUBLISHED) == 0) {
+            throw new EntityNotFoundException("Post not found with id: " + postId);
+        }
+        long sequence = postRepository.findCommentSequence(postId);
+        if(sequence > MAX_SEQUENCE) {
+            throw new IllegalStateException("Post " + postId + " cannot take more comments");
+        }
+        String segment = String.format("%0" + SEGMENT_LENGTH + "d", sequence);
+
+        Comment comment = Comment.builder()
+            .post(postRepository.getReferenceById(postId))
+            .author(author)
+            .content(content)
+            .build();
+        if(parent != null) {
+            commentRepository.incrementReplyCount(parent.getId());
+            comment.setParentId(parent.getId());
+            comment.setRootId(rootOf(parent));
+            comment.setPath(parent.getPath() + segment);
+            comment.setDepth(parent.getDepth() + 1);
+        } else {
+            comment.setPath(segment);
+        }
+        Comment savedComment = commentRepository.save(comment);
+
+        trendingService.recordEngagement(postId, EngagementType.COMMENT);
+        invalidationBus.publishAfterCommit(Set.of(ResponseCacheTags.post(postId)));
+        return savedComment;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CommentPageDto getComments(UUID postId, String cursor, int limit) {
+        if(!postRepository.existsByIdAndStatus(postId, PostStatus.PUBLISHED)) {
+            throw new EntityNotFoundException("Post not found with id: " + postId);
+        }
+        String afterPath = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : "";
+        List<CommentDto> comments = commentRepository.findTopLevelPage(postId, afterPath, Limit.of(limit + 1));
+        return page(comments, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CommentPageDto getReplies(UUID postId, UUID commentId, String cursor, int limit) {
+        Comment comment = getComment(postId, commentId);
+        String afterPath = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : comment.getPath();
+        List<CommentDto> replies = commentRepository.findThreadPage(
+            rootOf(comment), afterPath, pathBound(comment.getPath()), Limit.of(limit + 1));
+        return page(replies, limit);
+    }
+
+    // Deleted comments keep their place in the thread so their replies stay reachable.
+    @Override
+    @Transactional
+    public void deleteComment(UUID postId, UUID commentId, UUID userId) {
+        Comment comment = getComment(postId, commentId);
+        if(!comment.getAuthor().getId().equals(userId)) {
+            throw new EntityNotFoundException("Comment not found with id: " + commentId);
+        }
+        if(comment.isDeleted()) {
+            return;
+        }
+        // Post row first, in the same order as createComment, so a reply and a delete cannot deadlock.
+        postRepository.decrementCommentCount(postId);
+        if(commentRepository.markDeleted(commentId) == 0) {
+            throw new IllegalStateException("Comment was deleted concurrently: " + commentId);
+        }
+        invalidationBus.publishAfterCommit(Set.of(ResponseCacheTags.post(postId)));
+    }
+
+    // Runs in the outbox transaction, once per deleted post; deleting the comments again is harmless.
+    @Override
+    public void onPostEvent(PostEvent event) {
+        if(event instanceof PostDeleted deleted) {
+            commentRepository.deleteAllByPostId(deleted.postId());
+        }
+    }
+
+    private Comment getComment(UUID postId, UUID commentId) {
+        return commentRepository.findByIdAndPostId(commentId, postId)
+            .orElseThrow(() -> new EntityNotFoundException("Comment not found with id: " + commentId));
+    }
+
+    private static UUID rootOf(Comment comment) {
+        return comment.getRootId() != null ? comment.getRootId() : comment.getId();
+    }
+
+    // Descendants of a path are the longer paths that start with it; all of them sort below the
+    // same-length path that follows it. Segments never reach all nines, so the carry always stops.
+    static String pathBound(String path) {
+        char[] digits = path.toCharArray();
+        int i = digits.length - 1;
+        while(digits[i] == '9') {
+            digits[i--] = '0';
+        }
+        digits[i]++;
+        return new String(digits);
+    }
+
+    private static String decodeCursor(String cursor) {
+        String path;
+        try {
+            path = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+        } catch(IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid comment cursor");
+        }
+        if(path.isEmpty() || path.length() % SEGMENT_LENGTH != 0 || path.length() > SEGMENT_LENGTH * (MAX_DEPTH + 1)
+                || !path.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            throw new IllegalArgumentException("Invalid comment cursor");
+        }
+        return path;
+    }
+
+    private static CommentPageDto page(List<CommentDto> comments, int limit) {
+        String nextCursor = null;
+        if(comments.size() > limit) {
+            comments = comments.subList(0, limit);
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(comments.get(limit - 1).getPath().getBytes(StandardCharsets.US_ASCII));
+        }
+        return CommentPageDto.builder()
+            .comments(List.copyOf(comments))
+            .nextCursor(nextCursor)
+            .build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.stasiu.blog.services.implementation;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import com.stasiu.blog.domain.AutosaveDraftRequest;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.services.DraftAutosaveService;
+import com.stasiu.blog.services.PostService;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps only the latest autosave of every draft in memory and writes it once the editor has been
+ * quiet for {@code quietPeriod}, or at the latest {@code maxDelay} after the first buffered save,
+ * so a draft costs at most one write per interval however often the editor saves. A buffered save
+ * is only written while the post has not been updated after it, here or on another instance.
+ */
+@Service
+@Slf4j
+public class DraftAutosaveServiceImpl implements DraftAutosaveService {
+
+    private final PostService postService;
+    private final long quietPeriodNanos;
+    private final long maxDelayNanos;
+
+    private final Map<UUID, PendingDraft> pendingDrafts = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public DraftAutosaveServiceImpl(
+            PostService postService,
+            @Value("${blog.autosave.quiet-period:5s}") Duration quietPeriod,
+            @Value("${blog.autosave.max-delay:30s}") Duration maxDelay) {
+        this.postService = postService;
+        this.quietPeriodNanos = quietPeriod.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+    }
+
+    @Override
+    public void autosave(UUID postId, UUID userId, AutosaveDraftRequest autosaveDraftRequest) {
+        // A draft that already has a buffered save was checked when that save arrived.
+        PendingDraft buffered = pendingDrafts.get(postId);
+        if(buffered == null || !buffered.userId().equals(userId)) {
+            checkEditableDraft(postId, userId);
+        }
+
+        long now = System.nanoTime();
+        PendingDraft latest = new PendingDraft(userId, autosaveDraftRequest, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS), now, now);
+        pendingDrafts.merge(postId, latest,
+            (previous, next) -> new PendingDraft(next.userId(), next.request(), next.savedAt(), previous.firstSavedAt(), next.lastSavedAt()));
+    }
+
+    // Waits for a flush in progress, so its write lands before the explicit save that follows.
+    @Override
+    public void discard(UUID postId) {
+        flushLock.lock();
+        try {
+            pendingDrafts.remove(postId);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.autosave.flush-interval-ms:1000}")
+    public int flush() {
+        return flush(false);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        int flushed = flush(true);
+        log.info("Flushed {} autosaved drafts on shutdown", flushed);
+    }
+
+    private int flush(boolean all) {
+        flushLock.lock();
+        try {
+            long now = System.nanoTime();
+            int flushed = 0;
+            for(Map.Entry<UUID, PendingDraft> entry : pendingDrafts.entrySet()) {
+                UUID postId = entry.getKey();
+                PendingDraft pendingDraft = entry.getValue();
+                if(!all && !isDue(pendingDraft, now)) {
+                    continue;
+                }
+                if(!pendingDrafts.remove(postId, pendingDraft)) {
+                    continue;
+                }
+                if(write(postId, pendingDraft)) {
+                    flushed++;
+                }
+            }
+            return flushed;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private boolean isDue(PendingDraft pendingDraft, long now) {
+        return now - pendingDraft.lastSavedAt() >= quietPeriodNanos
+            || now - pendingDraft.firstSavedAt() >= maxDelayNanos;
+    }
+
+    private boolean write(UUID postId, PendingDraft pendingDraft) {
+        try {
+            if(!postService.autosaveDraft(postId, pendingDraft.request(), pendingDraft.savedAt())) {
+                log.debug("Dropped autosave of post {} because it is no longer a draft or was saved since", postId);
+                return false;
+            }
+            return true;
+        } catch(DataAccessException | TransactionException ex) {
+            // A newer save that arrived meanwhile wins over the one that failed.
+            pendingDrafts.putIfAbsent(postId, pendingDraft);
+            log.warn("Could not write autosave of post {}, retrying on next flush", postId, ex);
+            return false;
+        }
+    }
+
+    private void checkEditableDraft(UUID postId, UUID userId) {
+        Post post = postService.getPost(postId);
+        if(post.getAuthor() == null || !Objects.equals(post.getAuthor().getId(), userId)) {
+            throw new EntityNotFoundException("Draft not found with id: " + postId);
+        }
+        if(post.getStatus() != PostStatus.DRAFT) {
+            throw new IllegalStateException("Only drafts can be autosaved");
+        }
+    }
+
+    // savedAt is wall-clock time at the precision of the column, comparable with the post's updatedAt
+    // written by other instances.
+    private record PendingDraft(UUID userId, AutosaveDraftRequest request, LocalDateTime savedAt, long firstSavedAt, long lastSavedAt) {
+    }
+}
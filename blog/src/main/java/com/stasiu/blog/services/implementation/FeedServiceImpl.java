@@ -0,0 +1,286 @@
+package com.stasiu.blog.services.implementation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import com.stasiu.blog.domain.FeedDocument;
+import com.stasiu.blog.domain.FeedEntry;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.ResponseCacheTags;
+import com.stasiu.blog.domain.SitemapEntry;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.services.CategoryService;
+import com.stasiu.blog.services.FeedService;
+import com.stasiu.blog.services.InvalidationListener;
+import com.stasiu.blog.services.TagService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Feeds and the sitemap are generated on first request and then served from memory until the
+ * invalidation bus reports a change in their scope, so polling readers and crawlers cost a map
+ * lookup and a byte copy.
+ */
+@Service
+@Slf4j
+public class FeedServiceImpl implements FeedService, InvalidationListener {
+
+    private static final String ATOM_NAMESPACE = "http://www.w3.org/2005/Atom";
+    private static final String SITEMAP_NAMESPACE = "http://www.sitemaps.org/schemas/sitemap/0.9";
+    private static final int MAX_SITEMAP_URLS = 50_000;
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+    private final PostRepository postRepository;
+    private final CategoryService categoryService;
+    private final TagService tagService;
+    private final MeterRegistry meterRegistry;
+    private final String siteUrl;
+    private final String siteTitle;
+    private final int feedSize;
+
+    private final Map<FeedKey, FeedDocument> documents = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public FeedServiceImpl(
+            PostRepository postRepository,
+            CategoryService categoryService,
+            TagService tagService,
+            MeterRegistry meterRegistry,
+            @Value("${blog.site.url:http://localhost:5500}") String siteUrl,
+            @Value("${blog.site.title:Blog}") String siteTitle,
+            @Value("${blog.feed.size:20}") int feedSize) {
+        this.postRepository = postRepository;
+        this.categoryService = categoryService;
+        this.tagService = tagService;
+        this.meterRegistry = meterRegistry;
+        this.siteUrl = siteUrl.endsWith("/") ? siteUrl.substring(0, siteUrl.length() - 1) : siteUrl;
+        this.siteTitle = siteTitle;
+        this.feedSize = feedSize;
+    }
+
+    @Override
+    public FeedDocument getFeed(UUID categoryId, UUID tagId) {
+        if(categoryId != null && tagId != null) {
+            throw new IllegalArgumentException("A feed can be filtered by category or by tag, not both");
+        }
+        if(categoryId != null) {
+            return getOrGenerate(new FeedKey(FeedType.CATEGORY, categoryId));
+        }
+        if(tagId != null) {
+            return getOrGenerate(new FeedKey(FeedType.TAG, tagId));
+        }
+        return getOrGenerate(FeedKey.GLOBAL);
+    }
+
+    @Override
+    public FeedDocument getSitemap() {
+        return getOrGenerate(FeedKey.SITEMAP);
+    }
+
+    // Changes made on this node arrive as they commit, changes made elsewhere once the bus delivers them.
+    @Override
+    public void onInvalidation(Set<String> tags, boolean remote) {
+        invalidations.incrementAndGet();
+        for(String tag : tags) {
+            if(ResponseCacheTags.POSTS.equals(tag)) {
+                documents.remove(FeedKey.GLOBAL);
+                documents.remove(FeedKey.SITEMAP);
+            }
+            UUID categoryId = ResponseCacheTags.categoryId(tag);
+            if(categoryId != null) {
+                documents.remove(new FeedKey(FeedType.CATEGORY, categoryId));
+            }
+            UUID tagId = ResponseCacheTags.tagId(tag);
+            if(tagId != null) {
+                documents.remove(new FeedKey(FeedType.TAG, tagId));
+            }
+        }
+    }
+
+    @Override
+    public void onFullFlush() {
+        invalidations.incrementAndGet();
+        documents.clear();
+    }
+
+    private FeedDocument getOrGenerate(FeedKey key) {
+        FeedDocument document = documents.get(key);
+        if(document != null) {
+            return document;
+        }
+        long invalidationsBefore = invalidations.get();
+        document = Timer.builder("blog.feed.generation")
+            .description("Time to generate a feed or sitemap")
+            .tag("type", key.type().name().toLowerCase())
+            .register(meterRegistry)
+            .record(() -> generate(key));
+        // A change that arrived while generating may not be reflected in the document, so it is
+        // served once but not kept.
+        if(invalidations.get() == invalidationsBefore) {
+            documents.put(key, document);
+        }
+        return document;
+    }
+
+    private FeedDocument generate(FeedKey key) {
+        Instant generatedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        return switch(key.type()) {
+            case GLOBAL -> encode(writeFeed("/feed.xml", siteTitle,
+                postRepository.findFeedEntries(PostStatus.PUBLISHED, Limit.of(feedSize))), generatedAt);
+            case CATEGORY -> encode(writeFeed("/feed.xml?categoryId=" + key.id(),
+                siteTitle + " - " + categoryService.getCategoryById(key.id()).getName(),
+                postRepository.findFeedEntriesByCategory(PostStatus.PUBLISHED, key.id(), Limit.of(feedSize))), generatedAt);
+            case TAG -> encode(writeFeed("/feed.xml?tagId=" + key.id(),
+                siteTitle + " - " + tagService.getTagById(key.id()).getName(),
+                postRepository.findFeedEntriesByTag(PostStatus.PUBLISHED, key.id(), Limit.of(feedSize))), generatedAt);
+            case SITEMAP -> encode(writeSitemap(
+                postRepository.findSitemapEntries(PostStatus.PUBLISHED, Limit.of(MAX_SITEMAP_URLS))), generatedAt);
+        };
+    }
+
+    private byte[] writeFeed(String path, String title, List<FeedEntry> entries) {
+        return write(xml -> {
+            xml.writeStartElement("feed");
+            xml.writeDefaultNamespace(ATOM_NAMESPACE);
+            element(xml, "id", siteUrl + path);
+            element(xml, "title", title);
+            element(xml, "updated", entries.stream()
+                .map(FeedEntry::getUpdatedAt)
+                .max(LocalDateTime::compareTo)
+                .map(FeedServiceImpl::timestamp)
+                .orElse(timestamp(Instant.EPOCH)));
+            link(xml, "self", siteUrl + path);
+            link(xml, "alternate", siteUrl + "/");
+            for(FeedEntry entry : entries) {
+                xml.writeStartElement("entry");
+                element(xml, "id", "urn:uuid:" + entry.getPostId());
+                element(xml, "title", entry.getTitle());
+                link(xml, "alternate", postUrl(entry.getPostId()));
+                element(xml, "published", timestamp(entry.getCreatedAt()));
+                element(xml, "updated", timestamp(entry.getUpdatedAt()));
+                xml.writeStartElement("author");
+                element(xml, "name", entry.getAuthorName());
+                xml.writeEndElement();
+                xml.writeEmptyElement("category");
+                xml.writeAttribute("term", entry.getCategoryName());
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        });
+    }
+
+    private byte[] writeSitemap(List<SitemapEntry> entries) {
+        return write(xml -> {
+            xml.writeStartElement("urlset");
+            xml.writeDefaultNamespace(SITEMAP_NAMESPACE);
+            xml.writeStartElement("url");
+            element(xml, "loc", siteUrl + "/");
+            xml.writeEndElement();
+            for(SitemapEntry entry : entries) {
+                xml.writeStartElement("url");
+                element(xml, "loc", postUrl(entry.getPostId()));
+                element(xml, "lastmod", timestamp(entry.getUpdatedAt()));
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        });
+    }
+
+    private byte[] write(XmlBody body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        try {
+            XMLStreamWriter xml = XML_OUTPUT_FACTORY.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+            xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            body.write(xml);
+            xml.writeEndDocument();
+            xml.close();
+        } catch(XMLStreamException ex) {
+            throw new IllegalStateException("Cannot write feed", ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static FeedDocument encode(byte[] body, Instant generatedAt) {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(body.length / 4 + 64);
+        try(GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(body);
+        } catch(IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return new FeedDocument(body, gzipped.toByteArray(), etag(body), generatedAt);
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch(NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private String postUrl(UUID postId) {
+        return siteUrl + "/posts/" + postId;
+    }
+
+    private static void element(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(text != null ? text : "");
+        xml.writeEndElement();
+    }
+
+    private static void link(XMLStreamWriter xml, String rel, String href) throws XMLStreamException {
+        xml.writeEmptyElement("link");
+        xml.writeAttribute("rel", rel);
+        xml.writeAttribute("href", href);
+    }
+
+    private static String timestamp(LocalDateTime dateTime) {
+        return timestamp(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static String timestamp(Instant instant) {
+        return DateTimeFormatter.ISO_INSTANT.format(instant.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    @FunctionalInterface
+    private interface XmlBody {
+        void write(XMLStreamWriter xml) throws XMLStreamException;
+    }
+
+    private enum FeedType {
+        GLOBAL, CATEGORY, TAG, SITEMAP
+    }
+
+    private record FeedKey(FeedType type, UUID id) {
+        static final FeedKey GLOBAL = new FeedKey(FeedType.GLOBAL, null);
+        static final FeedKey SITEMAP = new FeedKey(FeedType.SITEMAP, null);
+    }
+}
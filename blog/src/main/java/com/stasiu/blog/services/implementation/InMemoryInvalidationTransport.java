@@ -0,0 +1,31 @@
+package com.stasiu.blog.services.implementation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.stasiu.blog.domain.InvalidationMessage;
+import com.stasiu.blog.services.InvalidationTransport;
+
+/**
+ * Delivers messages to the receivers in this JVM on the sending thread. For a single instance and
+ * for tests, where several buses subscribed to one transport stand in for several nodes.
+ */
+@Service
+@ConditionalOnProperty(name = "blog.invalidation.transport", havingValue = "in-memory")
+public class InMemoryInvalidationTransport implements InvalidationTransport {
+
+    private final List<Receiver> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(InvalidationMessage message) {
+        receivers.forEach(receiver -> receiver.onMessage(message));
+    }
+
+    @Override
+    public void subscribe(Receiver receiver) {
+        receivers.add(receiver);
+    }
+}
@@ -0,0 +1,209 @@
+package com.stasiu.blog.services.implementation;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.stasiu.blog.domain.InvalidationMessage;
+import com.stasiu.blog.services.InvalidationBus;
+import com.stasiu.blog.services.InvalidationListener;
+import com.stasiu.blog.services.InvalidationTransport;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands committed changes to the listeners of this node right away and to the other nodes in
+ * batches. Tags published between two flushes are sent once, however often they changed. Every
+ * node numbers its messages; a receiver that finds a number missing cannot tell what it missed, so
+ * it drops everything it has cached. A heartbeat is sent when a node has been quiet for a while,
+ * which bounds how long a lost message goes unnoticed.
+ */
+@Service
+@Slf4j
+public class InvalidationBusImpl implements InvalidationBus, InvalidationTransport.Receiver {
+
+    private static final int MAX_MESSAGES_PER_FLUSH = 10;
+
+    private final InvalidationTransport transport;
+    private final List<InvalidationListener> listeners;
+    private final MeterRegistry meterRegistry;
+    private final int maxTagsPerMessage;
+    private final long heartbeatNanos;
+    private final UUID nodeId = UUID.randomUUID();
+
+    private final Set<String> pending = new LinkedHashSet<>();
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private long sequence;
+    private long lastSentAt = System.nanoTime();
+    private final Map<UUID, Long> lastSequences = new HashMap<>();
+
+    private final Counter messagesSent;
+    private final Counter messagesReceived;
+
+    // Listeners are resolved on first use; several of them depend on services that publish here.
+    public InvalidationBusImpl(
+            InvalidationTransport transport,
+            @Lazy List<InvalidationListener> listeners,
+            MeterRegistry meterRegistry,
+            @Value("${blog.invalidation.max-tags-per-message:100}") int maxTagsPerMessage,
+            @Value("${blog.invalidation.heartbeat-interval:30s}") Duration heartbeatInterval) {
+        this.transport = transport;
+        this.listeners = listeners;
+        this.meterRegistry = meterRegistry;
+        this.maxTagsPerMessage = maxTagsPerMessage;
+        this.heartbeatNanos = heartbeatInterval.toNanos();
+        this.messagesSent = Counter.builder("blog.invalidation.messages.sent")
+            .description("Invalidation messages sent to the other nodes")
+            .register(meterRegistry);
+        this.messagesReceived = Counter.builder("blog.invalidation.messages.received")
+            .description("Invalidation messages received from the other nodes")
+            .register(meterRegistry);
+        Gauge.builder("blog.invalidation.pending", pending, tags -> {
+                synchronized(tags) {
+                    return tags.size();
+                }
+            })
+            .description("Changed tags waiting to be sent to the other nodes")
+            .register(meterRegistry);
+        transport.subscribe(this);
+    }
+
+    @Override
+    public void publishAfterCommit(Collection<String> tags) {
+        Set<String> published = Set.copyOf(tags);
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Only once the change is visible, or a request in between would cache the old state again.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(published);
+                }
+            });
+        } else {
+            publish(published);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.invalidation.batch-interval-ms:100}")
+    public int flush() {
+        sendLock.lock();
+        try {
+            List<String> tags;
+            synchronized(pending) {
+                tags = List.copyOf(pending);
+                pending.clear();
+            }
+            if(tags.isEmpty()) {
+                if(System.nanoTime() - lastSentAt >= heartbeatNanos) {
+                    send(false, Set.of());
+                }
+                return 0;
+            }
+            if(tags.size() > maxTagsPerMessage * MAX_MESSAGES_PER_FLUSH) {
+                send(true, Set.of());
+                return 1;
+            }
+            int sent = 0;
+            for(int from = 0; from < tags.size(); from += maxTagsPerMessage) {
+                send(false, Set.copyOf(tags.subList(from, Math.min(from + maxTagsPerMessage, tags.size()))));
+                sent++;
+            }
+            return sent;
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    @Override
+    public void onMessage(InvalidationMessage message) {
+        if(message.nodeId().equals(nodeId)) {
+            return;
+        }
+        messagesReceived.increment();
+        boolean gap;
+        synchronized(lastSequences) {
+            Long previous = lastSequences.get(message.nodeId());
+            if(previous != null && message.sequence() <= previous) {
+                return;
+            }
+            lastSequences.put(message.nodeId(), message.sequence());
+            gap = previous != null && message.sequence() != previous + 1;
+        }
+        if(gap) {
+            log.warn("Missed invalidation messages from node {}, flushing all caches", message.nodeId());
+            flushAll("gap");
+        } else if(message.flush()) {
+            flushAll("requested");
+        } else if(!message.tags().isEmpty()) {
+            deliver(message.tags(), true);
+        }
+    }
+
+    @Override
+    public void onMessagesLost() {
+        log.warn("Invalidation transport may have lost messages, flushing all caches");
+        flushAll("lost");
+    }
+
+    private void publish(Set<String> tags) {
+        deliver(tags, false);
+        synchronized(pending) {
+            pending.addAll(tags);
+        }
+    }
+
+    // A failed send still uses up its number, so the other nodes see the gap with the next message.
+    private void send(boolean flush, Set<String> tags) {
+        InvalidationMessage message = new InvalidationMessage(nodeId, ++sequence, flush, tags);
+        lastSentAt = System.nanoTime();
+        try {
+            transport.send(message);
+            messagesSent.increment();
+        } catch(DataAccessException ex) {
+            log.warn("Could not send invalidation message {}", message.sequence(), ex);
+        }
+    }
+
+    private void deliver(Set<String> tags, boolean remote) {
+        for(InvalidationListener listener : listeners) {
+            try {
+                listener.onInvalidation(tags, remote);
+            } catch(RuntimeException ex) {
+                log.warn("Invalidation listener {} failed", listener.getClass().getSimpleName(), ex);
+            }
+        }
+    }
+
+    private void flushAll(String reason) {
+        Counter.builder("blog.invalidation.full-flushes")
+            .description("Times every cache of this node was dropped")
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+        for(InvalidationListener listener : listeners) {
+            try {
+                listener.onFullFlush();
+            } catch(RuntimeException ex) {
+                log.warn("Invalidation listener {} failed to flush", listener.getClass().getSimpleName(), ex);
+            }
+        }
+    }
+}
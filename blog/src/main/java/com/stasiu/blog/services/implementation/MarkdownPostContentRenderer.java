@@ -0,0 +1,91 @@
+package com.stasiu.blog.services.implementation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.commonmark.Extension;
+import org.commonmark.ext.gfm.tables.TablesExtension;
+import org.commonmark.ext.heading.anchor.HeadingAnchorExtension;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.safety.Cleaner;
+import org.jsoup.safety.Safelist;
+import org.springframework.stereotype.Service;
+
+import com.stasiu.blog.domain.RenderedContent;
+import com.stasiu.blog.domain.TocEntry;
+import com.stasiu.blog.services.PostContentRenderer;
+
+@Service
+public class MarkdownPostContentRenderer implements PostContentRenderer {
+
+    // Bump whenever the produced HTML changes so stored renderings get refreshed.
+    private static final int RENDER_VERSION = 1;
+
+    private static final String BASE_URI = "http://localhost/";
+    private static final String HEADINGS = "h1, h2, h3, h4, h5, h6";
+
+    private static final Safelist SAFELIST = Safelist.relaxed()
+            .addAttributes("h1", "id")
+            .addAttributes("h2", "id")
+            .addAttributes("h3", "id")
+            .addAttributes("h4", "id")
+            .addAttributes("h5", "id")
+            .addAttributes("h6", "id")
+            .addAttributes("code", "class")
+            .addProtocols("a", "href", "#")
+            .preserveRelativeLinks(true);
+
+    private final Parser parser;
+    private final HtmlRenderer htmlRenderer;
+    private final Cleaner cleaner;
+
+    public MarkdownPostContentRenderer() {
+        List<Extension> extensions = List.of(
+            TablesExtension.create(),
+            HeadingAnchorExtension.create()
+        );
+        this.parser = Parser.builder().extensions(extensions).build();
+        this.htmlRenderer = HtmlRenderer.builder().extensions(extensions).build();
+        this.cleaner = new Cleaner(SAFELIST);
+    }
+
+    @Override
+    public int getVersion() {
+        return RENDER_VERSION;
+    }
+
+    @Override
+    public RenderedContent render(String markdown) {
+        if(markdown == null || markdown.isBlank()) {
+            return RenderedContent.builder().html("").build();
+        }
+
+        String unsafeHtml = htmlRenderer.render(parser.parse(markdown));
+        Document cleanDocument = cleaner.clean(Jsoup.parseBodyFragment(unsafeHtml, BASE_URI));
+        cleanDocument.outputSettings().prettyPrint(false);
+
+        return RenderedContent.builder()
+            .html(cleanDocument.body().html())
+            .tableOfContents(buildTableOfContents(cleanDocument))
+            .build();
+    }
+
+    private List<TocEntry> buildTableOfContents(Document document) {
+        List<TocEntry> tableOfContents = new ArrayList<>();
+        for(Element heading : document.select(HEADINGS)) {
+            if(!heading.hasAttr("id")) {
+                continue;
+            }
+            tableOfContents.add(TocEntry.builder()
+                .level(heading.tagName().charAt(1) - '0')
+                .text(heading.text())
+                .anchor(heading.attr("id"))
+                .build());
+        }
+        return tableOfContents;
+    }
+}
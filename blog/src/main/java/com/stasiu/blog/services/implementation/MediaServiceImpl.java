@@ -0,0 +1,289 @@
+package com.stasiu.blog.services.implementation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.stasiu.blog.domain.MediaFile;
+import com.stasiu.blog.domain.MediaVariant;
+import com.stasiu.blog.domain.entities.Media;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.events.PostDeleted;
+import com.stasiu.blog.domain.events.PostEvent;
+import com.stasiu.blog.repositories.MediaRepository;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.services.MediaService;
+import com.stasiu.blog.services.PostEventListener;
+import com.stasiu.blog.services.ThumbnailService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stores uploads under {@code blobs/} by the SHA-256 of their content. An upload is streamed
+ * through a fixed buffer into a staging file while it is hashed, then renamed into place unless a
+ * file with the same hash is already there. No database connection is held while the body is
+ * read. Files no media row refers to any more are removed by {@link #sweepOrphans()}.
+ */
+@Service
+@Slf4j
+public class MediaServiceImpl implements MediaService, PostEventListener {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SNIFF_LENGTH = 8;
+    private static final byte[] JPEG_MAGIC = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] GIF_MAGIC = {'G', 'I', 'F', '8'};
+    private static final int MAX_FILENAME_LENGTH = 255;
+
+    private final MediaRepository mediaRepository;
+    private final PostRepository postRepository;
+    private final ThumbnailService thumbnailService;
+    private final TransactionTemplate transactionTemplate;
+    private final Path blobDirectory;
+    private final Path stagingDirectory;
+    private final long maxSize;
+    private final Duration orphanGracePeriod;
+    private final DistributionSummary uploadedBytes;
+    private final Counter deduplicated;
+
+    public MediaServiceImpl(
+            MediaRepository mediaRepository,
+            PostRepository postRepository,
+            ThumbnailService thumbnailService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${blog.media.directory:media}") Path directory,
+            @Value("${blog.media.max-size:20MB}") DataSize maxSize,
+            @Value("${blog.media.orphan-grace-period:1h}") Duration orphanGracePeriod) {
+        this.mediaRepository = mediaRepository;
+        this.postRepository = postRepository;
+        this.thumbnailService = thumbnailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.blobDirectory = directory.resolve("blobs");
+        this.stagingDirectory = directory.resolve("staging");
+        this.maxSize = maxSize.toBytes();
+        this.orphanGracePeriod = orphanGracePeriod;
+        this.uploadedBytes = DistributionSummary.builder("blog.media.upload.bytes")
+            .description("Size of accepted uploads")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.deduplicated = Counter.builder("blog.media.uploads.deduplicated")
+            .description("Uploads whose content was already stored")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Media upload(UUID postId, UUID userId, String filename, InputStream content) throws IOException {
+        Post post = postRepository.findById(postId)
+            .orElseThrow(() -> new EntityNotFoundException("Post not found with id: " + postId));
+        if(post.getAuthor() == null || !Objects.equals(post.getAuthor().getId(), userId)) {
+            throw new EntityNotFoundException("Post not found with id: " + postId);
+        }
+
+        Files.createDirectories(stagingDirectory);
+        Path staging = Files.createTempFile(stagingDirectory, "upload-", ".part");
+        try {
+            StagedUpload upload = stage(content, staging);
+            Path blob = blobPath(upload.contentHash());
+            if(!store(staging, blob)) {
+                deduplicated.increment();
+            }
+
+            Media media = transactionTemplate.execute(status -> mediaRepository.save(Media.builder()
+                .post(postRepository.getReferenceById(postId))
+                .contentHash(upload.contentHash())
+                .contentType(upload.contentType())
+                .size(upload.size())
+                .filename(filename(filename, upload.contentHash()))
+                .build()));
+            uploadedBytes.record(upload.size());
+            thumbnailService.schedule(upload.contentHash(), blob, upload.contentType());
+            return media;
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Media> getMediaForPost(UUID postId) {
+        if(!postRepository.existsById(postId)) {
+            throw new EntityNotFoundException("Post not found with id: " + postId);
+        }
+        return mediaRepository.findAllByPostId(postId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MediaFile getFile(UUID id) {
+        Media media = getMedia(id);
+        return new MediaFile(blobPath(media.getContentHash()), "\"" + media.getContentHash() + "\"", media.getContentType());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MediaFile getVariant(UUID id, MediaVariant variant) {
+        Media media = getMedia(id);
+        return thumbnailService.findVariant(media.getContentHash(), blobPath(media.getContentHash()), media.getContentType(), variant)
+            .orElseThrow(() -> new EntityNotFoundException("The " + variant.value() + " variant of media " + id + " is not rendered yet"));
+    }
+
+    // The files go with the next sweep once no other post refers to them.
+    @Override
+    public void onPostEvent(PostEvent event) {
+        if(event instanceof PostDeleted deleted) {
+            mediaRepository.deleteAllByPostId(deleted.postId());
+        }
+    }
+
+    // A blob is only removed once it has been unreferenced for the grace period, which covers an
+    // upload that found the blob already stored but has not committed its row yet.
+    @Override
+    @Scheduled(cron = "${blog.media.sweep-cron:0 30 4 * * *}")
+    public int sweepOrphans() {
+        if(!Files.isDirectory(blobDirectory)) {
+            return 0;
+        }
+        Instant cutoff = Instant.now().minus(orphanGracePeriod);
+        int removed = 0;
+        try(Stream<Path> blobs = Files.walk(blobDirectory, 2)) {
+            for(Path blob : (Iterable<Path>) blobs.filter(Files::isRegularFile)::iterator) {
+                String contentHash = blob.getFileName().toString();
+                if(Files.getLastModifiedTime(blob).toInstant().isAfter(cutoff) || mediaRepository.existsByContentHash(contentHash)) {
+                    continue;
+                }
+                Files.deleteIfExists(blob);
+                thumbnailService.deleteVariants(contentHash);
+                removed++;
+            }
+        } catch(IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        log.info("Removed {} unreferenced media files", removed);
+        return removed;
+    }
+
+    private Media getMedia(UUID id) {
+        return mediaRepository.findById(id)
+            .orElseThrow(() -> new EntityNotFoundException("Media not found with id: " + id));
+    }
+
+    private StagedUpload stage(InputStream content, Path staging) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long size = 0;
+        String contentType = null;
+        try(FileChannel out = FileChannel.open(staging, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            int read = content.readNBytes(buffer, 0, SNIFF_LENGTH);
+            contentType = sniff(Arrays.copyOf(buffer, read));
+            while(read > 0) {
+                size += read;
+                if(size > maxSize) {
+                    throw new IllegalArgumentException("Upload is larger than " + maxSize + " bytes");
+                }
+                digest.update(buffer, 0, read);
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                while(chunk.hasRemaining()) {
+                    out.write(chunk);
+                }
+                read = content.read(buffer);
+            }
+        }
+        return new StagedUpload(HexFormat.of().formatHex(digest.digest()), contentType, size);
+    }
+
+    // Returns false when the content was already stored.
+    private static boolean store(Path staging, Path blob) throws IOException {
+        if(Files.exists(blob)) {
+            // Keeps the sweep away from a blob that is about to be referenced again.
+            Files.setLastModifiedTime(blob, FileTime.from(Instant.now()));
+            return false;
+        }
+        Files.createDirectories(blob.getParent());
+        try {
+            try {
+                Files.move(staging, blob, StandardCopyOption.ATOMIC_MOVE);
+            } catch(AtomicMoveNotSupportedException ex) {
+                Files.move(staging, blob);
+            }
+            return true;
+        } catch(FileAlreadyExistsException ex) {
+            // Stored meanwhile by a concurrent upload of the same content.
+            return false;
+        }
+    }
+
+    private static String sniff(byte[] header) {
+        if(startsWith(header, JPEG_MAGIC)) {
+            return "image/jpeg";
+        }
+        if(startsWith(header, PNG_MAGIC)) {
+            return "image/png";
+        }
+        if(startsWith(header, GIF_MAGIC)) {
+            return "image/gif";
+        }
+        throw new IllegalArgumentException("Only JPEG, PNG and GIF images can be uploaded");
+    }
+
+    private static boolean startsWith(byte[] header, byte[] magic) {
+        return header.length >= magic.length && Arrays.equals(header, 0, magic.length, magic, 0, magic.length);
+    }
+
+    private static String filename(String filename, String contentHash) {
+        if(filename == null || filename.isBlank()) {
+            return contentHash;
+        }
+        String name = filename.substring(Math.max(filename.lastIndexOf('/'), filename.lastIndexOf('\\')) + 1).strip();
+        if(name.isEmpty()) {
+            return contentHash;
+        }
+        return name.length() > MAX_FILENAME_LENGTH ? name.substring(0, MAX_FILENAME_LENGTH) : name;
+    }
+
+    private Path blobPath(String contentHash) {
+        return blobDirectory.resolve(contentHash.substring(0, 2)).resolve(contentHash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch(NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private record StagedUpload(String contentHash, String contentType, long size) {
+    }
+}
@@ -0,0 +1,242 @@
+package com.stasiu.blog.services.implementation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stasiu.blog.domain.OutboxBacklog;
+import com.stasiu.blog.domain.OutboxStatus;
+import com.stasiu.blog.domain.entities.OutboxEvent;
+import com.stasiu.blog.domain.events.PostEvent;
+import com.stasiu.blog.repositories.OutboxEventRepository;
+import com.stasiu.blog.services.OutboxService;
+import com.stasiu.blog.services.PostEventListener;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Events are stored in the transaction of the post change and delivered to the listeners by a
+ * poller, so a post write costs one extra insert no matter how many consumers there are. Rows are
+ * claimed with {@code SKIP LOCKED}, which lets several instances poll the same table; each event
+ * thus reaches the listeners of a single instance. When a listener fails, the whole batch rolls
+ * back and only the failing event is held back for a retry. In-memory projections do not listen
+ * here but follow the invalidation bus, which reaches every instance.
+ */
+@Service
+@Slf4j
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final int MAX_BATCHES_PER_RUN = 10;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<PostEventListener> listeners;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Duration retention;
+
+    private final Timer deliveryLag;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+
+    public OutboxServiceImpl(
+            OutboxEventRepository outboxEventRepository,
+            List<PostEventListener> listeners,
+            ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${blog.outbox.batch-size:100}") int batchSize,
+            @Value("${blog.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${blog.outbox.retry-backoff:1s}") Duration retryBackoff,
+            @Value("${blog.outbox.max-retry-backoff:5m}") Duration maxRetryBackoff,
+            @Value("${blog.outbox.retention:7d}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.listeners = listeners;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.retention = retention;
+
+        this.deliveryLag = Timer.builder("blog.outbox.delivery.lag")
+            .description("Time from writing an outbox event to delivering it")
+            .register(meterRegistry);
+        Gauge.builder("blog.outbox.pending", pending, AtomicLong::get)
+            .description("Outbox events waiting for delivery")
+            .register(meterRegistry);
+        TimeGauge.builder("blog.outbox.lag", oldestPendingAgeMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+            .description("Age of the oldest undelivered outbox event")
+            .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(PostEvent event) {
+        Instant now = Instant.now();
+        outboxEventRepository.save(OutboxEvent.builder()
+            .aggregateId(event.postId())
+            .eventType(event.getClass().getSimpleName())
+            .payload(serialize(event))
+            .status(OutboxStatus.PENDING)
+            .createdAt(now)
+            .availableAt(now)
+            .build());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.outbox.poll-interval-ms:500}",
+               initialDelayString = "${blog.outbox.poll-interval-ms:500}")
+    public int dispatch() {
+        int handled = 0;
+        try {
+            for(int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+                Instant now = Instant.now();
+                List<OutboxEvent> delivered;
+                try {
+                    delivered = transactionTemplate.execute(status -> dispatchBatch(now));
+                } catch(DeliveryFailure failure) {
+                    // The batch rolled back with the listener's writes; it is retried without the failing event.
+                    transactionTemplate.executeWithoutResult(status -> recordFailure(failure, now));
+                    handled++;
+                    continue;
+                }
+                if(delivered == null || delivered.isEmpty()) {
+                    break;
+                }
+                for(OutboxEvent event : delivered) {
+                    deliveryLag.record(Duration.between(event.getCreatedAt(), now));
+                    count(event, "processed");
+                }
+                handled += delivered.size();
+            }
+            refreshBacklog();
+        } catch(DataAccessException | TransactionException ex) {
+            log.warn("Could not dispatch outbox events, retrying on next poll", ex);
+        }
+        return handled;
+    }
+
+    @Override
+    @Scheduled(cron = "${blog.outbox.purge-cron:0 0 4 * * *}")
+    public int purgeProcessed() {
+        Instant processedBefore = Instant.now().minus(retention);
+        Integer purged = transactionTemplate.execute(status ->
+            outboxEventRepository.deleteByStatusAndProcessedAtBefore(OutboxStatus.PROCESSED, processedBefore));
+        log.info("Purged {} delivered outbox events", purged);
+        return purged != null ? purged : 0;
+    }
+
+    // Listeners write through the batch transaction, so their changes commit together with the
+    // events being marked processed and a listener sees each event once.
+    private List<OutboxEvent> dispatchBatch(Instant now) {
+        List<OutboxEvent> events = outboxEventRepository.findDispatchable(OutboxStatus.PENDING, now, Limit.of(batchSize));
+        for(OutboxEvent outboxEvent : events) {
+            try {
+                PostEvent event = objectMapper.readValue(outboxEvent.getPayload(), PostEvent.class);
+                for(PostEventListener listener : listeners) {
+                    listener.onPostEvent(event);
+                }
+            } catch(JsonProcessingException | RuntimeException ex) {
+                throw new DeliveryFailure(outboxEvent.getId(), ex);
+            }
+            outboxEvent.setStatus(OutboxStatus.PROCESSED);
+            outboxEvent.setProcessedAt(now);
+            outboxEvent.setLastError(null);
+        }
+        return events;
+    }
+
+    // Another dispatcher may have delivered the event since the rollback released it.
+    private void recordFailure(DeliveryFailure failure, Instant now) {
+        OutboxEvent outboxEvent = outboxEventRepository.findByIdForUpdate(failure.eventId).orElse(null);
+        if(outboxEvent == null || outboxEvent.getStatus() != OutboxStatus.PENDING) {
+            return;
+        }
+        Throwable cause = failure.getCause();
+        int attempts = outboxEvent.getAttempts() + 1;
+        outboxEvent.setAttempts(attempts);
+        outboxEvent.setLastError(truncate(cause.toString()));
+        if(attempts >= maxAttempts) {
+            outboxEvent.setStatus(OutboxStatus.FAILED);
+            outboxEvent.setProcessedAt(now);
+            log.error("Giving up on outbox event {} ({}) for post {} after {} attempts",
+                outboxEvent.getId(), outboxEvent.getEventType(), outboxEvent.getAggregateId(), attempts, cause);
+            count(outboxEvent, "failed");
+        } else {
+            outboxEvent.setAvailableAt(now.plus(backoff(attempts)));
+            log.warn("Delivering outbox event {} ({}) for post {} failed, attempt {} of {}",
+                outboxEvent.getId(), outboxEvent.getEventType(), outboxEvent.getAggregateId(), attempts, maxAttempts, cause);
+            count(outboxEvent, "retry");
+        }
+    }
+
+    private void count(OutboxEvent outboxEvent, String outcome) {
+        Counter.builder("blog.outbox.events")
+            .tag("type", outboxEvent.getEventType())
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private void refreshBacklog() {
+        OutboxBacklog backlog = outboxEventRepository.findBacklog(OutboxStatus.PENDING);
+        pending.set(backlog.getPending());
+        oldestPendingAgeMillis.set(backlog.getOldestCreatedAt() != null
+            ? Math.max(0, Duration.between(backlog.getOldestCreatedAt(), Instant.now()).toMillis())
+            : 0);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+
+    private String serialize(PostEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch(JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize " + event.getClass().getSimpleName(), ex);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static class DeliveryFailure extends RuntimeException {
+
+        private final Long eventId;
+
+        DeliveryFailure(Long eventId, Throwable cause) {
+            super("Delivering outbox event " + eventId + " failed", cause);
+            this.eventId = eventId;
+        }
+    }
+}
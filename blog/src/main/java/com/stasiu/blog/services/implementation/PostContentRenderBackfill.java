@@ -0,0 +1,55 @@
+package com.stasiu.blog.services.implementation;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.stasiu.blog.domain.RenderedContent;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.services.PostContentRenderer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostContentRenderBackfill {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final PostRepository postRepository;
+    private final PostContentRenderer postContentRenderer;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void renderStalePosts() {
+        int renderVersion = postContentRenderer.getVersion();
+        List<UUID> staleIds = postRepository.findIdsWithStaleRendering(renderVersion);
+        if(staleIds.isEmpty()) {
+            return;
+        }
+
+        log.info("Rendering content of {} posts for renderer version {}", staleIds.size(), renderVersion);
+        for(int from = 0; from < staleIds.size(); from += BATCH_SIZE) {
+            List<UUID> batch = staleIds.subList(from, Math.min(from + BATCH_SIZE, staleIds.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Post> posts = postRepository.findAllById(batch);
+                for(Post post : posts) {
+                    RenderedContent renderedContent = postContentRenderer.render(post.getContent());
+                    postRepository.updateRenderedContent(
+                        post.getId(),
+                        renderedContent.getHtml(),
+                        renderedContent.getTableOfContents(),
+                        renderVersion
+                    );
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.stasiu.blog.services.implementation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.stasiu.blog.domain.PostFilter;
+import com.stasiu.blog.domain.PostMetadata;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.ResponseCacheTags;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.services.InvalidationListener;
+import com.stasiu.blog.services.PostIndexService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Every published post gets a dense ordinal; categories and tags map to Roaring bitmaps of the
+ * ordinals of their posts, so a filter is a few bitmap operations regardless of how many posts
+ * carry a tag. A post keeps its ordinal while it is updated or unpublished; ordinals of deleted
+ * posts are only reclaimed by the next rebuild. Changes arrive as they commit, or as invalidations
+ * read back from the database, never from the outbox, whose late redeliveries would roll a post
+ * back to an older state. Ordered first among the invalidation listeners, so a response rendered
+ * after the response cache dropped a change is filtered with that change.
+ */
+@Service
+@Slf4j
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PostIndexServiceImpl implements PostIndexService, InvalidationListener {
+
+    private final PostRepository postRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Index index = new Index();
+
+    public PostIndexServiceImpl(PostRepository postRepository, MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        Gauge.builder("blog.post-index.posts", this, service -> service.read(current -> current.published.getCardinality()))
+            .description("Published posts in the tag and category index")
+            .register(meterRegistry);
+        Gauge.builder("blog.post-index.size", this, service -> service.read(Index::sizeInBytes))
+            .description("Serialized size of the tag and category bitmaps")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public List<UUID> findPostIds(PostFilter filter) {
+        return read(current -> {
+            RoaringBitmap matches = current.match(filter);
+            List<UUID> postIds = new ArrayList<>(matches.getCardinality());
+            IntIterator ordinals = matches.getIntIterator();
+            while(ordinals.hasNext()) {
+                postIds.add(current.postIds.get(ordinals.next()));
+            }
+            return postIds;
+        });
+    }
+
+    @Override
+    public synchronized void onPostSaved(PostMetadata post, PostStatus status) {
+        write(current -> {
+            current.remove(post.getId());
+            if(status == PostStatus.PUBLISHED) {
+                current.add(post);
+            }
+        });
+    }
+
+    @Override
+    public synchronized void onPostDeleted(UUID postId) {
+        write(current -> {
+            current.remove(postId);
+            current.ordinals.remove(postId);
+        });
+    }
+
+    // This node applied its own changes as they committed; changes made elsewhere are read back.
+    @Override
+    public synchronized void onInvalidation(Set<String> tags, boolean remote) {
+        if(!remote) {
+            return;
+        }
+        Set<UUID> postIds = ResponseCacheTags.postIds(tags);
+        if(postIds.isEmpty()) {
+            return;
+        }
+        for(PostMetadata post : PostMetadata.fromRows(postRepository.findTagRowsByIdInAndStatus(postIds, PostStatus.PUBLISHED))) {
+            onPostSaved(post, PostStatus.PUBLISHED);
+            postIds.remove(post.getId());
+        }
+        write(current -> postIds.forEach(current::remove));
+    }
+
+    @Override
+    public void onFullFlush() {
+        rebuild();
+    }
+
+    // Writers wait for the rebuild, so a change that committed after the posts were read is
+    // applied to the new index rather than lost with the old one.
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${blog.post-index.rebuild-cron:0 45 3 * * *}")
+    public synchronized void rebuild() {
+        Index rebuilt = new Index();
+        PostMetadata.fromRows(postRepository.findTagRowsByStatus(PostStatus.PUBLISHED)).forEach(rebuilt::add);
+        rebuilt.optimize();
+        write(current -> index = rebuilt);
+        log.info("Built tag and category index for {} published posts ({} bytes)",
+            rebuilt.published.getCardinality(), rebuilt.sizeInBytes());
+    }
+
+    private <T> T read(Function<Index, T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Consumer<Index> writer) {
+        lock.writeLock().lock();
+        try {
+            writer.accept(index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class Index {
+
+        private final List<UUID> postIds = new ArrayList<>();
+        private final Map<UUID, Integer> ordinals = new HashMap<>();
+        private final Map<UUID, Entry> entries = new HashMap<>();
+        private final RoaringBitmap published = new RoaringBitmap();
+        private final Map<UUID, RoaringBitmap> byCategory = new HashMap<>();
+        private final Map<UUID, RoaringBitmap> byTag = new HashMap<>();
+
+        private RoaringBitmap match(PostFilter filter) {
+            RoaringBitmap matches = published.clone();
+            if(filter.getCategoryId() != null) {
+                matches.and(bitmap(byCategory, filter.getCategoryId()));
+            }
+            for(UUID tagId : filter.getAllTags()) {
+                matches.and(bitmap(byTag, tagId));
+            }
+            if(!filter.getAnyTags().isEmpty()) {
+                matches.and(RoaringBitmap.or(filter.getAnyTags().stream().map(tagId -> bitmap(byTag, tagId)).iterator()));
+            }
+            for(UUID tagId : filter.getNoneTags()) {
+                matches.andNot(bitmap(byTag, tagId));
+            }
+            return matches;
+        }
+
+        private void add(PostMetadata post) {
+            int ordinal = ordinals.computeIfAbsent(post.getId(), id -> {
+                postIds.add(id);
+                return postIds.size() - 1;
+            });
+            entries.put(post.getId(), new Entry(ordinal, post.getCategoryId(), Set.copyOf(post.getTagIds())));
+            published.add(ordinal);
+            if(post.getCategoryId() != null) {
+                byCategory.computeIfAbsent(post.getCategoryId(), id -> new RoaringBitmap()).add(ordinal);
+            }
+            for(UUID tagId : post.getTagIds()) {
+                byTag.computeIfAbsent(tagId, id -> new RoaringBitmap()).add(ordinal);
+            }
+        }
+
+        private void remove(UUID postId) {
+            Entry entry = entries.remove(postId);
+            if(entry == null) {
+                return;
+            }
+            published.remove(entry.ordinal());
+            if(entry.categoryId() != null) {
+                removeFrom(byCategory, entry.categoryId(), entry.ordinal());
+            }
+            for(UUID tagId : entry.tagIds()) {
+                removeFrom(byTag, tagId, entry.ordinal());
+            }
+        }
+
+        private void optimize() {
+            published.runOptimize();
+            byCategory.values().forEach(RoaringBitmap::runOptimize);
+            byTag.values().forEach(RoaringBitmap::runOptimize);
+        }
+
+        private long sizeInBytes() {
+            long size = published.getLongSizeInBytes();
+            for(RoaringBitmap bitmap : byCategory.values()) {
+                size += bitmap.getLongSizeInBytes();
+            }
+            for(RoaringBitmap bitmap : byTag.values()) {
+                size += bitmap.getLongSizeInBytes();
+            }
+            return size;
+        }
+
+        private static RoaringBitmap bitmap(Map<UUID, RoaringBitmap> bitmaps, UUID id) {
+            RoaringBitmap bitmap = bitmaps.get(id);
+            return bitmap != null ? bitmap : new RoaringBitmap();
+        }
+
+        private static void removeFrom(Map<UUID, RoaringBitmap> bitmaps, UUID id, int ordinal) {
+            RoaringBitmap bitmap = bitmaps.get(id);
+            if(bitmap != null) {
+                bitmap.remove(ordinal);
+                if(bitmap.isEmpty()) {
+                    bitmaps.remove(id);
+                }
+            }
+        }
+    }
+
+    private record Entry(int ordinal, UUID categoryId, Set<UUID> tagIds) {
+    }
+}
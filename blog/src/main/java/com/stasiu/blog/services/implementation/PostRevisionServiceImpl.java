@@ -0,0 +1,228 @@
+package com.stasiu.blog.services.implementation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stasiu.blog.domain.dtos.PostRevisionDto;
+import com.stasiu.blog.domain.dtos.PostRevisionSummaryDto;
+import com.stasiu.blog.domain.entities.PostRevision;
+import com.stasiu.blog.domain.events.PostDeleted;
+import com.stasiu.blog.domain.events.PostEvent;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.repositories.PostRevisionRepository;
+import com.stasiu.blog.revisions.ContentDelta;
+import com.stasiu.blog.services.PostEventListener;
+import com.stasiu.blog.services.PostRevisionService;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Stores every saved version of a post as a deflated delta against the version before it, with a
+ * full keyframe every {@code keyframe-interval} revisions, so rebuilding any revision applies at
+ * most that many deltas. Rebuilt revisions are cached, and a rebuild starts from the newest cached
+ * revision of the chain rather than from its keyframe.
+ */
+@Service
+public class PostRevisionServiceImpl implements PostRevisionService, PostEventListener {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    private final PostRevisionRepository postRevisionRepository;
+    private final PostRepository postRepository;
+    private final int keyframeInterval;
+    private final Cache<RevisionKey, byte[]> contents;
+    private final DistributionSummary keyframeBytes;
+    private final DistributionSummary deltaBytes;
+
+    public PostRevisionServiceImpl(
+            PostRevisionRepository postRevisionRepository,
+            PostRepository postRepository,
+            MeterRegistry meterRegistry,
+            @Value("${blog.revisions.keyframe-interval:10}") int keyframeInterval,
+            @Value("${blog.revisions.cache-size:16MB}") DataSize cacheSize) {
+        if(keyframeInterval < 1) {
+            throw new IllegalArgumentException("Keyframe interval must be at least 1");
+        }
+        this.postRevisionRepository = postRevisionRepository;
+        this.postRepository = postRepository;
+        this.keyframeInterval = keyframeInterval;
+        this.contents = Caffeine.newBuilder()
+            .maximumWeight(cacheSize.toBytes())
+            .weigher((RevisionKey key, byte[] content) -> ENTRY_OVERHEAD_BYTES + content.length)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, contents, "post-revisions");
+        this.keyframeBytes = storedBytes(meterRegistry, "keyframe");
+        this.deltaBytes = storedBytes(meterRegistry, "delta");
+    }
+
+    @Override
+    @Transactional
+    public void recordRevision(UUID postId, String title, String content) {
+        // Locks the post row until commit, so a post's revisions are numbered without gaps or races.
+        if(postRepository.incrementRevisionNumber(postId) == 0) {
+            throw new EntityNotFoundException("Post not found with id: " + postId);
+        }
+        int number = postRepository.findRevisionNumber(postId);
+        byte[] target = content.getBytes(StandardCharsets.UTF_8);
+
+        byte[] data = target;
+        boolean keyframe = true;
+        Optional<Integer> keyframeNumber = number > 1
+            ? postRevisionRepository.findKeyframeNumber(postId, number - 1)
+            : Optional.empty();
+        if(keyframeNumber.isPresent() && number - keyframeNumber.get() < keyframeInterval) {
+            byte[] delta = ContentDelta.encode(content(postId, number - 1, keyframeNumber.get()), target);
+            if(delta.length < target.length) {
+                data = delta;
+                keyframe = false;
+            }
+        }
+        byte[] stored = deflate(data);
+        postRevisionRepository.save(PostRevision.builder()
+            .post(postRepository.getReferenceById(postId))
+            .number(number)
+            .title(title)
+            .keyframe(keyframe)
+            .data(stored)
+            .contentSize(target.length)
+            .storedSize(stored.length)
+            .build());
+        (keyframe ? keyframeBytes : deltaBytes).record(stored.length);
+
+        // Only once committed, as a rolled back revision number is taken again by the next save.
+        RevisionKey key = new RevisionKey(postId, number);
+        afterCommit(() -> contents.put(key, target));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostRevisionSummaryDto> getRevisions(UUID postId, UUID userId, Integer before, int limit) {
+        checkAuthor(postId, userId);
+        return postRevisionRepository.findSummaries(postId, before != null ? before : Integer.MAX_VALUE, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PostRevisionDto getRevision(UUID postId, UUID userId, int number) {
+        checkAuthor(postId, userId);
+        PostRevisionSummaryDto summary = postRevisionRepository.findSummary(postId, number)
+            .orElseThrow(() -> new EntityNotFoundException("Revision " + number + " of post " + postId + " not found"));
+        byte[] content = contents.getIfPresent(new RevisionKey(postId, number));
+        if(content == null) {
+            int keyframeNumber = postRevisionRepository.findKeyframeNumber(postId, number)
+                .orElseThrow(() -> new IllegalStateException("Revision " + number + " of post " + postId + " has no keyframe"));
+            content = content(postId, number, keyframeNumber);
+        }
+        return PostRevisionDto.builder()
+            .number(number)
+            .title(summary.getTitle())
+            .content(new String(content, StandardCharsets.UTF_8))
+            .createdAt(summary.getCreatedAt())
+            .build();
+    }
+
+    // Cached revisions of a deleted post are left to age out of the cache; nothing can ask for them any more.
+    @Override
+    public void onPostEvent(PostEvent event) {
+        if(event instanceof PostDeleted deleted) {
+            postRevisionRepository.deleteAllByPostId(deleted.postId());
+        }
+    }
+
+    private byte[] content(UUID postId, int number, int keyframeNumber) {
+        RevisionKey key = new RevisionKey(postId, number);
+        byte[] content = contents.getIfPresent(key);
+        if(content != null) {
+            return content;
+        }
+        int from = keyframeNumber;
+        for(int cachedNumber = number - 1; cachedNumber > keyframeNumber; cachedNumber--) {
+            byte[] cached = contents.getIfPresent(new RevisionKey(postId, cachedNumber));
+            if(cached != null) {
+                content = cached;
+                from = cachedNumber + 1;
+                break;
+            }
+        }
+        List<PostRevision> chain = postRevisionRepository.findChain(postId, from, number);
+        if(chain.size() != number - from + 1) {
+            throw new IllegalStateException("Revisions " + from + " to " + number + " of post " + postId + " are incomplete");
+        }
+        for(PostRevision revision : chain) {
+            byte[] data = inflate(revision.getData());
+            content = revision.isKeyframe() ? data : ContentDelta.apply(content, data);
+        }
+        contents.put(key, content);
+        return content;
+    }
+
+    private void checkAuthor(UUID postId, UUID userId) {
+        if(!postRepository.existsByIdAndAuthorId(postId, userId)) {
+            throw new EntityNotFoundException("Post not found with id: " + postId);
+        }
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try(DeflaterOutputStream deflater = new DeflaterOutputStream(out)) {
+            deflater.write(bytes);
+        } catch(IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] inflate(byte[] bytes) {
+        try(InflaterInputStream inflater = new InflaterInputStream(new ByteArrayInputStream(bytes))) {
+            return inflater.readAllBytes();
+        } catch(IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static DistributionSummary storedBytes(MeterRegistry meterRegistry, String type) {
+        return DistributionSummary.builder("blog.revisions.stored")
+            .description("Deflated size of a stored post revision")
+            .baseUnit("bytes")
+            .tag("type", type)
+            .register(meterRegistry);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record RevisionKey(UUID postId, int number) {
+    }
+}
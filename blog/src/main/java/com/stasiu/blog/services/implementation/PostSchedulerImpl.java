@@ -0,0 +1,61 @@
+package com.stasiu.blog.services.implementation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.stasiu.blog.scheduling.TimerWheel;
+import com.stasiu.blog.services.PostScheduler;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Holds the publication time of every scheduled post in a {@link TimerWheel}. The wheel is only a
+ * reminder: a post is checked against the database before it is published, so an entry that is
+ * early or no longer scheduled costs one lookup and nothing else.
+ */
+@Service
+public class PostSchedulerImpl implements PostScheduler {
+
+    private final TimerWheel<UUID> wheel;
+
+    public PostSchedulerImpl(
+            @Value("${blog.scheduled-publishing.tick:1s}") Duration tick,
+            MeterRegistry meterRegistry) {
+        this.wheel = new TimerWheel<>(tick, Instant.now());
+        Gauge.builder("blog.scheduled-posts.pending", wheel, TimerWheel::size)
+            .description("Scheduled posts waiting for their publication time")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void schedule(UUID postId, Instant publishAt) {
+        wheel.schedule(postId, publishAt);
+    }
+
+    // An earlier reminder is always safe, a later one could publish late.
+    @Override
+    public void offer(UUID postId, Instant publishAt) {
+        synchronized(wheel) {
+            Instant deadline = wheel.deadline(postId);
+            if(deadline == null || publishAt.isBefore(deadline)) {
+                wheel.schedule(postId, publishAt);
+            }
+        }
+    }
+
+    @Override
+    public void cancel(UUID postId) {
+        wheel.cancel(postId);
+    }
+
+    @Override
+    public List<UUID> takeDue(Instant now) {
+        return wheel.advance(now);
+    }
+}
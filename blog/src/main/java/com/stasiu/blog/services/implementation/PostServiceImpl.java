@@ -1,25 +1,50 @@
 package com.stasiu.blog.services.implementation;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.stasiu.blog.domain.AutosaveDraftRequest;
 import com.stasiu.blog.domain.CreatePostRequest;
+import com.stasiu.blog.domain.PostFilter;
+import com.stasiu.blog.domain.PostMetadata;
 import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.ReadingTime;
+import com.stasiu.blog.domain.RenderedContent;
+import com.stasiu.blog.domain.ResponseCacheTags;
 import com.stasiu.blog.domain.UpdatePostRequest;
 import com.stasiu.blog.domain.entities.Category;
 import com.stasiu.blog.domain.entities.Post;
 import com.stasiu.blog.domain.entities.Tag;
 import com.stasiu.blog.domain.entities.User;
+import com.stasiu.blog.domain.events.PostCreated;
+import com.stasiu.blog.domain.events.PostDeleted;
+import com.stasiu.blog.domain.events.PostUpdated;
 import com.stasiu.blog.repositories.PostRepository;
 import com.stasiu.blog.services.CategoryService;
+import com.stasiu.blog.services.InvalidationBus;
+import com.stasiu.blog.services.OutboxService;
+import com.stasiu.blog.services.PostContentRenderer;
+import com.stasiu.blog.services.PostIndexService;
+import com.stasiu.blog.services.PostRevisionService;
+import com.stasiu.blog.services.PostScheduler;
 import com.stasiu.blog.services.PostService;
+import com.stasiu.blog.services.RelatedPostsService;
 import com.stasiu.blog.services.TagService;
+import com.stasiu.blog.services.TrendingService;
+import com.stasiu.blog.services.ViewCounterService;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -31,42 +56,56 @@ public class PostServiceImpl implements PostService {
     private final PostRepository postRepository;
     private final CategoryService categoryService;
     private final TagService tagService;
+    private final PostContentRenderer postContentRenderer;
+    private final OutboxService outboxService;
+    private final InvalidationBus invalidationBus;
+    private final PostIndexService postIndexService;
+    private final PostScheduler postScheduler;
+    private final PostRevisionService postRevisionService;
+    private final TrendingService trendingService;
+    private final RelatedPostsService relatedPostsService;
+    private final ViewCounterService viewCounterService;
 
-    private static final int WORDS_PER_MINUTE = 200;
+    private static final int MAX_BOUND_IDS = 1000;
     
+    // Filters are resolved against the in-memory tag and category index; only the matching posts are loaded.
     @Override
     @Transactional(readOnly = true)
-    public List<Post> getAllPosts(UUID categoryId, UUID tagId) {
-        if(tagId != null && categoryId != null){
-            Category category = categoryService.getCategoryById(categoryId);
-            Tag tag = tagService.getTagById(tagId);
-            return postRepository.findAllByStatusAndCategoryAndTagsContaining(
-                PostStatus.PUBLISHED, 
-                category, 
-                tag
-            );
-        }
-        if(categoryId != null){
-            Category category = categoryService.getCategoryById(categoryId);
-            return postRepository.findAllByStatusAndCategory(
-                PostStatus.PUBLISHED, 
-                category
-            );
-        }
-        if(tagId != null){
-            Tag tag = tagService.getTagById(tagId);
-            return postRepository.findAllByStatusAndTagsContaining(
-                PostStatus.PUBLISHED, 
-                tag
-            );
-        }
-        return postRepository.findAllByStatus(PostStatus.PUBLISHED);
+    public List<Post> getAllPosts(PostFilter filter) {
+        if(filter.isEmpty()) {
+            return postRepository.findAllByStatus(PostStatus.PUBLISHED);
+        }
+        if(filter.getCategoryId() != null) {
+            categoryService.getCategoryById(filter.getCategoryId());
+        }
+        Set<UUID> requiredTagIds = new HashSet<>(filter.getAllTags());
+        requiredTagIds.addAll(filter.getAnyTags());
+        if(!requiredTagIds.isEmpty()) {
+            tagService.getTagsByIds(requiredTagIds);
+        }
+        List<UUID> postIds = postIndexService.findPostIds(filter);
+        if(postIds.size() <= MAX_BOUND_IDS) {
+            return postIds.isEmpty() ? List.of() : postRepository.findAllByIdInAndStatusOrderByCreatedAtDesc(postIds, PostStatus.PUBLISHED);
+        }
+        // A broad filter such as ?noneTags can match nearly every post; PostgreSQL takes at most 32767 bind parameters per statement.
+        List<Post> posts = new ArrayList<>(postIds.size());
+        for(int from = 0; from < postIds.size(); from += MAX_BOUND_IDS) {
+            List<UUID> batch = postIds.subList(from, Math.min(from + MAX_BOUND_IDS, postIds.size()));
+            posts.addAll(postRepository.findAllByIdInAndStatusOrderByCreatedAtDesc(batch, PostStatus.PUBLISHED));
+        }
+        posts.sort(Comparator.comparing(Post::getCreatedAt).reversed());
+        return posts;
     }
 
     @Override
     public List<Post> getDraftPosts(User user) {
         return postRepository.findAllByAuthorAndStatus(user, PostStatus.DRAFT);
     }
+
+    @Override
+    public List<Post> getScheduledPosts(User user) {
+        return postRepository.findAllByAuthorAndStatusOrderByPublishAtAsc(user, PostStatus.SCHEDULED);
+    }
     
     @Override
     @Transactional
@@ -75,8 +114,10 @@ public class PostServiceImpl implements PostService {
         newPost.setTitle(createPostRequest.getTitle());
         newPost.setContent(createPostRequest.getContent());
         newPost.setStatus(createPostRequest.getStatus());
+        newPost.setPublishAt(publishAt(createPostRequest.getStatus(), createPostRequest.getPublishAt()));
         newPost.setAuthor(user);
-        newPost.setReadingTime(calculateReadingTime(createPostRequest.getContent()));
+        newPost.setReadingTime(ReadingTime.of(createPostRequest.getContent()));
+        renderContent(newPost);
 
         Category category = categoryService.getCategoryById(createPostRequest.getCategoryId());
         newPost.setCategory(category);
@@ -85,7 +126,14 @@ public class PostServiceImpl implements PostService {
         List<Tag> tags = tagService.getTagsByIds(tagIds);
         newPost.setTags(new HashSet<>(tags));
 
-        return postRepository.save(newPost);
+        Post savedPost = postRepository.save(newPost);
+        postRevisionService.recordRevision(savedPost.getId(), savedPost.getTitle(), savedPost.getContent());
+        PostMetadata metadata = PostMetadata.from(savedPost);
+        outboxService.append(new PostCreated(metadata, savedPost.getStatus()));
+        updateProjections(metadata, savedPost.getStatus());
+        updateSchedule(savedPost);
+        evictCachedResponses(metadata, null);
+        return savedPost;
     }
 
     @Override
@@ -93,11 +141,19 @@ public class PostServiceImpl implements PostService {
     public Post updatePost(UUID id, UpdatePostRequest updatePostRequest) {
         Post existingPost = postRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Post not found with id: " + id));
+        PostMetadata previous = PostMetadata.from(existingPost);
+        PostStatus previousStatus = existingPost.getStatus();
+        boolean titleChanged = !Objects.equals(existingPost.getTitle(), updatePostRequest.getTitle());
         existingPost.setTitle(updatePostRequest.getTitle());
         String postContent = updatePostRequest.getContent();
+        boolean contentChanged = !Objects.equals(existingPost.getContent(), postContent);
         existingPost.setContent(postContent);
         existingPost.setStatus(updatePostRequest.getStatus());
-        existingPost.setReadingTime(calculateReadingTime(updatePostRequest.getContent()));
+        existingPost.setPublishAt(publishAt(updatePostRequest.getStatus(), updatePostRequest.getPublishAt()));
+        existingPost.setReadingTime(ReadingTime.of(updatePostRequest.getContent()));
+        if(contentChanged || !Objects.equals(existingPost.getRenderVersion(), postContentRenderer.getVersion())) {
+            renderContent(existingPost);
+        }
 
         UUID updatePostRequestCategoryId = updatePostRequest.getCategoryId();
         if(!existingPost.getCategory().getId().equals(updatePostRequestCategoryId)) {
@@ -114,16 +170,134 @@ public class PostServiceImpl implements PostService {
             existingPost.setTags(new HashSet<>(newTags));
         }
         
-        return postRepository.save(existingPost);
+        Post savedPost = postRepository.save(existingPost);
+        if(titleChanged || contentChanged) {
+            postRevisionService.recordRevision(id, savedPost.getTitle(), savedPost.getContent());
+        }
+        recordUpdate(savedPost, previous, previousStatus);
+        updateSchedule(savedPost);
+        return savedPost;
     }
-    
-    private Integer calculateReadingTime(String content) {
-        
-        if(content == null || content.isEmpty()) {
-            return 0;
+
+    // The post row stays locked until commit, so an edit cannot slip in between the check and the publication.
+    @Override
+    @Transactional
+    public boolean publishScheduled(UUID id) {
+        Post post = postRepository.findByIdForUpdate(id).orElse(null);
+        if(post == null || post.getStatus() != PostStatus.SCHEDULED) {
+            return false;
+        }
+        if(post.getPublishAt().isAfter(Instant.now())) {
+            updateSchedule(post);
+            return false;
+        }
+        PostMetadata previous = PostMetadata.from(post);
+        post.setStatus(PostStatus.PUBLISHED);
+        post.setPublishAt(null);
+        Post savedPost = postRepository.save(post);
+        recordUpdate(savedPost, previous, PostStatus.SCHEDULED);
+        return true;
+    }
+
+    private void recordUpdate(Post savedPost, PostMetadata previous, PostStatus previousStatus) {
+        PostMetadata metadata = PostMetadata.from(savedPost);
+        outboxService.append(new PostUpdated(
+            metadata,
+            savedPost.getStatus(),
+            previous.getCategoryId(),
+            previous.getTagIds(),
+            previousStatus
+        ));
+        updateProjections(metadata, savedPost.getStatus());
+        evictCachedResponses(metadata, previous);
+    }
+
+    // Other nodes read the post back when the invalidation bus reports it.
+    private void updateProjections(PostMetadata metadata, PostStatus status) {
+        afterCommit(() -> {
+            postIndexService.onPostSaved(metadata, status);
+            trendingService.onPostSaved(metadata, status);
+            relatedPostsService.onPostSaved(metadata, status);
+        });
+    }
+
+    private void updateSchedule(Post post) {
+        UUID id = post.getId();
+        Instant publishAt = post.getPublishAt();
+        afterCommit(() -> {
+            if(publishAt != null) {
+                postScheduler.schedule(id, publishAt);
+            } else {
+                postScheduler.cancel(id);
+            }
+        });
+    }
+
+    private static Instant publishAt(PostStatus status, Instant publishAt) {
+        if(status != PostStatus.SCHEDULED) {
+            return null;
+        }
+        if(publishAt == null) {
+            throw new IllegalArgumentException("Scheduled posts need a publishAt time");
+        }
+        return publishAt;
+    }
+
+    // Autosaves only touch the editable columns and skip posts that were published or saved again
+    // since the editor sent them; the post keeps the time of the autosave as its update time.
+    @Override
+    @Transactional
+    public boolean autosaveDraft(UUID id, AutosaveDraftRequest autosaveDraftRequest, LocalDateTime savedAt) {
+        String content = autosaveDraftRequest.getContent();
+        RenderedContent renderedContent = postContentRenderer.render(content);
+        int updated = postRepository.updateDraftContent(
+            id,
+            PostStatus.DRAFT,
+            autosaveDraftRequest.getTitle(),
+            content,
+            ReadingTime.of(content),
+            renderedContent.getHtml(),
+            renderedContent.getTableOfContents(),
+            postContentRenderer.getVersion(),
+            savedAt
+        );
+        if(updated == 0) {
+            return false;
+        }
+        postRevisionService.recordRevision(id, autosaveDraftRequest.getTitle(), content);
+        return true;
+    }
+
+    // Registered before the cache invalidation, so a listing rendered after the eviction sees the updated index.
+    private static void afterCommit(Runnable action) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Post counts are part of the category and tag listings, so those go with every post change.
+    private void evictCachedResponses(PostMetadata current, PostMetadata previous) {
+        Set<String> tags = new HashSet<>(Set.of(ResponseCacheTags.POSTS, ResponseCacheTags.CATEGORIES, ResponseCacheTags.TAGS));
+        for(PostMetadata metadata : previous != null ? List.of(current, previous) : List.of(current)) {
+            tags.add(ResponseCacheTags.post(metadata.getId()));
+            tags.add(ResponseCacheTags.category(metadata.getCategoryId()));
+            metadata.getTagIds().forEach(tagId -> tags.add(ResponseCacheTags.tag(tagId)));
         }
-        int wordCount = content.trim().split("\\s+").length;
-        return (int) Math.ceil((double) wordCount / WORDS_PER_MINUTE);
+        invalidationBus.publishAfterCommit(tags);
+    }
+
+    private void renderContent(Post post) {
+        RenderedContent renderedContent = postContentRenderer.render(post.getContent());
+        post.setContentHtml(renderedContent.getHtml());
+        post.setTableOfContents(renderedContent.getTableOfContents());
+        post.setRenderVersion(postContentRenderer.getVersion());
     }
 
     @Override
@@ -133,10 +307,23 @@ public class PostServiceImpl implements PostService {
     }
     
     @Override
+    @Transactional
     public void deletePost(UUID id) {
 
         Post post = getPost(id);
+        PostMetadata metadata = PostMetadata.from(post);
+        PostStatus status = post.getStatus();
+        // Comments, media, revisions and archive counts follow from the PostDeleted event.
+        viewCounterService.deleteAllForPost(id);
         postRepository.delete(post);
+        outboxService.append(new PostDeleted(metadata, status));
+        afterCommit(() -> {
+            postIndexService.onPostDeleted(id);
+            trendingService.onPostDeleted(id);
+            relatedPostsService.onPostDeleted(id);
+        });
+        afterCommit(() -> postScheduler.cancel(id));
+        evictCachedResponses(metadata, null);
 
     }
 
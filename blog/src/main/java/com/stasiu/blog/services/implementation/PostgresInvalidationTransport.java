@@ -0,0 +1,160 @@
+package com.stasiu.blog.services.implementation;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stasiu.blog.domain.InvalidationMessage;
+import com.stasiu.blog.services.InvalidationTransport;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends messages with {@code pg_notify} and receives them on one pooled connection that is kept
+ * listening on the channel for the life of the application. Notifications sent while that
+ * connection was down are gone, so after reconnecting the receivers are told messages were lost.
+ */
+@Service
+@ConditionalOnProperty(name = "blog.invalidation.transport", havingValue = "postgres", matchIfMissing = true)
+@Slf4j
+public class PostgresInvalidationTransport implements InvalidationTransport {
+
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final int MAX_PAYLOAD_BYTES = 7999;
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final Duration reconnectDelay;
+    private final List<Receiver> receivers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresInvalidationTransport(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            @Value("${blog.invalidation.channel:blog_invalidation}") String channel,
+            @Value("${blog.invalidation.reconnect-delay:5s}") Duration reconnectDelay) {
+        if(!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    // Too many tags for one notification are sent as a request to flush everything.
+    @Override
+    public void send(InvalidationMessage message) {
+        String payload = serialize(message);
+        if(payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            payload = serialize(new InvalidationMessage(message.nodeId(), message.sequence(), true, Set.of()));
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload);
+    }
+
+    @Override
+    public void subscribe(Receiver receiver) {
+        receivers.add(receiver);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if(listener == null) {
+            running = true;
+            listener = Thread.ofPlatform().daemon().name("invalidation-listener").start(this::listen);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if(listener != null) {
+            listener.interrupt();
+            listener.join(POLL_TIMEOUT_MILLIS * 2L);
+            listener = null;
+        }
+    }
+
+    private void listen() {
+        boolean listenedBefore = false;
+        while(running) {
+            try(Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try(Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if(listenedBefore) {
+                    receivers.forEach(Receiver::onMessagesLost);
+                }
+                listenedBefore = true;
+                log.info("Listening for cache invalidations on channel {}", channel);
+                while(running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if(notifications == null) {
+                        continue;
+                    }
+                    for(PGNotification notification : notifications) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch(SQLException ex) {
+                if(!running) {
+                    return;
+                }
+                log.warn("Lost the invalidation channel {}, reconnecting in {}", channel, reconnectDelay, ex);
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch(InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        InvalidationMessage message;
+        try {
+            message = objectMapper.readValue(payload, InvalidationMessage.class);
+        } catch(JsonProcessingException ex) {
+            log.warn("Received malformed invalidation message {}", payload, ex);
+            receivers.forEach(Receiver::onMessagesLost);
+            return;
+        }
+        receivers.forEach(receiver -> receiver.onMessage(message));
+    }
+
+    private String serialize(InvalidationMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch(JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize invalidation message", ex);
+        }
+    }
+}
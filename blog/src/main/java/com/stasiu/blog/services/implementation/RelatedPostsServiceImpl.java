@@ -0,0 +1,308 @@
+package com.stasiu.blog.services.implementation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.stasiu.blog.domain.PostMetadata;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.ResponseCacheTags;
+import com.stasiu.blog.domain.dtos.RelatedPostDto;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.services.InvalidationListener;
+import com.stasiu.blog.services.RelatedPostsService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Similarity is the IDF-weighted Jaccard index of the tag sets plus a fixed bonus for a shared
+ * category. Writes are serialized and only recompute the posts sharing a tag with the changed post
+ * or listing it as a neighbour; reads only touch the precomputed neighbour lists. Tag weights drift
+ * as posts come and go, so the whole index is rebuilt periodically. Posts saved on this node are
+ * applied as they commit; changes made elsewhere are read back when the invalidation bus reports
+ * them.
+ */
+@Service
+@Slf4j
+public class RelatedPostsServiceImpl implements RelatedPostsService, InvalidationListener {
+
+    private static final double CATEGORY_MATCH_WEIGHT = 0.25;
+
+    private static final Comparator<PostMetadata> NEWEST_FIRST = Comparator
+        .comparing(PostMetadata::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(PostMetadata::getId);
+
+    private static final Comparator<Neighbour> BY_SCORE_DESC = Comparator
+        .comparingDouble(Neighbour::score).reversed()
+        .thenComparing(Neighbour::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(Neighbour::postId);
+
+    private final PostRepository postRepository;
+    private final int maxNeighbours;
+
+    // Replaced as a whole by a rebuild, so a read never sees an index that is half rebuilt. Readers
+    // take no lock, so every map they touch is concurrent.
+    private volatile Index index = new Index();
+
+    public RelatedPostsServiceImpl(
+            PostRepository postRepository,
+            @Value("${blog.related.max-neighbours:10}") int maxNeighbours) {
+        this.postRepository = postRepository;
+        this.maxNeighbours = maxNeighbours;
+    }
+
+    @Override
+    public List<RelatedPostDto> getRelatedPosts(UUID postId, int limit) {
+        Index current = index;
+        PostMetadata post = current.posts.get(postId);
+        if(post == null) {
+            return List.of();
+        }
+
+        // Posts sharing only the category all score the same, so they are not stored per post;
+        // the newest ones are merged in on read instead.
+        List<Neighbour> candidates = new ArrayList<>(current.neighbours.getOrDefault(postId, List.of()));
+        Set<UUID> scored = new HashSet<>();
+        candidates.forEach(neighbour -> scored.add(neighbour.postId()));
+        int categoryOnly = 0;
+        for(PostMetadata candidate : current.postsByCategory.getOrDefault(post.getCategoryId(), emptyCategory())) {
+            if(categoryOnly >= limit) {
+                break;
+            }
+            if(candidate.getId().equals(postId) || scored.contains(candidate.getId())) {
+                continue;
+            }
+            candidates.add(new Neighbour(candidate.getId(), CATEGORY_MATCH_WEIGHT, candidate.getCreatedAt()));
+            categoryOnly++;
+        }
+        candidates.sort(BY_SCORE_DESC);
+
+        List<RelatedPostDto> relatedPosts = new ArrayList<>(Math.min(limit, candidates.size()));
+        for(Neighbour neighbour : candidates) {
+            if(relatedPosts.size() >= limit) {
+                break;
+            }
+            PostMetadata metadata = current.posts.get(neighbour.postId());
+            if(metadata == null) {
+                continue;
+            }
+            relatedPosts.add(RelatedPostDto.builder()
+                .id(metadata.getId())
+                .title(metadata.getTitle())
+                .categoryId(metadata.getCategoryId())
+                .score(neighbour.score())
+                .build());
+        }
+        return relatedPosts;
+    }
+
+    @Override
+    public synchronized void onPostSaved(PostMetadata updated, PostStatus status) {
+        if(status != PostStatus.PUBLISHED) {
+            onPostDeleted(updated.getId());
+            return;
+        }
+
+        Index current = index;
+        PostMetadata previous = current.posts.get(updated.getId());
+        if(previous != null
+                && Objects.equals(previous.getCategoryId(), updated.getCategoryId())
+                && previous.getTagIds().equals(updated.getTagIds())) {
+            current.posts.put(updated.getId(), updated);
+            return;
+        }
+
+        Set<UUID> affected = new HashSet<>();
+        affected.add(updated.getId());
+        affected.addAll(current.referencedBy.getOrDefault(updated.getId(), Set.of()));
+        if(previous != null) {
+            affected.addAll(current.postsSharingTags(previous));
+            current.unindex(previous);
+        }
+        current.index(updated);
+        affected.addAll(current.postsSharingTags(updated));
+        current.recompute(affected);
+    }
+
+    @Override
+    public synchronized void onPostDeleted(UUID postId) {
+        Index current = index;
+        PostMetadata previous = current.posts.get(postId);
+        if(previous == null) {
+            return;
+        }
+        Set<UUID> affected = new HashSet<>(current.referencedBy.getOrDefault(postId, Set.of()));
+        current.unindex(previous);
+        current.setNeighbours(postId, List.of());
+        current.neighbours.remove(postId);
+        current.recompute(affected);
+    }
+
+    @Override
+    public synchronized void onInvalidation(Set<String> tags, boolean remote) {
+        if(!remote) {
+            return;
+        }
+        Set<UUID> postIds = ResponseCacheTags.postIds(tags);
+        if(postIds.isEmpty()) {
+            return;
+        }
+        for(PostMetadata post : PostMetadata.fromRows(postRepository.findTagRowsByIdInAndStatus(postIds, PostStatus.PUBLISHED))) {
+            onPostSaved(post, PostStatus.PUBLISHED);
+            postIds.remove(post.getId());
+        }
+        postIds.forEach(this::onPostDeleted);
+    }
+
+    @Override
+    public void onFullFlush() {
+        rebuild();
+    }
+
+    // Writers wait for the rebuild, so a change that committed after the posts were read is
+    // applied to the new index rather than lost with the old one.
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${blog.related.rebuild-cron:0 30 3 * * *}")
+    public synchronized void rebuild() {
+        Index rebuilt = new Index();
+        PostMetadata.fromRows(postRepository.findTagRowsByStatus(PostStatus.PUBLISHED)).forEach(rebuilt::index);
+        rebuilt.recompute(rebuilt.posts.keySet());
+        index = rebuilt;
+        log.info("Built related posts index for {} published posts", rebuilt.posts.size());
+    }
+
+    private final class Index {
+
+        private final Map<UUID, PostMetadata> posts = new ConcurrentHashMap<>();
+        private final Map<UUID, List<Neighbour>> neighbours = new ConcurrentHashMap<>();
+        private final Map<UUID, Set<UUID>> postsByTag = new ConcurrentHashMap<>();
+        private final Map<UUID, NavigableSet<PostMetadata>> postsByCategory = new ConcurrentHashMap<>();
+        private final Map<UUID, Set<UUID>> referencedBy = new HashMap<>();
+
+        private void recompute(Set<UUID> postIds) {
+            for(UUID postId : postIds) {
+                PostMetadata metadata = posts.get(postId);
+                if(metadata != null) {
+                    setNeighbours(postId, computeNeighbours(metadata));
+                }
+            }
+        }
+
+        private List<Neighbour> computeNeighbours(PostMetadata post) {
+            Map<UUID, Double> tagWeights = new HashMap<>();
+            Map<UUID, Double> sharedWeights = new HashMap<>();
+            double ownWeight = 0;
+            for(UUID tagId : post.getTagIds()) {
+                double weight = tagWeight(tagId, tagWeights);
+                ownWeight += weight;
+                for(UUID candidateId : postsByTag.getOrDefault(tagId, Set.of())) {
+                    if(!candidateId.equals(post.getId())) {
+                        sharedWeights.merge(candidateId, weight, Double::sum);
+                    }
+                }
+            }
+
+            List<Neighbour> candidates = new ArrayList<>(sharedWeights.size());
+            for(Map.Entry<UUID, Double> shared : sharedWeights.entrySet()) {
+                PostMetadata candidate = posts.get(shared.getKey());
+                double candidateWeight = 0;
+                for(UUID tagId : candidate.getTagIds()) {
+                    candidateWeight += tagWeight(tagId, tagWeights);
+                }
+                double jaccard = shared.getValue() / (ownWeight + candidateWeight - shared.getValue());
+                double categoryMatch = Objects.equals(post.getCategoryId(), candidate.getCategoryId()) ? CATEGORY_MATCH_WEIGHT : 0;
+                candidates.add(new Neighbour(candidate.getId(), jaccard + categoryMatch, candidate.getCreatedAt()));
+            }
+
+            candidates.sort(BY_SCORE_DESC);
+            return List.copyOf(candidates.subList(0, Math.min(maxNeighbours, candidates.size())));
+        }
+
+        private double tagWeight(UUID tagId, Map<UUID, Double> cache) {
+            return cache.computeIfAbsent(tagId, id -> {
+                int taggedPosts = Math.max(1, postsByTag.getOrDefault(id, Set.of()).size());
+                return Math.log(1 + (double) posts.size() / taggedPosts);
+            });
+        }
+
+        private void setNeighbours(UUID postId, List<Neighbour> updated) {
+            List<Neighbour> previous = neighbours.put(postId, updated);
+            if(previous != null) {
+                for(Neighbour neighbour : previous) {
+                    Set<UUID> referencing = referencedBy.get(neighbour.postId());
+                    if(referencing != null) {
+                        referencing.remove(postId);
+                        if(referencing.isEmpty()) {
+                            referencedBy.remove(neighbour.postId());
+                        }
+                    }
+                }
+            }
+            for(Neighbour neighbour : updated) {
+                referencedBy.computeIfAbsent(neighbour.postId(), id -> new HashSet<>()).add(postId);
+            }
+        }
+
+        private Set<UUID> postsSharingTags(PostMetadata post) {
+            Set<UUID> sharing = new HashSet<>();
+            for(UUID tagId : post.getTagIds()) {
+                sharing.addAll(postsByTag.getOrDefault(tagId, Set.of()));
+            }
+            return sharing;
+        }
+
+        private void index(PostMetadata post) {
+            posts.put(post.getId(), post);
+            for(UUID tagId : post.getTagIds()) {
+                postsByTag.computeIfAbsent(tagId, id -> ConcurrentHashMap.newKeySet()).add(post.getId());
+            }
+            if(post.getCategoryId() != null) {
+                postsByCategory.computeIfAbsent(post.getCategoryId(), id -> new ConcurrentSkipListSet<>(NEWEST_FIRST)).add(post);
+            }
+        }
+
+        private void unindex(PostMetadata post) {
+            posts.remove(post.getId());
+            for(UUID tagId : post.getTagIds()) {
+                Set<UUID> tagged = postsByTag.get(tagId);
+                if(tagged != null) {
+                    tagged.remove(post.getId());
+                    if(tagged.isEmpty()) {
+                        postsByTag.remove(tagId);
+                    }
+                }
+            }
+            NavigableSet<PostMetadata> categoryPosts = postsByCategory.get(post.getCategoryId());
+            if(categoryPosts != null) {
+                categoryPosts.remove(post);
+                if(categoryPosts.isEmpty()) {
+                    postsByCategory.remove(post.getCategoryId());
+                }
+            }
+        }
+    }
+
+    private static NavigableSet<PostMetadata> emptyCategory() {
+        return new ConcurrentSkipListSet<>(NEWEST_FIRST);
+    }
+
+    private record Neighbour(UUID postId, double score, LocalDateTime createdAt) {
+    }
+}
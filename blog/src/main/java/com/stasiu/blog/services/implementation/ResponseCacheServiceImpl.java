@@ -0,0 +1,150 @@
+package com.stasiu.blog.services.implementation;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.stasiu.blog.domain.CachedResponse;
+import com.stasiu.blog.services.InvalidationListener;
+import com.stasiu.blog.services.ResponseCacheService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Serialized responses bounded by their total size in bytes, with an index from dependency tag to
+ * cache keys. Entries that expire or are pushed out by size are dropped from the index as well, so
+ * the index never holds more keys than the cache. Evicted and expired responses are kept for
+ * {@code stale-ttl} more in a second cache of the same size, for callers that would rather answer
+ * with an outdated response than wait for a slow load.
+ */
+@Service
+public class ResponseCacheServiceImpl implements ResponseCacheService, InvalidationListener {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final Cache<String, CachedResponse> cache;
+    private final Cache<String, CachedResponse> staleCache;
+    private final Map<String, Map<String, CachedResponse>> keysByTag = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter evictedByTag;
+    private final Counter staleServed;
+
+    public ResponseCacheServiceImpl(
+            MeterRegistry meterRegistry,
+            @Value("${blog.response-cache.max-size:32MB}") DataSize maxSize,
+            @Value("${blog.response-cache.ttl:10m}") Duration ttl,
+            @Value("${blog.response-cache.stale-ttl:5m}") Duration staleTtl) {
+        this.staleCache = Caffeine.newBuilder()
+            .maximumWeight(maxSize.toBytes())
+            .weigher(ResponseCacheServiceImpl::weigh)
+            .expireAfterWrite(staleTtl)
+            .build();
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxSize.toBytes())
+            .weigher(ResponseCacheServiceImpl::weigh)
+            .expireAfterWrite(ttl)
+            .evictionListener((String key, CachedResponse response, RemovalCause cause) -> {
+                unindex(key, response);
+                if(cause == RemovalCause.EXPIRED) {
+                    staleCache.put(key, response);
+                }
+            })
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "responses");
+        Gauge.builder("blog.response-cache.hit.ratio", cache, c -> c.stats().hitRate())
+            .description("Share of cacheable requests answered from the response cache")
+            .register(meterRegistry);
+        this.evictedByTag = Counter.builder("blog.response-cache.evictions")
+            .description("Cached responses evicted because something they depend on changed")
+            .register(meterRegistry);
+        this.staleServed = Counter.builder("blog.response-cache.stale.served")
+            .description("Outdated responses handed out instead of waiting for a slow load")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<CachedResponse> get(String key) {
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    @Override
+    public Optional<CachedResponse> getStale(String key) {
+        Optional<CachedResponse> stale = Optional.ofNullable(staleCache.getIfPresent(key));
+        stale.ifPresent(response -> staleServed.increment());
+        return stale;
+    }
+
+    @Override
+    public long generation() {
+        return generation.get();
+    }
+
+    @Override
+    public void put(String key, CachedResponse response, long expectedGeneration) {
+        if(generation.get() != expectedGeneration) {
+            return;
+        }
+        cache.put(key, response);
+        for(String tag : response.tags()) {
+            keysByTag.compute(tag, (t, keys) -> {
+                Map<String, CachedResponse> indexed = keys != null ? keys : new ConcurrentHashMap<>();
+                indexed.put(key, response);
+                return indexed;
+            });
+        }
+        // Something changed while the response was rendered, or while it was being indexed; it
+        // may predate that change, so it is not kept.
+        if(generation.get() != expectedGeneration) {
+            cache.invalidate(key);
+        }
+    }
+
+    @Override
+    public void onInvalidation(Set<String> tags, boolean remote) {
+        generation.incrementAndGet();
+        for(String tag : tags) {
+            Map<String, CachedResponse> keys = keysByTag.remove(tag);
+            if(keys != null) {
+                staleCache.putAll(keys);
+                cache.invalidateAll(keys.keySet());
+                evictedByTag.increment(keys.size());
+            }
+        }
+    }
+
+    @Override
+    public void onFullFlush() {
+        generation.incrementAndGet();
+        staleCache.putAll(cache.asMap());
+        cache.invalidateAll();
+        keysByTag.clear();
+    }
+
+    private static int weigh(String key, CachedResponse response) {
+        return key.length() + response.body().length + ENTRY_OVERHEAD_BYTES;
+    }
+
+    private void unindex(String key, CachedResponse response) {
+        for(String tag : response.tags()) {
+            keysByTag.computeIfPresent(tag, (t, keys) -> {
+                // A response stored under the same key since then stays indexed.
+                keys.remove(key, response);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.stasiu.blog.services.implementation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.ScheduledPublication;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.services.PostScheduler;
+import com.stasiu.blog.services.PostService;
+import com.stasiu.blog.services.ScheduledPublishingService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes scheduled posts when their time comes. Every tick turns the in-memory wheel and only
+ * posts that are due reach the database, each in its own short transaction. The wheel is filled
+ * from the database on startup, which also publishes anything that fell due while the application
+ * was down, and topped up periodically with posts scheduled by other instances.
+ */
+@Service
+@Slf4j
+public class ScheduledPublishingServiceImpl implements ScheduledPublishingService {
+
+    private final PostService postService;
+    private final PostRepository postRepository;
+    private final PostScheduler postScheduler;
+    private final Duration retryDelay;
+    private final Counter published;
+    private final Counter failures;
+
+    public ScheduledPublishingServiceImpl(
+            PostService postService,
+            PostRepository postRepository,
+            PostScheduler postScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${blog.scheduled-publishing.retry-delay:30s}") Duration retryDelay) {
+        this.postService = postService;
+        this.postRepository = postRepository;
+        this.postScheduler = postScheduler;
+        this.retryDelay = retryDelay;
+        this.published = Counter.builder("blog.scheduled-posts.published")
+            .description("Scheduled posts published when their time came")
+            .register(meterRegistry);
+        this.failures = Counter.builder("blog.scheduled-posts.failures")
+            .description("Scheduled publications that failed and were retried later")
+            .register(meterRegistry);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.scheduled-publishing.tick:1s}")
+    public int publishDue() {
+        int count = 0;
+        for(UUID postId : postScheduler.takeDue(Instant.now())) {
+            try {
+                if(postService.publishScheduled(postId)) {
+                    published.increment();
+                    count++;
+                }
+            } catch(RuntimeException ex) {
+                // Whatever went wrong with this post, the others taken off the wheel still get their turn.
+                failures.increment();
+                postScheduler.offer(postId, Instant.now().plus(retryDelay));
+                log.warn("Could not publish scheduled post {}, retrying in {}", postId, retryDelay, ex);
+            }
+        }
+        if(count > 0) {
+            log.info("Published {} scheduled posts", count);
+        }
+        return count;
+    }
+
+    // Only ever moves reminders earlier, so a read that raced with a local reschedule cannot delay a post.
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${blog.scheduled-publishing.reload-interval:5m}",
+               fixedDelayString = "${blog.scheduled-publishing.reload-interval:5m}")
+    public int reload() {
+        List<ScheduledPublication> publications = postRepository.findScheduledPublications(PostStatus.SCHEDULED);
+        for(ScheduledPublication publication : publications) {
+            postScheduler.offer(publication.postId(), publication.publishAt());
+        }
+        log.debug("Loaded {} scheduled posts", publications.size());
+        return publications.size();
+    }
+}
@@ -0,0 +1,326 @@
+package com.stasiu.blog.services.implementation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.SnapshotManifest;
+import com.stasiu.blog.domain.SnapshotResource;
+import com.stasiu.blog.domain.dtos.PostDto;
+import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.Tag;
+import com.stasiu.blog.mappers.CategoryMapper;
+import com.stasiu.blog.mappers.PostMapper;
+import com.stasiu.blog.mappers.TagMapper;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.services.CategoryService;
+import com.stasiu.blog.services.InvalidationListener;
+import com.stasiu.blog.services.SnapshotService;
+import com.stasiu.blog.services.TagService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes the public read API as JSON files into a new version directory, then switches the
+ * {@code current} pointer to it with an atomic rename. Readers always see one complete version, and
+ * the last version keeps being served after a restart or while the database is unreachable.
+ * Every node writes its own snapshot, so any change reported by the invalidation bus, made here or
+ * elsewhere, marks it stale. Changes are debounced, so a burst of edits costs one regeneration.
+ */
+@Service
+@Slf4j
+public class SnapshotServiceImpl implements SnapshotService, InvalidationListener {
+
+    private static final String CURRENT = "current";
+    private static final String MANIFEST = "manifest.json";
+    private static final String POSTS_PATH = "/api/v1/posts";
+    private static final int RETAINED_VERSIONS = 2;
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("'v'yyyyMMdd'T'HHmmssSSS").withZone(ZoneOffset.UTC);
+
+    private final PostRepository postRepository;
+    private final CategoryService categoryService;
+    private final TagService tagService;
+    private final PostMapper postMapper;
+    private final CategoryMapper categoryMapper;
+    private final TagMapper tagMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer generationTimer;
+    private final boolean enabled;
+    private final Path directory;
+    private final long debounceNanos;
+    private final long maxDelayNanos;
+
+    private final ReentrantLock generationLock = new ReentrantLock();
+    private final AtomicLong firstChangeAt = new AtomicLong();
+    private final AtomicLong lastChangeAt = new AtomicLong();
+    private final AtomicLong versions = new AtomicLong();
+    private volatile LoadedSnapshot current;
+
+    public SnapshotServiceImpl(
+            PostRepository postRepository,
+            CategoryService categoryService,
+            TagService tagService,
+            PostMapper postMapper,
+            CategoryMapper categoryMapper,
+            TagMapper tagMapper,
+            ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${blog.snapshot.enabled:true}") boolean enabled,
+            @Value("${blog.snapshot.directory:snapshots}") Path directory,
+            @Value("${blog.snapshot.debounce:2s}") Duration debounce,
+            @Value("${blog.snapshot.max-delay:30s}") Duration maxDelay) {
+        this.postRepository = postRepository;
+        this.categoryService = categoryService;
+        this.tagService = tagService;
+        this.postMapper = postMapper;
+        this.categoryMapper = categoryMapper;
+        this.tagMapper = tagMapper;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.directory = directory.toAbsolutePath();
+        this.debounceNanos = debounce.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.generationTimer = Timer.builder("blog.snapshot.generation")
+            .description("Time to write a snapshot of the public read API")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSnapshot() {
+        if(!enabled) {
+            return;
+        }
+        current = loadCurrent();
+        if(current != null) {
+            log.info("Serving snapshot {} written at {}", current.manifest().version(), current.manifest().createdAt());
+        }
+        // Written by the scheduler rather than here, so startup does not wait for it.
+        markStale();
+    }
+
+    @Override
+    public Optional<SnapshotResource> find(String requestKey) {
+        LoadedSnapshot snapshot = current;
+        if(snapshot == null) {
+            return Optional.empty();
+        }
+        SnapshotManifest.Entry entry = snapshot.manifest().files().get(requestKey);
+        if(entry == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new SnapshotResource(snapshot.directory().resolve(entry.file()), entry.etag(), entry.size()));
+    }
+
+    // Every tag names something the snapshot contains.
+    @Override
+    public void onInvalidation(Set<String> tags, boolean remote) {
+        markStale();
+    }
+
+    @Override
+    public void onFullFlush() {
+        markStale();
+    }
+
+    @Override
+    public void markStale() {
+        if(!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        firstChangeAt.compareAndSet(0, now);
+        lastChangeAt.set(now);
+    }
+
+    @Scheduled(fixedDelayString = "${blog.snapshot.check-interval-ms:1000}")
+    public void regenerateIfStale() {
+        long first = firstChangeAt.get();
+        if(first == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if(now - lastChangeAt.get() >= debounceNanos || now - first >= maxDelayNanos) {
+            regenerate();
+        }
+    }
+
+    @Override
+    public boolean regenerate() {
+        if(!enabled || !generationLock.tryLock()) {
+            return false;
+        }
+        try {
+            // Changes arriving from here on are not guaranteed to be in this version.
+            firstChangeAt.set(0);
+            current = generationTimer.recordCallable(this::writeSnapshot);
+            removeOldVersions();
+            log.info("Wrote snapshot {} with {} files", current.manifest().version(), current.manifest().files().size());
+            return true;
+        } catch(DataAccessException | TransactionException ex) {
+            markStale();
+            log.warn("Could not read content for a new snapshot, still serving the previous one", ex);
+            return false;
+        } catch(Exception ex) {
+            markStale();
+            log.error("Could not write a new snapshot, still serving the previous one", ex);
+            return false;
+        } finally {
+            generationLock.unlock();
+        }
+    }
+
+    private LoadedSnapshot writeSnapshot() throws IOException {
+        Map<String, Object> documents = transactionTemplate.execute(status -> readDocuments());
+        Instant createdAt = Instant.now();
+        String version = VERSION_FORMAT.format(createdAt) + String.format("-%04d", versions.incrementAndGet() % 10_000);
+        Files.createDirectories(directory);
+        Path staging = Files.createTempDirectory(directory, ".staging-");
+        try {
+            Map<String, SnapshotManifest.Entry> files = new LinkedHashMap<>();
+            int fileNumber = 0;
+            for(Map.Entry<String, Object> document : documents.entrySet()) {
+                byte[] json = objectMapper.writeValueAsBytes(document.getValue());
+                String file = (fileNumber++) + ".json";
+                Files.write(staging.resolve(file), json);
+                files.put(document.getKey(), new SnapshotManifest.Entry(file, etag(json), json.length));
+            }
+            SnapshotManifest manifest = new SnapshotManifest(version, createdAt, files);
+            objectMapper.writeValue(staging.resolve(MANIFEST).toFile(), manifest);
+
+            Path versionDirectory = directory.resolve(version);
+            move(staging, versionDirectory);
+            Path pointer = Files.writeString(Files.createTempFile(directory, ".current-", ".tmp"), version);
+            move(pointer, directory.resolve(CURRENT));
+            return new LoadedSnapshot(versionDirectory, manifest);
+        } finally {
+            if(Files.exists(staging)) {
+                deleteRecursively(staging);
+            }
+        }
+    }
+
+    private Map<String, Object> readDocuments() {
+        List<Post> posts = postRepository.findAllByStatus(PostStatus.PUBLISHED);
+        List<Category> categories = categoryService.listCategories();
+        List<Tag> tags = tagService.getTags();
+
+        Map<String, Object> documents = new LinkedHashMap<>();
+        Map<UUID, List<PostDto>> postsByCategory = new HashMap<>();
+        Map<UUID, List<PostDto>> postsByTag = new HashMap<>();
+        categories.forEach(category -> postsByCategory.put(category.getId(), new ArrayList<>()));
+        tags.forEach(tag -> postsByTag.put(tag.getId(), new ArrayList<>()));
+
+        List<PostDto> allPosts = new ArrayList<>(posts.size());
+        for(Post post : posts) {
+            PostDto postDto = postMapper.toDto(post);
+            allPosts.add(postDto);
+            documents.put(POSTS_PATH + "/" + post.getId(), postDto);
+            postsByCategory.computeIfAbsent(post.getCategory().getId(), id -> new ArrayList<>()).add(postDto);
+            post.getTags().forEach(tag -> postsByTag.computeIfAbsent(tag.getId(), id -> new ArrayList<>()).add(postDto));
+        }
+        documents.put(POSTS_PATH, allPosts);
+        postsByCategory.forEach((categoryId, listing) -> documents.put(POSTS_PATH + "?categoryId=" + categoryId, listing));
+        postsByTag.forEach((tagId, listing) -> documents.put(POSTS_PATH + "?tagId=" + tagId, listing));
+        documents.put("/api/v1/categories", categories.stream().map(categoryMapper::toDto).toList());
+        documents.put("/api/v1/tags", tags.stream().map(tagMapper::toTagResponse).toList());
+        return documents;
+    }
+
+    private LoadedSnapshot loadCurrent() {
+        Path pointer = directory.resolve(CURRENT);
+        if(!Files.isRegularFile(pointer)) {
+            return null;
+        }
+        try {
+            Path versionDirectory = directory.resolve(Files.readString(pointer).trim());
+            SnapshotManifest manifest = objectMapper.readValue(versionDirectory.resolve(MANIFEST).toFile(), SnapshotManifest.class);
+            return new LoadedSnapshot(versionDirectory, manifest);
+        } catch(IOException ex) {
+            log.warn("Could not load the snapshot in {}", directory, ex);
+            return null;
+        }
+    }
+
+    private void removeOldVersions() {
+        try(Stream<Path> entries = Files.list(directory)) {
+            List<Path> versions = entries
+                .filter(Files::isDirectory)
+                .filter(path -> path.getFileName().toString().startsWith("v"))
+                .sorted(Comparator.comparing(Path::getFileName).reversed())
+                .toList();
+            // Requests still streaming from the previous version keep their open file on removal.
+            for(Path version : versions.subList(Math.min(RETAINED_VERSIONS, versions.size()), versions.size())) {
+                deleteRecursively(version);
+            }
+        } catch(IOException | UncheckedIOException ex) {
+            log.warn("Could not remove old snapshots from {}", directory, ex);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch(AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        try(Stream<Path> paths = Files.walk(path)) {
+            for(Path child : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(child);
+            }
+        }
+    }
+
+    private static String etag(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch(NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private record LoadedSnapshot(Path directory, SnapshotManifest manifest) {
+    }
+}
@@ -9,8 +9,10 @@ import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
+import com.stasiu.blog.domain.ResponseCacheTags;
 import com.stasiu.blog.domain.entities.Tag;
 import com.stasiu.blog.repositories.TagRepository;
+import com.stasiu.blog.services.InvalidationBus;
 import com.stasiu.blog.services.TagService;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -22,6 +24,7 @@ import lombok.RequiredArgsConstructor;
 public class TagServiceImpl implements TagService {
 
     private final TagRepository tagRepository;
+    private final InvalidationBus invalidationBus;
     
     @Override
     public List<Tag> getTags() {
@@ -49,6 +52,7 @@ public class TagServiceImpl implements TagService {
 
         if(!newtags.isEmpty()) {
             savedTags = tagRepository.saveAll(newtags);
+            invalidationBus.publishAfterCommit(List.of(ResponseCacheTags.TAGS));
         }
 
         savedTags.addAll(existingTags);
@@ -68,6 +72,7 @@ public class TagServiceImpl implements TagService {
                 throw new IllegalStateException("Cannot delete tag with posts");
             }
             tagRepository.deleteById(id);
+            invalidationBus.publishAfterCommit(List.of(ResponseCacheTags.TAGS, ResponseCacheTags.tag(id)));
         });
     }
 
@@ -77,7 +82,12 @@ public class TagServiceImpl implements TagService {
         List<Tag> foundTags = tagRepository.findAllById(ids);
 
         if(foundTags.size() != ids.size()) {
-            throw new EntityNotFoundException("Tags not found with ids:");
+            Set<UUID> missingIds = new HashSet<>(ids);
+            foundTags.forEach(tag -> missingIds.remove(tag.getId()));
+            throw new EntityNotFoundException("Tags not found with ids: " + missingIds.stream()
+                .map(UUID::toString)
+                .sorted()
+                .collect(Collectors.joining(", ")));
         }
         return foundTags;
     }
@@ -0,0 +1,261 @@
+package com.stasiu.blog.services.implementation;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.stasiu.blog.domain.MediaFile;
+import com.stasiu.blog.domain.MediaVariant;
+import com.stasiu.blog.services.ThumbnailService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Renders the variants of uploaded images on a fixed pool with a bounded queue, so a burst of
+ * uploads waits for CPU instead of piling up decoded images. Variants are stored by content hash:
+ * a file uploaded many times is rendered once, and a hash already queued is not queued again.
+ * Work that does not fit in the queue is dropped and rendered when the variant is first requested.
+ * An image that cannot be decoded leaves a marker next to its variants, so requests for it answer
+ * at once instead of queueing the same failing decode again.
+ */
+@Service
+@Slf4j
+public class ThumbnailServiceImpl implements ThumbnailService {
+
+    private static final String JPEG = "image/jpeg";
+    private static final String PNG = "image/png";
+
+    private final Path directory;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Counter rejected;
+    private final Counter failed;
+    private final Timer renderTimer;
+
+    public ThumbnailServiceImpl(
+            @Value("${blog.media.directory:media}") Path directory,
+            @Value("${blog.media.thumbnail-threads:2}") int threads,
+            @Value("${blog.media.thumbnail-queue-size:100}") int queueSize,
+            MeterRegistry meterRegistry) {
+        this.directory = directory.resolve("variants");
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            Thread.ofPlatform().name("thumbnail-", 0).daemon().factory());
+        this.rejected = Counter.builder("blog.media.thumbnails.rejected")
+            .description("Variant renderings dropped because the queue was full")
+            .register(meterRegistry);
+        this.failed = Counter.builder("blog.media.thumbnails.failed")
+            .description("Images whose variants could not be rendered because they do not decode")
+            .register(meterRegistry);
+        this.renderTimer = Timer.builder("blog.media.thumbnails.render")
+            .description("Time to render every variant of one image")
+            .register(meterRegistry);
+        Gauge.builder("blog.media.thumbnails.queued", executor, e -> e.getQueue().size())
+            .description("Images waiting for their variants to be rendered")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void schedule(String contentHash, Path source, String contentType) {
+        if(rendered(contentHash, contentType) || Files.exists(failedPath(contentHash)) || !pending.add(contentHash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    renderTimer.record(() -> render(contentHash, source, contentType));
+                } finally {
+                    pending.remove(contentHash);
+                }
+            });
+        } catch(RejectedExecutionException ex) {
+            pending.remove(contentHash);
+            rejected.increment();
+            log.warn("Thumbnail queue is full, variants of {} are rendered on first request", contentHash);
+        }
+    }
+
+    @Override
+    public Optional<MediaFile> findVariant(String contentHash, Path source, String contentType, MediaVariant variant) {
+        Path path = variantPath(contentHash, contentType, variant);
+        if(Files.exists(path)) {
+            return Optional.of(new MediaFile(path, "\"" + contentHash + "-" + variant.value() + "\"", outputType(contentType)));
+        }
+        schedule(contentHash, source, contentType);
+        return Optional.empty();
+    }
+
+    @Override
+    public void deleteVariants(String contentHash) {
+        for(MediaVariant variant : MediaVariant.values()) {
+            for(String contentType : Set.of(JPEG, PNG)) {
+                try {
+                    Files.deleteIfExists(variantPath(contentHash, contentType, variant));
+                } catch(IOException ex) {
+                    log.warn("Could not delete {} variant of {}", variant.value(), contentHash, ex);
+                }
+            }
+        }
+        try {
+            Files.deleteIfExists(failedPath(contentHash));
+        } catch(IOException ex) {
+            log.warn("Could not delete the failure marker of {}", contentHash, ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private boolean rendered(String contentHash, String contentType) {
+        for(MediaVariant variant : MediaVariant.values()) {
+            if(!Files.exists(variantPath(contentHash, contentType, variant))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void render(String contentHash, Path source, String contentType) {
+        BufferedImage image = null;
+        try {
+            image = decode(source, largestDimension());
+            if(image == null) {
+                log.warn("No decoder for {} ({})", contentHash, contentType);
+            }
+        } catch(IOException | RuntimeException ex) {
+            log.warn("Could not decode {} ({})", contentHash, contentType, ex);
+        }
+        if(image == null) {
+            markFailed(contentHash);
+            return;
+        }
+        // Only a failed decode is remembered; a failed write may succeed on the next request.
+        try {
+            for(MediaVariant variant : MediaVariant.values()) {
+                Path target = variantPath(contentHash, contentType, variant);
+                if(Files.exists(target)) {
+                    continue;
+                }
+                write(scale(image, variant.getMaxDimension(), outputType(contentType)), outputType(contentType), target);
+            }
+        } catch(IOException | RuntimeException ex) {
+            log.warn("Could not render variants of {}", contentHash, ex);
+        }
+    }
+
+    private void markFailed(String contentHash) {
+        try {
+            Path marker = failedPath(contentHash);
+            Files.createDirectories(marker.getParent());
+            Files.writeString(marker, "");
+        } catch(IOException ex) {
+            log.warn("Could not mark {} as undecodable", contentHash, ex);
+        }
+        failed.increment();
+    }
+
+    // Decodes only every n-th pixel of large images, so memory follows the variant size rather
+    // than the size of the upload.
+    private static BufferedImage decode(Path source, int targetDimension) throws IOException {
+        try(ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if(!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longestSide / (2 * targetDimension));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage image, int maxDimension, String outputType) {
+        double factor = Math.min(1.0, (double) maxDimension / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * factor));
+        BufferedImage scaled = new BufferedImage(width, height,
+            JPEG.equals(outputType) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static void write(BufferedImage image, String outputType, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path staging = Files.createTempFile(target.getParent(), ".variant-", ".part");
+        try {
+            if(!ImageIO.write(image, JPEG.equals(outputType) ? "jpg" : "png", staging.toFile())) {
+                throw new IOException("No encoder for " + outputType);
+            }
+            try {
+                Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch(AtomicMoveNotSupportedException ex) {
+                Files.move(staging, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+    }
+
+    private Path variantPath(String contentHash, String contentType, MediaVariant variant) {
+        String extension = JPEG.equals(outputType(contentType)) ? ".jpg" : ".png";
+        return directory.resolve(contentHash.substring(0, 2)).resolve(contentHash + "-" + variant.value() + extension);
+    }
+
+    private Path failedPath(String contentHash) {
+        return directory.resolve(contentHash.substring(0, 2)).resolve(contentHash + ".failed");
+    }
+
+    private static String outputType(String contentType) {
+        return JPEG.equals(contentType) ? JPEG : PNG;
+    }
+
+    private static int largestDimension() {
+        int largest = 0;
+        for(MediaVariant variant : MediaVariant.values()) {
+            largest = Math.max(largest, variant.getMaxDimension());
+        }
+        return largest;
+    }
+}
@@ -0,0 +1,324 @@
+package com.stasiu.blog.services.implementation;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.stasiu.blog.domain.EngagementType;
+import com.stasiu.blog.domain.PostMetadata;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.ResponseCacheTags;
+import com.stasiu.blog.domain.dtos.TrendingPostDto;
+import com.stasiu.blog.domain.entities.PostTrendingScore;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.repositories.PostTrendingScoreRepository;
+import com.stasiu.blog.services.InvalidationListener;
+import com.stasiu.blog.services.TrendingService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Scores are kept as the natural log of {@code sum(weight * e^(lambda * t))} over engagement times
+ * {@code t}. Every score grows with the same factor over time, so the order never has to be
+ * recomputed: an event only touches the entry of its own post, and the decayed value is derived
+ * on read. Posts saved on this node are applied as they commit; changes made elsewhere are read
+ * back when the invalidation bus reports them.
+ */
+@Service
+@Slf4j
+public class TrendingServiceImpl implements TrendingService, InvalidationListener {
+
+    private static final Comparator<RankedPost> BY_SCORE_DESC = Comparator
+        .comparingDouble(RankedPost::logScore).reversed()
+        .thenComparing(RankedPost::postId);
+
+    private final PostRepository postRepository;
+    private final PostTrendingScoreRepository postTrendingScoreRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double decayPerSecond;
+    private final double minScore;
+
+    private final Map<UUID, TrackedPost> trackedPosts = new ConcurrentHashMap<>();
+    private final NavigableSet<RankedPost> ranking = new ConcurrentSkipListSet<>(BY_SCORE_DESC);
+    private final Map<UUID, NavigableSet<RankedPost>> rankingByCategory = new ConcurrentHashMap<>();
+    private final Map<UUID, NavigableSet<RankedPost>> rankingByTag = new ConcurrentHashMap<>();
+    private final Set<UUID> dirtyPosts = ConcurrentHashMap.newKeySet();
+
+    public TrendingServiceImpl(
+            PostRepository postRepository,
+            PostTrendingScoreRepository postTrendingScoreRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${blog.trending.half-life-hours:24}") double halfLifeHours,
+            @Value("${blog.trending.min-score:0.05}") double minScore) {
+        this.postRepository = postRepository;
+        this.postTrendingScoreRepository = postTrendingScoreRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.decayPerSecond = Math.log(2) / (halfLifeHours * 3600);
+        this.minScore = minScore;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPublishedPosts() {
+        List<PostMetadata> publishedPosts = PostMetadata.fromRows(postRepository.findTagRowsByStatus(PostStatus.PUBLISHED));
+        publishedPosts.forEach(metadata -> trackedPosts.put(metadata.getId(), new TrackedPost(metadata)));
+
+        for(PostTrendingScore storedScore : postTrendingScoreRepository.findAll()) {
+            TrackedPost trackedPost = trackedPosts.get(storedScore.getPostId());
+            if(trackedPost == null || storedScore.getScore() <= 0) {
+                continue;
+            }
+            double logScore = Math.log(storedScore.getScore()) + decayPerSecond * epochSeconds(storedScore.getScoredAt());
+            synchronized(trackedPost) {
+                rerank(trackedPost, trackedPost.metadata, logScore);
+            }
+        }
+        log.info("Loaded {} published posts into the trending ranking", trackedPosts.size());
+    }
+
+    @Override
+    public void recordEngagement(UUID postId, EngagementType engagementType) {
+        TrackedPost trackedPost = trackedPosts.get(postId);
+        if(trackedPost == null) {
+            return;
+        }
+        double eventLogScore = Math.log(engagementType.getWeight()) + decayPerSecond * epochSeconds(Instant.now());
+        synchronized(trackedPost) {
+            rerank(trackedPost, trackedPost.metadata, logAddExp(trackedPost.logScore, eventLogScore));
+        }
+        dirtyPosts.add(postId);
+    }
+
+    @Override
+    public List<TrendingPostDto> getTrending(UUID categoryId, UUID tagId, int limit) {
+        NavigableSet<RankedPost> candidates = ranking;
+        if(categoryId != null) {
+            candidates = rankingByCategory.getOrDefault(categoryId, emptyRanking());
+        } else if(tagId != null) {
+            candidates = rankingByTag.getOrDefault(tagId, emptyRanking());
+        }
+
+        double nowLogFactor = decayPerSecond * epochSeconds(Instant.now());
+        List<TrendingPostDto> trending = new ArrayList<>(limit);
+        Set<UUID> seen = new HashSet<>();
+        for(RankedPost rankedPost : candidates) {
+            if(trending.size() >= limit) {
+                break;
+            }
+            TrackedPost trackedPost = trackedPosts.get(rankedPost.postId());
+            if(trackedPost == null || !seen.add(rankedPost.postId())) {
+                continue;
+            }
+            PostMetadata metadata = trackedPost.metadata;
+            if(tagId != null && !metadata.getTagIds().contains(tagId)) {
+                continue;
+            }
+            trending.add(TrendingPostDto.builder()
+                .id(metadata.getId())
+                .title(metadata.getTitle())
+                .categoryId(metadata.getCategoryId())
+                .score(Math.exp(rankedPost.logScore() - nowLogFactor))
+                .build());
+        }
+        return trending;
+    }
+
+    @Override
+    public void onPostSaved(PostMetadata metadata, PostStatus status) {
+        if(status != PostStatus.PUBLISHED) {
+            onPostDeleted(metadata.getId());
+            return;
+        }
+        TrackedPost trackedPost = trackedPosts.computeIfAbsent(metadata.getId(), id -> new TrackedPost(metadata));
+        synchronized(trackedPost) {
+            rerank(trackedPost, metadata, trackedPost.logScore);
+        }
+    }
+
+    @Override
+    public void onPostDeleted(UUID postId) {
+        TrackedPost trackedPost = trackedPosts.remove(postId);
+        if(trackedPost == null) {
+            return;
+        }
+        synchronized(trackedPost) {
+            unrank(trackedPost);
+        }
+        dirtyPosts.add(postId);
+    }
+
+    @Override
+    public void onInvalidation(Set<String> tags, boolean remote) {
+        if(!remote) {
+            return;
+        }
+        Set<UUID> postIds = ResponseCacheTags.postIds(tags);
+        if(postIds.isEmpty()) {
+            return;
+        }
+        for(PostMetadata metadata : PostMetadata.fromRows(postRepository.findTagRowsByIdInAndStatus(postIds, PostStatus.PUBLISHED))) {
+            onPostSaved(metadata, PostStatus.PUBLISHED);
+            postIds.remove(metadata.getId());
+        }
+        postIds.forEach(this::onPostDeleted);
+    }
+
+    // Scores are kept; only which posts are ranked, and under which category and tags, is read again.
+    @Override
+    public void onFullFlush() {
+        Set<UUID> published = new HashSet<>();
+        for(PostMetadata metadata : PostMetadata.fromRows(postRepository.findTagRowsByStatus(PostStatus.PUBLISHED))) {
+            onPostSaved(metadata, PostStatus.PUBLISHED);
+            published.add(metadata.getId());
+        }
+        for(UUID postId : List.copyOf(trackedPosts.keySet())) {
+            if(!published.contains(postId)) {
+                onPostDeleted(postId);
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.trending.persist-interval-ms:60000}",
+               initialDelayString = "${blog.trending.persist-interval-ms:60000}")
+    public synchronized void persistScores() {
+        Instant now = Instant.now();
+        double nowLogFactor = decayPerSecond * epochSeconds(now);
+
+        List<PostTrendingScore> scoresToSave = new ArrayList<>();
+        List<UUID> scoresToDelete = new ArrayList<>();
+        for(TrackedPost trackedPost : trackedPosts.values()) {
+            synchronized(trackedPost) {
+                if(trackedPost.ranked != null && Math.exp(trackedPost.logScore - nowLogFactor) < minScore) {
+                    unrank(trackedPost);
+                    dirtyPosts.add(trackedPost.metadata.getId());
+                }
+            }
+        }
+        for(UUID postId : drainDirtyPosts()) {
+            TrackedPost trackedPost = trackedPosts.get(postId);
+            RankedPost rankedPost = trackedPost != null ? trackedPost.ranked : null;
+            if(rankedPost == null) {
+                scoresToDelete.add(postId);
+                continue;
+            }
+            scoresToSave.add(PostTrendingScore.builder()
+                .postId(postId)
+                .score(Math.exp(rankedPost.logScore() - nowLogFactor))
+                .scoredAt(now)
+                .build());
+        }
+
+        if(scoresToSave.isEmpty() && scoresToDelete.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            postTrendingScoreRepository.saveAll(scoresToSave);
+            postTrendingScoreRepository.deleteAllByIdInBatch(scoresToDelete);
+        });
+    }
+
+    @PreDestroy
+    public void persistOnShutdown() {
+        persistScores();
+    }
+
+    private List<UUID> drainDirtyPosts() {
+        List<UUID> drained = new ArrayList<>();
+        for(UUID postId : dirtyPosts) {
+            if(dirtyPosts.remove(postId)) {
+                drained.add(postId);
+            }
+        }
+        return drained;
+    }
+
+    // New entries are added before the old ones are removed so concurrent readers never miss a post;
+    // getTrending() skips the duplicate that may be visible for a moment.
+    private void rerank(TrackedPost trackedPost, PostMetadata metadata, double logScore) {
+        RankedPost previous = trackedPost.ranked;
+        PostMetadata previousMetadata = trackedPost.metadata;
+        trackedPost.metadata = metadata;
+        trackedPost.logScore = logScore;
+        if(logScore == Double.NEGATIVE_INFINITY) {
+            return;
+        }
+
+        RankedPost current = new RankedPost(logScore, metadata.getId());
+        if(current.equals(previous)) {
+            rankingsOf(previousMetadata).forEach(set -> set.remove(previous));
+            rankingsOf(metadata).forEach(set -> set.add(current));
+        } else {
+            rankingsOf(metadata).forEach(set -> set.add(current));
+            if(previous != null) {
+                rankingsOf(previousMetadata).forEach(set -> set.remove(previous));
+            }
+        }
+        trackedPost.ranked = current;
+    }
+
+    private void unrank(TrackedPost trackedPost) {
+        if(trackedPost.ranked != null) {
+            RankedPost previous = trackedPost.ranked;
+            rankingsOf(trackedPost.metadata).forEach(set -> set.remove(previous));
+        }
+        trackedPost.ranked = null;
+        trackedPost.logScore = Double.NEGATIVE_INFINITY;
+    }
+
+    private List<NavigableSet<RankedPost>> rankingsOf(PostMetadata metadata) {
+        List<NavigableSet<RankedPost>> rankings = new ArrayList<>(metadata.getTagIds().size() + 2);
+        rankings.add(ranking);
+        if(metadata.getCategoryId() != null) {
+            rankings.add(rankingByCategory.computeIfAbsent(metadata.getCategoryId(), id -> new ConcurrentSkipListSet<>(BY_SCORE_DESC)));
+        }
+        for(UUID tagId : metadata.getTagIds()) {
+            rankings.add(rankingByTag.computeIfAbsent(tagId, id -> new ConcurrentSkipListSet<>(BY_SCORE_DESC)));
+        }
+        return rankings;
+    }
+
+    private static NavigableSet<RankedPost> emptyRanking() {
+        return new ConcurrentSkipListSet<>(BY_SCORE_DESC);
+    }
+
+    private static double epochSeconds(Instant instant) {
+        return instant.getEpochSecond() + instant.getNano() / 1_000_000_000.0;
+    }
+
+    private static double logAddExp(double a, double b) {
+        if(a == Double.NEGATIVE_INFINITY) {
+            return b;
+        }
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+
+    private record RankedPost(double logScore, UUID postId) {
+    }
+
+    private static final class TrackedPost {
+        private volatile PostMetadata metadata;
+        private double logScore = Double.NEGATIVE_INFINITY;
+        private volatile RankedPost ranked;
+
+        private TrackedPost(PostMetadata metadata) {
+            this.metadata = metadata;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.stasiu.blog.services.implementation;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.stasiu.blog.domain.PostViewDelta;
+import com.stasiu.blog.repositories.PostDailyViewsRepository;
+import com.stasiu.blog.services.ViewCounterService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ViewCounterServiceImpl implements ViewCounterService {
+
+    private final PostDailyViewsRepository postDailyViewsRepository;
+
+    private final Map<ViewKey, ViewCounter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Override
+    public void recordView(UUID postId) {
+        ViewKey key = new ViewKey(postId, today());
+        ViewCounter counter = counters.get(key);
+        if(counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new ViewCounter());
+        }
+        counter.views.increment();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.views.flush-interval-ms:5000}")
+    public int flush() {
+        flushLock.lock();
+        try {
+            LocalDate today = today();
+            List<PostViewDelta> deltas = new ArrayList<>();
+            List<ViewCounter> flushedCounters = new ArrayList<>();
+
+            for(Map.Entry<ViewKey, ViewCounter> entry : counters.entrySet()) {
+                ViewKey key = entry.getKey();
+                ViewCounter counter = entry.getValue();
+                long total = counter.views.sum();
+                long delta = total - counter.flushed;
+
+                if(delta > 0) {
+                    deltas.add(new PostViewDelta(key.postId(), key.viewDate(), delta));
+                    counter.pending = total;
+                    flushedCounters.add(counter);
+                } else if(key.viewDate().isBefore(today)) {
+                    evict(key, counter);
+                }
+            }
+
+            if(deltas.isEmpty()) {
+                return 0;
+            }
+
+            postDailyViewsRepository.incrementViews(deltas);
+            flushedCounters.forEach(counter -> counter.flushed = counter.pending);
+            return deltas.size();
+        } catch(DataAccessException | TransactionException ex) {
+            log.warn("Could not flush post view counters, retrying on next flush", ex);
+            return 0;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Pending views are dropped as well, so the next flush does not write the rows again. A flush in
+    // progress may already hold the post's views, so it is waited for before the rows are deleted.
+    @Override
+    @Transactional
+    public void deleteAllForPost(UUID postId) {
+        flushLock.lock();
+        try {
+            counters.keySet().removeIf(key -> key.postId().equals(postId));
+        } finally {
+            flushLock.unlock();
+        }
+        postDailyViewsRepository.deleteAllByPostId(postId);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        int flushed = flush();
+        log.info("Flushed view counters of {} posts on shutdown", flushed);
+    }
+
+    // Counters of past days only receive increments from requests that raced the day change,
+    // so a counter is dropped once it stays fully flushed and is re-added if a late view slipped in.
+    private void evict(ViewKey key, ViewCounter counter) {
+        if(counters.remove(key, counter) && counter.views.sum() != counter.flushed) {
+            counters.putIfAbsent(key, counter);
+        }
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+
+    private record ViewKey(UUID postId, LocalDate viewDate) {
+    }
+
+    private static final class ViewCounter {
+        private final LongAdder views = new LongAdder();
+        private long flushed;
+        private long pending;
+    }
+}
@@ -0,0 +1,54 @@
+package com.stasiu.blog.web;
+
+import java.util.Optional;
+
+/**
+ * A single byte range of a {@code Range} request header, resolved against the file size.
+ */
+public record ByteRange(long start, long end) {
+
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    /**
+     * The range the header asks for, {@link #UNSATISFIABLE} when it lies outside the file, or empty
+     * when the whole file should be sent: no header, a syntax error or several ranges.
+     */
+    public static Optional<ByteRange> parse(String header, long size) {
+        if(header == null || !header.startsWith(BYTES_UNIT) || header.indexOf(',') >= 0) {
+            return Optional.empty();
+        }
+        String spec = header.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if(dash < 0) {
+            return Optional.empty();
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if(first.isEmpty()) {
+                long suffixLength = Long.parseLong(last);
+                if(suffixLength <= 0 || size == 0) {
+                    return Optional.of(UNSATISFIABLE);
+                }
+                return Optional.of(new ByteRange(Math.max(0, size - suffixLength), size - 1));
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if(start < 0 || end < start) {
+                return Optional.empty();
+            }
+            if(start >= size) {
+                return Optional.of(UNSATISFIABLE);
+            }
+            return Optional.of(new ByteRange(start, Math.min(end, size - 1)));
+        } catch(NumberFormatException ex) {
+            return Optional.empty();
+        }
+    }
+
+    public long length() {
+        return end - start + 1;
+    }
+}
@@ -0,0 +1,102 @@
+package com.stasiu.blog.web;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import com.stasiu.blog.domain.MediaFile;
+
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sends files without copying them through the heap: Tomcat sends them with sendfile where the
+ * connector supports it, otherwise they are copied with {@link FileChannel#transferTo}.
+ */
+public final class FileTransfer {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    private FileTransfer() {
+    }
+
+    /**
+     * Answers a GET or HEAD of a content-addressed file, honouring {@code If-None-Match},
+     * {@code Range} and {@code If-Range}.
+     */
+    public static void serve(HttpServletRequest request, HttpServletResponse response, MediaFile media) throws IOException {
+        FileChannel file;
+        try {
+            file = FileChannel.open(media.path(), StandardOpenOption.READ);
+        } catch(NoSuchFileException ex) {
+            throw new EntityNotFoundException("Media file is missing");
+        }
+        try(file) {
+            long size = file.size();
+            response.setHeader(HttpHeaders.ETAG, media.etag());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            if(media.etag().equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+            response.setContentType(media.contentType());
+
+            // A Range for another version of the file is ignored and the whole file is sent.
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            Optional<ByteRange> range = ifRange == null || ifRange.equals(media.etag())
+                ? ByteRange.parse(request.getHeader(HttpHeaders.RANGE), size)
+                : Optional.empty();
+            long start = 0;
+            long length = size;
+            if(range.isPresent()) {
+                if(range.get() == ByteRange.UNSATISFIABLE) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    return;
+                }
+                start = range.get().start();
+                length = range.get().length();
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + range.get().end() + "/" + size);
+            }
+            response.setContentLengthLong(length);
+            if(HttpMethod.HEAD.matches(request.getMethod())) {
+                return;
+            }
+            transfer(request, response, file, media.path(), start, length);
+        }
+    }
+
+    /**
+     * Sends {@code length} bytes of {@code file} from {@code start}; headers must already be set.
+     */
+    public static void transfer(HttpServletRequest request, HttpServletResponse response, FileChannel file,
+            Path path, long start, long length) throws IOException {
+        if(Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        long position = start;
+        long end = start + length;
+        while(position < end) {
+            position += file.transferTo(position, end - position, out);
+        }
+    }
+}
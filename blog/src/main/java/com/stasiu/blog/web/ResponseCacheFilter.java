@@ -0,0 +1,166 @@
+package com.stasiu.blog.web;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.stasiu.blog.domain.CachedResponse;
+import com.stasiu.blog.domain.EngagementType;
+import com.stasiu.blog.services.ResponseCacheService;
+import com.stasiu.blog.services.TrendingService;
+import com.stasiu.blog.services.ViewCounterService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Serves anonymous reads of posts, post listings, categories and tags from {@link ResponseCacheService}.
+ * On a miss the response is rendered as usual and stored with the dependency tags collected by
+ * {@link ResponseCacheTagsAdvice}; responses without tags or with another status are not stored.
+ * Concurrent misses of the same key are coalesced: one request renders, the others wait for its
+ * response and, if it takes too long or fails, answer with the stale copy when there is one.
+ */
+@RequiredArgsConstructor
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    static final String TAGS_ATTRIBUTE = ResponseCacheFilter.class.getName() + ".tags";
+
+    private static final Set<String> CACHED_PATHS = Set.of("/api/v1/posts", "/api/v1/categories", "/api/v1/tags");
+    private static final String POSTS_PATH = "/api/v1/posts";
+    private static final Pattern POST_PATH = Pattern.compile("/api/v1/posts/[0-9a-fA-F-]{36}");
+    // The only parameters these endpoints read; anything else cannot change the response.
+    private static final String[] KEY_PARAMETERS = {"allTags", "anyTags", "categoryId", "format", "noneTags", "tagId"};
+
+    private final ResponseCacheService responseCacheService;
+    private final ViewCounterService viewCounterService;
+    private final TrendingService trendingService;
+    private final SingleFlight<String, CachedResponse> singleFlight;
+    private final boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+            || !HttpMethod.GET.matches(request.getMethod())
+            || request.getHeader(HttpHeaders.AUTHORIZATION) != null
+            || !(CACHED_PATHS.contains(path(request)) || POST_PATH.matcher(path(request)).matches());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = key(request);
+        Optional<CachedResponse> cached = responseCacheService.get(key);
+        if(cached.isPresent()) {
+            send(request, response, cached.get(), "HIT");
+            return;
+        }
+
+        SingleFlight.Flight<String, CachedResponse> flight = singleFlight.join(key);
+        if(flight.leader()) {
+            try {
+                flight.complete(render(request, response, filterChain, key));
+            } catch(IOException | ServletException | RuntimeException | Error ex) {
+                flight.fail(ex);
+                throw ex;
+            }
+            return;
+        }
+
+        try {
+            CachedResponse shared = flight.await();
+            if(shared != null) {
+                send(request, response, shared, "SHARED");
+                return;
+            }
+        } catch(ExecutionException | TimeoutException ex) {
+            Optional<CachedResponse> stale = responseCacheService.getStale(key);
+            if(stale.isPresent()) {
+                send(request, response, stale.get(), "STALE");
+                return;
+            }
+        }
+        // The leader had nothing to share, or failed or timed out with no stale copy to fall back on.
+        render(request, response, filterChain, key);
+    }
+
+    private CachedResponse render(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain,
+                                  String key) throws ServletException, IOException {
+        long generation = responseCacheService.generation();
+        Set<String> tags = new HashSet<>();
+        request.setAttribute(TAGS_ATTRIBUTE, tags);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        wrapper.setHeader("X-Cache", "MISS");
+        try {
+            filterChain.doFilter(request, wrapper);
+            if(wrapper.getStatus() != HttpServletResponse.SC_OK || tags.isEmpty() || wrapper.getContentType() == null) {
+                return null;
+            }
+            CachedResponse rendered = new CachedResponse(wrapper.getContentAsByteArray(), wrapper.getContentType(), Set.copyOf(tags));
+            responseCacheService.put(key, rendered, generation);
+            return rendered;
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    // Only published posts are cached, so a cached post detail counts as a view like a rendered one.
+    private void send(HttpServletRequest request, HttpServletResponse response, CachedResponse cached, String outcome) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        response.setContentLength(cached.body().length);
+        response.setHeader("X-Cache", outcome);
+        response.getOutputStream().write(cached.body());
+        String path = path(request);
+        if(POST_PATH.matcher(path).matches()) {
+            UUID postId = UUID.fromString(path.substring(POSTS_PATH.length() + 1));
+            viewCounterService.recordView(postId);
+            trendingService.recordEngagement(postId, EngagementType.VIEW);
+        }
+    }
+
+    private static String key(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(path(request).toLowerCase());
+        char separator = '?';
+        for(String name : KEY_PARAMETERS) {
+            String[] values = request.getParameterValues(name);
+            if(values == null) {
+                continue;
+            }
+            // Tag lists may be repeated or comma separated and in any order; they select the same posts.
+            String value = Arrays.stream(values)
+                .flatMap(listed -> Arrays.stream(listed.split(",")))
+                .map(listed -> listed.trim().toLowerCase())
+                .filter(listed -> !listed.isEmpty())
+                .sorted()
+                .distinct()
+                .collect(Collectors.joining(","));
+            if(!value.isEmpty()) {
+                key.append(separator).append(name).append('=').append(value);
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
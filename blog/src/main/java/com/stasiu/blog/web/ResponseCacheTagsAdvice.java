@@ -0,0 +1,121 @@
+package com.stasiu.blog.web;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.ResponseCacheTags;
+import com.stasiu.blog.domain.dtos.PostDto;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Tells {@link ResponseCacheFilter} what a response depends on, from the body about to be written
+ * and the filter it was requested with. Responses of other endpoints get no tags and are not cached.
+ */
+@ControllerAdvice
+public class ResponseCacheTagsAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request, ServerHttpResponse response) {
+        if(!(request instanceof ServletServerHttpRequest servletRequest)
+                || !(servletRequest.getServletRequest().getAttribute(ResponseCacheFilter.TAGS_ATTRIBUTE) instanceof Set<?> collected)) {
+            return body;
+        }
+        Set<String> tags = (Set<String>) collected;
+        HttpServletRequest httpRequest = servletRequest.getServletRequest();
+        String path = httpRequest.getRequestURI().substring(httpRequest.getContextPath().length());
+        if(body instanceof PostDto post) {
+            // Drafts are readable by id but never cached; the filter counts cached reads as views.
+            if(post.getStatus() == PostStatus.PUBLISHED) {
+                addPostTags(post, tags);
+            }
+            return body;
+        }
+        if(!(body instanceof List<?> items)) {
+            return body;
+        }
+        switch(path) {
+            case "/api/v1/posts" -> {
+                addScopeTags(httpRequest, tags);
+                for(Object item : items) {
+                    if(item instanceof PostDto post) {
+                        addPostTags(post, tags);
+                    }
+                }
+            }
+            case "/api/v1/categories" -> tags.add(ResponseCacheTags.CATEGORIES);
+            case "/api/v1/tags" -> tags.add(ResponseCacheTags.TAGS);
+            default -> {
+            }
+        }
+        return body;
+    }
+
+    private static void addPostTags(PostDto post, Set<String> tags) {
+        tags.add(ResponseCacheTags.post(post.getId()));
+        if(post.getCategory() != null) {
+            tags.add(ResponseCacheTags.category(post.getCategory().getId()));
+        }
+        if(post.getTags() != null) {
+            post.getTags().forEach(tag -> tags.add(ResponseCacheTags.tag(tag.getId())));
+        }
+    }
+
+    // A listing can gain posts it does not show yet, so it also depends on the filter it was
+    // requested with: a new post only shows up if it is in the category or carries a required tag.
+    private static void addScopeTags(HttpServletRequest request, Set<String> tags) {
+        UUID categoryId = uuidParameter(request, "categoryId");
+        Set<UUID> requiredTags = new HashSet<>(uuidParameters(request, "allTags"));
+        requiredTags.addAll(uuidParameters(request, "anyTags"));
+        UUID tagId = uuidParameter(request, "tagId");
+        if(tagId != null) {
+            requiredTags.add(tagId);
+        }
+        if(categoryId != null) {
+            tags.add(ResponseCacheTags.category(categoryId));
+        }
+        requiredTags.forEach(requiredTag -> tags.add(ResponseCacheTags.tag(requiredTag)));
+        if(categoryId == null && requiredTags.isEmpty()) {
+            tags.add(ResponseCacheTags.POSTS);
+        }
+    }
+
+    private static Set<UUID> uuidParameters(HttpServletRequest request, String name) {
+        String[] values = request.getParameterValues(name);
+        if(values == null) {
+            return Set.of();
+        }
+        return Arrays.stream(values)
+            .flatMap(value -> Arrays.stream(value.split(",")))
+            .filter(value -> !value.isBlank())
+            .map(value -> UUID.fromString(value.trim()))
+            .collect(Collectors.toSet());
+    }
+
+    private static UUID uuidParameter(HttpServletRequest request, String name) {
+        String value = request.getParameter(name);
+        return value != null && !value.isBlank() ? UUID.fromString(value.trim()) : null;
+    }
+}
@@ -0,0 +1,109 @@
+package com.stasiu.blog.web;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Lets only one caller at a time load the value of a key. The first caller to {@link #join} a key
+ * becomes the leader and must {@link Flight#complete} or {@link Flight#fail} the flight; callers
+ * joining while it runs {@link Flight#await} its result for at most {@code timeout}.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Flight<K, V>> flights = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private final DistributionSummary callersSaved;
+    private final Counter timeouts;
+
+    public SingleFlight(String name, Duration timeout, MeterRegistry meterRegistry) {
+        this.timeoutNanos = timeout.toNanos();
+        this.callersSaved = DistributionSummary.builder("blog.single-flight.callers.saved")
+            .description("Callers that awaited a load instead of running it themselves")
+            .tag("name", name)
+            .register(meterRegistry);
+        this.timeouts = Counter.builder("blog.single-flight.timeouts")
+            .description("Callers that stopped waiting for a load that took longer than the timeout")
+            .tag("name", name)
+            .register(meterRegistry);
+    }
+
+    public Flight<K, V> join(K key) {
+        Flight<K, V> started = new Flight<>(this, key, true, new CompletableFuture<>());
+        Flight<K, V> running = flights.putIfAbsent(key, started);
+        if(running == null) {
+            return started;
+        }
+        running.waiters.incrementAndGet();
+        return new Flight<>(this, key, false, running.result);
+    }
+
+    public static final class Flight<K, V> {
+
+        private final SingleFlight<K, V> owner;
+        private final K key;
+        private final boolean leader;
+        private final CompletableFuture<V> result;
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        private Flight(SingleFlight<K, V> owner, K key, boolean leader, CompletableFuture<V> result) {
+            this.owner = owner;
+            this.key = key;
+            this.leader = leader;
+            this.result = result;
+        }
+
+        public boolean leader() {
+            return leader;
+        }
+
+        /**
+         * Hands the loaded value, or {@code null} when there is nothing to share, to every waiting caller.
+         */
+        public void complete(V value) {
+            end();
+            result.complete(value);
+        }
+
+        public void fail(Throwable failure) {
+            end();
+            result.completeExceptionally(failure);
+        }
+
+        /**
+         * The value the leader loaded, or {@code null} when it had nothing to share.
+         *
+         * @throws ExecutionException when the leader failed
+         * @throws TimeoutException when the leader did not finish in time
+         */
+        public V await() throws ExecutionException, TimeoutException {
+            try {
+                return result.get(owner.timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch(TimeoutException ex) {
+                owner.timeouts.increment();
+                throw ex;
+            } catch(InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ExecutionException(ex);
+            }
+        }
+
+        // Later callers start a new flight rather than join one that is over.
+        private void end() {
+            if(!leader) {
+                throw new IllegalStateException("Only the leader ends a flight");
+            }
+            owner.flights.remove(key, this);
+            owner.callersSaved.record(waiters.get());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.stasiu.blog.web;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.Enumeration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.stasiu.blog.domain.EngagementType;
+import com.stasiu.blog.domain.SnapshotResource;
+import com.stasiu.blog.services.SnapshotService;
+import com.stasiu.blog.services.TrendingService;
+import com.stasiu.blog.services.ViewCounterService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Answers anonymous reads of posts, categories and tags from the snapshot on disk, without
+ * opening a database connection. Requests the snapshot does not cover fall through to the
+ * controllers. Files are sent with {@link FileTransfer}.
+ */
+@RequiredArgsConstructor
+public class SnapshotFilter extends OncePerRequestFilter {
+
+    private static final String POSTS_PATH = "/api/v1/posts";
+    private static final Pattern POST_PATH = Pattern.compile("/api/v1/posts/[0-9a-fA-F-]{36}");
+
+    private final SnapshotService snapshotService;
+    private final ViewCounterService viewCounterService;
+    private final TrendingService trendingService;
+    private final boolean serve;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !serve
+            || !(HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod()))
+            || request.getHeader(HttpHeaders.AUTHORIZATION) != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String requestKey = requestKey(request);
+        Optional<SnapshotResource> resource = requestKey != null ? snapshotService.find(requestKey) : Optional.empty();
+        if(resource.isEmpty() || !send(request, response, resource.get())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if(POST_PATH.matcher(requestKey).matches()) {
+            UUID postId = UUID.fromString(requestKey.substring(POSTS_PATH.length() + 1));
+            viewCounterService.recordView(postId);
+            trendingService.recordEngagement(postId, EngagementType.VIEW);
+        }
+    }
+
+    private boolean send(HttpServletRequest request, HttpServletResponse response, SnapshotResource resource) throws IOException {
+        FileChannel file;
+        try {
+            file = FileChannel.open(resource.path(), StandardOpenOption.READ);
+        } catch(NoSuchFileException ex) {
+            // The version was removed after it was looked up; the controller answers instead.
+            return false;
+        }
+        try(file) {
+            response.setHeader(HttpHeaders.ETAG, resource.etag());
+            if(resource.etag().equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return true;
+            }
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLengthLong(resource.size());
+            if(HttpMethod.HEAD.matches(request.getMethod())) {
+                return true;
+            }
+            FileTransfer.transfer(request, response, file, resource.path(), 0, resource.size());
+            return true;
+        }
+    }
+
+    // Only requests whose answer is exactly a snapshot file map to a key: no parameters, or a
+    // single categoryId or tagId filter.
+    private static String requestKey(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Enumeration<String> names = request.getParameterNames();
+        if(!names.hasMoreElements()) {
+            return path;
+        }
+        String name = names.nextElement();
+        if(names.hasMoreElements() || !POSTS_PATH.equals(path)
+                || !("categoryId".equals(name) || "tagId".equals(name))
+                || request.getParameterValues(name).length != 1) {
+            return null;
+        }
+        try {
+            return path + "?" + name + "=" + UUID.fromString(request.getParameter(name));
+        } catch(IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.stasiu.blog;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Starts the native executable built by {@code mvn -Pnative verify} against a local PostgreSQL
+ * and calls every controller once, the reactive read routes included. An uploaded image has to come
+ * back as a thumbnail, which needs AWT and ImageIO to work in the image. Connection settings are
+ * taken from the {@code native.datasource.*} system properties; the test is skipped when no binary
+ * has been built.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class NativeSmokeIT {
+
+    private static final Pattern STARTED = Pattern.compile("Started BlogApplication in ([0-9.]+) seconds");
+    private static final Pattern REACTIVE_PORT = Pattern.compile("Reactive read routes listening on port ([0-9]+)");
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration THUMBNAIL_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration OUTBOX_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> output = new ArrayList<>();
+
+    private Process process;
+    private URI baseUri;
+    private URI managementUri;
+    private volatile double startupSeconds = -1;
+    private volatile int reactivePort = -1;
+    private Path dataDirectory;
+
+    private String token;
+    private String categoryId;
+    private String tagId;
+    private String postId;
+    private String commentId;
+
+    @BeforeAll
+    void startBinary() throws Exception {
+        Path binary = Path.of(System.getProperty("native.binary", "target/blog"));
+        assumeTrue(Files.isExecutable(binary), "Native binary " + binary + " has not been built");
+
+        int port = freePort();
+        int managementPort = freePort();
+        baseUri = URI.create("http://localhost:" + port);
+        managementUri = URI.create("http://localhost:" + managementPort);
+        dataDirectory = Files.createTempDirectory("native-smoke-");
+        String datasourceUrl = System.getProperty("native.datasource.url", "jdbc:postgresql://localhost:5432/postgres");
+        process = new ProcessBuilder(
+                binary.toString(),
+                "--server.port=" + port,
+                "--management.server.port=" + managementPort,
+                "--blog.reactive.port=0",
+                "--blog.reactive.r2dbc.url=" + datasourceUrl.replaceFirst("^jdbc:", "r2dbc:"),
+                "--blog.media.directory=" + dataDirectory.resolve("media"),
+                "--blog.snapshot.directory=" + dataDirectory.resolve("snapshots"),
+                "--spring.datasource.url=" + datasourceUrl,
+                "--spring.datasource.username=" + System.getProperty("native.datasource.username", "postgres"),
+                "--spring.datasource.password=" + System.getProperty("native.datasource.password", "postgres"),
+                "--spring.cloud.vault.enabled=false",
+                "--spring.config.on-not-found=ignore",
+                "--spring.cloud.refresh.enabled=false",
+                "--jwt.secret=native-smoke-test-secret-key-long-enough-for-hs256",
+                "--blog.outbox.poll-interval-ms=100")
+            .redirectErrorStream(true)
+            .start();
+        Thread.ofVirtual().start(this::collectOutput);
+
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while(!isHealthy()) {
+            assertTrue(process.isAlive(), () -> "Native binary exited during startup:\n" + String.join("\n", output()));
+            assertTrue(System.nanoTime() < deadline, () -> "Native binary did not become healthy:\n" + String.join("\n", output()));
+            Thread.sleep(50);
+        }
+    }
+
+    @AfterAll
+    void stopBinary() throws Exception {
+        if(process != null) {
+            process.destroy();
+            process.waitFor();
+        }
+        if(dataDirectory != null) {
+            try(Stream<Path> paths = Files.walk(dataDirectory)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    @Order(1)
+    void startsWithinBudget() {
+        double maxStartupSeconds = Double.parseDouble(System.getProperty("native.max-startup-seconds", "1.0"));
+        assertTrue(startupSeconds >= 0, "Startup time was not logged");
+        assertTrue(startupSeconds <= maxStartupSeconds,
+            "Started in " + startupSeconds + "s, budget is " + maxStartupSeconds + "s");
+    }
+
+    @Test
+    @Order(2)
+    void authController() throws Exception {
+        String email = "native-" + UUID.randomUUID() + "@example.com";
+        assertEquals(201, send("POST", "/api/v1/auth/signin", Map.of("name", "Native", "email", email, "password", "password1")).statusCode());
+
+        HttpResponse<String> login = send("POST", "/api/v1/auth/login", Map.of("email", email, "password", "password1"));
+        assertEquals(200, login.statusCode());
+        token = json(login).get("token").asText();
+        assertFalse(token.isBlank());
+    }
+
+    @Test
+    @Order(3)
+    void categoryController() throws Exception {
+        HttpResponse<String> created = send("POST", "/api/v1/categories", Map.of("name", "native-" + UUID.randomUUID()));
+        assertEquals(201, created.statusCode());
+        categoryId = json(created).get("id").asText();
+
+        assertEquals(200, send("PUT", "/api/v1/categories/" + categoryId, Map.of("id", categoryId, "name", "native-" + UUID.randomUUID())).statusCode());
+        assertEquals(200, send("GET", "/api/v1/categories", null).statusCode());
+    }
+
+    @Test
+    @Order(4)
+    void tagController() throws Exception {
+        HttpResponse<String> created = send("POST", "/api/v1/tags", Map.of("names", List.of("native-" + UUID.randomUUID())));
+        assertEquals(201, created.statusCode());
+        tagId = json(created).get(0).get("id").asText();
+
+        assertEquals(200, send("GET", "/api/v1/tags", null).statusCode());
+    }
+
+    @Test
+    @Order(5)
+    void postController() throws Exception {
+        HttpResponse<String> created = send("POST", "/api/v1/posts", Map.of(
+            "title", "Native post",
+            "content", "# Heading\n\nRendered by the native image",
+            "categoryId", categoryId,
+            "tagIds", List.of(tagId),
+            "status", "DRAFT"));
+        assertEquals(201, created.statusCode());
+        postId = json(created).get("id").asText();
+
+        assertEquals(202, send("PUT", "/api/v1/posts/" + postId + "/autosave",
+            Map.of("title", "Native post", "content", "# Heading\n\nAutosaved")).statusCode());
+        assertEquals(200, send("GET", "/api/v1/posts/drafts", null).statusCode());
+
+        HttpResponse<String> updated = send("PUT", "/api/v1/posts/" + postId, Map.of(
+            "id", postId,
+            "title", "Native post",
+            "content", "# Heading\n\nPublished from the native image",
+            "categoryId", categoryId,
+            "tagIds", List.of(tagId),
+            "status", "PUBLISHED"));
+        assertEquals(200, updated.statusCode());
+
+        HttpResponse<String> html = send("GET", "/api/v1/posts/" + postId + "?format=html", null);
+        assertEquals(200, html.statusCode());
+        assertEquals("heading", json(html).get("tableOfContents").get(0).get("anchor").asText());
+
+        assertEquals(200, send("GET", "/api/v1/posts?categoryId=" + categoryId + "&tagId=" + tagId, null).statusCode());
+        assertEquals(200, send("GET", "/api/v1/posts/trending", null).statusCode());
+        assertEquals(200, send("GET", "/api/v1/posts/" + postId + "/related", null).statusCode());
+    }
+
+    @Test
+    @Order(6)
+    void errorController() throws Exception {
+        HttpResponse<String> missing = send("GET", "/api/v1/posts/" + UUID.randomUUID(), null);
+        assertEquals(404, missing.statusCode());
+        assertEquals(404, json(missing).get("status").asInt());
+    }
+
+    @Test
+    @Order(7)
+    void postRevisionController() throws Exception {
+        HttpResponse<String> revisions = send("GET", "/api/v1/posts/" + postId + "/revisions", null);
+        assertEquals(200, revisions.statusCode());
+        assertTrue(json(revisions).size() >= 2);
+
+        HttpResponse<String> first = send("GET", "/api/v1/posts/" + postId + "/revisions/1", null);
+        assertEquals(200, first.statusCode());
+        assertTrue(json(first).get("content").asText().contains("Rendered by the native image"));
+    }
+
+    @Test
+    @Order(8)
+    void commentController() throws Exception {
+        HttpResponse<String> created = send("POST", "/api/v1/posts/" + postId + "/comments", Map.of("content", "Native comment"));
+        assertEquals(201, created.statusCode());
+        String parentId = json(created).get("id").asText();
+
+        HttpResponse<String> reply = send("POST", "/api/v1/posts/" + postId + "/comments",
+            Map.of("parentId", parentId, "content", "Native reply"));
+        assertEquals(201, reply.statusCode());
+        commentId = json(reply).get("id").asText();
+
+        HttpResponse<String> comments = send("GET", "/api/v1/posts/" + postId + "/comments", null);
+        assertEquals(200, comments.statusCode());
+        assertEquals(1, json(comments).get("comments").size());
+        HttpResponse<String> replies = send("GET", "/api/v1/posts/" + postId + "/comments/" + parentId + "/replies", null);
+        assertEquals(200, replies.statusCode());
+        assertEquals(1, json(replies).get("comments").size());
+
+        assertEquals(204, send("DELETE", "/api/v1/posts/" + postId + "/comments/" + commentId, null).statusCode());
+    }
+
+    @Test
+    @Order(9)
+    void mediaController() throws Exception {
+        BufferedImage image = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        assertTrue(ImageIO.write(image, "png", png));
+
+        HttpResponse<String> uploaded = send("POST", "/api/v1/posts/" + postId + "/media?filename=native.png",
+            HttpRequest.BodyPublishers.ofByteArray(png.toByteArray()), "image/png");
+        assertEquals(201, uploaded.statusCode());
+        String mediaId = json(uploaded).get("id").asText();
+
+        assertEquals(200, send("GET", "/api/v1/posts/" + postId + "/media", null).statusCode());
+        assertEquals(200, send("GET", "/api/v1/media/" + mediaId, null).statusCode());
+
+        // Variants are rendered in the background, so the first requests may find none yet.
+        long deadline = System.nanoTime() + THUMBNAIL_TIMEOUT.toNanos();
+        HttpResponse<String> thumbnail = send("GET", "/api/v1/media/" + mediaId + "/thumbnail", null);
+        while(thumbnail.statusCode() == 404 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            thumbnail = send("GET", "/api/v1/media/" + mediaId + "/thumbnail", null);
+        }
+        assertEquals(200, thumbnail.statusCode(), () -> "Thumbnail was not rendered:\n" + String.join("\n", output()));
+    }
+
+    @Test
+    @Order(10)
+    void feedController() throws Exception {
+        HttpResponse<String> feed = send("GET", "/feed.xml", null);
+        assertEquals(200, feed.statusCode());
+        assertTrue(feed.body().contains("Native post"));
+        assertEquals(200, send("GET", "/sitemap.xml", null).statusCode());
+    }
+
+    @Test
+    @Order(11)
+    void archiveController() throws Exception {
+        // Archive counts follow the outbox, which the application polls every 100 ms.
+        long deadline = System.nanoTime() + OUTBOX_TIMEOUT.toNanos();
+        HttpResponse<String> months = send("GET", "/api/v1/archive", null);
+        while(json(months).isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            months = send("GET", "/api/v1/archive", null);
+        }
+        assertEquals(200, months.statusCode());
+        JsonNode month = json(months).get(0);
+        assertNotNull(month, () -> "The archive did not count the post:\n" + String.join("\n", output()));
+        assertEquals(200, send("GET", "/api/v1/archive/" + month.get("year").asInt() + "/" + month.get("month").asInt(), null).statusCode());
+    }
+
+    @Test
+    @Order(12)
+    void reactiveReadRoutes() throws Exception {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while(reactivePort < 0) {
+            assertTrue(System.nanoTime() < deadline, () -> "Reactive read routes did not start:\n" + String.join("\n", output()));
+            Thread.sleep(50);
+        }
+        URI reactiveUri = URI.create("http://localhost:" + reactivePort);
+        for(String path : List.of(
+                "/api/v1/posts",
+                "/api/v1/posts/" + postId,
+                "/api/v1/posts?categoryId=" + categoryId + "&tagId=" + tagId,
+                "/api/v1/categories",
+                "/api/v1/tags")) {
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(reactiveUri.resolve(path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode(), path);
+        }
+    }
+
+    @Test
+    @Order(13)
+    void cleanUp() throws Exception {
+        assertEquals(204, send("DELETE", "/api/v1/posts/" + postId, null).statusCode());
+        assertEquals(204, send("DELETE", "/api/v1/tags/" + tagId, null).statusCode());
+        assertEquals(204, send("DELETE", "/api/v1/categories/" + categoryId, null).statusCode());
+    }
+
+    private HttpResponse<String> send(String method, String path, Object body) throws IOException, InterruptedException {
+        return body == null
+            ? send(method, path, HttpRequest.BodyPublishers.noBody(), null)
+            : send(method, path, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)), "application/json");
+    }
+
+    private HttpResponse<String> send(String method, String path, HttpRequest.BodyPublisher body, String contentType) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path)).method(method, body);
+        if(contentType != null) {
+            request.header("Content-Type", contentType);
+        }
+        if(token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode json(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+
+    private boolean isHealthy() {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(managementUri.resolve("/actuator/health")).GET().build();
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch(IOException e) {
+            return false;
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try(ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private void collectOutput() {
+        try(BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while((line = reader.readLine()) != null) {
+                Matcher matcher = STARTED.matcher(line);
+                if(matcher.find()) {
+                    startupSeconds = Double.parseDouble(matcher.group(1));
+                }
+                Matcher reactiveMatcher = REACTIVE_PORT.matcher(line);
+                if(reactiveMatcher.find()) {
+                    reactivePort = Integer.parseInt(reactiveMatcher.group(1));
+                }
+                synchronized(output) {
+                    output.add(line);
+                }
+            }
+        } catch(IOException ignored) {
+            // The process was stopped.
+        }
+    }
+
+    private List<String> output() {
+        synchronized(output) {
+            return List.copyOf(output);
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.stasiu.blog.controllers;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.dtos.AutosaveDraftRequestDto;
+import com.stasiu.blog.domain.dtos.CreateCategoryRequest;
+import com.stasiu.blog.domain.dtos.CreateCommentRequestDto;
+import com.stasiu.blog.domain.dtos.CreatePostRequestDto;
+import com.stasiu.blog.domain.dtos.CreateTagsRequest;
+import com.stasiu.blog.domain.dtos.LoginRequest;
+import com.stasiu.blog.domain.dtos.SignUpRequest;
+import com.stasiu.blog.domain.dtos.UpdateCategoryRequestDto;
+import com.stasiu.blog.domain.dtos.UpdatePostRequestDto;
+import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.Tag;
+import com.stasiu.blog.domain.entities.User;
+import com.stasiu.blog.repositories.CategoryRepository;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.repositories.TagRepository;
+import com.stasiu.blog.repositories.UserRepository;
+import com.stasiu.blog.security.BlogUserDetails;
+import com.stasiu.blog.services.AuthenticationService;
+import com.stasiu.blog.services.DraftAutosaveService;
+import com.stasiu.blog.services.PostIndexService;
+import com.stasiu.blog.support.QueryCountConfiguration;
+import com.stasiu.blog.support.QueryCounter;
+
+/**
+ * The exact number of statements each endpoint issues against a realistically sized data set. The
+ * counts do not depend on the number of seeded rows, so an N+1 introduced anywhere on the request
+ * path fails here. The response cache is off, so every request reaches the database; it has its
+ * own counts in {@link ResponseCacheQueryCountTest}.
+ */
+@SpringBootTest(properties = "blog.response-cache.enabled=false")
+@AutoConfigureMockMvc
+@Import(QueryCountConfiguration.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointQueryCountTest {
+
+    private static final int AUTHORS = 3;
+    private static final int CATEGORIES = 5;
+    private static final int TAGS = 12;
+    private static final int POSTS_PER_AUTHOR = 20;
+    private static final int TAGS_PER_POST = 3;
+    private static final String PASSWORD = "password";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private DraftAutosaveService draftAutosaveService;
+
+    @Autowired
+    private PostIndexService postIndexService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User author;
+    private String token;
+    private List<Category> categories;
+    private List<Tag> tags;
+    private Post publishedPost;
+    private Post draftPost;
+
+    @BeforeAll
+    void seed() {
+        List<User> authors = new ArrayList<>();
+        for(int i = 0; i < AUTHORS; i++) {
+            authors.add(userRepository.save(User.builder()
+                .name("Author " + i)
+                .email("author" + i + "@example.com")
+                .password(passwordEncoder.encode(PASSWORD))
+                .posts(new ArrayList<>())
+                .build()));
+        }
+
+        categories = new ArrayList<>();
+        for(int i = 0; i < CATEGORIES; i++) {
+            categories.add(categoryRepository.save(Category.builder().name("Category " + i).posts(new ArrayList<>()).build()));
+        }
+        tags = new ArrayList<>();
+        for(int i = 0; i < TAGS; i++) {
+            tags.add(tagRepository.save(Tag.builder().name("tag-" + i).posts(new HashSet<>()).build()));
+        }
+
+        int postNumber = 0;
+        for(User postAuthor : authors) {
+            for(int i = 0; i < POSTS_PER_AUTHOR; i++, postNumber++) {
+                Set<Tag> postTags = new HashSet<>();
+                for(int t = 0; t < TAGS_PER_POST; t++) {
+                    postTags.add(tags.get((postNumber + t) % TAGS));
+                }
+                Post post = postRepository.save(Post.builder()
+                    .title("Post " + postNumber)
+                    .content("Content of post " + postNumber + " with a few words to read")
+                    .status(i % 5 == 0 ? PostStatus.DRAFT : PostStatus.PUBLISHED)
+                    .readingTime(1)
+                    .author(postAuthor)
+                    .category(categories.get(postNumber % CATEGORIES))
+                    .tags(postTags)
+                    .build());
+                if(publishedPost == null && post.getStatus() == PostStatus.PUBLISHED) {
+                    publishedPost = post;
+                }
+                if(draftPost == null && post.getStatus() == PostStatus.DRAFT) {
+                    draftPost = post;
+                }
+            }
+        }
+
+        postIndexService.rebuild();
+
+        author = authors.get(0);
+        token = "Bearer " + authenticationService.generateToken(new BlogUserDetails(author));
+    }
+
+    @Test
+    void listPosts() throws Exception {
+        expect(1, "GET /posts", get("/api/v1/posts"), status().isOk());
+        expect(1, "GET /posts?categoryId", get("/api/v1/posts").param("categoryId", categories.get(0).getId().toString()), status().isOk());
+        expect(2, "GET /posts?tagId", get("/api/v1/posts").param("tagId", tags.get(0).getId().toString()),
+            status().isOk(), jsonPath("$[0].tags.length()").value(TAGS_PER_POST));
+        expect(2, "GET /posts?categoryId&tagId", get("/api/v1/posts")
+            .param("categoryId", categories.get(0).getId().toString())
+            .param("tagId", tags.get(0).getId().toString()), status().isOk());
+        expect(1, "GET /posts?format=html", get("/api/v1/posts").param("format", "html"), status().isOk());
+        expect(2, "GET /posts?allTags&anyTags&noneTags", get("/api/v1/posts")
+            .param("allTags", tags.get(0).getId().toString())
+            .param("anyTags", tags.get(1).getId() + "," + tags.get(2).getId())
+            .param("noneTags", tags.get(3).getId().toString()),
+            status().isOk(), jsonPath("$.length()").value(greaterThan(0)));
+    }
+
+    @Test
+    void listDrafts() throws Exception {
+        expect(3, "GET /posts/drafts", get("/api/v1/posts/drafts").header("Authorization", token), status().isOk());
+        expect(3, "GET /posts/scheduled", get("/api/v1/posts/scheduled").header("Authorization", token), status().isOk());
+    }
+
+    @Test
+    void getPost() throws Exception {
+        expect(4, "GET /posts/{id}", get("/api/v1/posts/{id}", publishedPost.getId()), status().isOk());
+    }
+
+    @Test
+    void rankedPostsAreServedFromMemory() throws Exception {
+        expect(0, "GET /posts/trending", get("/api/v1/posts/trending"), status().isOk());
+        expect(0, "GET /posts/{id}/related", get("/api/v1/posts/{id}/related", publishedPost.getId()), status().isOk());
+    }
+
+    @Test
+    void feedsAreServedFromMemoryAfterTheFirstRequest() throws Exception {
+        expect(1, "GET /feed.xml", get("/feed.xml"), status().isOk());
+        expect(0, "GET /feed.xml (cached)", get("/feed.xml"), status().isOk());
+        String etag = mockMvc.perform(get("/feed.xml")).andReturn().getResponse().getHeader("ETag");
+        expect(0, "GET /feed.xml (If-None-Match)", get("/feed.xml").header("If-None-Match", etag), status().isNotModified());
+        expect(2, "GET /feed.xml?categoryId", get("/feed.xml").param("categoryId", categories.get(0).getId().toString()), status().isOk());
+        expect(2, "GET /feed.xml?tagId", get("/feed.xml").param("tagId", tags.get(0).getId().toString()), status().isOk());
+        expect(1, "GET /sitemap.xml", get("/sitemap.xml"), status().isOk());
+        expect(0, "GET /sitemap.xml (cached)", get("/sitemap.xml").header("Accept-Encoding", "gzip"),
+            status().isOk(), header().string("Content-Encoding", "gzip"));
+    }
+
+    @Test
+    void archive() throws Exception {
+        int year = publishedPost.getCreatedAt().getYear();
+        int month = publishedPost.getCreatedAt().getMonthValue();
+        expect(1, "GET /archive", get("/api/v1/archive"), status().isOk());
+        expect(1, "GET /archive?categoryId", get("/api/v1/archive").param("categoryId", categories.get(0).getId().toString()), status().isOk());
+        String firstPage = expect(1, "GET /archive/{year}/{month}", get("/api/v1/archive/{year}/{month}", year, month).param("limit", "10"),
+            status().isOk(), jsonPath("$.posts.length()").value(10));
+        expect(1, "GET /archive/{year}/{month}?cursor", get("/api/v1/archive/{year}/{month}", year, month)
+            .param("cursor", objectMapper.readTree(firstPage).get("nextCursor").asText())
+            .param("limit", "10"), status().isOk());
+    }
+
+    @Test
+    void createUpdateAndDeletePost() throws Exception {
+        Set<UUID> tagIds = Set.of(tags.get(0).getId(), tags.get(1).getId(), tags.get(2).getId());
+        CreatePostRequestDto createRequest = CreatePostRequestDto.builder()
+            .title("New post")
+            .content("# Heading\n\nSome content for the new post")
+            .categoryId(categories.get(0).getId())
+            .tagIds(tagIds)
+            .status(PostStatus.PUBLISHED)
+            .build();
+        String created = expect(9 + tagIds.size(), "POST /posts", post("/api/v1/posts")
+            .header("Authorization", token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(createRequest)), status().isCreated());
+        UUID postId = UUID.fromString(objectMapper.readTree(created).get("id").asText());
+
+        Set<UUID> newTagIds = Set.of(tags.get(3).getId(), tags.get(4).getId());
+        UpdatePostRequestDto updateRequest = UpdatePostRequestDto.builder()
+            .id(postId)
+            .title("Updated post")
+            .content("# Heading\n\nUpdated content for the post")
+            .categoryId(categories.get(1).getId())
+            .tagIds(newTagIds)
+            .status(PostStatus.PUBLISHED)
+            .build();
+        expect(13 + newTagIds.size(), "PUT /posts/{id}", put("/api/v1/posts/{id}", postId)
+            .header("Authorization", token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(updateRequest)), status().isOk());
+
+        expect(3, "GET /posts/{id}/revisions", get("/api/v1/posts/{id}/revisions", postId)
+            .header("Authorization", token), jsonPath("$.length()").value(2));
+        expect(3, "GET /posts/{id}/revisions/{number}", get("/api/v1/posts/{id}/revisions/{number}", postId, 1)
+            .header("Authorization", token), jsonPath("$.content").value(createRequest.getContent()));
+
+        expect(7, "DELETE /posts/{id}", delete("/api/v1/posts/{id}", postId)
+            .header("Authorization", token), status().isNoContent());
+    }
+
+    @Test
+    void comments() throws Exception {
+        String created = expect(5, "POST /posts/{id}/comments", post("/api/v1/posts/{id}/comments", publishedPost.getId())
+            .header("Authorization", token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new CreateCommentRequestDto(null, "First!"))), status().isCreated());
+        String commentId = objectMapper.readTree(created).get("id").asText();
+        expect(7, "POST /posts/{id}/comments (reply)", post("/api/v1/posts/{id}/comments", publishedPost.getId())
+            .header("Authorization", token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new CreateCommentRequestDto(UUID.fromString(commentId), "Reply"))), status().isCreated());
+
+        expect(2, "GET /posts/{id}/comments", get("/api/v1/posts/{id}/comments", publishedPost.getId()),
+            status().isOk(), jsonPath("$.comments[0].replyCount").value(1));
+        expect(2, "GET /posts/{id}/comments/{commentId}/replies", get("/api/v1/posts/{id}/comments/{commentId}/replies", publishedPost.getId(), commentId),
+            status().isOk(), jsonPath("$.comments[0].depth").value(1));
+        expect(4, "DELETE /posts/{id}/comments/{commentId}", delete("/api/v1/posts/{id}/comments/{commentId}", publishedPost.getId(), commentId)
+            .header("Authorization", token), status().isNoContent());
+
+        // The sequence is not writable through the entity, so the full post is set up in SQL.
+        Post fullPost = postRepository.save(Post.builder()
+            .title("Post without room for comments")
+            .content("Content")
+            .status(PostStatus.PUBLISHED)
+            .readingTime(1)
+            .author(author)
+            .category(categories.get(0))
+            .tags(new HashSet<>())
+            .build());
+        jdbcTemplate.update("UPDATE posts SET comment_sequence = ? WHERE id = ?", 9_999_999_999L, fullPost.getId());
+        expect(4, "POST /posts/{id}/comments (no sequence left)", post("/api/v1/posts/{id}/comments", fullPost.getId())
+            .header("Authorization", token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new CreateCommentRequestDto(null, "One too many"))),
+            status().isConflict(), jsonPath("$.message").value("Post " + fullPost.getId() + " cannot take more comments"));
+    }
+
+    @Test
+    void autosaveDraft() throws Exception {
+        AutosaveDraftRequestDto autosaveRequest = new AutosaveDraftRequestDto("Draft title", "# Draft\n\nWork in progress");
+        expect(2, "PUT /posts/{id}/autosave", put("/api/v1/posts/{id}/autosave", draftPost.getId())
+            .header("Authorization", token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(autosaveRequest)), status().isAccepted());
+        expect(1, "PUT /posts/{id}/autosave (buffered)", put("/api/v1/posts/{id}/autosave", draftPost.getId())
+            .header("Authorization", token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(autosaveRequest)), status().isAccepted());
+        draftAutosaveService.discard(draftPost.getId());
+
+        expect(2, "PUT /posts/{id}/autosave (published)", put("/api/v1/posts/{id}/autosave", publishedPost.getId())
+            .header("Authorization", token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(autosaveRequest)),
+            status().isConflict(), jsonPath("$.message").value("Only drafts can be autosaved"));
+    }
+
+    @Test
+    void categories() throws Exception {
+        expect(1, "GET /categories", get("/api/v1/categories"), status().isOk());
+
+        String created = expect(3, "POST /categories", post("/api/v1/categories")
+            .header("Authorization", token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new CreateCategoryRequest("Brand new"))), status().isCreated());
+        UUID categoryId = UUID.fromString(objectMapper.readTree(created).get("id").asText());
+
+        expect(4, "PUT /categories/{id}", put("/api/v1/categories/{id}", categoryId)
+            .header("Authorization", token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new UpdateCategoryRequestDto("Renamed"))), status().isOk());
+
+        expect(4, "DELETE /categories/{id}", delete("/api/v1/categories/{id}", categoryId)
+            .header("Authorization", token), status().isNoContent());
+    }
+
+    @Test
+    void tags() throws Exception {
+        expect(1, "GET /tags", get("/api/v1/tags"), status().isOk());
+
+        Set<String> names = Set.of("fresh-1", "fresh-2", tags.get(0).getName());
+        String created = expect(2 + names.size(), "POST /tags", post("/api/v1/tags")
+            .header("Authorization", token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new CreateTagsRequest(names))), status().isCreated());
+        UUID tagId = UUID.fromString(objectMapper.readTree(created).get(0).get("id").asText());
+
+        expect(4, "DELETE /tags/{id}", delete("/api/v1/tags/{id}", tagId)
+            .header("Authorization", token), status().isNoContent());
+    }
+
+    @Test
+    void authentication() throws Exception {
+        expect(2, "POST /auth/login", post("/api/v1/auth/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new LoginRequest(author.getEmail(), PASSWORD))), status().isOk());
+
+        expect(2, "POST /auth/signin", post("/api/v1/auth/signin")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new SignUpRequest("New user", "new.user@example.com", PASSWORD))), status().isCreated());
+    }
+
+    private String expect(long statements, String description, MockHttpServletRequestBuilder request, ResultMatcher... expectations) throws Exception {
+        QueryCounter.reset();
+        String body = mockMvc.perform(request)
+            .andExpectAll(expectations)
+            .andReturn().getResponse().getContentAsString();
+        QueryCounter.assertStatements(statements, description);
+        return body;
+    }
+}
@@ -0,0 +1,140 @@
+package com.stasiu.blog.controllers;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.dtos.CreateCategoryRequest;
+import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.Tag;
+import com.stasiu.blog.domain.entities.User;
+import com.stasiu.blog.repositories.CategoryRepository;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.repositories.TagRepository;
+import com.stasiu.blog.repositories.UserRepository;
+import com.stasiu.blog.security.BlogUserDetails;
+import com.stasiu.blog.services.AuthenticationService;
+import com.stasiu.blog.services.PostIndexService;
+import com.stasiu.blog.support.QueryCountConfiguration;
+import com.stasiu.blog.support.QueryCounter;
+
+/**
+ * The statements anonymous reads issue with the response cache in front of them: none on a hit,
+ * the same as uncached on a miss, and the same again once a write has evicted the entry.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:responsecachedb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureMockMvc
+@Import(QueryCountConfiguration.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ResponseCacheQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private PostIndexService postIndexService;
+
+    private String token;
+    private Category category;
+    private Tag tag;
+    private Post publishedPost;
+    private Post draftPost;
+
+    @BeforeAll
+    void seed() {
+        User author = userRepository.save(User.builder()
+            .name("Cache author")
+            .email("cache-author@example.com")
+            .password("password")
+            .posts(new ArrayList<>())
+            .build());
+        category = categoryRepository.save(Category.builder().name("Cache category").posts(new ArrayList<>()).build());
+        tag = tagRepository.save(Tag.builder().name("cache-tag").posts(new HashSet<>()).build());
+        publishedPost = savePost(author, PostStatus.PUBLISHED);
+        draftPost = savePost(author, PostStatus.DRAFT);
+        postIndexService.rebuild();
+
+        token = "Bearer " + authenticationService.generateToken(new BlogUserDetails(author));
+    }
+
+    @Test
+    void anonymousReadsAreServedFromTheResponseCache() throws Exception {
+        expect(1, "GET /categories", get("/api/v1/categories"), status().isOk());
+        expect(0, "GET /categories (cached)", get("/api/v1/categories"), header().string("X-Cache", "HIT"));
+        expect(4, "GET /posts/{id}", get("/api/v1/posts/{id}", publishedPost.getId()), status().isOk());
+        expect(0, "GET /posts/{id} (cached)", get("/api/v1/posts/{id}", publishedPost.getId()), header().string("X-Cache", "HIT"));
+        expect(4, "GET /posts/{id} (draft)", get("/api/v1/posts/{id}", draftPost.getId()), status().isOk());
+        expect(4, "GET /posts/{id} (draft, not cached)", get("/api/v1/posts/{id}", draftPost.getId()), header().string("X-Cache", "MISS"));
+        expect(4, "GET /posts?categoryId&tagId (authenticated)", get("/api/v1/posts")
+            .header("Authorization", token)
+            .param("categoryId", category.getId().toString())
+            .param("tagId", tag.getId().toString()), header().doesNotExist("X-Cache"));
+
+        String created = mockMvc.perform(post("/api/v1/categories")
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateCategoryRequest("Cached"))))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        expect(1, "GET /categories (evicted)", get("/api/v1/categories"),
+            header().string("X-Cache", "MISS"), jsonPath("$[?(@.name == 'Cached')]").exists());
+
+        mockMvc.perform(delete("/api/v1/categories/{id}", objectMapper.readTree(created).get("id").asText())
+                .header("Authorization", token))
+            .andExpect(status().isNoContent());
+    }
+
+    private Post savePost(User author, PostStatus status) {
+        return postRepository.save(Post.builder()
+            .title(status + " post")
+            .content("Content of a " + status + " post")
+            .status(status)
+            .readingTime(1)
+            .author(author)
+            .category(category)
+            .tags(new HashSet<>(Set.of(tag)))
+            .build());
+    }
+
+    private void expect(long statements, String description, MockHttpServletRequestBuilder request, ResultMatcher... expectations) throws Exception {
+        QueryCounter.reset();
+        mockMvc.perform(request).andExpectAll(expectations);
+        QueryCounter.assertStatements(statements, description);
+    }
+}
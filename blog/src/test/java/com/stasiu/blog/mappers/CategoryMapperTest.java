@@ -23,7 +23,7 @@ class CategoryMapperTest {
     void shouldMapCategoryToDto() {
         Category category = new Category();
         category.setName("Test Category");
-        category.setPosts(List.of(new Post(null, null, null, PostStatus.PUBLISHED, null, null, category, null, null, null), new Post(null, null, null, PostStatus.DRAFT, null, null, category, null, null, null)));
+        category.setPosts(List.of(Post.builder().status(PostStatus.PUBLISHED).category(category).build(), Post.builder().status(PostStatus.DRAFT).category(category).build()));
 
         CategoryDto dto = categoryMapper.toDto(category);
 
@@ -0,0 +1,95 @@
+package com.stasiu.blog.monitoring;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.List;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.stasiu.blog.domain.SlowQuery;
+import com.stasiu.blog.repositories.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+class SqlTracingListenerTest {
+
+    private SlowQueryLog slowQueryLog;
+    private SimpleMeterRegistry meterRegistry;
+    private SqlTracingListener listener;
+
+    @BeforeEach
+    void setUp() {
+        slowQueryLog = new SlowQueryLog(2);
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new SqlTracingListener(slowQueryLog, meterRegistry, Duration.ofMillis(100), 0);
+    }
+
+    @Test
+    void shouldRecordSlowQueriesWithRedactedParametersAndRepositoryMethod() throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(UserRepository.class.getMethod("findByEmail", String.class));
+        when(invocation.proceed()).thenAnswer(call -> {
+            listener.afterQuery(execution(250), List.of(query("select * from users where email=? and id=?",
+                setString(1, "alice@example.com"), setNull(2))));
+            return null;
+        });
+
+        new RepositoryMethodContext(UserRepository.class).invoke(invocation);
+
+        List<SlowQuery> recent = slowQueryLog.recent();
+        assertEquals(1, recent.size());
+        SlowQuery slowQuery = recent.get(0);
+        assertEquals(250, slowQuery.getElapsedMillis());
+        assertEquals("UserRepository.findByEmail", slowQuery.getRepositoryMethod());
+        assertEquals(List.of("String", "null"), slowQuery.getParameterTypes());
+        assertFalse(slowQuery.toString().contains("alice@example.com"));
+        assertNull(RepositoryMethodContext.current());
+        assertEquals(1.0, meterRegistry.get("blog.sql.slow.queries").counter().count());
+    }
+
+    @Test
+    void shouldIgnoreFastQueriesAndKeepOnlyTheNewestSlowOnes() throws Exception {
+        listener.afterQuery(execution(5), List.of(query("select 1")));
+        listener.afterQuery(execution(100), List.of(query("select 2")));
+        listener.afterQuery(execution(150), List.of(query("select 3")));
+        listener.afterQuery(execution(200), List.of(query("select 4")));
+
+        assertEquals(List.of("select 4", "select 3"), slowQueryLog.recent().stream().map(SlowQuery::getSql).toList());
+        assertEquals(3, slowQueryLog.totalRecorded());
+    }
+
+    private static ExecutionInfo execution(long elapsedMillis) {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(elapsedMillis);
+        executionInfo.setSuccess(true);
+        return executionInfo;
+    }
+
+    private static QueryInfo query(String sql, ParameterSetOperation... parameters) {
+        QueryInfo queryInfo = new QueryInfo(sql);
+        if(parameters.length > 0) {
+            queryInfo.getParametersList().add(List.of(parameters));
+        }
+        return queryInfo;
+    }
+
+    private static ParameterSetOperation setString(int index, String value) throws NoSuchMethodException {
+        Method method = PreparedStatement.class.getMethod("setString", int.class, String.class);
+        return new ParameterSetOperation(method, new Object[] {index, value});
+    }
+
+    private static ParameterSetOperation setNull(int index) throws NoSuchMethodException {
+        Method method = PreparedStatement.class.getMethod("setNull", int.class, int.class);
+        return new ParameterSetOperation(method, new Object[] {index, Types.VARCHAR});
+    }
+}
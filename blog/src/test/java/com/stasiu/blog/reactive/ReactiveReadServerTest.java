@@ -0,0 +1,263 @@
+package com.stasiu.blog.reactive;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.dtos.ApiErrorResponse;
+import com.stasiu.blog.domain.dtos.CategoryDto;
+import com.stasiu.blog.domain.dtos.PostDto;
+import com.stasiu.blog.domain.dtos.TagResponse;
+import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.Tag;
+import com.stasiu.blog.domain.entities.User;
+import com.stasiu.blog.repositories.CategoryRepository;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.repositories.TagRepository;
+import com.stasiu.blog.repositories.UserRepository;
+import com.stasiu.blog.services.PostIndexService;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Asks the reactive routes and the MVC controllers the same questions and expects the same
+ * answers.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:reactivedb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "blog.reactive.enabled=true",
+    "blog.reactive.port=0",
+    "blog.reactive.r2dbc.url=r2dbc:h2:mem:///reactivedb?options=DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "blog.reactive.r2dbc.pool-size=2",
+    "blog.rate-limit.read.capacity=1000000"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReactiveReadServerTest {
+
+    private static final int CATEGORIES = 3;
+    private static final int TAGS = 8;
+    private static final int POSTS = 130;
+
+    @Autowired
+    private ReactiveReadServer reactiveReadServer;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostIndexService postIndexService;
+
+    private WebTestClient webTestClient;
+    private List<Category> categories;
+    private List<Tag> tags;
+    private Post publishedPost;
+    private Post draftPost;
+    private int publishedPosts;
+
+    @BeforeAll
+    void seed() {
+        User author = userRepository.save(User.builder()
+            .name("Reactive author")
+            .email("reactive-author@example.com")
+            .password("password")
+            .posts(new ArrayList<>())
+            .build());
+        categories = new ArrayList<>();
+        for(int i = 0; i < CATEGORIES; i++) {
+            categories.add(categoryRepository.save(Category.builder().name("Reactive category " + i).posts(new ArrayList<>()).build()));
+        }
+        tags = new ArrayList<>();
+        for(int i = 0; i < TAGS; i++) {
+            tags.add(tagRepository.save(Tag.builder().name("reactive-" + i).posts(new HashSet<>()).build()));
+        }
+        for(int i = 0; i < POSTS; i++) {
+            Post post = postRepository.save(Post.builder()
+                .title("Reactive post " + i)
+                .content("Content of reactive post " + i)
+                .status(i % 7 == 0 ? PostStatus.DRAFT : PostStatus.PUBLISHED)
+                .readingTime(1)
+                .author(author)
+                .category(categories.get(i % CATEGORIES))
+                .tags(new HashSet<>(Set.of(tags.get(i % TAGS), tags.get((i + 3) % TAGS))))
+                .build());
+            if(post.getStatus() == PostStatus.PUBLISHED) {
+                publishedPosts++;
+                if(publishedPost == null) {
+                    publishedPost = post;
+                }
+            } else if(draftPost == null) {
+                draftPost = post;
+            }
+        }
+        postIndexService.rebuild();
+
+        webTestClient = WebTestClient.bindToServer()
+            .baseUrl("http://localhost:" + reactiveReadServer.getPort())
+            .build();
+    }
+
+    @Test
+    void listsTheSamePostsAsTheMvcRoutes() throws Exception {
+        for(String query : List.of(
+                "",
+                "?format=html",
+                "?categoryId=" + categories.get(0).getId(),
+                "?tagId=" + tags.get(1).getId(),
+                "?anyTags=" + tags.get(2).getId() + "," + tags.get(5).getId() + "&noneTags=" + tags.get(0).getId())) {
+            List<PostDto> reactive = reactiveList("/api/v1/posts" + query, PostDto.class);
+            List<PostDto> mvc = mvcList("/api/v1/posts" + query, new TypeReference<>() {});
+            assertFalse(reactive.isEmpty(), query);
+            assertEquals(new HashSet<>(mvc), new HashSet<>(reactive), query);
+        }
+    }
+
+    @Test
+    void listsNewestPostsFirst() {
+        List<PostDto> posts = reactiveList("/api/v1/posts", PostDto.class);
+        assertEquals(publishedPosts, posts.size());
+        for(int i = 1; i < posts.size(); i++) {
+            assertFalse(posts.get(i).getCreatedAt().isAfter(posts.get(i - 1).getCreatedAt()));
+        }
+    }
+
+    @Test
+    void streamsOnePostPerLineForNdjsonClients() {
+        List<PostDto> posts = webTestClient.get().uri("/api/v1/posts")
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .returnResult(PostDto.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+        assertEquals(publishedPosts, posts.size());
+    }
+
+    @Test
+    void servesMoreConcurrentListingsThanThereAreConnections() {
+        WebClient webClient = WebClient.create("http://localhost:" + reactiveReadServer.getPort());
+        List<Long> counts = Flux.range(0, 20)
+            .flatMap(i -> webClient.get().uri("/api/v1/posts?format=html").retrieve().bodyToFlux(PostDto.class).count(), 20)
+            .collectList()
+            .block(Duration.ofSeconds(30));
+        assertEquals(20, counts.size());
+        counts.forEach(count -> assertEquals(publishedPosts, count));
+    }
+
+    @Test
+    void getsOnlyPublishedPosts() throws Exception {
+        PostDto reactive = webTestClient.get().uri("/api/v1/posts/{id}", publishedPost.getId())
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(PostDto.class)
+            .returnResult()
+            .getResponseBody();
+        PostDto mvc = objectMapper.readValue(
+            mockMvc.perform(get("/api/v1/posts/{id}", publishedPost.getId())).andReturn().getResponse().getContentAsString(),
+            PostDto.class);
+        assertEquals(mvc, reactive);
+
+        ApiErrorResponse error = webTestClient.get().uri("/api/v1/posts/{id}", draftPost.getId())
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody(ApiErrorResponse.class)
+            .returnResult()
+            .getResponseBody();
+        assertEquals(404, error.getStatus());
+    }
+
+    @Test
+    void listsCategoriesAndTagsWithPublishedPostCounts() throws Exception {
+        assertEquals(
+            new HashSet<>(mvcList("/api/v1/categories", new TypeReference<List<CategoryDto>>() {})),
+            new HashSet<>(reactiveList("/api/v1/categories", CategoryDto.class)));
+        assertEquals(
+            new HashSet<>(mvcList("/api/v1/tags", new TypeReference<List<TagResponse>>() {})),
+            new HashSet<>(reactiveList("/api/v1/tags", TagResponse.class)));
+    }
+
+    @Test
+    void rejectsBadParameters() {
+        webTestClient.get().uri("/api/v1/posts?categoryId=not-a-uuid")
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody().jsonPath("$.status").isEqualTo(400);
+        webTestClient.get().uri("/api/v1/posts?format=pdf")
+            .exchange()
+            .expectStatus().isBadRequest();
+        webTestClient.get().uri("/api/v1/posts?categoryId=" + UUID.randomUUID())
+            .exchange()
+            .expectStatus().isNotFound();
+        webTestClient.get().uri("/api/v1/posts?anyTags=" + UUID.randomUUID())
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+
+    @Test
+    void namesTheMissingTagsLikeTheMvcRoutes() throws Exception {
+        UUID missing = UUID.randomUUID();
+        String uri = "/api/v1/posts?allTags=" + tags.get(0).getId() + "&anyTags=" + missing;
+        ApiErrorResponse reactive = webTestClient.get().uri(uri)
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody(ApiErrorResponse.class)
+            .returnResult()
+            .getResponseBody();
+        ApiErrorResponse mvc = objectMapper.readValue(
+            mockMvc.perform(get(uri)).andReturn().getResponse().getContentAsString(), ApiErrorResponse.class);
+
+        assertEquals("Tags not found with ids: " + missing, reactive.getMessage());
+        assertEquals(mvc.getMessage(), reactive.getMessage());
+    }
+
+    private <T> List<T> reactiveList(String uri, Class<T> type) {
+        return webTestClient.get().uri(uri)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBodyList(type)
+            .returnResult()
+            .getResponseBody();
+    }
+
+    private <T> List<T> mvcList(String uri, TypeReference<List<T>> type) throws Exception {
+        return objectMapper.readValue(mockMvc.perform(get(uri)).andReturn().getResponse().getContentAsString(), type);
+    }
+}
@@ -0,0 +1,39 @@
+package com.stasiu.blog.reactive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetSocketAddress;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+
+class TrustedProxyForwardedHandlerTest {
+
+    private final TrustedProxyForwardedHandler handler = new TrustedProxyForwardedHandler(
+        new ServerProperties().getTomcat().getRemoteip().getInternalProxies(), "X-Forwarded-For");
+
+    @Test
+    void shouldTakeTheClientFromATrustedProxy() {
+        InetSocketAddress client = handler.clientAddress(new InetSocketAddress("10.0.0.5", 40000), "203.0.113.7, 10.0.0.9");
+
+        assertEquals("203.0.113.7", client.getAddress().getHostAddress());
+        assertEquals(40000, client.getPort());
+    }
+
+    @Test
+    void shouldIgnoreTheHeaderFromAnyOtherPeer() {
+        assertNull(handler.clientAddress(new InetSocketAddress("198.51.100.20", 40000), "203.0.113.7"));
+    }
+
+    @Test
+    void shouldNotLetTheClientPrependAnAddress() {
+        InetSocketAddress client = handler.clientAddress(new InetSocketAddress("10.0.0.5", 40000), "127.0.0.1, 203.0.113.7");
+
+        assertEquals("203.0.113.7", client.getAddress().getHostAddress());
+    }
+
+    @Test
+    void shouldStopAtAHopItCannotRead() {
+        assertNull(handler.clientAddress(new InetSocketAddress("10.0.0.5", 40000), "203.0.113.7, unknown"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.stasiu.blog.repositories;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.dtos.ArchiveMonthDto;
+import com.stasiu.blog.domain.entities.ArchiveMonthId;
+import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.User;
+
+@DataJpaTest
+class ArchiveMonthRepositoryTest {
+
+    @Autowired
+    private ArchiveMonthRepository archiveMonthRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void shouldAdjustCountsAndSumThemPerMonth() {
+        Category java = entityManager.persist(Category.builder().name("Java").build());
+        Category go = entityManager.persist(Category.builder().name("Go").build());
+        ArchiveMonthId mayJava = new ArchiveMonthId(2026, 5, java.getId());
+
+        archiveMonthRepository.adjustCounts(Map.of(mayJava, 2L, new ArchiveMonthId(2026, 5, go.getId()), 1L));
+        archiveMonthRepository.adjustCounts(Map.of(mayJava, -1L, new ArchiveMonthId(2026, 4, java.getId()), 1L));
+        archiveMonthRepository.adjustCounts(Map.of(new ArchiveMonthId(2026, 4, go.getId()), 1L));
+        archiveMonthRepository.adjustCounts(Map.of(new ArchiveMonthId(2026, 4, go.getId()), -1L));
+
+        assertEquals(List.of(new ArchiveMonthDto(2026, 5, 2), new ArchiveMonthDto(2026, 4, 1)), archiveMonthRepository.findMonths());
+        assertEquals(List.of(new ArchiveMonthDto(2026, 5, 1), new ArchiveMonthDto(2026, 4, 1)), archiveMonthRepository.findMonthsByCategory(java.getId()));
+    }
+
+    @Test
+    void shouldRebuildCountsFromPublishedPosts() {
+        User author = entityManager.persist(User.builder().email("author@test.com").password("secret").name("Author").build());
+        Category category = entityManager.persist(Category.builder().name("Java").build());
+        persist(author, category, PostStatus.PUBLISHED, LocalDateTime.of(2026, 5, 31, 23, 59));
+        persist(author, category, PostStatus.PUBLISHED, LocalDateTime.of(2026, 5, 1, 0, 0));
+        persist(author, category, PostStatus.PUBLISHED, LocalDateTime.of(2026, 6, 1, 0, 0));
+        persist(author, category, PostStatus.DRAFT, LocalDateTime.of(2026, 5, 10, 12, 0));
+        archiveMonthRepository.adjustCounts(Map.of(new ArchiveMonthId(2020, 1, category.getId()), 7L));
+
+        assertEquals(2, archiveMonthRepository.rebuild());
+
+        assertEquals(List.of(new ArchiveMonthDto(2026, 6, 1), new ArchiveMonthDto(2026, 5, 2)), archiveMonthRepository.findMonths());
+    }
+
+    private void persist(User author, Category category, PostStatus status, LocalDateTime createdAt) {
+        Post post = entityManager.persistAndFlush(Post.builder()
+            .title("Title")
+            .content("Some content")
+            .status(status)
+            .readingTime(1)
+            .author(author)
+            .category(category)
+            .build());
+        entityManager.getEntityManager().createNativeQuery("UPDATE posts SET created_at = ?1 WHERE id = ?2")
+            .setParameter(1, createdAt)
+            .setParameter(2, post.getId())
+            .executeUpdate();
+    }
+}
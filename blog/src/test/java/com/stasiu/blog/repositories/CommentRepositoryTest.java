@@ -0,0 +1,102 @@
+package com.stasiu.blog.repositories;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.dtos.CommentDto;
+import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.domain.entities.Comment;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.User;
+
+@DataJpaTest
+class CommentRepositoryTest {
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User author;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        author = entityManager.persist(User.builder().email("author@test.com").password("secret").name("Author").build());
+        Category category = entityManager.persist(Category.builder().name("Java").build());
+        post = entityManager.persistAndFlush(Post.builder()
+            .title("Title")
+            .content("Some content")
+            .status(PostStatus.PUBLISHED)
+            .readingTime(1)
+            .author(author)
+            .category(category)
+            .build());
+    }
+
+    @Test
+    void shouldPageThroughOneThreadDepthFirstWithoutLeavingIt() {
+        Comment first = persist(null, "0000000001");
+        Comment second = persist(null, "0000000002");
+        Comment reply = persist(first, "0000000001" + "0000000003");
+        persist(second, "0000000002" + "0000000004");
+        Comment nested = persist(reply, "0000000001" + "0000000003" + "0000000006");
+        Comment laterReply = persist(first, "0000000001" + "0000000005");
+        entityManager.flush();
+
+        assertEquals(List.of(first.getId(), second.getId()),
+            ids(commentRepository.findTopLevelPage(post.getId(), "", Limit.of(10))));
+        assertEquals(List.of(second.getId()),
+            ids(commentRepository.findTopLevelPage(post.getId(), first.getPath(), Limit.of(10))));
+
+        assertEquals(List.of(reply.getId(), nested.getId(), laterReply.getId()),
+            ids(commentRepository.findThreadPage(first.getId(), first.getPath(), "0000000002", Limit.of(10))));
+        assertEquals(List.of(nested.getId()),
+            ids(commentRepository.findThreadPage(first.getId(), reply.getPath(), "00000000010000000004", Limit.of(10))));
+        assertEquals(List.of(laterReply.getId()),
+            ids(commentRepository.findThreadPage(first.getId(), nested.getPath(), "0000000002", Limit.of(1))));
+    }
+
+    @Test
+    void shouldCountCommentsOnlyOnPublishedPosts() {
+        assertEquals(1, postRepository.incrementCommentCount(post.getId(), PostStatus.PUBLISHED));
+        assertEquals(1, postRepository.incrementCommentCount(post.getId(), PostStatus.PUBLISHED));
+        assertEquals(1, postRepository.decrementCommentCount(post.getId()));
+        assertEquals(0, postRepository.incrementCommentCount(post.getId(), PostStatus.DRAFT));
+        entityManager.clear();
+
+        Post counted = postRepository.findById(post.getId()).orElseThrow();
+        assertEquals(1, counted.getCommentCount());
+        assertEquals(2, postRepository.findCommentSequence(post.getId()));
+    }
+
+    private Comment persist(Comment parent, String path) {
+        return entityManager.persist(Comment.builder()
+            .post(post)
+            .author(author)
+            .parentId(parent != null ? parent.getId() : null)
+            .rootId(parent == null ? null : parent.getRootId() != null ? parent.getRootId() : parent.getId())
+            .path(path)
+            .depth(path.length() / 10 - 1)
+            .content("Comment " + path)
+            .build());
+    }
+
+    private static List<UUID> ids(List<CommentDto> comments) {
+        return comments.stream().map(CommentDto::getId).toList();
+    }
+}
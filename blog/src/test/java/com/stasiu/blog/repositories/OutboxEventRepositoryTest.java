@@ -0,0 +1,72 @@
+package com.stasiu.blog.repositories;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import com.stasiu.blog.domain.OutboxBacklog;
+import com.stasiu.blog.domain.OutboxStatus;
+import com.stasiu.blog.domain.entities.OutboxEvent;
+
+@DataJpaTest
+class OutboxEventRepositoryTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void shouldOnlyOfferTheOldestPendingEventOfEachPost() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        UUID firstPost = UUID.randomUUID();
+        UUID secondPost = UUID.randomUUID();
+        OutboxEvent processed = persist(firstPost, OutboxStatus.PROCESSED, now);
+        OutboxEvent firstPostHead = persist(firstPost, OutboxStatus.PENDING, now);
+        persist(firstPost, OutboxStatus.PENDING, now);
+        OutboxEvent secondPostHead = persist(secondPost, OutboxStatus.PENDING, now);
+        entityManager.flush();
+
+        List<OutboxEvent> dispatchable = outboxEventRepository.findDispatchable(OutboxStatus.PENDING, now, Limit.of(10));
+
+        assertEquals(List.of(firstPostHead.getId(), secondPostHead.getId()), dispatchable.stream().map(OutboxEvent::getId).toList());
+        assertNotEquals(processed.getId(), dispatchable.get(0).getId());
+    }
+
+    @Test
+    void shouldHoldBackLaterEventsWhileTheHeadWaitsForRetry() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        UUID postId = UUID.randomUUID();
+        persist(postId, OutboxStatus.PENDING, now.plusSeconds(30));
+        persist(postId, OutboxStatus.PENDING, now);
+        entityManager.flush();
+
+        assertTrue(outboxEventRepository.findDispatchable(OutboxStatus.PENDING, now, Limit.of(10)).isEmpty());
+
+        OutboxBacklog backlog = outboxEventRepository.findBacklog(OutboxStatus.PENDING);
+        assertEquals(2, backlog.getPending());
+        assertNotNull(backlog.getOldestCreatedAt());
+    }
+
+    private OutboxEvent persist(UUID postId, OutboxStatus status, Instant availableAt) {
+        return entityManager.persist(OutboxEvent.builder()
+            .aggregateId(postId)
+            .eventType("PostUpdated")
+            .payload("{}")
+            .status(status)
+            .createdAt(Instant.now())
+            .availableAt(availableAt)
+            .processedAt(status == OutboxStatus.PROCESSED ? Instant.now() : null)
+            .build());
+    }
+}
@@ -0,0 +1,56 @@
+package com.stasiu.blog.repositories;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.PostViewDelta;
+import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.PostDailyViews;
+import com.stasiu.blog.domain.entities.PostDailyViewsId;
+import com.stasiu.blog.domain.entities.User;
+
+@DataJpaTest
+class PostDailyViewsRepositoryTest {
+
+    @Autowired
+    private PostDailyViewsRepository postDailyViewsRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void shouldUpsertDailyViewsAndPostTotal() {
+        User author = entityManager.persist(User.builder().email("author@test.com").password("secret").name("Author").build());
+        Category category = entityManager.persist(Category.builder().name("Java").build());
+        Post post = entityManager.persistAndFlush(Post.builder()
+            .title("Title")
+            .content("Some content")
+            .status(PostStatus.PUBLISHED)
+            .readingTime(1)
+            .author(author)
+            .category(category)
+            .build());
+        LocalDate today = LocalDate.now();
+
+        postDailyViewsRepository.incrementViews(List.of(new PostViewDelta(post.getId(), today, 3)));
+        postDailyViewsRepository.incrementViews(List.of(
+            new PostViewDelta(post.getId(), today, 2),
+            new PostViewDelta(post.getId(), today.minusDays(1), 1)
+        ));
+        entityManager.clear();
+
+        PostDailyViews todayViews = postDailyViewsRepository.findById(new PostDailyViewsId(post.getId(), today)).orElseThrow();
+        assertEquals(5, todayViews.getViews());
+        assertEquals(2, postDailyViewsRepository.count());
+        assertEquals(6, entityManager.find(Post.class, post.getId()).getViewCount());
+    }
+}
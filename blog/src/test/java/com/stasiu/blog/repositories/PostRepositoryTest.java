@@ -0,0 +1,108 @@
+package com.stasiu.blog.repositories;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.dtos.ArchivePostDto;
+import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.User;
+
+@DataJpaTest
+class PostRepositoryTest {
+
+    private static final LocalDateTime MAY = LocalDateTime.of(2026, 5, 1, 0, 0);
+    private static final LocalDateTime JUNE = LocalDateTime.of(2026, 6, 1, 0, 0);
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void shouldPageThroughAMonthNewestFirstWithoutSkippingTies() {
+        User author = entityManager.persist(User.builder().email("author@test.com").password("secret").name("Author").build());
+        Category category = entityManager.persist(Category.builder().name("Java").build());
+        List<UUID> expected = new ArrayList<>();
+        expected.add(persist(author, category, PostStatus.PUBLISHED, MAY.plusDays(20)));
+        // Posts created in the same instant are ordered by id.
+        List<UUID> ties = new ArrayList<>(List.of(
+            persist(author, category, PostStatus.PUBLISHED, MAY.plusDays(10)),
+            persist(author, category, PostStatus.PUBLISHED, MAY.plusDays(10)),
+            persist(author, category, PostStatus.PUBLISHED, MAY.plusDays(10))));
+        expected.addAll(entityManager.getEntityManager()
+            .createQuery("SELECT p.id FROM Post p WHERE p.id IN :ids ORDER BY p.id DESC", UUID.class)
+            .setParameter("ids", ties)
+            .getResultList());
+        expected.add(persist(author, category, PostStatus.PUBLISHED, MAY));
+        persist(author, category, PostStatus.DRAFT, MAY.plusDays(15));
+        persist(author, category, PostStatus.PUBLISHED, JUNE);
+        persist(author, category, PostStatus.PUBLISHED, MAY.minusSeconds(1));
+
+        List<UUID> seen = new ArrayList<>();
+        LocalDateTime beforeCreatedAt = JUNE;
+        UUID beforeId = new UUID(0, 0);
+        List<ArchivePostDto> page;
+        do {
+            page = postRepository.findArchivePage(PostStatus.PUBLISHED, MAY, JUNE, beforeCreatedAt, beforeId, Limit.of(2));
+            page.forEach(post -> seen.add(post.getId()));
+            if(!page.isEmpty()) {
+                beforeCreatedAt = page.get(page.size() - 1).getCreatedAt();
+                beforeId = page.get(page.size() - 1).getId();
+            }
+        } while(page.size() == 2);
+
+        assertEquals(expected, seen);
+        assertEquals(List.of(expected.get(0)), postRepository.findArchivePageByCategory(
+            PostStatus.PUBLISHED, category.getId(), MAY, JUNE, JUNE, new UUID(0, 0), Limit.of(1))
+            .stream().map(ArchivePostDto::getId).toList());
+    }
+
+    @Test
+    void shouldNotAutosaveOverAPostUpdatedAfterTheSave() {
+        User author = entityManager.persist(User.builder().email("autosave@test.com").password("secret").name("Author").build());
+        Category category = entityManager.persist(Category.builder().name("Drafts").build());
+        UUID id = persist(author, category, PostStatus.DRAFT, MAY);
+        entityManager.clear();
+        LocalDateTime updatedAt = entityManager.find(Post.class, id).getUpdatedAt();
+
+        assertEquals(0, autosave(id, "stale", updatedAt.minusSeconds(1)));
+        assertEquals(1, autosave(id, "latest", updatedAt.plusSeconds(1)));
+        entityManager.clear();
+        Post post = entityManager.find(Post.class, id);
+        assertEquals("latest", post.getContent());
+        assertEquals(updatedAt.plusSeconds(1), post.getUpdatedAt());
+    }
+
+    private int autosave(UUID id, String content, LocalDateTime savedAt) {
+        return postRepository.updateDraftContent(id, PostStatus.DRAFT, "Title", content, 1, "<p>" + content + "</p>", List.of(), 1, savedAt);
+    }
+
+    private UUID persist(User author, Category category, PostStatus status, LocalDateTime createdAt) {
+        Post post = entityManager.persistAndFlush(Post.builder()
+            .title("Title")
+            .content("Some content")
+            .status(status)
+            .readingTime(1)
+            .author(author)
+            .category(category)
+            .build());
+        entityManager.getEntityManager().createNativeQuery("UPDATE posts SET created_at = ?1 WHERE id = ?2")
+            .setParameter(1, createdAt)
+            .setParameter(2, post.getId())
+            .executeUpdate();
+        return post.getId();
+    }
+}
@@ -0,0 +1,46 @@
+package com.stasiu.blog.repositories;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class UpsertStatementTest {
+
+    @Test
+    void shouldUseOnConflictOnPostgresAndMergeElsewhere() throws Exception {
+        assertEquals("ON CONFLICT", upsert("PostgreSQL").sql());
+        assertEquals("MERGE", upsert("H2").sql());
+    }
+
+    @Test
+    void shouldAskTheDatabaseOnlyOnce() throws Exception {
+        DataSource dataSource = dataSource("PostgreSQL");
+        UpsertStatement upsert = new UpsertStatement(new JdbcTemplate(dataSource), "ON CONFLICT", "MERGE");
+
+        upsert.sql();
+        upsert.sql();
+
+        verify(dataSource, times(1)).getConnection();
+    }
+
+    private static UpsertStatement upsert(String product) throws Exception {
+        return new UpsertStatement(new JdbcTemplate(dataSource(product)), "ON CONFLICT", "MERGE");
+    }
+
+    private static DataSource dataSource(String product) throws Exception {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn(product);
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
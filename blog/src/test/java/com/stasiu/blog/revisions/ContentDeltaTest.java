@@ -0,0 +1,69 @@
+package com.stasiu.blog.revisions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ContentDeltaTest {
+
+    @Test
+    void shouldRebuildTheTargetFromTheBase() {
+        byte[] base = bytes("# Heading\n\nThe first paragraph of the post.\n\nThe second paragraph of the post.\n");
+        byte[] target = bytes("# New heading\n\nThe first paragraph of the post.\n\nAn inserted paragraph.\n\nThe second paragraph of the post.\n");
+
+        assertArrayEquals(target, ContentDelta.apply(base, ContentDelta.encode(base, target)));
+    }
+
+    @Test
+    void shouldHandleEmptyAndShortContent() {
+        byte[] empty = new byte[0];
+        byte[] shortContent = bytes("short");
+
+        assertArrayEquals(shortContent, ContentDelta.apply(empty, ContentDelta.encode(empty, shortContent)));
+        assertArrayEquals(empty, ContentDelta.apply(shortContent, ContentDelta.encode(shortContent, empty)));
+        assertArrayEquals(shortContent, ContentDelta.apply(shortContent, ContentDelta.encode(shortContent, shortContent)));
+    }
+
+    @Test
+    void shouldOnlyGrowWithTheBytesThatChanged() {
+        byte[] base = randomText(60_000, 1);
+        byte[] target = new byte[base.length + 20];
+        System.arraycopy(base, 0, target, 0, 30_000);
+        System.arraycopy(bytes("twenty inserted byte"), 0, target, 30_000, 20);
+        System.arraycopy(base, 30_000, target, 30_020, 30_000);
+        target[100] = '#';
+        target[59_000] = '#';
+
+        byte[] delta = ContentDelta.encode(base, target);
+
+        assertArrayEquals(target, ContentDelta.apply(base, delta));
+        assertTrue(delta.length < 100, "Delta took " + delta.length + " bytes");
+    }
+
+    @Test
+    void shouldFallBackToInsertsForUnrelatedContent() {
+        byte[] base = randomText(4_000, 1);
+        byte[] target = randomText(4_000, 2);
+
+        byte[] delta = ContentDelta.encode(base, target);
+
+        assertArrayEquals(target, ContentDelta.apply(base, delta));
+        assertTrue(delta.length <= target.length + 8);
+    }
+
+    private static byte[] randomText(int length, long seed) {
+        Random random = new Random(seed);
+        byte[] text = new byte[length];
+        for(int index = 0; index < length; index++) {
+            text[index] = (byte) ('a' + random.nextInt(26));
+        }
+        return text;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
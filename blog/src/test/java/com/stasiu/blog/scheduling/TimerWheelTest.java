@@ -0,0 +1,66 @@
+package com.stasiu.blog.scheduling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class TimerWheelTest {
+
+    private static final Instant START = Instant.parse("2026-05-01T10:00:00.250Z");
+
+    @Test
+    void shouldReleaseEveryKeyOnTheFirstAdvancePastItsDeadline() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(Duration.ofSeconds(1), START);
+        Random random = new Random(42);
+        Map<Integer, Instant> deadlines = new HashMap<>();
+        for(int key = 0; key < 5_000; key++) {
+            // From a few seconds to a few months ahead, so keys start on every level.
+            long seconds = (long) Math.pow(10, random.nextDouble() * 7);
+            Instant deadline = START.plusSeconds(seconds).plusMillis(random.nextInt(1000));
+            deadlines.put(key, deadline);
+            wheel.schedule(key, deadline);
+        }
+
+        Set<Integer> released = new HashSet<>();
+        Instant now = START;
+        Instant previous = START;
+        while(released.size() < deadlines.size()) {
+            // Irregular steps, as after a pause, a slow tick or a suspended host.
+            now = now.plusSeconds(1 + (long) Math.pow(random.nextDouble() * 20, 3));
+            for(Integer key : wheel.advance(now)) {
+                Instant deadline = deadlines.get(key);
+                assertFalse(deadline.isAfter(now), "Key " + key + " released before its deadline");
+                assertTrue(deadline.isAfter(previous.minusSeconds(1)), "Key " + key + " released late");
+                assertTrue(released.add(key), "Key " + key + " released twice");
+            }
+            previous = now;
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldReplaceAndCancelDeadlines() {
+        TimerWheel<String> wheel = new TimerWheel<>(Duration.ofSeconds(1), START);
+        wheel.schedule("moved", START.plusSeconds(10));
+        wheel.schedule("moved", START.plusSeconds(100_000));
+        wheel.schedule("cancelled", START.plusSeconds(5));
+        wheel.schedule("overdue", START.minusSeconds(60));
+        assertTrue(wheel.cancel("cancelled"));
+        assertFalse(wheel.cancel("unknown"));
+
+        assertEquals(List.of("overdue"), wheel.advance(START));
+        assertEquals(List.of(), wheel.advance(START.plusSeconds(99_999)));
+        assertEquals(START.plusSeconds(100_000).plusMillis(750), wheel.deadline("moved"));
+        assertEquals(List.of("moved"), wheel.advance(START.plusSeconds(100_001)));
+        assertEquals(0, wheel.size());
+    }
+}
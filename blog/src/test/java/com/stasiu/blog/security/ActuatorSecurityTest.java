@@ -0,0 +1,79 @@
+package com.stasiu.blog.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The actuator endpoints live on the management port, which is meant to stay internal; the public
+ * port does not answer them.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+    "spring.datasource.url=jdbc:h2:mem:actuatordb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "management.server.port=0",
+    "management.endpoints.web.exposure.include=health,prometheus,slowqueries"
+})
+@AutoConfigureObservability
+class ActuatorSecurityTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void shouldServeMetricsOnTheManagementPortOnly() throws Exception {
+        assertEquals(200, get(managementPort, "/actuator/prometheus"));
+        assertEquals(200, get(managementPort, "/actuator/health"));
+        assertNotEquals(200, get(serverPort, "/actuator/prometheus"));
+    }
+
+    @Test
+    void shouldNotShowSlowQueriesOnThePublicPortEvenToSignedUpUsers() throws Exception {
+        String email = "actuator-" + UUID.randomUUID() + "@example.com";
+        assertEquals(201, post("/api/v1/auth/signin", "{\"name\":\"Actuator\",\"email\":\"" + email + "\",\"password\":\"password1\"}").statusCode());
+        String token = objectMapper.readTree(post("/api/v1/auth/login", "{\"email\":\"" + email + "\",\"password\":\"password1\"}").body())
+            .get("token").asText();
+
+        assertEquals(403, get(serverPort, "/actuator/slowqueries", token));
+        assertEquals(403, get(managementPort, "/actuator/slowqueries", null));
+        assertEquals(200, get(managementPort, "/actuator/slowqueries", token));
+    }
+
+    private int get(int port, String path) throws Exception {
+        return get(port, path, null);
+    }
+
+    private int get(int port, String path, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET();
+        if(token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + serverPort + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
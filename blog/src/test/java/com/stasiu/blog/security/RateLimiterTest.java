@@ -0,0 +1,115 @@
+package com.stasiu.blog.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stasiu.blog.security.RateLimiter.RateLimitProbe;
+
+import reactor.core.publisher.Mono;
+
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.DAYS.toNanos(1));
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new RateLimiter(3, Duration.ofSeconds(3), clock::get);
+    }
+
+    @Test
+    void shouldAllowBurstUpToCapacity() {
+        assertEquals(2, rateLimiter.tryConsume("ip:1").remaining());
+        assertEquals(1, rateLimiter.tryConsume("ip:1").remaining());
+        assertEquals(0, rateLimiter.tryConsume("ip:1").remaining());
+
+        RateLimitProbe rejected = rateLimiter.tryConsume("ip:1");
+        assertFalse(rejected.allowed());
+        assertEquals(1, rejected.retryAfterSeconds());
+        assertEquals(3, rejected.resetSeconds());
+        assertTrue(rateLimiter.tryConsume("ip:2").allowed());
+    }
+
+    @Test
+    void shouldRefillOverTime() {
+        for(int i = 0; i < 3; i++) {
+            rateLimiter.tryConsume("ip:1");
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertTrue(rateLimiter.tryConsume("ip:1").allowed());
+        assertFalse(rateLimiter.tryConsume("ip:1").allowed());
+    }
+
+    @Test
+    void shouldEvictOnlyFullBuckets() {
+        rateLimiter.tryConsume("ip:1");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        rateLimiter.tryConsume("ip:2");
+
+        assertEquals(1, rateLimiter.evictFullBuckets());
+        assertEquals(1, rateLimiter.size());
+    }
+
+    @Test
+    void shouldRejectWithTooManyRequests() throws Exception {
+        RateLimiter readLimiter = new RateLimiter(1, Duration.ofMinutes(1), clock::get);
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter, readLimiter, rateLimiter, new ObjectMapper());
+
+        MockHttpServletResponse allowed = get(filter, "/api/v1/posts");
+        MockHttpServletResponse rejected = get(filter, "/api/v1/posts");
+
+        assertEquals(200, allowed.getStatus());
+        assertEquals("1", allowed.getHeader("RateLimit-Limit"));
+        assertEquals("0", allowed.getHeader("RateLimit-Remaining"));
+        assertEquals(429, rejected.getStatus());
+        assertEquals("60", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("\"status\":429"));
+    }
+
+    @Test
+    void shouldShareTheReadLimitWithTheReactiveRoutes() throws Exception {
+        RateLimiter readLimiter = new RateLimiter(2, Duration.ofMinutes(1), clock::get);
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter, readLimiter, rateLimiter, new ObjectMapper());
+        ReactiveRateLimitFilter reactiveFilter = new ReactiveRateLimitFilter(readLimiter, new ObjectMapper());
+
+        assertEquals(200, get(filter, "/api/v1/posts").getStatus());
+        MockServerWebExchange allowed = reactiveGet(reactiveFilter, "/api/v1/tags");
+        MockServerWebExchange rejected = reactiveGet(reactiveFilter, "/api/v1/posts");
+
+        assertNull(allowed.getResponse().getStatusCode());
+        assertEquals("0", allowed.getResponse().getHeaders().getFirst("RateLimit-Remaining"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("30", rejected.getResponse().getHeaders().getFirst("Retry-After"));
+        assertTrue(rejected.getResponse().getBodyAsString().block().contains("\"status\":429"));
+        assertEquals(429, get(filter, "/api/v1/posts").getStatus());
+    }
+
+    private MockServerWebExchange reactiveGet(ReactiveRateLimitFilter filter, String uri) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(uri)
+            .remoteAddress(new InetSocketAddress("127.0.0.1", 40000)));
+        filter.filter(exchange, chained -> Mono.empty()).block();
+        return exchange;
+    }
+
+    private MockHttpServletResponse get(RateLimitFilter filter, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
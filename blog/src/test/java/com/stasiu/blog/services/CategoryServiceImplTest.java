@@ -13,6 +13,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import com.stasiu.blog.domain.ResponseCacheTags;
 import com.stasiu.blog.domain.entities.Category;
 import com.stasiu.blog.repositories.CategoryRepository;
 import com.stasiu.blog.services.implementation.CategoryServiceImpl;
@@ -23,6 +24,9 @@ class CategoryServiceImplTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private InvalidationBus invalidationBus;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -39,6 +43,7 @@ class CategoryServiceImplTest {
         assertNotNull(result);
         assertEquals("Test Category", result.getName());
         verify(categoryRepository).save(category);
+        verify(invalidationBus).publishAfterCommit(List.of(ResponseCacheTags.CATEGORIES));
     }
 
     @Test
@@ -62,6 +67,7 @@ class CategoryServiceImplTest {
         categoryService.deleteCategory(id);
 
         verify(categoryRepository).deleteById(id);
+        verify(invalidationBus).publishAfterCommit(List.of(ResponseCacheTags.CATEGORIES, ResponseCacheTags.category(id)));
     }
 
 }
\ No newline at end of file
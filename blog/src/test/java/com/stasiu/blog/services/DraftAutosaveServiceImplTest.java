@@ -0,0 +1,165 @@
+package com.stasiu.blog.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.stasiu.blog.domain.AutosaveDraftRequest;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.User;
+import com.stasiu.blog.services.implementation.DraftAutosaveServiceImpl;
+
+import jakarta.persistence.EntityNotFoundException;
+
+class DraftAutosaveServiceImplTest {
+
+    private PostService postService;
+    private UUID authorId;
+    private Post draft;
+
+    @BeforeEach
+    void setUp() {
+        postService = mock(PostService.class);
+        authorId = UUID.randomUUID();
+        draft = Post.builder()
+            .id(UUID.randomUUID())
+            .status(PostStatus.DRAFT)
+            .author(User.builder().id(authorId).build())
+            .build();
+        when(postService.getPost(draft.getId())).thenReturn(draft);
+        when(postService.autosaveDraft(eq(draft.getId()), any(), any())).thenReturn(true);
+    }
+
+    @Test
+    void shouldWriteOnlyTheLatestSaveOncePerQuietPeriod() {
+        DraftAutosaveServiceImpl autosaveService = new DraftAutosaveServiceImpl(postService, Duration.ZERO, Duration.ofHours(1));
+        autosaveService.autosave(draft.getId(), authorId, request("first"));
+        autosaveService.autosave(draft.getId(), authorId, request("second"));
+        autosaveService.autosave(draft.getId(), authorId, request("third"));
+
+        assertEquals(1, autosaveService.flush());
+        assertEquals(0, autosaveService.flush());
+
+        ArgumentCaptor<AutosaveDraftRequest> written = ArgumentCaptor.forClass(AutosaveDraftRequest.class);
+        verify(postService).autosaveDraft(eq(draft.getId()), written.capture(), any());
+        assertEquals("third", written.getValue().getContent());
+        verify(postService, times(1)).getPost(draft.getId());
+    }
+
+    @Test
+    void shouldHoldSavesUntilTheEditorIsQuiet() {
+        DraftAutosaveServiceImpl autosaveService = new DraftAutosaveServiceImpl(postService, Duration.ofHours(1), Duration.ofHours(2));
+        autosaveService.autosave(draft.getId(), authorId, request("content"));
+
+        assertEquals(0, autosaveService.flush());
+        verify(postService, never()).autosaveDraft(any(), any(), any());
+
+        autosaveService.flushOnShutdown();
+        verify(postService).autosaveDraft(eq(draft.getId()), any(), any());
+    }
+
+    @Test
+    void shouldWriteAfterMaxDelayEvenIfTheEditorKeepsSaving() {
+        DraftAutosaveServiceImpl autosaveService = new DraftAutosaveServiceImpl(postService, Duration.ofHours(1), Duration.ZERO);
+        autosaveService.autosave(draft.getId(), authorId, request("content"));
+
+        assertEquals(1, autosaveService.flush());
+    }
+
+    @Test
+    void shouldDropDiscardedSaves() {
+        DraftAutosaveServiceImpl autosaveService = new DraftAutosaveServiceImpl(postService, Duration.ZERO, Duration.ZERO);
+        autosaveService.autosave(draft.getId(), authorId, request("content"));
+        autosaveService.discard(draft.getId());
+
+        assertEquals(0, autosaveService.flush());
+        verify(postService, never()).autosaveDraft(any(), any(), any());
+    }
+
+    @Test
+    void shouldWriteWithTheTimeOfTheLatestSave() {
+        DraftAutosaveServiceImpl autosaveService = new DraftAutosaveServiceImpl(postService, Duration.ZERO, Duration.ofHours(1));
+        autosaveService.autosave(draft.getId(), authorId, request("first"));
+        LocalDateTime betweenSaves = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        autosaveService.autosave(draft.getId(), authorId, request("second"));
+        LocalDateTime after = LocalDateTime.now();
+
+        autosaveService.flush();
+
+        ArgumentCaptor<LocalDateTime> savedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(postService).autosaveDraft(eq(draft.getId()), any(), savedAt.capture());
+        assertFalse(savedAt.getValue().isBefore(betweenSaves));
+        assertFalse(savedAt.getValue().isAfter(after));
+    }
+
+    @Test
+    void shouldLetDiscardWaitForAFlushInProgress() throws Exception {
+        DraftAutosaveServiceImpl autosaveService = new DraftAutosaveServiceImpl(postService, Duration.ZERO, Duration.ZERO);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(postService.autosaveDraft(eq(draft.getId()), any(), any())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return true;
+        });
+        autosaveService.autosave(draft.getId(), authorId, request("content"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            executor.submit(autosaveService::flush);
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            Future<?> discard = executor.submit(() -> autosaveService.discard(draft.getId()));
+            assertThrows(TimeoutException.class, () -> discard.get(100, TimeUnit.MILLISECONDS));
+
+            release.countDown();
+            discard.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldKeepSaveForNextFlushWhenWriteFails() {
+        DraftAutosaveServiceImpl autosaveService = new DraftAutosaveServiceImpl(postService, Duration.ZERO, Duration.ZERO);
+        when(postService.autosaveDraft(eq(draft.getId()), any(), any()))
+            .thenThrow(new DataAccessResourceFailureException("database down"))
+            .thenReturn(true);
+        autosaveService.autosave(draft.getId(), authorId, request("content"));
+
+        assertEquals(0, autosaveService.flush());
+        assertEquals(1, autosaveService.flush());
+    }
+
+    @Test
+    void shouldRejectPublishedPostsAndOtherAuthorsDrafts() {
+        DraftAutosaveServiceImpl autosaveService = new DraftAutosaveServiceImpl(postService, Duration.ZERO, Duration.ZERO);
+
+        assertThrows(EntityNotFoundException.class, () -> autosaveService.autosave(draft.getId(), UUID.randomUUID(), request("content")));
+
+        draft.setStatus(PostStatus.PUBLISHED);
+        assertThrows(IllegalStateException.class, () -> autosaveService.autosave(draft.getId(), authorId, request("content")));
+    }
+
+    private AutosaveDraftRequest request(String content) {
+        return new AutosaveDraftRequest("Draft", content);
+    }
+}
@@ -0,0 +1,104 @@
+package com.stasiu.blog.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.stasiu.blog.domain.FeedDocument;
+import com.stasiu.blog.domain.FeedEntry;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.ResponseCacheTags;
+import com.stasiu.blog.domain.SitemapEntry;
+import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.services.implementation.FeedServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FeedServiceImplTest {
+
+    private final UUID categoryId = UUID.randomUUID();
+    private final UUID otherCategoryId = UUID.randomUUID();
+    private final UUID postId = UUID.randomUUID();
+
+    private PostRepository postRepository;
+    private CategoryService categoryService;
+    private FeedServiceImpl feedService;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        categoryService = mock(CategoryService.class);
+        FeedEntry entry = new FeedEntry(postId, "Fish & <chips>", "Alice", "Food",
+            LocalDateTime.of(2024, 5, 1, 10, 0), LocalDateTime.of(2024, 5, 2, 10, 0));
+        when(postRepository.findFeedEntries(eq(PostStatus.PUBLISHED), any())).thenReturn(List.of(entry));
+        when(postRepository.findFeedEntriesByCategory(eq(PostStatus.PUBLISHED), eq(categoryId), any())).thenReturn(List.of(entry));
+        when(postRepository.findSitemapEntries(eq(PostStatus.PUBLISHED), any()))
+            .thenReturn(List.of(new SitemapEntry(postId, LocalDateTime.of(2024, 5, 2, 10, 0))));
+        when(categoryService.getCategoryById(categoryId)).thenReturn(Category.builder().id(categoryId).name("Food").build());
+        feedService = new FeedServiceImpl(postRepository, categoryService, mock(TagService.class),
+            new SimpleMeterRegistry(), "https://blog.example.com/", "Blog", 20);
+    }
+
+    @Test
+    void shouldWriteEscapedAtomAndGzipIt() {
+        FeedDocument feed = feedService.getFeed(null, null);
+
+        String xml = new String(feed.body(), StandardCharsets.UTF_8);
+        assertTrue(xml.contains("<feed xmlns=\"http://www.w3.org/2005/Atom\">"));
+        assertTrue(xml.contains("<title>Fish &amp; &lt;chips&gt;</title>"));
+        assertTrue(xml.contains("<link rel=\"alternate\" href=\"https://blog.example.com/posts/" + postId + "\""));
+        assertTrue(xml.contains("<id>urn:uuid:" + postId + "</id>"));
+        assertArrayEquals(feed.body(), gunzip(feed.gzippedBody()));
+        assertTrue(feed.etag().startsWith("\""));
+    }
+
+    @Test
+    void shouldServeCachedDocumentsUntilAChangeInScopeIsReported() {
+        FeedDocument global = feedService.getFeed(null, null);
+        FeedDocument category = feedService.getFeed(categoryId, null);
+        feedService.getSitemap();
+
+        assertSame(global, feedService.getFeed(null, null));
+        feedService.onInvalidation(Set.of(ResponseCacheTags.CATEGORIES, ResponseCacheTags.category(otherCategoryId)), false);
+        assertSame(global, feedService.getFeed(null, null));
+
+        feedService.onInvalidation(Set.of(ResponseCacheTags.POSTS, ResponseCacheTags.category(otherCategoryId)), true);
+        assertNotSame(global, feedService.getFeed(null, null));
+        assertSame(category, feedService.getFeed(categoryId, null));
+
+        feedService.onInvalidation(Set.of(ResponseCacheTags.post(postId), ResponseCacheTags.category(categoryId)), true);
+        assertNotSame(category, feedService.getFeed(categoryId, null));
+
+        verify(postRepository, times(2)).findFeedEntries(eq(PostStatus.PUBLISHED), any());
+        verify(postRepository, times(2)).findFeedEntriesByCategory(eq(PostStatus.PUBLISHED), eq(categoryId), any());
+        verify(postRepository, times(1)).findSitemapEntries(eq(PostStatus.PUBLISHED), any());
+    }
+
+    @Test
+    void shouldRejectFilteringByCategoryAndTag() {
+        assertThrows(IllegalArgumentException.class, () -> feedService.getFeed(categoryId, UUID.randomUUID()));
+    }
+
+    private static byte[] gunzip(byte[] gzipped) {
+        try(GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return in.readAllBytes();
+        } catch(IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.stasiu.blog.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.stasiu.blog.domain.EngagementType;
+import com.stasiu.blog.domain.InvalidationMessage;
+import com.stasiu.blog.domain.PostMetadata;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.PostTagRow;
+import com.stasiu.blog.domain.ResponseCacheTags;
+import com.stasiu.blog.domain.dtos.RelatedPostDto;
+import com.stasiu.blog.domain.dtos.TrendingPostDto;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.repositories.PostTrendingScoreRepository;
+import com.stasiu.blog.services.implementation.InMemoryInvalidationTransport;
+import com.stasiu.blog.services.implementation.InvalidationBusImpl;
+import com.stasiu.blog.services.implementation.RelatedPostsServiceImpl;
+import com.stasiu.blog.services.implementation.TrendingServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class InvalidationBusImplTest {
+
+    private InMemoryInvalidationTransport transport;
+    private RecordingListener writerListener;
+    private RecordingListener readerListener;
+    private InvalidationBusImpl writer;
+    private InvalidationBusImpl reader;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        transport = new InMemoryInvalidationTransport();
+        meterRegistry = new SimpleMeterRegistry();
+        writerListener = new RecordingListener();
+        readerListener = new RecordingListener();
+        writer = new InvalidationBusImpl(transport, List.of(writerListener), new SimpleMeterRegistry(), 2, Duration.ofHours(1));
+        reader = new InvalidationBusImpl(transport, List.of(readerListener), meterRegistry, 2, Duration.ofHours(1));
+    }
+
+    @Test
+    void shouldInvalidateLocallyOnCommitAndRemotelyOnFlush() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.publishAfterCommit(List.of(ResponseCacheTags.CATEGORIES));
+            assertTrue(writerListener.invalidations.isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(Set.of(ResponseCacheTags.CATEGORIES)), writerListener.invalidations);
+        assertEquals(List.of(false), writerListener.remote);
+        assertTrue(readerListener.invalidations.isEmpty());
+
+        assertEquals(1, writer.flush());
+
+        assertEquals(List.of(Set.of(ResponseCacheTags.CATEGORIES)), readerListener.invalidations);
+        assertEquals(List.of(true), readerListener.remote);
+        assertEquals(1, writerListener.invalidations.size());
+    }
+
+    @Test
+    void shouldSendEachChangedTagOnceInBatches() {
+        UUID postId = UUID.randomUUID();
+        writer.publishAfterCommit(List.of(ResponseCacheTags.POSTS, ResponseCacheTags.post(postId)));
+        writer.publishAfterCommit(List.of(ResponseCacheTags.POSTS, ResponseCacheTags.post(postId), ResponseCacheTags.TAGS));
+
+        assertEquals(2, writer.flush());
+
+        assertEquals(Set.of(ResponseCacheTags.POSTS, ResponseCacheTags.post(postId), ResponseCacheTags.TAGS),
+            readerListener.invalidations.stream().flatMap(Set::stream).collect(Collectors.toSet()));
+        assertEquals(3, readerListener.invalidations.stream().mapToInt(Set::size).sum());
+        assertEquals(0, writer.flush());
+    }
+
+    @Test
+    void shouldFlushEverythingWhenAMessageIsMissing() {
+        UUID nodeId = UUID.randomUUID();
+        reader.onMessage(new InvalidationMessage(nodeId, 1, false, Set.of(ResponseCacheTags.TAGS)));
+        reader.onMessage(new InvalidationMessage(nodeId, 3, false, Set.of(ResponseCacheTags.CATEGORIES)));
+
+        assertEquals(List.of(Set.of(ResponseCacheTags.TAGS)), readerListener.invalidations);
+        assertEquals(1, readerListener.fullFlushes);
+        assertEquals(1.0, meterRegistry.get("blog.invalidation.full-flushes").tag("reason", "gap").counter().count());
+
+        reader.onMessage(new InvalidationMessage(nodeId, 3, false, Set.of(ResponseCacheTags.CATEGORIES)));
+        reader.onMessage(new InvalidationMessage(nodeId, 4, false, Set.of(ResponseCacheTags.POSTS)));
+
+        assertEquals(List.of(Set.of(ResponseCacheTags.TAGS), Set.of(ResponseCacheTags.POSTS)), readerListener.invalidations);
+        assertEquals(1, readerListener.fullFlushes);
+    }
+
+    @Test
+    void shouldFlushEverythingWhenTheTransportLostMessages() {
+        reader.onMessagesLost();
+
+        assertEquals(1, readerListener.fullFlushes);
+    }
+
+    @Test
+    void shouldAskForAFullFlushWhenTooManyTagsChanged() {
+        List<String> tags = new ArrayList<>();
+        for(int i = 0; i < 21; i++) {
+            tags.add(ResponseCacheTags.post(UUID.randomUUID()));
+        }
+        writer.publishAfterCommit(tags);
+
+        assertEquals(1, writer.flush());
+
+        assertTrue(readerListener.invalidations.isEmpty());
+        assertEquals(1, readerListener.fullFlushes);
+    }
+
+    @Test
+    void shouldKeepTheProjectionsOfTheOtherNodeCurrent() {
+        PostRepository postRepository = mock(PostRepository.class);
+        Node first = new Node(postRepository);
+        Node second = new Node(postRepository);
+        UUID categoryId = UUID.randomUUID();
+        UUID tagId = UUID.randomUUID();
+        PostMetadata existing = metadata(categoryId, tagId);
+        PostMetadata created = metadata(categoryId, tagId);
+        first.save(existing);
+        second.save(existing);
+
+        // Saved on the first node, which applies it as it commits and tells the second one.
+        first.save(created);
+        when(postRepository.findTagRowsByIdInAndStatus(anyCollection(), eq(PostStatus.PUBLISHED)))
+            .thenReturn(List.of(new PostTagRow(created.getId(), created.getTitle(), categoryId, tagId, created.getCreatedAt())));
+        first.bus.publishAfterCommit(List.of(ResponseCacheTags.POSTS, ResponseCacheTags.post(created.getId())));
+        first.bus.flush();
+
+        second.trendingService.recordEngagement(created.getId(), EngagementType.VIEW);
+        assertEquals(List.of(created.getId()),
+            second.trendingService.getTrending(null, tagId, 10).stream().map(TrendingPostDto::getId).toList());
+        assertEquals(List.of(created.getId()),
+            second.relatedPostsService.getRelatedPosts(existing.getId(), 10).stream().map(RelatedPostDto::getId).toList());
+
+        // Unpublished on the first node; the second one no longer finds it published.
+        first.trendingService.onPostDeleted(created.getId());
+        first.relatedPostsService.onPostDeleted(created.getId());
+        when(postRepository.findTagRowsByIdInAndStatus(anyCollection(), eq(PostStatus.PUBLISHED))).thenReturn(List.of());
+        first.bus.publishAfterCommit(List.of(ResponseCacheTags.POSTS, ResponseCacheTags.post(created.getId())));
+        first.bus.flush();
+
+        assertTrue(second.trendingService.getTrending(null, null, 10).isEmpty());
+        assertTrue(second.relatedPostsService.getRelatedPosts(existing.getId(), 10).isEmpty());
+        assertTrue(second.relatedPostsService.getRelatedPosts(created.getId(), 10).isEmpty());
+    }
+
+    private PostMetadata metadata(UUID categoryId, UUID tagId) {
+        return PostMetadata.builder()
+            .id(UUID.randomUUID())
+            .title("Post")
+            .categoryId(categoryId)
+            .tagIds(Set.of(tagId))
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+
+    // One instance of the application: its projections and the bus that keeps them current.
+    private class Node {
+
+        private final TrendingServiceImpl trendingService;
+        private final RelatedPostsServiceImpl relatedPostsService;
+        private final InvalidationBusImpl bus;
+
+        private Node(PostRepository postRepository) {
+            trendingService = new TrendingServiceImpl(
+                postRepository, mock(PostTrendingScoreRepository.class), mock(TransactionTemplate.class), 24, 0.05);
+            relatedPostsService = new RelatedPostsServiceImpl(postRepository, 10);
+            bus = new InvalidationBusImpl(transport, List.of(trendingService, relatedPostsService),
+                new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+        }
+
+        private void save(PostMetadata post) {
+            trendingService.onPostSaved(post, PostStatus.PUBLISHED);
+            relatedPostsService.onPostSaved(post, PostStatus.PUBLISHED);
+        }
+    }
+
+    private static class RecordingListener implements InvalidationListener {
+
+        private final List<Set<String>> invalidations = new ArrayList<>();
+        private final List<Boolean> remote = new ArrayList<>();
+        private int fullFlushes;
+
+        @Override
+        public void onInvalidation(Set<String> tags, boolean remote) {
+            invalidations.add(tags);
+            this.remote.add(remote);
+        }
+
+        @Override
+        public void onFullFlush() {
+            fullFlushes++;
+        }
+    }
+}
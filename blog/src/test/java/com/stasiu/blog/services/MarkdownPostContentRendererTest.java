@@ -0,0 +1,58 @@
+package com.stasiu.blog.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.stasiu.blog.domain.RenderedContent;
+import com.stasiu.blog.domain.TocEntry;
+import com.stasiu.blog.services.implementation.MarkdownPostContentRenderer;
+
+class MarkdownPostContentRendererTest {
+
+    private final MarkdownPostContentRenderer renderer = new MarkdownPostContentRenderer();
+
+    @Test
+    void shouldRenderMarkdownWithHeadingAnchors() {
+        RenderedContent rendered = renderer.render("# Getting started\n\nSome *text*.\n\n## Setup\n\nMore text.");
+
+        assertTrue(rendered.getHtml().contains("<h1 id=\"getting-started\">Getting started</h1>"));
+        assertTrue(rendered.getHtml().contains("<em>text</em>"));
+
+        List<TocEntry> toc = rendered.getTableOfContents();
+        assertEquals(2, toc.size());
+        assertEquals(1, toc.get(0).getLevel());
+        assertEquals("Getting started", toc.get(0).getText());
+        assertEquals("getting-started", toc.get(0).getAnchor());
+        assertEquals(2, toc.get(1).getLevel());
+        assertEquals("setup", toc.get(1).getAnchor());
+    }
+
+    @Test
+    void shouldStripUnsafeHtml() {
+        RenderedContent rendered = renderer.render("Hello <script>alert(1)</script> <a href=\"javascript:alert(1)\" onclick=\"x()\">link</a>");
+
+        assertFalse(rendered.getHtml().contains("<script"));
+        assertFalse(rendered.getHtml().contains("javascript:"));
+        assertFalse(rendered.getHtml().contains("onclick"));
+        assertTrue(rendered.getHtml().contains("link"));
+    }
+
+    @Test
+    void shouldKeepInPageAndRelativeLinks() {
+        RenderedContent rendered = renderer.render("[Jump](#setup) and [other post](/posts/1)");
+
+        assertTrue(rendered.getHtml().contains("href=\"#setup\""));
+        assertTrue(rendered.getHtml().contains("href=\"/posts/1\""));
+    }
+
+    @Test
+    void shouldReturnEmptyRenderingForBlankContent() {
+        RenderedContent rendered = renderer.render("  ");
+
+        assertEquals("", rendered.getHtml());
+        assertTrue(rendered.getTableOfContents().isEmpty());
+    }
+}
@@ -0,0 +1,160 @@
+package com.stasiu.blog.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import com.stasiu.blog.domain.MediaFile;
+import com.stasiu.blog.domain.MediaVariant;
+import com.stasiu.blog.domain.entities.Media;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.User;
+import com.stasiu.blog.repositories.MediaRepository;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.services.implementation.MediaServiceImpl;
+import com.stasiu.blog.services.implementation.ThumbnailServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+
+class MediaServiceImplTest {
+
+    @TempDir
+    Path directory;
+
+    private final UUID authorId = UUID.randomUUID();
+    private final Post post = Post.builder().id(UUID.randomUUID()).author(User.builder().id(authorId).build()).build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MediaRepository mediaRepository;
+    private ThumbnailServiceImpl thumbnailService;
+    private MediaServiceImpl mediaService;
+
+    @BeforeEach
+    void setUp() {
+        mediaRepository = mock(MediaRepository.class);
+        when(mediaRepository.save(any(Media.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        PostRepository postRepository = mock(PostRepository.class);
+        when(postRepository.findById(post.getId())).thenReturn(Optional.of(post));
+        thumbnailService = new ThumbnailServiceImpl(directory, 1, 10, meterRegistry);
+        mediaService = new MediaServiceImpl(mediaRepository, postRepository, thumbnailService,
+            mock(PlatformTransactionManager.class), meterRegistry, directory, DataSize.ofKilobytes(64), Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        thumbnailService.shutdown();
+    }
+
+    @Test
+    void shouldStoreIdenticalUploadsOnceAndRenderTheirVariants() throws Exception {
+        byte[] image = png(1200, 600);
+
+        Media first = mediaService.upload(post.getId(), authorId, "C:\\photos\\holiday.png", new ByteArrayInputStream(image));
+        Media second = mediaService.upload(post.getId(), authorId, "copy.png", new ByteArrayInputStream(image));
+
+        assertEquals("image/png", first.getContentType());
+        assertEquals(image.length, first.getSize());
+        assertEquals("holiday.png", first.getFilename());
+        assertEquals(first.getContentHash(), second.getContentHash());
+        assertEquals(1, regularFiles(directory.resolve("blobs")));
+        assertEquals(0, regularFiles(directory.resolve("staging")));
+        assertEquals(1.0, meterRegistry.get("blog.media.uploads.deduplicated").counter().count());
+
+        when(mediaRepository.findById(first.getId())).thenReturn(Optional.of(first));
+        MediaFile thumbnail = awaitVariant(first, MediaVariant.THUMBNAIL);
+        BufferedImage rendered = ImageIO.read(thumbnail.path().toFile());
+        assertEquals(200, rendered.getWidth());
+        assertEquals(100, rendered.getHeight());
+        assertEquals("\"" + first.getContentHash() + "-thumbnail\"", thumbnail.etag());
+        assertEquals(400, ImageIO.read(awaitVariant(first, MediaVariant.MEDIUM).path().toFile()).getHeight());
+    }
+
+    @Test
+    void shouldRejectUnsupportedAndOversizedUploadsWithoutKeepingThem() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> mediaService.upload(post.getId(), authorId, "notes.txt",
+            new ByteArrayInputStream("plain text".getBytes())));
+
+        byte[] oversized = new byte[128 * 1024];
+        oversized[0] = (byte) 0xFF;
+        oversized[1] = (byte) 0xD8;
+        oversized[2] = (byte) 0xFF;
+        assertThrows(IllegalArgumentException.class, () -> mediaService.upload(post.getId(), authorId, "big.jpg",
+            new ByteArrayInputStream(oversized)));
+
+        assertThrows(EntityNotFoundException.class, () -> mediaService.upload(post.getId(), UUID.randomUUID(), "a.png",
+            new ByteArrayInputStream(png(10, 10))));
+
+        assertEquals(0, regularFiles(directory.resolve("staging")));
+        assertEquals(0, regularFiles(directory.resolve("blobs")));
+        verify(mediaRepository, never()).save(any(Media.class));
+    }
+
+    @Test
+    void shouldNotQueueAnUndecodableImageAgain() throws Exception {
+        byte[] broken = Arrays.copyOf(png(10, 10), 40);
+        Media media = mediaService.upload(post.getId(), authorId, "broken.png", new ByteArrayInputStream(broken));
+        when(mediaRepository.findById(media.getId())).thenReturn(Optional.of(media));
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while(meterRegistry.get("blog.media.thumbnails.failed").counter().count() < 1) {
+            assertTrue(System.nanoTime() < deadline, "Decoding did not fail");
+            Thread.sleep(20);
+        }
+
+        assertThrows(EntityNotFoundException.class, () -> mediaService.getVariant(media.getId(), MediaVariant.THUMBNAIL));
+        assertThrows(EntityNotFoundException.class, () -> mediaService.getVariant(media.getId(), MediaVariant.MEDIUM));
+
+        // The pool has one thread, so a render queued by the requests above would finish before this one.
+        Media valid = mediaService.upload(post.getId(), authorId, "valid.png", new ByteArrayInputStream(png(20, 20)));
+        when(mediaRepository.findById(valid.getId())).thenReturn(Optional.of(valid));
+        awaitVariant(valid, MediaVariant.THUMBNAIL);
+        assertEquals(1.0, meterRegistry.get("blog.media.thumbnails.failed").counter().count());
+    }
+
+    private MediaFile awaitVariant(Media media, MediaVariant variant) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while(true) {
+            try {
+                return mediaService.getVariant(media.getId(), variant);
+            } catch(EntityNotFoundException ex) {
+                assertTrue(System.nanoTime() < deadline, "Variant was not rendered");
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private static long regularFiles(Path path) throws Exception {
+        if(!Files.exists(path)) {
+            return 0;
+        }
+        try(Stream<Path> files = Files.walk(path)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.stasiu.blog.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stasiu.blog.domain.OutboxBacklog;
+import com.stasiu.blog.domain.OutboxStatus;
+import com.stasiu.blog.domain.PostMetadata;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.entities.OutboxEvent;
+import com.stasiu.blog.domain.events.PostCreated;
+import com.stasiu.blog.domain.events.PostDeleted;
+import com.stasiu.blog.domain.events.PostEvent;
+import com.stasiu.blog.domain.events.PostUpdated;
+import com.stasiu.blog.repositories.OutboxEventRepository;
+import com.stasiu.blog.services.implementation.OutboxServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OutboxServiceImplTest {
+
+    private OutboxEventRepository outboxEventRepository;
+    private ObjectMapper objectMapper;
+    private SimpleMeterRegistry meterRegistry;
+    private List<PostEvent> delivered;
+    private boolean listenerFails;
+    private UUID failingPostId;
+    private OutboxServiceImpl outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        when(outboxEventRepository.findBacklog(OutboxStatus.PENDING)).thenReturn(new OutboxBacklog(0, null));
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        meterRegistry = new SimpleMeterRegistry();
+        delivered = new ArrayList<>();
+        PostEventListener listener = event -> {
+            if(listenerFails || event.postId().equals(failingPostId)) {
+                throw new IllegalStateException("listener failed");
+            }
+            delivered.add(event);
+        };
+        outboxService = new OutboxServiceImpl(
+            outboxEventRepository,
+            List.of(listener),
+            objectMapper,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            meterRegistry,
+            100,
+            3,
+            Duration.ofSeconds(1),
+            Duration.ofMinutes(5),
+            Duration.ofDays(7)
+        );
+    }
+
+    @Test
+    void shouldStoreEventsAsPendingRowsKeyedByPost() throws Exception {
+        PostUpdated event = new PostUpdated(metadata(), PostStatus.PUBLISHED, UUID.randomUUID(), Set.of(UUID.randomUUID()), PostStatus.DRAFT);
+
+        outboxService.append(event);
+
+        ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(saved.capture());
+        assertEquals(event.postId(), saved.getValue().getAggregateId());
+        assertEquals("PostUpdated", saved.getValue().getEventType());
+        assertEquals(OutboxStatus.PENDING, saved.getValue().getStatus());
+        assertEquals(event, objectMapper.readValue(saved.getValue().getPayload(), PostEvent.class));
+    }
+
+    @Test
+    void shouldDeliverPendingEventsInOrderAndMarkThemProcessed() throws Exception {
+        PostCreated created = new PostCreated(metadata(), PostStatus.PUBLISHED);
+        PostDeleted deleted = new PostDeleted(metadata(), PostStatus.PUBLISHED);
+        OutboxEvent first = pending(1L, created);
+        OutboxEvent second = pending(2L, deleted);
+        when(outboxEventRepository.findDispatchable(eq(OutboxStatus.PENDING), any(), any()))
+            .thenReturn(List.of(first, second))
+            .thenReturn(List.of());
+
+        assertEquals(2, outboxService.dispatch());
+
+        assertEquals(List.of(created, deleted), delivered);
+        assertEquals(OutboxStatus.PROCESSED, first.getStatus());
+        assertEquals(OutboxStatus.PROCESSED, second.getStatus());
+        assertNotNull(first.getProcessedAt());
+        assertEquals(2, meterRegistry.get("blog.outbox.delivery.lag").timer().count());
+    }
+
+    @Test
+    void shouldRetryFailedDeliveriesWithBackoffAndGiveUpAfterMaxAttempts() throws Exception {
+        OutboxEvent event = pending(1L, new PostCreated(metadata(), PostStatus.PUBLISHED));
+        when(outboxEventRepository.findDispatchable(eq(OutboxStatus.PENDING), any(), any()))
+            .thenReturn(List.of(event)).thenReturn(List.of())
+            .thenReturn(List.of(event)).thenReturn(List.of())
+            .thenReturn(List.of(event)).thenReturn(List.of());
+        when(outboxEventRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(event));
+        listenerFails = true;
+
+        Instant beforeFirstAttempt = Instant.now();
+        outboxService.dispatch();
+        assertEquals(OutboxStatus.PENDING, event.getStatus());
+        assertEquals(1, event.getAttempts());
+        assertFalse(event.getAvailableAt().isBefore(beforeFirstAttempt.plusSeconds(1)));
+        assertTrue(event.getLastError().contains("listener failed"));
+
+        Instant beforeSecondAttempt = Instant.now();
+        outboxService.dispatch();
+        assertEquals(2, event.getAttempts());
+        assertFalse(event.getAvailableAt().isBefore(beforeSecondAttempt.plusSeconds(2)));
+
+        outboxService.dispatch();
+        assertEquals(OutboxStatus.FAILED, event.getStatus());
+        assertEquals(3, event.getAttempts());
+        assertEquals(1.0, meterRegistry.get("blog.outbox.events").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    void shouldHoldBackOnlyTheFailingEventOfABatch() throws Exception {
+        PostCreated failing = new PostCreated(metadata(), PostStatus.PUBLISHED);
+        PostCreated next = new PostCreated(metadata(), PostStatus.PUBLISHED);
+        OutboxEvent first = pending(1L, failing);
+        OutboxEvent second = pending(2L, next);
+        when(outboxEventRepository.findDispatchable(eq(OutboxStatus.PENDING), any(), any()))
+            .thenReturn(List.of(first, second))
+            .thenReturn(List.of(second))
+            .thenReturn(List.of());
+        when(outboxEventRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(first));
+        failingPostId = failing.postId();
+
+        assertEquals(2, outboxService.dispatch());
+
+        assertEquals(List.of(next), delivered);
+        assertEquals(OutboxStatus.PENDING, first.getStatus());
+        assertEquals(1, first.getAttempts());
+        assertEquals(OutboxStatus.PROCESSED, second.getStatus());
+        assertEquals(1.0, meterRegistry.get("blog.outbox.events").tag("outcome", "retry").counter().count());
+    }
+
+    private OutboxEvent pending(Long id, PostEvent event) throws Exception {
+        Instant now = Instant.now();
+        return OutboxEvent.builder()
+            .id(id)
+            .aggregateId(event.postId())
+            .eventType(event.getClass().getSimpleName())
+            .payload(objectMapper.writeValueAsString(event))
+            .status(OutboxStatus.PENDING)
+            .createdAt(now)
+            .availableAt(now)
+            .build();
+    }
+
+    private PostMetadata metadata() {
+        return PostMetadata.builder()
+            .id(UUID.randomUUID())
+            .title("Post")
+            .categoryId(UUID.randomUUID())
+            .tagIds(Set.of(UUID.randomUUID()))
+            .createdAt(LocalDateTime.now().withNano(0))
+            .build();
+    }
+}
@@ -0,0 +1,102 @@
+package com.stasiu.blog.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.stasiu.blog.domain.PostFilter;
+import com.stasiu.blog.domain.PostMetadata;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.PostTagRow;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.services.implementation.PostIndexServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PostIndexServiceImplTest {
+
+    private final UUID java = UUID.randomUUID();
+    private final UUID go = UUID.randomUUID();
+    private final UUID spring = UUID.randomUUID();
+    private final UUID testing = UUID.randomUUID();
+    private final UUID beginner = UUID.randomUUID();
+
+    private final UUID springPost = UUID.randomUUID();
+    private final UUID testingPost = UUID.randomUUID();
+    private final UUID springTestingPost = UUID.randomUUID();
+    private final UUID goPost = UUID.randomUUID();
+
+    private PostRepository postRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private PostIndexServiceImpl postIndexService;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        LocalDateTime now = LocalDateTime.now();
+        when(postRepository.findTagRowsByStatus(PostStatus.PUBLISHED)).thenReturn(List.of(
+            new PostTagRow(springPost, "Spring", java, spring, now),
+            new PostTagRow(springPost, "Spring", java, beginner, now),
+            new PostTagRow(testingPost, "Testing", java, testing, now),
+            new PostTagRow(springTestingPost, "Spring testing", java, spring, now),
+            new PostTagRow(springTestingPost, "Spring testing", java, testing, now),
+            new PostTagRow(goPost, "Go", go, testing, now)
+        ));
+        meterRegistry = new SimpleMeterRegistry();
+        postIndexService = new PostIndexServiceImpl(postRepository, meterRegistry);
+        postIndexService.rebuild();
+    }
+
+    @Test
+    void shouldCombineCategoryAndTagFilters() {
+        assertEquals(Set.of(springPost, testingPost, springTestingPost), find(PostFilter.builder().categoryId(java).build()));
+        assertEquals(Set.of(springTestingPost), find(PostFilter.builder().allTags(Set.of(spring, testing)).build()));
+        assertEquals(Set.of(springPost, springTestingPost, goPost, testingPost), find(PostFilter.builder().anyTags(Set.of(spring, testing)).build()));
+        assertEquals(Set.of(springTestingPost, testingPost), find(PostFilter.builder()
+            .categoryId(java)
+            .anyTags(Set.of(spring, testing))
+            .noneTags(Set.of(beginner))
+            .build()));
+        assertEquals(Set.of(), find(PostFilter.builder().allTags(Set.of(UUID.randomUUID())).build()));
+        assertEquals(Set.of(springPost, testingPost, springTestingPost, goPost), find(PostFilter.builder().noneTags(Set.of(UUID.randomUUID())).build()));
+    }
+
+    @Test
+    void shouldFollowPostChanges() {
+        postIndexService.onPostSaved(metadata(testingPost, go, Set.of(spring)), PostStatus.PUBLISHED);
+        UUID newPost = UUID.randomUUID();
+        postIndexService.onPostSaved(metadata(newPost, java, Set.of(spring, testing)), PostStatus.PUBLISHED);
+        postIndexService.onPostSaved(metadata(springPost, java, Set.of(spring, beginner)), PostStatus.DRAFT);
+        postIndexService.onPostDeleted(goPost);
+
+        assertEquals(Set.of(springTestingPost, newPost), find(PostFilter.builder().categoryId(java).build()));
+        assertEquals(Set.of(testingPost, springTestingPost, newPost), find(PostFilter.builder().allTags(Set.of(spring)).build()));
+        assertEquals(3.0, meterRegistry.get("blog.post-index.posts").gauge().value());
+
+        postIndexService.onPostSaved(metadata(springPost, java, Set.of(spring, beginner)), PostStatus.PUBLISHED);
+        assertEquals(Set.of(springPost), find(PostFilter.builder().allTags(Set.of(beginner)).build()));
+    }
+
+    private Set<UUID> find(PostFilter filter) {
+        List<UUID> postIds = postIndexService.findPostIds(filter);
+        assertEquals(postIds.size(), Set.copyOf(postIds).size());
+        return Set.copyOf(postIds);
+    }
+
+    private PostMetadata metadata(UUID postId, UUID categoryId, Set<UUID> tagIds) {
+        return PostMetadata.builder()
+            .id(postId)
+            .title("Post")
+            .categoryId(categoryId)
+            .tagIds(tagIds)
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+}
@@ -0,0 +1,202 @@
+package com.stasiu.blog.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.dtos.PostRevisionSummaryDto;
+import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.PostRevision;
+import com.stasiu.blog.domain.entities.User;
+import com.stasiu.blog.repositories.CategoryRepository;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.repositories.PostRevisionRepository;
+import com.stasiu.blog.repositories.UserRepository;
+import com.stasiu.blog.services.implementation.PostRevisionServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:revisiondb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "blog.revisions.keyframe-interval=" + PostRevisionServiceImplTest.KEYFRAME_INTERVAL
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PostRevisionServiceImplTest {
+
+    static final int KEYFRAME_INTERVAL = 4;
+
+    @Autowired
+    private PostRevisionService postRevisionService;
+
+    @Autowired
+    private PostRevisionRepository postRevisionRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User author;
+    private Category category;
+
+    @BeforeAll
+    void seed() {
+        author = userRepository.save(User.builder()
+            .name("Revision author")
+            .email("revision-author@example.com")
+            .password("password")
+            .posts(new ArrayList<>())
+            .build());
+        category = categoryRepository.save(Category.builder().name("Revisions").posts(new ArrayList<>()).build());
+    }
+
+    @Test
+    void shouldRebuildEveryRevisionAcrossTheDeltaChain() {
+        UUID postId = createPost();
+        List<String> contents = recordRevisions(postId, 2 * KEYFRAME_INTERVAL + 1);
+
+        PostRevisionService coldService = coldService();
+        for(int number = 1; number <= contents.size(); number++) {
+            assertEquals(contents.get(number - 1), content(coldService, postId, number), "revision " + number);
+        }
+    }
+
+    @Test
+    void shouldStartFromTheNewestCachedRevisionOfTheChain() {
+        UUID postId = createPost();
+        List<String> contents = recordRevisions(postId, KEYFRAME_INTERVAL);
+        PostRevisionService service = coldService();
+        assertEquals(contents.get(2), content(service, postId, 3));
+
+        // Revision 2 can no longer be inflated, so only a rebuild that starts after it succeeds.
+        transactionTemplate.executeWithoutResult(status -> {
+            PostRevision revision = postRevisionRepository.findChain(postId, 2, 2).get(0);
+            revision.setData(new byte[] {1, 2, 3});
+        });
+
+        assertEquals(contents.get(3), content(service, postId, 4));
+        assertThrows(UncheckedIOException.class, () -> content(coldService(), postId, 4));
+    }
+
+    @Test
+    void shouldStoreAKeyframeEveryIntervalAndWhenTheDeltaIsNotSmaller() {
+        UUID postId = createPost();
+        recordRevisions(postId, 2 * KEYFRAME_INTERVAL + 1);
+        postRevisionService.recordRevision(postId, "Rewritten", "x");
+
+        List<Integer> keyframes = postRevisionRepository.findSummaries(postId, Integer.MAX_VALUE, Limit.unlimited())
+            .stream()
+            .filter(PostRevisionSummaryDto::isKeyframe)
+            .map(PostRevisionSummaryDto::getNumber)
+            .sorted()
+            .toList();
+
+        assertEquals(List.of(1, KEYFRAME_INTERVAL + 1, 2 * KEYFRAME_INTERVAL + 1, 2 * KEYFRAME_INTERVAL + 2), keyframes);
+        assertEquals("x", content(coldService(), postId, 2 * KEYFRAME_INTERVAL + 2));
+    }
+
+    @Test
+    void shouldNumberConcurrentSavesWithoutGapsOrDuplicates() throws Exception {
+        UUID postId = createPost();
+        int saves = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for(int i = 0; i < saves; i++) {
+                String content = content(i);
+                futures.add(executor.submit(() -> postRevisionService.recordRevision(postId, "Concurrent", content)));
+            }
+            for(Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Integer> numbers = postRevisionRepository.findSummaries(postId, Integer.MAX_VALUE, Limit.unlimited())
+            .stream()
+            .map(PostRevisionSummaryDto::getNumber)
+            .sorted()
+            .toList();
+        assertEquals(IntStream.rangeClosed(1, saves).boxed().toList(), numbers);
+        assertEquals(saves, postRepository.findRevisionNumber(postId));
+
+        // Every stored delta was taken against the revision numbered one less, so all of them rebuild.
+        PostRevisionService coldService = coldService();
+        HashSet<String> rebuilt = new HashSet<>();
+        for(int number = 1; number <= saves; number++) {
+            rebuilt.add(content(coldService, postId, number));
+        }
+        assertEquals(IntStream.range(0, saves).mapToObj(PostRevisionServiceImplTest::content).collect(Collectors.toSet()), rebuilt);
+    }
+
+    private UUID createPost() {
+        return postRepository.save(Post.builder()
+            .title("Revised post")
+            .content("")
+            .status(PostStatus.DRAFT)
+            .readingTime(1)
+            .author(author)
+            .category(category)
+            .tags(new HashSet<>())
+            .build()).getId();
+    }
+
+    private List<String> recordRevisions(UUID postId, int count) {
+        List<String> contents = new ArrayList<>();
+        for(int i = 0; i < count; i++) {
+            String content = content(i);
+            postRevisionService.recordRevision(postId, "Revision " + (i + 1), content);
+            contents.add(content);
+        }
+        return contents;
+    }
+
+    // A service with an empty cache, so every read rebuilds from the stored revisions.
+    private PostRevisionService coldService() {
+        return new PostRevisionServiceImpl(postRevisionRepository, postRepository, new SimpleMeterRegistry(),
+            KEYFRAME_INTERVAL, DataSize.ofMegabytes(1));
+    }
+
+    private String content(PostRevisionService service, UUID postId, int number) {
+        return transactionTemplate.execute(status -> service.getRevision(postId, author.getId(), number).getContent());
+    }
+
+    private static String content(int edit) {
+        StringBuilder content = new StringBuilder();
+        for(int paragraph = 0; paragraph < 20; paragraph++) {
+            content.append("Paragraph ").append(paragraph).append(" of a post that is edited a little at a time.\n");
+            if(paragraph == edit % 20) {
+                content.append("Edit number ").append(edit).append(".\n");
+            }
+        }
+        return content.toString();
+    }
+}
@@ -0,0 +1,125 @@
+package com.stasiu.blog.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+
+import com.stasiu.blog.domain.CreatePostRequest;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.dtos.ArchiveMonthDto;
+import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.domain.entities.Comment;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.User;
+import com.stasiu.blog.repositories.ArchiveMonthRepository;
+import com.stasiu.blog.repositories.CategoryRepository;
+import com.stasiu.blog.repositories.CommentRepository;
+import com.stasiu.blog.repositories.PostRevisionRepository;
+import com.stasiu.blog.repositories.UserRepository;
+
+// The poller is held off so that the test decides when the outbox is dispatched.
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:postservicedb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "blog.outbox.poll-interval-ms=3600000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PostServiceImplTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private ArchiveMonthRepository archiveMonthRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PostRevisionRepository postRevisionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private User author;
+
+    @BeforeAll
+    void seed() {
+        author = userRepository.save(User.builder()
+            .name("Post author")
+            .email("post-author@example.com")
+            .password("password")
+            .posts(new ArrayList<>())
+            .build());
+    }
+
+    @Test
+    void shouldCountPublishedPostsInTheArchiveOnceTheOutboxIsDispatched() {
+        Category category = category("Counted");
+        postService.createPost(author, request(category, PostStatus.PUBLISHED));
+        postService.createPost(author, request(category, PostStatus.DRAFT));
+        assertEquals(List.of(), archiveMonthRepository.findMonthsByCategory(category.getId()));
+
+        outboxService.dispatch();
+        assertEquals(List.of(1L), postCounts(category));
+
+        // A second dispatch finds nothing left to deliver, so nothing is counted twice.
+        outboxService.dispatch();
+        assertEquals(List.of(1L), postCounts(category));
+    }
+
+    @Test
+    void shouldRemoveTheCommentsRevisionsAndArchiveCountOfADeletedPost() {
+        Category category = category("Deleted");
+        Post post = postService.createPost(author, request(category, PostStatus.PUBLISHED));
+        Comment comment = commentService.createComment(post.getId(), author, null, "A comment");
+        outboxService.dispatch();
+
+        postService.deletePost(post.getId());
+        assertTrue(commentRepository.findByIdAndPostId(comment.getId(), post.getId()).isPresent());
+
+        outboxService.dispatch();
+        assertTrue(commentRepository.findByIdAndPostId(comment.getId(), post.getId()).isEmpty());
+        assertTrue(postRevisionRepository.findSummaries(post.getId(), Integer.MAX_VALUE, Limit.unlimited()).isEmpty());
+        assertEquals(List.of(), postCounts(category));
+    }
+
+    private Category category(String name) {
+        return categoryRepository.save(Category.builder()
+            .name(name + " " + UUID.randomUUID())
+            .posts(new ArrayList<>())
+            .build());
+    }
+
+    private List<Long> postCounts(Category category) {
+        return archiveMonthRepository.findMonthsByCategory(category.getId()).stream()
+            .map(ArchiveMonthDto::getPostCount)
+            .toList();
+    }
+
+    private static CreatePostRequest request(Category category, PostStatus status) {
+        return CreatePostRequest.builder()
+            .title("Post with side effects")
+            .content("Some content")
+            .categoryId(category.getId())
+            .status(status)
+            .build();
+    }
+}
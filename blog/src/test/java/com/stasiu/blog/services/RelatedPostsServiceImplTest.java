@@ -0,0 +1,133 @@
+package com.stasiu.blog.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.stasiu.blog.domain.PostMetadata;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.dtos.RelatedPostDto;
+import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.Tag;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.services.implementation.RelatedPostsServiceImpl;
+
+class RelatedPostsServiceImplTest {
+
+    private RelatedPostsServiceImpl relatedPostsService;
+    private Category java;
+    private Category travel;
+    private Tag spring;
+    private Tag hibernate;
+    private Tag common;
+
+    @BeforeEach
+    void setUp() {
+        relatedPostsService = new RelatedPostsServiceImpl(mock(PostRepository.class), 10);
+        java = Category.builder().id(UUID.randomUUID()).name("Java").build();
+        travel = Category.builder().id(UUID.randomUUID()).name("Travel").build();
+        spring = Tag.builder().id(UUID.randomUUID()).name("spring").build();
+        hibernate = Tag.builder().id(UUID.randomUUID()).name("hibernate").build();
+        common = Tag.builder().id(UUID.randomUUID()).name("common").build();
+    }
+
+    @Test
+    void shouldRankRareSharedTagsAboveCommonOnes() {
+        Post post = publishedPost(travel, Set.of(spring, common));
+        Post sharesRareTag = publishedPost(travel, Set.of(spring));
+        Post sharesCommonTag = publishedPost(travel, Set.of(common));
+        Post alsoCommon = publishedPost(java, Set.of(common));
+        save(post, sharesRareTag, sharesCommonTag, alsoCommon);
+
+        List<RelatedPostDto> related = relatedPostsService.getRelatedPosts(post.getId(), 10);
+
+        assertEquals(List.of(sharesRareTag.getId(), sharesCommonTag.getId(), alsoCommon.getId()), ids(related));
+        assertTrue(related.get(0).getScore() > related.get(1).getScore());
+    }
+
+    @Test
+    void shouldIncludeNewestPostsOfSameCategory() {
+        Post post = publishedPost(java, Set.of(spring));
+        Post older = publishedPost(java, Set.of(), LocalDateTime.now().minusDays(2));
+        Post newer = publishedPost(java, Set.of(), LocalDateTime.now().minusDays(1));
+        Post otherCategory = publishedPost(travel, Set.of());
+        save(post, older, newer, otherCategory);
+
+        assertEquals(List.of(newer.getId()), ids(relatedPostsService.getRelatedPosts(post.getId(), 1)));
+        assertEquals(List.of(newer.getId(), older.getId()), ids(relatedPostsService.getRelatedPosts(post.getId(), 10)));
+    }
+
+    @Test
+    void shouldUpdateNeighboursWhenTagsChange() {
+        Post post = publishedPost(travel, Set.of(spring));
+        Post other = publishedPost(java, Set.of(spring));
+        save(post, other);
+        assertEquals(List.of(post.getId()), ids(relatedPostsService.getRelatedPosts(other.getId(), 10)));
+
+        post.setTags(Set.of(hibernate));
+        relatedPostsService.onPostSaved(PostMetadata.from(post), post.getStatus());
+
+        assertTrue(relatedPostsService.getRelatedPosts(other.getId(), 10).isEmpty());
+        assertTrue(relatedPostsService.getRelatedPosts(post.getId(), 10).isEmpty());
+    }
+
+    @Test
+    void shouldDropPostWhenDeletedOrUnpublished() {
+        Post post = publishedPost(java, Set.of(spring));
+        Post draft = publishedPost(java, Set.of(spring));
+        Post other = publishedPost(java, Set.of(spring));
+        save(post, draft, other);
+
+        relatedPostsService.onPostDeleted(post.getId());
+        draft.setStatus(PostStatus.DRAFT);
+        relatedPostsService.onPostSaved(PostMetadata.from(draft), draft.getStatus());
+
+        assertTrue(relatedPostsService.getRelatedPosts(other.getId(), 10).isEmpty());
+        assertTrue(relatedPostsService.getRelatedPosts(post.getId(), 10).isEmpty());
+    }
+
+    @Test
+    void shouldReturnCurrentTitleAfterRename() {
+        Post post = publishedPost(java, Set.of(spring));
+        Post other = publishedPost(java, Set.of(spring));
+        save(post, other);
+
+        post.setTitle("Renamed");
+        relatedPostsService.onPostSaved(PostMetadata.from(post), post.getStatus());
+
+        assertEquals("Renamed", relatedPostsService.getRelatedPosts(other.getId(), 10).get(0).getTitle());
+    }
+
+    private void save(Post... posts) {
+        for(Post post : posts) {
+            relatedPostsService.onPostSaved(PostMetadata.from(post), post.getStatus());
+        }
+    }
+
+    private List<UUID> ids(List<RelatedPostDto> related) {
+        return related.stream().map(RelatedPostDto::getId).toList();
+    }
+
+    private Post publishedPost(Category category, Set<Tag> tags) {
+        return publishedPost(category, tags, LocalDateTime.now());
+    }
+
+    private Post publishedPost(Category category, Set<Tag> tags, LocalDateTime createdAt) {
+        return Post.builder()
+            .id(UUID.randomUUID())
+            .title("Post")
+            .status(PostStatus.PUBLISHED)
+            .category(category)
+            .tags(tags)
+            .createdAt(createdAt)
+            .build();
+    }
+}
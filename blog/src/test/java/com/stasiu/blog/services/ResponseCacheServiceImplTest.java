@@ -0,0 +1,100 @@
+package com.stasiu.blog.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.stasiu.blog.domain.CachedResponse;
+import com.stasiu.blog.domain.ResponseCacheTags;
+import com.stasiu.blog.services.implementation.ResponseCacheServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ResponseCacheServiceImplTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ResponseCacheServiceImpl responseCacheService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        responseCacheService = new ResponseCacheServiceImpl(meterRegistry, DataSize.ofMegabytes(1), Duration.ofMinutes(10), Duration.ofMinutes(5));
+    }
+
+    @Test
+    void shouldEvictOnlyResponsesThatDependOnTheChangedTag() {
+        UUID categoryId = UUID.randomUUID();
+        UUID otherCategoryId = UUID.randomUUID();
+        store("/api/v1/posts?categoryId=" + categoryId, ResponseCacheTags.category(categoryId));
+        store("/api/v1/posts?categoryId=" + otherCategoryId, ResponseCacheTags.category(otherCategoryId));
+        store("/api/v1/tags", ResponseCacheTags.TAGS);
+
+        responseCacheService.onInvalidation(Set.of(ResponseCacheTags.category(categoryId)), false);
+
+        assertTrue(responseCacheService.get("/api/v1/posts?categoryId=" + categoryId).isEmpty());
+        assertTrue(responseCacheService.get("/api/v1/posts?categoryId=" + otherCategoryId).isPresent());
+        assertTrue(responseCacheService.get("/api/v1/tags").isPresent());
+        assertEquals(1.0, meterRegistry.get("blog.response-cache.evictions").counter().count());
+    }
+
+    @Test
+    void shouldDropEveryResponseOnAFullFlush() {
+        store("/api/v1/categories", ResponseCacheTags.CATEGORIES);
+        store("/api/v1/tags", ResponseCacheTags.TAGS);
+        long generation = responseCacheService.generation();
+
+        responseCacheService.onFullFlush();
+
+        assertTrue(responseCacheService.get("/api/v1/categories").isEmpty());
+        assertTrue(responseCacheService.get("/api/v1/tags").isEmpty());
+        assertTrue(responseCacheService.getStale("/api/v1/tags").isPresent());
+        assertNotEquals(generation, responseCacheService.generation());
+    }
+
+    @Test
+    void shouldKeepEvictedResponsesAsStaleCopies() {
+        store("/api/v1/tags", ResponseCacheTags.TAGS);
+        assertTrue(responseCacheService.getStale("/api/v1/tags").isEmpty());
+
+        responseCacheService.onInvalidation(Set.of(ResponseCacheTags.TAGS), false);
+
+        assertTrue(responseCacheService.get("/api/v1/tags").isEmpty());
+        assertTrue(responseCacheService.getStale("/api/v1/tags").isPresent());
+        assertEquals(1.0, meterRegistry.get("blog.response-cache.stale.served").counter().count());
+    }
+
+    @Test
+    void shouldNotStoreResponsesRenderedBeforeAnEviction() {
+        long generation = responseCacheService.generation();
+        responseCacheService.onInvalidation(Set.of(ResponseCacheTags.POSTS), false);
+
+        responseCacheService.put("/api/v1/posts", response(ResponseCacheTags.POSTS), generation);
+
+        assertTrue(responseCacheService.get("/api/v1/posts").isEmpty());
+    }
+
+    @Test
+    void shouldReportTheHitRatio() {
+        store("/api/v1/tags", ResponseCacheTags.TAGS);
+
+        responseCacheService.get("/api/v1/tags");
+        responseCacheService.get("/api/v1/categories");
+
+        assertEquals(0.5, meterRegistry.get("blog.response-cache.hit.ratio").gauge().value());
+    }
+
+    private void store(String key, String tag) {
+        responseCacheService.put(key, response(tag), responseCacheService.generation());
+    }
+
+    private CachedResponse response(String tag) {
+        return new CachedResponse("[]".getBytes(StandardCharsets.UTF_8), "application/json", Set.of(tag));
+    }
+}
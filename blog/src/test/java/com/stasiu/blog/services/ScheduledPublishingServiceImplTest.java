@@ -0,0 +1,94 @@
+package com.stasiu.blog.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.ScheduledPublication;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.services.implementation.PostSchedulerImpl;
+import com.stasiu.blog.services.implementation.ScheduledPublishingServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ScheduledPublishingServiceImplTest {
+
+    private PostService postService;
+    private PostRepository postRepository;
+    private PostSchedulerImpl postScheduler;
+    private ScheduledPublishingServiceImpl publishingService;
+
+    @BeforeEach
+    void setUp() {
+        postService = mock(PostService.class);
+        postRepository = mock(PostRepository.class);
+        postScheduler = new PostSchedulerImpl(Duration.ofSeconds(1), new SimpleMeterRegistry());
+        publishingService = new ScheduledPublishingServiceImpl(postService, postRepository, postScheduler,
+            new SimpleMeterRegistry(), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void shouldPublishPostsThatFellDueWhileTheApplicationWasDown() {
+        UUID overdue = UUID.randomUUID();
+        UUID upcoming = UUID.randomUUID();
+        when(postRepository.findScheduledPublications(PostStatus.SCHEDULED)).thenReturn(List.of(
+            new ScheduledPublication(overdue, Instant.now().minusSeconds(3600)),
+            new ScheduledPublication(upcoming, Instant.now().plusSeconds(3600))));
+        when(postService.publishScheduled(any())).thenReturn(true);
+
+        assertEquals(2, publishingService.reload());
+        assertEquals(1, publishingService.publishDue());
+
+        verify(postService).publishScheduled(overdue);
+        verify(postService, never()).publishScheduled(upcoming);
+    }
+
+    @Test
+    void shouldRetryAPublicationThatFailed() {
+        UUID postId = UUID.randomUUID();
+        postScheduler.schedule(postId, Instant.now().minusSeconds(1));
+        when(postService.publishScheduled(postId)).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertEquals(0, publishingService.publishDue());
+        assertEquals(0, publishingService.publishDue());
+        assertEquals(List.of(postId), postScheduler.takeDue(Instant.now().plusSeconds(31)));
+        verify(postService, times(1)).publishScheduled(postId);
+    }
+
+    @Test
+    void shouldPublishTheOtherDuePostsWhenOneFails() {
+        UUID failing = UUID.randomUUID();
+        UUID due = UUID.randomUUID();
+        postScheduler.schedule(failing, Instant.now().minusSeconds(2));
+        postScheduler.schedule(due, Instant.now().minusSeconds(1));
+        when(postService.publishScheduled(failing)).thenThrow(new IllegalStateException("broken post"));
+        when(postService.publishScheduled(due)).thenReturn(true);
+
+        assertEquals(1, publishingService.publishDue());
+
+        verify(postService).publishScheduled(due);
+        assertEquals(List.of(failing), postScheduler.takeDue(Instant.now().plusSeconds(31)));
+    }
+
+    @Test
+    void shouldNotLetAReloadDelayAReminder() {
+        UUID postId = UUID.randomUUID();
+        postScheduler.schedule(postId, Instant.now().plusSeconds(10));
+        when(postRepository.findScheduledPublications(PostStatus.SCHEDULED))
+            .thenReturn(List.of(new ScheduledPublication(postId, Instant.now().plusSeconds(3600))));
+
+        publishingService.reload();
+
+        assertEquals(List.of(postId), postScheduler.takeDue(Instant.now().plusSeconds(11)));
+    }
+}
@@ -0,0 +1,158 @@
+package com.stasiu.blog.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.ResponseCacheTags;
+import com.stasiu.blog.domain.SnapshotResource;
+import com.stasiu.blog.domain.dtos.CategoryDto;
+import com.stasiu.blog.domain.dtos.PostDto;
+import com.stasiu.blog.domain.dtos.TagResponse;
+import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.Tag;
+import com.stasiu.blog.mappers.CategoryMapper;
+import com.stasiu.blog.mappers.PostMapper;
+import com.stasiu.blog.mappers.TagMapper;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.services.implementation.InMemoryInvalidationTransport;
+import com.stasiu.blog.services.implementation.InvalidationBusImpl;
+import com.stasiu.blog.services.implementation.SnapshotServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SnapshotServiceImplTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final Category category = Category.builder().id(UUID.randomUUID()).name("Java").build();
+    private final Tag tag = Tag.builder().id(UUID.randomUUID()).name("jvm").build();
+    private final Post post = Post.builder().id(UUID.randomUUID()).title("Post").category(category).tags(Set.of(tag)).build();
+
+    private PostRepository postRepository;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        when(postRepository.findAllByStatus(PostStatus.PUBLISHED)).thenReturn(List.of(post));
+    }
+
+    @Test
+    void shouldWriteEveryPublicDocumentAndSwitchToTheNewVersion() throws Exception {
+        SnapshotServiceImpl snapshotService = snapshotService();
+
+        assertTrue(snapshotService.regenerate());
+
+        SnapshotResource detail = snapshotService.find("/api/v1/posts/" + post.getId()).orElseThrow();
+        assertEquals("Post", objectMapper.readTree(detail.path().toFile()).get("title").asText());
+        assertEquals(Files.size(detail.path()), detail.size());
+        assertEquals(1, objectMapper.readTree(snapshotService.find("/api/v1/posts").orElseThrow().path().toFile()).size());
+        assertEquals(1, objectMapper.readTree(snapshotService.find("/api/v1/posts?categoryId=" + category.getId()).orElseThrow().path().toFile()).size());
+        assertEquals(1, objectMapper.readTree(snapshotService.find("/api/v1/posts?tagId=" + tag.getId()).orElseThrow().path().toFile()).size());
+        assertTrue(snapshotService.find("/api/v1/categories").isPresent());
+        assertTrue(snapshotService.find("/api/v1/tags").isPresent());
+        assertTrue(snapshotService.find("/api/v1/posts/" + UUID.randomUUID()).isEmpty());
+        assertEquals(detail.path().getParent().getFileName().toString(), Files.readString(directory.resolve("current")));
+    }
+
+    @Test
+    void shouldKeepServingTheLastSnapshotWhenTheDatabaseIsDown() throws Exception {
+        snapshotService().regenerate();
+        when(postRepository.findAllByStatus(PostStatus.PUBLISHED)).thenThrow(new DataAccessResourceFailureException("database is down"));
+
+        SnapshotServiceImpl restarted = snapshotService();
+        restarted.loadSnapshot();
+
+        assertFalse(restarted.regenerate());
+        assertTrue(restarted.find("/api/v1/posts/" + post.getId()).isPresent());
+    }
+
+    @Test
+    void shouldKeepOnlyTheLatestVersions() throws Exception {
+        SnapshotServiceImpl snapshotService = snapshotService();
+        for(int i = 0; i < 4; i++) {
+            assertTrue(snapshotService.regenerate());
+        }
+
+        try(Stream<Path> versions = Files.list(directory).filter(Files::isDirectory)) {
+            assertEquals(2, versions.count());
+        }
+        assertTrue(Files.exists(snapshotService.find("/api/v1/posts").orElseThrow().path()));
+    }
+
+    @Test
+    void shouldRegenerateOnEveryNodeAfterAChangeOnAnyOfThem() {
+        InMemoryInvalidationTransport transport = new InMemoryInvalidationTransport();
+        SnapshotServiceImpl writing = snapshotService(directory.resolve("writing"), Duration.ZERO);
+        SnapshotServiceImpl other = snapshotService(directory.resolve("other"), Duration.ZERO);
+        InvalidationBusImpl writingBus = new InvalidationBusImpl(transport, List.of(writing), new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+        new InvalidationBusImpl(transport, List.of(other), new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+
+        writingBus.publishAfterCommit(List.of(ResponseCacheTags.POSTS, ResponseCacheTags.post(post.getId())));
+        writing.regenerateIfStale();
+        other.regenerateIfStale();
+        assertTrue(writing.find("/api/v1/posts").isPresent());
+        assertTrue(other.find("/api/v1/posts").isEmpty());
+
+        writingBus.flush();
+        other.regenerateIfStale();
+        assertTrue(other.find("/api/v1/posts/" + post.getId()).isPresent());
+    }
+
+    private SnapshotServiceImpl snapshotService() {
+        return snapshotService(directory, Duration.ofSeconds(2));
+    }
+
+    private SnapshotServiceImpl snapshotService(Path directory, Duration debounce) {
+        CategoryService categoryService = mock(CategoryService.class);
+        when(categoryService.listCategories()).thenReturn(List.of(category));
+        TagService tagService = mock(TagService.class);
+        when(tagService.getTags()).thenReturn(List.of(tag));
+        PostMapper postMapper = mock(PostMapper.class);
+        when(postMapper.toDto(any(Post.class))).thenAnswer(call -> {
+            Post mapped = call.getArgument(0);
+            return PostDto.builder().id(mapped.getId()).title(mapped.getTitle()).build();
+        });
+        CategoryMapper categoryMapper = mock(CategoryMapper.class);
+        when(categoryMapper.toDto(any())).thenReturn(CategoryDto.builder().id(category.getId()).name("Java").build());
+        TagMapper tagMapper = mock(TagMapper.class);
+        when(tagMapper.toTagResponse(any())).thenReturn(TagResponse.builder().id(tag.getId()).name("jvm").build());
+
+        return new SnapshotServiceImpl(
+            postRepository,
+            categoryService,
+            tagService,
+            postMapper,
+            categoryMapper,
+            tagMapper,
+            objectMapper,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            new SimpleMeterRegistry(),
+            true,
+            directory,
+            debounce,
+            Duration.ofSeconds(30)
+        );
+    }
+}
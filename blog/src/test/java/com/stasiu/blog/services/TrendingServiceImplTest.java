@@ -0,0 +1,121 @@
+package com.stasiu.blog.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.stasiu.blog.domain.EngagementType;
+import com.stasiu.blog.domain.PostMetadata;
+import com.stasiu.blog.domain.PostStatus;
+import com.stasiu.blog.domain.dtos.TrendingPostDto;
+import com.stasiu.blog.domain.entities.Category;
+import com.stasiu.blog.domain.entities.Post;
+import com.stasiu.blog.domain.entities.Tag;
+import com.stasiu.blog.repositories.PostRepository;
+import com.stasiu.blog.repositories.PostTrendingScoreRepository;
+import com.stasiu.blog.services.implementation.TrendingServiceImpl;
+
+class TrendingServiceImplTest {
+
+    private TrendingServiceImpl trendingService;
+    private Category java;
+    private Category travel;
+    private Tag spring;
+
+    @BeforeEach
+    void setUp() {
+        trendingService = new TrendingServiceImpl(
+            mock(PostRepository.class),
+            mock(PostTrendingScoreRepository.class),
+            mock(TransactionTemplate.class),
+            24,
+            0.05
+        );
+        java = Category.builder().id(UUID.randomUUID()).name("Java").build();
+        travel = Category.builder().id(UUID.randomUUID()).name("Travel").build();
+        spring = Tag.builder().id(UUID.randomUUID()).name("spring").build();
+    }
+
+    @Test
+    void shouldRankPostsByEngagement() {
+        Post first = publishedPost(java, Set.of(spring));
+        Post second = publishedPost(travel, Set.of());
+        save(first);
+        save(second);
+
+        view(first, 2);
+        view(second, 5);
+
+        List<TrendingPostDto> trending = trendingService.getTrending(null, null, 10);
+        assertEquals(List.of(second.getId(), first.getId()), trending.stream().map(TrendingPostDto::getId).toList());
+        assertEquals(5.0, trending.get(0).getScore(), 0.01);
+    }
+
+    @Test
+    void shouldFilterByCategoryAndTag() {
+        Post javaPost = publishedPost(java, Set.of(spring));
+        Post travelPost = publishedPost(travel, Set.of());
+        save(javaPost);
+        save(travelPost);
+        view(javaPost, 1);
+        view(travelPost, 3);
+
+        assertEquals(List.of(javaPost.getId()), ids(trendingService.getTrending(java.getId(), null, 10)));
+        assertEquals(List.of(javaPost.getId()), ids(trendingService.getTrending(null, spring.getId(), 10)));
+        assertEquals(List.of(), ids(trendingService.getTrending(travel.getId(), spring.getId(), 10)));
+    }
+
+    @Test
+    void shouldMovePostWhenCategoryChangesAndDropItWhenUnpublished() {
+        Post post = publishedPost(java, Set.of());
+        save(post);
+        view(post, 1);
+
+        post.setCategory(travel);
+        save(post);
+        assertTrue(trendingService.getTrending(java.getId(), null, 10).isEmpty());
+        assertEquals(List.of(post.getId()), ids(trendingService.getTrending(travel.getId(), null, 10)));
+
+        post.setStatus(PostStatus.DRAFT);
+        save(post);
+        assertTrue(trendingService.getTrending(null, null, 10).isEmpty());
+    }
+
+    @Test
+    void shouldIgnoreEngagementOnUnknownPosts() {
+        trendingService.recordEngagement(UUID.randomUUID(), EngagementType.VIEW);
+
+        assertTrue(trendingService.getTrending(null, null, 10).isEmpty());
+    }
+
+    private void save(Post post) {
+        trendingService.onPostSaved(PostMetadata.from(post), post.getStatus());
+    }
+
+    private void view(Post post, int times) {
+        for(int i = 0; i < times; i++) {
+            trendingService.recordEngagement(post.getId(), EngagementType.VIEW);
+        }
+    }
+
+    private List<UUID> ids(List<TrendingPostDto> trending) {
+        return trending.stream().map(TrendingPostDto::getId).toList();
+    }
+
+    private Post publishedPost(Category category, Set<Tag> tags) {
+        return Post.builder()
+            .id(UUID.randomUUID())
+            .title("Post")
+            .status(PostStatus.PUBLISHED)
+            .category(category)
+            .tags(tags)
+            .build();
+    }
+}
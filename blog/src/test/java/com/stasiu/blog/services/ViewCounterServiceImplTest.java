@@ -0,0 +1,113 @@
+package com.stasiu.blog.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.stasiu.blog.domain.PostViewDelta;
+import com.stasiu.blog.repositories.PostDailyViewsRepository;
+import com.stasiu.blog.services.implementation.ViewCounterServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class ViewCounterServiceImplTest {
+
+    @Mock
+    private PostDailyViewsRepository postDailyViewsRepository;
+
+    @InjectMocks
+    private ViewCounterServiceImpl viewCounterService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFlushAggregatedViewsOnlyOnce() {
+        UUID postId = UUID.randomUUID();
+        viewCounterService.recordView(postId);
+        viewCounterService.recordView(postId);
+        viewCounterService.recordView(postId);
+
+        assertEquals(1, viewCounterService.flush());
+        assertEquals(0, viewCounterService.flush());
+
+        ArgumentCaptor<List<PostViewDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(postDailyViewsRepository, times(1)).incrementViews(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(postId, captor.getValue().get(0).getPostId());
+        assertEquals(3, captor.getValue().get(0).getViews());
+    }
+
+    @Test
+    void shouldDropTheViewsOfADeletedPost() {
+        UUID postId = UUID.randomUUID();
+        viewCounterService.recordView(postId);
+
+        viewCounterService.deleteAllForPost(postId);
+
+        assertEquals(0, viewCounterService.flush());
+        verify(postDailyViewsRepository).deleteAllByPostId(postId);
+        verify(postDailyViewsRepository, never()).incrementViews(anyList());
+    }
+
+    @Test
+    void shouldDeleteTheViewsOfAPostOnlyAfterAFlushInProgress() throws Exception {
+        UUID postId = UUID.randomUUID();
+        viewCounterService.recordView(postId);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return null;
+        }).when(postDailyViewsRepository).incrementViews(anyList());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            executor.submit(viewCounterService::flush);
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            Future<?> delete = executor.submit(() -> viewCounterService.deleteAllForPost(postId));
+            assertThrows(TimeoutException.class, () -> delete.get(100, TimeUnit.MILLISECONDS));
+            verify(postDailyViewsRepository, never()).deleteAllByPostId(postId);
+
+            release.countDown();
+            delete.get(5, TimeUnit.SECONDS);
+            verify(postDailyViewsRepository).deleteAllByPostId(postId);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldKeepViewsWhenFlushFails() {
+        UUID postId = UUID.randomUUID();
+        viewCounterService.recordView(postId);
+        doThrow(new DataAccessResourceFailureException("database down"))
+            .doNothing()
+            .when(postDailyViewsRepository).incrementViews(anyList());
+
+        assertEquals(0, viewCounterService.flush());
+        viewCounterService.recordView(postId);
+        assertEquals(1, viewCounterService.flush());
+
+        ArgumentCaptor<List<PostViewDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(postDailyViewsRepository, times(2)).incrementViews(captor.capture());
+        assertEquals(2, captor.getAllValues().get(1).get(0).getViews());
+    }
+}
@@ -0,0 +1,29 @@
+package com.stasiu.blog.support;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+
+/**
+ * Counts the statements issued on the current thread through the datasource wrapped by
+ * {@link QueryCountConfiguration}. MockMvc dispatches on the calling thread, so a request's
+ * statements can be measured between {@link #reset()} and the assertion.
+ */
+public final class QueryCounter {
+
+    private QueryCounter() {
+    }
+
+    public static void reset() {
+        QueryCountHolder.clear();
+    }
+
+    public static void assertStatements(long expected, String description) {
+        QueryCount count = QueryCountHolder.getGrandTotal();
+        assertEquals(expected, count.getTotal(), () -> String.format(
+            "%s issued %d statements (select=%d, insert=%d, update=%d, delete=%d, other=%d)",
+            description, count.getTotal(), count.getSelect(), count.getInsert(), count.getUpdate(),
+            count.getDelete(), count.getOther()));
+    }
+}
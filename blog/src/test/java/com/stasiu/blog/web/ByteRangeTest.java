@@ -0,0 +1,35 @@
+package com.stasiu.blog.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+class ByteRangeTest {
+
+    @Test
+    void shouldResolveSingleRangesAgainstTheFileSize() {
+        assertEquals(Optional.of(new ByteRange(0, 99)), ByteRange.parse("bytes=0-99", 1000));
+        assertEquals(Optional.of(new ByteRange(500, 999)), ByteRange.parse("bytes=500-", 1000));
+        assertEquals(Optional.of(new ByteRange(900, 999)), ByteRange.parse("bytes=-100", 1000));
+        assertEquals(Optional.of(new ByteRange(0, 999)), ByteRange.parse("bytes=-5000", 1000));
+        assertEquals(Optional.of(new ByteRange(990, 999)), ByteRange.parse("bytes=990-2000", 1000));
+        assertEquals(100, ByteRange.parse("bytes=0-99", 1000).orElseThrow().length());
+    }
+
+    @Test
+    void shouldSendTheWholeFileForMissingInvalidOrMultipleRanges() {
+        assertTrue(ByteRange.parse(null, 1000).isEmpty());
+        assertTrue(ByteRange.parse("items=0-1", 1000).isEmpty());
+        assertTrue(ByteRange.parse("bytes=0-1,5-6", 1000).isEmpty());
+        assertTrue(ByteRange.parse("bytes=9-1", 1000).isEmpty());
+        assertTrue(ByteRange.parse("bytes=a-b", 1000).isEmpty());
+    }
+
+    @Test
+    void shouldRejectRangesPastTheEnd() {
+        assertEquals(Optional.of(ByteRange.UNSATISFIABLE), ByteRange.parse("bytes=1000-", 1000));
+        assertEquals(Optional.of(ByteRange.UNSATISFIABLE), ByteRange.parse("bytes=-0", 1000));
+    }
+}
@@ -0,0 +1,98 @@
+package com.stasiu.blog.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldRunOneLoadForConcurrentCallersOfTheSameKey() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+        int callers = 50;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch joined = new CountDownLatch(callers);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for(int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    SingleFlight.Flight<String, String> flight = singleFlight.join("front-page");
+                    joined.countDown();
+                    if(!flight.leader()) {
+                        return flight.await();
+                    }
+                    loads.incrementAndGet();
+                    release.await();
+                    flight.complete("posts");
+                    return "posts";
+                }));
+            }
+            assertTrue(joined.await(5, TimeUnit.SECONDS));
+            release.countDown();
+            for(Future<String> result : results) {
+                assertEquals("posts", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("blog.single-flight.callers.saved").summary().count());
+        assertEquals(callers - 1, meterRegistry.get("blog.single-flight.callers.saved").summary().totalAmount());
+    }
+
+    @Test
+    void shouldStartANewFlightOnceTheLeaderHasFinished() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+
+        singleFlight.join("front-page").complete("posts");
+
+        assertTrue(singleFlight.join("front-page").leader());
+        assertTrue(singleFlight.join("other-page").leader());
+    }
+
+    @Test
+    void shouldStopWaitingAfterTheTimeout() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.ofMillis(20), meterRegistry);
+        SingleFlight.Flight<String, String> leader = singleFlight.join("front-page");
+
+        assertThrows(TimeoutException.class, () -> singleFlight.join("front-page").await());
+        assertEquals(1.0, meterRegistry.get("blog.single-flight.timeouts").counter().count());
+
+        leader.complete("posts");
+    }
+
+    @Test
+    void shouldPassTheLeadersFailureToWaitingCallers() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+        SingleFlight.Flight<String, String> leader = singleFlight.join("front-page");
+        SingleFlight.Flight<String, String> waiting = singleFlight.join("front-page");
+
+        leader.fail(new IllegalStateException("database unavailable"));
+
+        ExecutionException failure = assertThrows(ExecutionException.class, waiting::await);
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+    }
+}
@@ -0,0 +1,92 @@
+package com.stasiu.blog.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.stasiu.blog.domain.EngagementType;
+import com.stasiu.blog.domain.SnapshotResource;
+import com.stasiu.blog.services.SnapshotService;
+import com.stasiu.blog.services.TrendingService;
+import com.stasiu.blog.services.ViewCounterService;
+
+class SnapshotFilterTest {
+
+    private static final String JSON = "{\"title\":\"Post\"}";
+
+    @TempDir
+    Path directory;
+
+    private final UUID postId = UUID.randomUUID();
+    private SnapshotService snapshotService;
+    private ViewCounterService viewCounterService;
+    private TrendingService trendingService;
+    private SnapshotFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = Files.writeString(directory.resolve("0.json"), JSON);
+        snapshotService = mock(SnapshotService.class);
+        when(snapshotService.find(anyString())).thenReturn(Optional.empty());
+        when(snapshotService.find("/api/v1/posts/" + postId)).thenReturn(Optional.of(new SnapshotResource(file, "\"abc\"", JSON.length())));
+        viewCounterService = mock(ViewCounterService.class);
+        trendingService = mock(TrendingService.class);
+        filter = new SnapshotFilter(snapshotService, viewCounterService, trendingService, true);
+    }
+
+    @Test
+    void shouldStreamTheSnapshotFileAndCountTheView() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/posts/" + postId), response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(200, response.getStatus());
+        assertEquals(JSON, response.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals("\"abc\"", response.getHeader("ETag"));
+        assertEquals(JSON.length(), response.getContentLengthLong());
+        verify(viewCounterService).recordView(postId);
+        verify(trendingService).recordEngagement(postId, EngagementType.VIEW);
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForAMatchingETag() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/posts/" + postId);
+        request.addHeader("If-None-Match", "\"abc\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void shouldPassAuthenticatedAndUncoveredRequestsToTheApplication() throws Exception {
+        MockHttpServletRequest authenticated = new MockHttpServletRequest("GET", "/api/v1/posts/" + postId);
+        authenticated.addHeader("Authorization", "Bearer token");
+        MockHttpServletRequest html = new MockHttpServletRequest("GET", "/api/v1/posts/" + postId);
+        html.setParameter("format", "html");
+        MockHttpServletRequest unknown = new MockHttpServletRequest("GET", "/api/v1/posts/" + UUID.randomUUID());
+
+        for(MockHttpServletRequest request : new MockHttpServletRequest[] {authenticated, html, unknown}) {
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            assertSame(request, chain.getRequest());
+        }
+        verifyNoInteractions(viewCounterService);
+    }
+}